@@ -0,0 +1,56 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.ee;
+
+import java.util.function.Predicate;
+
+/**
+ * Determines whether a given object is immutable, memoizing per class those verdicts that depend only on the class of the object.
+ * Only well-known immutable objects and unmodifiable collections, whose elements must themselves be immutable, are tested per object.
+ */
+public class CachedImmutability implements Predicate<Object> {
+
+    private final Predicate<Object> objectImmutability;
+    private final Predicate<Object> collectionImmutability;
+    private final ClassValue<Boolean> classImmutability;
+
+    /**
+     * Creates an immutability test.
+     * @param objectImmutability tests whether a given object is a well-known immutable object, e.g. via a reference equality test
+     * @param classImmutability tests whether all instances of a given class are immutable
+     */
+    public CachedImmutability(Predicate<Object> objectImmutability, Predicate<Class<?>> classImmutability) {
+        this.objectImmutability = objectImmutability;
+        this.collectionImmutability = new CollectionImmutability(this);
+        this.classImmutability = new ClassValue<Boolean>() {
+            @Override
+            protected Boolean computeValue(Class<?> targetClass) {
+                return Boolean.valueOf(classImmutability.test(targetClass));
+            }
+        };
+    }
+
+    @Override
+    public boolean test(Object object) {
+        return this.objectImmutability.test(object) || this.classImmutability.get(object.getClass()) || this.collectionImmutability.test(object);
+    }
+}
@@ -51,6 +51,17 @@ public class CollectionImmutability implements Predicate<Object> {
                 Collections.unmodifiableSortedMap(Collections.emptySortedMap()).getClass(),
                 Collections.unmodifiableSortedSet(Collections.emptySortedSet()).getClass());
 
+    // Whether a given class is one of the above unmodifiable wrappers, computed once per class
+    private final ClassValue<Boolean> unmodifiable = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> targetClass) {
+            for (Class<?> unmodifiableClass : CollectionImmutability.this.unmodifiableClasses) {
+                if (unmodifiableClass.isAssignableFrom(targetClass)) return Boolean.TRUE;
+            }
+            return Boolean.FALSE;
+        }
+    };
+
     private final Predicate<Object> elementImmutability;
 
     public CollectionImmutability(Predicate<Object> elementImmutability) {
@@ -59,20 +70,16 @@ public class CollectionImmutability implements Predicate<Object> {
 
     @Override
     public boolean test(Object object) {
-        for (Class<?> unmodifiableClass : this.unmodifiableClasses) {
-            if (unmodifiableClass.isInstance(object)) {
-                // An unmodifiable set should be immutable.
-                if (object instanceof Set) return true;
-                // An unmodifiable collection is immutable if its members are immutable.
-                // An unmodifiable map should be immutable if its values are immutable.
-                Collection<?> collection = (object instanceof Map) ? ((Map<?, ?>) object).values() : (Collection<?>) object;
-                // This is not an expensive predicate, so there is little to gain from parallel computation
-                for (Object element : collection) {
-                    if (!this.elementImmutability.test(element)) return false;
-                }
-                return true;
-            }
+        if ((object == null) || !this.unmodifiable.get(object.getClass())) return false;
+        // An unmodifiable set should be immutable.
+        if (object instanceof Set) return true;
+        // An unmodifiable collection is immutable if its members are immutable.
+        // An unmodifiable map should be immutable if its values are immutable.
+        Collection<?> collection = (object instanceof Map) ? ((Map<?, ?>) object).values() : (Collection<?>) object;
+        // This is not an expensive predicate, so there is little to gain from parallel computation
+        for (Object element : collection) {
+            if (!this.elementImmutability.test(element)) return false;
         }
-        return false;
+        return true;
     }
 }
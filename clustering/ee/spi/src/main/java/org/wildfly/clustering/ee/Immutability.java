@@ -147,6 +147,11 @@ public enum Immutability implements Predicate<Object> {
         public boolean test(Object object) {
             return this.immutableClasses.contains(object.getClass());
         }
+
+        @Override
+        public boolean isImmutableClass(Class<?> targetClass) {
+            return this.immutableClasses.contains(targetClass);
+        }
     },
     ABSTRACT_CLASS() {
         // Interfaces and abstract classes documented to be immutable, but only detectable via instanceof tests
@@ -171,6 +176,14 @@ public enum Immutability implements Predicate<Object> {
             }
             return false;
         }
+
+        @Override
+        public boolean isImmutableClass(Class<?> targetClass) {
+            for (Class<?> immutableClass : this.immutableClasses) {
+                if (immutableClass.isAssignableFrom(targetClass)) return true;
+            }
+            return false;
+        }
     },
     COLLECTION() {
         @Override
@@ -181,18 +194,36 @@ public enum Immutability implements Predicate<Object> {
     ANNOTATION() {
         @Override
         public boolean test(Object object) {
-            return object.getClass().isAnnotationPresent(net.jcip.annotations.Immutable.class);
+            return this.isImmutableClass(object.getClass());
+        }
+
+        @Override
+        public boolean isImmutableClass(Class<?> targetClass) {
+            return targetClass.isAnnotationPresent(net.jcip.annotations.Immutable.class);
         }
     },
     ;
 
-    public static final Predicate<Object> INSTANCE = object -> {
-        // These are not an expensive predicates, so there is little to gain from parallel computation
-        for (Predicate<Object> predicate : EnumSet.allOf(Immutability.class)) {
-            if (predicate.test(object)) return true;
+    /**
+     * Indicates whether this test deems every instance of the specified class to be immutable, i.e. irrespective of the state of a given instance.
+     * @param targetClass a class
+     * @return true, if all instances of the specified class are immutable according to this test, false otherwise
+     */
+    public boolean isImmutableClass(Class<?> targetClass) {
+        return false;
+    }
+
+    /**
+     * Tests whether all instances of a given class are immutable.
+     */
+    public static final Predicate<Class<?>> CLASS_INSTANCE = targetClass -> {
+        for (Immutability immutability : EnumSet.allOf(Immutability.class)) {
+            if (immutability.isImmutableClass(targetClass)) return true;
         }
         return false;
     };
+    // Verdicts that only depend on the class of an object are computed once per class
+    public static final Predicate<Object> INSTANCE = new CachedImmutability(OBJECT, CLASS_INSTANCE);
     static final Predicate<Object> COLLECTION_INSTANCE = new CollectionImmutability(INSTANCE);
 
     static <T> Set<T> createIdentitySet(Collection<T> list) {
@@ -23,10 +23,11 @@
 package org.wildfly.clustering.marshalling.jboss;
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.OutputStream;
 import java.util.Arrays;
 
 import org.jboss.marshalling.Marshaller;
@@ -34,8 +35,12 @@ import org.jboss.marshalling.Marshalling;
 import org.jboss.marshalling.SimpleDataInput;
 import org.jboss.marshalling.SimpleDataOutput;
 import org.jboss.marshalling.Unmarshaller;
+import org.wildfly.clustering.marshalling.spi.ByteBufferOutputStream;
+import org.wildfly.clustering.marshalling.spi.ByteBufferPool;
 import org.wildfly.clustering.marshalling.spi.IndexSerializer;
+import org.wildfly.clustering.marshalling.spi.IntSerializer;
 import org.wildfly.clustering.marshalling.spi.MarshalledValue;
+import org.wildfly.clustering.marshalling.spi.SimpleByteBufferPool;
 import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
@@ -45,6 +50,8 @@ import org.wildfly.security.manager.WildFlySecurityManager;
  */
 public class SimpleMarshalledValue<T> implements MarshalledValue<T, MarshallingContext> {
     private static final long serialVersionUID = -8852566958387608376L;
+    // Heap buffers, since the outputs to which marshalled values are written are array-based
+    private static final ByteBufferPool BUFFER_POOL = new SimpleByteBufferPool(8192, 64, false);
 
     private transient volatile MarshallingContext context;
     private transient volatile T object;
@@ -68,17 +75,48 @@ public class SimpleMarshalledValue<T> implements MarshalledValue<T, MarshallingC
         byte[] bytes = this.bytes;
         if (bytes != null) return bytes;
         if (this.object == null) return null;
+        try (ByteBufferOutputStream output = new ByteBufferOutputStream(BUFFER_POOL)) {
+            this.marshal(output);
+            return output.toByteArray();
+        }
+    }
+
+    /**
+     * Writes the serialized form of this value, prefixed by its size, to the specified output.
+     * The object is marshalled into a pooled buffer, which is written directly to the output, rather than via an intermediate byte array.
+     * @param output a data output
+     * @param sizeSerializer the serializer of the size of the serialized form
+     * @throws IOException if this value could not be marshalled
+     */
+    void writeTo(DataOutput output, IntSerializer sizeSerializer) throws IOException {
+        byte[] bytes = this.bytes;
+        if (bytes != null) {
+            sizeSerializer.writeInt(output, bytes.length);
+            output.write(bytes);
+        } else if (this.object != null) {
+            try (ByteBufferOutputStream buffer = new ByteBufferOutputStream(BUFFER_POOL)) {
+                this.marshal(buffer);
+                sizeSerializer.writeInt(output, buffer.size());
+                buffer.writeTo(output);
+            }
+        } else {
+            sizeSerializer.writeInt(output, 0);
+        }
+    }
+
+    private void marshal(OutputStream output) throws IOException {
         int version = this.context.getCurrentVersion();
-        ByteArrayOutputStream output = new ByteArrayOutputStream();
         ClassLoader loader = setThreadContextClassLoader(this.context.getClassLoader());
-        try (SimpleDataOutput data = new SimpleDataOutput(Marshalling.createByteOutput(output))) {
+        try {
+            // Do not close, as this would close the target stream
+            SimpleDataOutput data = new SimpleDataOutput(Marshalling.createByteOutput(output));
             IndexSerializer.VARIABLE.writeInt(data, version);
             try (Marshaller marshaller = this.context.createMarshaller(version)) {
                 marshaller.start(data);
                 marshaller.writeObject(this.object);
                 marshaller.finish();
-                return output.toByteArray();
             }
+            data.flush();
         } finally {
             setThreadContextClassLoader(loader);
         }
@@ -149,13 +187,7 @@ public class SimpleMarshalledValue<T> implements MarshalledValue<T, MarshallingC
 
     private void writeObject(ObjectOutputStream out) throws IOException {
         out.defaultWriteObject();
-        byte[] bytes = this.getBytes();
-        if (bytes != null) {
-            out.writeInt(bytes.length);
-            out.write(bytes);
-        } else {
-            out.writeInt(0);
-        }
+        this.writeTo(out, IndexSerializer.INTEGER);
     }
 
     private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
@@ -0,0 +1,133 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.marshalling.spi;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * An output stream that writes to a buffer acquired from a {@link ByteBufferPool}.
+ * If the pooled buffer overflows, its content is moved to a larger, unpooled buffer.
+ * Closing this stream returns its pooled buffer to the pool, after which its content is no longer accessible.
+ */
+public class ByteBufferOutputStream extends OutputStream {
+
+    private final ByteBufferPool pool;
+    private ByteBuffer pooledBuffer;
+    private ByteBuffer buffer;
+
+    public ByteBufferOutputStream(ByteBufferPool pool) {
+        this.pool = pool;
+        this.pooledBuffer = pool.acquire();
+        this.buffer = this.pooledBuffer;
+    }
+
+    @Override
+    public void write(int value) {
+        this.ensureCapacity(1);
+        this.buffer.put((byte) value);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) {
+        this.ensureCapacity(length);
+        this.buffer.put(bytes, offset, length);
+    }
+
+    private void ensureCapacity(int length) {
+        ByteBuffer buffer = this.buffer;
+        if (buffer == null) throw new IllegalStateException();
+        if (buffer.remaining() < length) {
+            ByteBuffer result = buffer.isDirect() ? ByteBuffer.allocateDirect(this.newCapacity(buffer, length)) : ByteBuffer.allocate(this.newCapacity(buffer, length));
+            buffer.flip();
+            result.put(buffer);
+            this.buffer = result;
+        }
+    }
+
+    private int newCapacity(ByteBuffer buffer, int length) {
+        int capacity = Math.max(buffer.capacity() << 1, buffer.position() + length);
+        // Detect overflow
+        if (capacity < 0) throw new OutOfMemoryError();
+        return capacity;
+    }
+
+    /**
+     * Returns the number of bytes written to this stream.
+     * @return the number of bytes written to this stream.
+     */
+    public int size() {
+        return this.buffer.position();
+    }
+
+    /**
+     * Returns a read-only view of the bytes written to this stream, valid until this stream is closed.
+     * @return a byte buffer
+     */
+    public ByteBuffer getBuffer() {
+        ByteBuffer buffer = this.buffer.asReadOnlyBuffer();
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Returns a copy of the bytes written to this stream.
+     * @return a byte array
+     */
+    public byte[] toByteArray() {
+        byte[] bytes = new byte[this.size()];
+        this.getBuffer().get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Writes the bytes written to this stream to the specified output, without copying them into an intermediate array, if possible.
+     * @param output a data output
+     * @throws IOException if the bytes could not be written
+     */
+    public void writeTo(DataOutput output) throws IOException {
+        ByteBuffer buffer = this.buffer;
+        if (buffer.hasArray()) {
+            output.write(buffer.array(), buffer.arrayOffset(), buffer.position());
+        } else {
+            ByteBuffer source = this.getBuffer();
+            byte[] chunk = new byte[Math.min(source.remaining(), 8192)];
+            while (source.hasRemaining()) {
+                int length = Math.min(source.remaining(), chunk.length);
+                source.get(chunk, 0, length);
+                output.write(chunk, 0, length);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        ByteBuffer buffer = this.pooledBuffer;
+        if (buffer != null) {
+            this.pooledBuffer = null;
+            this.buffer = null;
+            this.pool.release(buffer);
+        }
+    }
+}
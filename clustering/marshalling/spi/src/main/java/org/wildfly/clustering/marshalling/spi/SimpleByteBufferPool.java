@@ -0,0 +1,65 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.marshalling.spi;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * A bounded pool of fixed capacity byte buffers.
+ * Buffers released to a full pool are left for garbage collection.
+ */
+public class SimpleByteBufferPool implements ByteBufferPool {
+
+    private final Queue<ByteBuffer> buffers;
+    private final int bufferSize;
+    private final boolean direct;
+
+    /**
+     * Creates a new pool of buffers.
+     * @param bufferSize the capacity of each buffer
+     * @param maxBuffers the maximum number of idle buffers retained by this pool
+     * @param direct indicates whether this pool should allocate direct buffers
+     */
+    public SimpleByteBufferPool(int bufferSize, int maxBuffers, boolean direct) {
+        this.buffers = new ArrayBlockingQueue<>(maxBuffers);
+        this.bufferSize = bufferSize;
+        this.direct = direct;
+    }
+
+    @Override
+    public ByteBuffer acquire() {
+        ByteBuffer buffer = this.buffers.poll();
+        if (buffer != null) return buffer;
+        return this.direct ? ByteBuffer.allocateDirect(this.bufferSize) : ByteBuffer.allocate(this.bufferSize);
+    }
+
+    @Override
+    public void release(ByteBuffer buffer) {
+        // Only retain buffers allocated by this pool
+        if ((buffer.capacity() == this.bufferSize) && (buffer.isDirect() == this.direct) && !buffer.isReadOnly()) {
+            buffer.clear();
+            this.buffers.offer(buffer);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.marshalling.spi;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Unit test for {@link ByteBufferOutputStream}.
+ */
+public class ByteBufferOutputStreamTestCase {
+
+    @Test
+    public void heap() throws IOException {
+        test(new SimpleByteBufferPool(16, 1, false));
+    }
+
+    @Test
+    public void direct() throws IOException {
+        test(new SimpleByteBufferPool(16, 1, true));
+    }
+
+    private static void test(ByteBufferPool pool) throws IOException {
+        ByteBuffer pooled = pool.acquire();
+        pool.release(pooled);
+
+        byte[] bytes = new byte[100];
+        new Random().nextBytes(bytes);
+
+        // Fits within pooled buffer
+        test(pool, bytes, 10);
+        // Overflows pooled buffer
+        test(pool, bytes, bytes.length);
+
+        // Verify that the pooled buffer was recycled
+        assertSame(pooled, pool.acquire());
+    }
+
+    private static void test(ByteBufferPool pool, byte[] bytes, int length) throws IOException {
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        expected.write(bytes[0]);
+        expected.write(bytes, 1, length - 1);
+
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        try (ByteBufferOutputStream output = new ByteBufferOutputStream(pool)) {
+            output.write(bytes[0]);
+            output.write(bytes, 1, length - 1);
+
+            assertEquals(length, output.size());
+            assertArrayEquals(expected.toByteArray(), output.toByteArray());
+            assertEquals(ByteBuffer.wrap(expected.toByteArray()), output.getBuffer());
+
+            try (DataOutputStream data = new DataOutputStream(result)) {
+                output.writeTo(data);
+            }
+        }
+        assertArrayEquals(expected.toByteArray(), result.toByteArray());
+    }
+}
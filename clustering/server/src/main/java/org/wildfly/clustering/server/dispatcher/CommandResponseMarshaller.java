@@ -22,7 +22,6 @@
 package org.wildfly.clustering.server.dispatcher;
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.DataInput;
 import java.io.DataInputStream;
 import java.io.DataOutput;
@@ -34,8 +33,11 @@ import org.jboss.marshalling.Marshalling;
 import org.jboss.marshalling.Unmarshaller;
 import org.wildfly.clustering.jgroups.spi.ChannelFactory;
 import org.wildfly.clustering.marshalling.jboss.MarshallingContext;
+import org.wildfly.clustering.marshalling.spi.ByteBufferOutputStream;
+import org.wildfly.clustering.marshalling.spi.ByteBufferPool;
 import org.wildfly.clustering.marshalling.spi.IndexSerializer;
 import org.wildfly.clustering.marshalling.spi.IntSerializer;
+import org.wildfly.clustering.marshalling.spi.SimpleByteBufferPool;
 
 /**
  * Marshalling strategy for the command response.
@@ -44,6 +46,8 @@ import org.wildfly.clustering.marshalling.spi.IntSerializer;
  * @param <C> command execution context
  */
 public class CommandResponseMarshaller implements org.jgroups.blocks.Marshaller {
+    private static final ByteBufferPool BUFFER_POOL = new SimpleByteBufferPool(8192, 64, false);
+
     private final MarshallingContext context;
     private final ChannelFactory factory;
     private final IntSerializer versionSerializer;
@@ -57,18 +61,18 @@ public class CommandResponseMarshaller implements org.jgroups.blocks.Marshaller
     @Override
     public void objectToStream(Object object, DataOutput stream) throws Exception {
         int version = this.context.getCurrentVersion();
-        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
-        try (DataOutputStream output = new DataOutputStream(bytes)) {
+        // Marshal into a pooled buffer, which is then written directly to the message stream
+        try (ByteBufferOutputStream buffer = new ByteBufferOutputStream(BUFFER_POOL)) {
+            DataOutput output = new DataOutputStream(buffer);
             this.versionSerializer.writeInt(output, version);
             try (Marshaller marshaller = this.context.createMarshaller(version)) {
-                marshaller.start(Marshalling.createByteOutput(output));
+                marshaller.start(Marshalling.createByteOutput(buffer));
                 marshaller.writeObject(object);
                 marshaller.flush();
             }
+            IndexSerializer.VARIABLE.writeInt(stream, buffer.size());
+            buffer.writeTo(stream);
         }
-        byte[] buffer = bytes.toByteArray();
-        IndexSerializer.VARIABLE.writeInt(stream, buffer.length);
-        stream.write(buffer);
     }
 
     @Override
@@ -0,0 +1,44 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.attribute;
+
+/**
+ * Implemented by mutable session attributes that can describe their modifications as a delta.
+ * For distributable web applications that enable delta replication, a modified session attribute implementing this interface
+ * replicates only the delta returned by {@link #getDelta()}, instead of its complete state.
+ * The delta must be marshallable by the session manager.
+ * @param <D> the delta type
+ */
+public interface DeltaCapable<D> {
+
+    /**
+     * Returns the modifications made to this object since the previous invocation of this method, and resets any recorded modifications.
+     * @return a delta, or null, if the complete state of this object should be replicated.
+     */
+    D getDelta();
+
+    /**
+     * Applies a delta, previously returned by {@link #getDelta()}, to a replica of this object.
+     * @param delta a delta
+     */
+    void applyDelta(D delta);
+}
@@ -0,0 +1,85 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.web.infinispan.session;
+
+import java.time.Duration;
+
+import org.wildfly.clustering.ee.Mutator;
+
+/**
+ * Session access meta data that coalesces updates to the last accessed time of a session.
+ * The cache entry is only mutated on the first access of a session, following a change to its max inactive interval,
+ * or whenever the last accessed time crosses into a new window whose length is a fixed fraction of the max inactive interval.
+ * Consequently, the last accessed time seen by other members lags the actual last accessed time by less than {@link #getMaxReplicationLag(Duration, double)},
+ * which expiration must tolerate in order to never expire a session early.
+ */
+public class CoalescingSessionAccessMetaData implements SessionAccessMetaData {
+
+    private final SessionAccessMetaData metaData;
+    private final ImmutableSessionCreationMetaData creationMetaData;
+    private final Mutator mutator;
+    private final double threshold;
+    private final Duration maxInactiveInterval;
+
+    /**
+     * Creates coalescing session access meta data.
+     * @param metaData the cached access meta data
+     * @param creationMetaData the cached creation meta data
+     * @param mutator mutates the cache entry of the access meta data
+     * @param threshold the fraction of the max inactive interval by which the last accessed time may lag
+     */
+    public CoalescingSessionAccessMetaData(SessionAccessMetaData metaData, ImmutableSessionCreationMetaData creationMetaData, Mutator mutator, double threshold) {
+        this.metaData = metaData;
+        this.creationMetaData = creationMetaData;
+        this.mutator = mutator;
+        this.threshold = threshold;
+        this.maxInactiveInterval = creationMetaData.getMaxInactiveInterval();
+    }
+
+    @Override
+    public Duration getLastAccessedDuration() {
+        return this.metaData.getLastAccessedDuration();
+    }
+
+    @Override
+    public void setLastAccessedDuration(Duration duration) {
+        Duration previous = this.metaData.getLastAccessedDuration();
+        this.metaData.setLastAccessedDuration(duration);
+        Duration maxInactiveInterval = this.creationMetaData.getMaxInactiveInterval();
+        // Access durations are only ever replicated with second precision
+        long window = getMaxReplicationLag(maxInactiveInterval, this.threshold).getSeconds();
+        if (previous.isZero() || (window == 0) || !maxInactiveInterval.equals(this.maxInactiveInterval) || (previous.getSeconds() / window != duration.getSeconds() / window)) {
+            this.mutator.mutate();
+        }
+    }
+
+    /**
+     * Returns the maximum duration by which the replicated last accessed time of a session may lag its actual last accessed time.
+     * @param maxInactiveInterval the max inactive interval of a session
+     * @param threshold the fraction of the max inactive interval by which the last accessed time may lag
+     * @return a duration, truncated to seconds
+     */
+    public static Duration getMaxReplicationLag(Duration maxInactiveInterval, double threshold) {
+        return (threshold > 0) ? Duration.ofSeconds((long) (maxInactiveInterval.getSeconds() * threshold)) : Duration.ZERO;
+    }
+}
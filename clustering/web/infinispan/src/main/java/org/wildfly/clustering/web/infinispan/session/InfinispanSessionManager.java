@@ -267,6 +267,16 @@ public class InfinispanSessionManager<MV, AV, L> implements SessionManager<L, Tr
         return this.getActiveSessions().size();
     }
 
+    @Override
+    public long getDeltaReplicationCount() {
+        return this.factory.getAttributesFactory().getDeltaReplicationCount();
+    }
+
+    @Override
+    public long getDeltaReplicationFallbackCount() {
+        return this.factory.getAttributesFactory().getDeltaReplicationFallbackCount();
+    }
+
     @CacheEntryActivated
     public void activated(CacheEntryActivatedEvent<SessionCreationMetaDataKey, ?> event) {
         if (!event.isPre() && !this.properties.isPersistent()) {
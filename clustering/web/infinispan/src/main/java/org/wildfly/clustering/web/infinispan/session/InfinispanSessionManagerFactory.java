@@ -22,7 +22,10 @@
 package org.wildfly.clustering.web.infinispan.session;
 
 import java.security.PrivilegedAction;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -30,13 +33,15 @@ import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
 
 import javax.servlet.ServletContext;
 
 import org.infinispan.Cache;
+import org.infinispan.CacheStream;
 import org.infinispan.commons.CacheException;
-import org.infinispan.commons.util.CloseableIterator;
 import org.infinispan.context.Flag;
+import org.infinispan.distribution.DistributionManager;
 import org.infinispan.notifications.Listener;
 import org.infinispan.notifications.cachelistener.annotation.DataRehashed;
 import org.infinispan.notifications.cachelistener.event.DataRehashedEvent;
@@ -60,14 +65,18 @@ import org.wildfly.clustering.infinispan.spi.distribution.Key;
 import org.wildfly.clustering.infinispan.spi.distribution.Locality;
 import org.wildfly.clustering.infinispan.spi.distribution.SimpleLocality;
 import org.wildfly.clustering.marshalling.spi.Marshallability;
+import org.wildfly.clustering.marshalling.spi.MarshalledValue;
 import org.wildfly.clustering.marshalling.spi.MarshalledValueFactory;
 import org.wildfly.clustering.marshalling.spi.MarshalledValueMarshaller;
+import org.wildfly.clustering.marshalling.spi.Marshaller;
 import org.wildfly.clustering.spi.NodeFactory;
 import org.wildfly.clustering.web.IdentifierFactory;
 import org.wildfly.clustering.web.infinispan.AffinityIdentifierFactory;
 import org.wildfly.clustering.web.infinispan.session.coarse.CoarseSessionAttributesFactory;
 import org.wildfly.clustering.web.infinispan.session.fine.FineSessionAttributesFactory;
+import org.wildfly.clustering.web.infinispan.session.fine.SessionAttributeDeltaReplicator;
 import org.wildfly.clustering.web.session.ImmutableSession;
+import org.wildfly.clustering.web.session.SessionAttributeImmutability;
 import org.wildfly.clustering.web.session.SessionExpirationListener;
 import org.wildfly.clustering.web.session.SessionManager;
 import org.wildfly.clustering.web.session.SessionManagerConfiguration;
@@ -108,16 +117,22 @@ public class InfinispanSessionManagerFactory<C extends Marshallability, L> imple
         this.memberFactory = config.getMemberFactory();
         this.batcher = new InfinispanBatcher(this.cache);
         this.properties = new InfinispanCacheProperties(this.cache.getCacheConfiguration());
-        SessionMetaDataFactory<InfinispanSessionMetaData<L>, L> metaDataFactory = new InfinispanSessionMetaDataFactory<>(config.getCache(), this.properties);
+        double accessReplicationThreshold = config.getSessionManagerFactoryConfiguration().getAccessReplicationThreshold();
+        SessionMetaDataFactory<InfinispanSessionMetaData<L>, L> metaDataFactory = new InfinispanSessionMetaDataFactory<>(config.getCache(), this.properties, accessReplicationThreshold);
         this.factory = new InfinispanSessionFactory<>(metaDataFactory, this.createSessionAttributesFactory(config), config.getSessionManagerFactoryConfiguration().getLocalContextFactory());
         CommandDispatcherFactory dispatcherFactory = config.getCommandDispatcherFactory();
         ExpiredSessionRemover<?, ?, L> remover = new ExpiredSessionRemover<>(this.factory);
         this.expirationRegistrar = remover;
-        this.scheduler = new SessionExpirationScheduler(this.batcher, remover);
+        this.scheduler = new SegmentedSessionExpirationScheduler(this.batcher, remover, this::getSegment, accessReplicationThreshold);
         this.dispatcher = dispatcherFactory.createCommandDispatcher(this.cache.getName(), this.scheduler);
         this.group = dispatcherFactory.getGroup();
         this.cache.addListener(this);
-        this.schedule(new SimpleLocality(false), new CacheLocality(this.cache));
+        this.schedule(new SimpleLocality(false), new CacheLocality(this.cache), null);
+    }
+
+    private int getSegment(String sessionId) {
+        DistributionManager dist = this.cache.getAdvancedCache().getDistributionManager();
+        return (dist != null) ? dist.getCacheTopology().getSegment(new Key<>(sessionId)) : 0;
     }
 
     @Override
@@ -186,13 +201,18 @@ public class InfinispanSessionManagerFactory<C extends Marshallability, L> imple
         SessionManagerFactoryConfiguration<C, L> config = configuration.getSessionManagerFactoryConfiguration();
         MarshalledValueFactory<C> factory = config.getMarshalledValueFactory();
         C context = config.getMarshallingContext();
+        Predicate<Object> immutability = SessionAttributeImmutability.forClasses(config.getImmutableClasses());
 
         switch (config.getAttributePersistenceStrategy()) {
             case FINE: {
-                return new FineSessionAttributesFactory<>(configuration.getCache(), configuration.getCache(), new MarshalledValueMarshaller<>(factory, context), this.properties);
+                Marshaller<Object, MarshalledValue<Object, C>> marshaller = new MarshalledValueMarshaller<>(factory, context);
+                // Deltas are only worth replicating to other members of the cluster
+                boolean delta = config.isDeltaReplicationEnabled() && this.cache.getCacheConfiguration().clustering().cacheMode().needsStateTransfer();
+                SessionAttributeDeltaReplicator<C> replicator = delta ? new SessionAttributeDeltaReplicator<>(configuration.getCache(), marshaller) : null;
+                return new FineSessionAttributesFactory<>(configuration.getCache(), configuration.getCache(), marshaller, this.properties, replicator, immutability);
             }
             case COARSE: {
-                return new CoarseSessionAttributesFactory<>(configuration.getCache(), new MarshalledValueMarshaller<>(factory, context), this.properties);
+                return new CoarseSessionAttributesFactory<>(configuration.getCache(), new MarshalledValueMarshaller<>(factory, context), this.properties, immutability);
             }
             default: {
                 // Impossible
@@ -231,18 +251,23 @@ public class InfinispanSessionManagerFactory<C extends Marshallability, L> imple
             }
         } else {
             Locality oldLocality = new ConsistentHashLocality(cache, event.getConsistentHashAtStart());
+            // Only those segments for which we are the new primary owner contain sessions that need to be scheduled
+            Address address = cache.getCacheManager().getAddress();
+            Set<Integer> segments = new HashSet<>(event.getConsistentHashAtEnd().getPrimarySegmentsForOwner(address));
+            segments.removeAll(event.getConsistentHashAtStart().getPrimarySegmentsForOwner(address));
             try {
-                this.rehashFuture.set(this.executor.submit(() -> this.schedule(oldLocality, newLocality)));
+                this.rehashFuture.set(this.executor.submit(() -> this.schedule(oldLocality, newLocality, segments)));
             } catch (RejectedExecutionException e) {
                 // Executor was shutdown
             }
         }
     }
 
-    private void schedule(Locality oldLocality, Locality newLocality) {
+    private void schedule(Locality oldLocality, Locality newLocality, Set<Integer> segments) {
         SessionMetaDataFactory<InfinispanSessionMetaData<L>, L> metaDataFactory = this.factory.getMetaDataFactory();
-        // Iterate over sessions in memory
-        try (CloseableIterator<Key<String>> keys = this.cache.getAdvancedCache().withFlags(Flag.CACHE_MODE_LOCAL, Flag.SKIP_CACHE_LOAD).keySet().iterator()) {
+        // Iterate over sessions in memory, restricted to the specified segments, if any
+        try (CacheStream<Key<String>> stream = this.cache.getAdvancedCache().withFlags(Flag.CACHE_MODE_LOCAL, Flag.SKIP_CACHE_LOAD).keySet().stream()) {
+            Iterator<Key<String>> keys = ((segments != null) ? stream.filterKeySegments(segments) : stream).iterator();
             while (keys.hasNext()) {
                 if (Thread.currentThread().isInterrupted()) break;
                 Key<String> key = keys.next();
@@ -256,7 +281,6 @@ public class InfinispanSessionManagerFactory<C extends Marshallability, L> imple
                             if (value != null) {
                                 this.scheduler.schedule(id, metaDataFactory.createImmutableSessionMetaData(id, value));
                             }
-                            return;
                         } catch (CacheException e) {
                             batch.discard();
                         }
@@ -43,13 +43,23 @@ public class InfinispanSessionMetaDataFactory<L> implements SessionMetaDataFacto
     private final Cache<SessionCreationMetaDataKey, SessionCreationMetaDataEntry<L>> findCreationMetaDataCache;
     private final Cache<SessionAccessMetaDataKey, SessionAccessMetaData> accessMetaDataCache;
     private final CacheProperties properties;
+    private final double accessReplicationThreshold;
 
-    @SuppressWarnings("unchecked")
     public InfinispanSessionMetaDataFactory(Cache<? extends Key<String>, ?> cache, CacheProperties properties) {
+        this(cache, properties, 0);
+    }
+
+    /**
+     * Creates a session meta data factory.
+     * @param accessReplicationThreshold the fraction of the max inactive interval by which the last accessed time of a session must advance before it is replicated, or 0, to replicate every access
+     */
+    @SuppressWarnings("unchecked")
+    public InfinispanSessionMetaDataFactory(Cache<? extends Key<String>, ?> cache, CacheProperties properties, double accessReplicationThreshold) {
         this.creationMetaDataCache = (Cache<SessionCreationMetaDataKey, SessionCreationMetaDataEntry<L>>) cache;
         this.findCreationMetaDataCache = properties.isLockOnRead() ? this.creationMetaDataCache.getAdvancedCache().withFlags(Flag.FORCE_WRITE_LOCK) : this.creationMetaDataCache;
         this.accessMetaDataCache = (Cache<SessionAccessMetaDataKey, SessionAccessMetaData>) cache;
         this.properties = properties;
+        this.accessReplicationThreshold = accessReplicationThreshold;
     }
 
     @Override
@@ -95,14 +105,14 @@ public class InfinispanSessionMetaDataFactory<L> implements SessionMetaDataFacto
 
         SessionAccessMetaDataKey accessMetaDataKey = new SessionAccessMetaDataKey(id);
         Mutator accessMutator = this.properties.isTransactional() && this.accessMetaDataCache.getAdvancedCache().getCacheEntry(accessMetaDataKey).isCreated() ? Mutator.PASSIVE : new CacheEntryMutator<>(this.accessMetaDataCache, accessMetaDataKey, entry.getAccessMetaData());
-        SessionAccessMetaData accessMetaData = new MutableSessionAccessMetaData(entry.getAccessMetaData(), accessMutator);
+        SessionAccessMetaData accessMetaData = (this.accessReplicationThreshold > 0) ? new CoalescingSessionAccessMetaData(entry.getAccessMetaData(), entry.getCreationMetaData(), accessMutator, this.accessReplicationThreshold) : new MutableSessionAccessMetaData(entry.getAccessMetaData(), accessMutator);
 
-        return new SimpleSessionMetaData(creationMetaData, accessMetaData);
+        return new SimpleSessionMetaData(creationMetaData, accessMetaData, this.accessReplicationThreshold);
     }
 
     @Override
     public ImmutableSessionMetaData createImmutableSessionMetaData(String id, InfinispanSessionMetaData<L> entry) {
-        return new SimpleSessionMetaData(entry.getCreationMetaData(), entry.getAccessMetaData());
+        return new SimpleSessionMetaData(entry.getCreationMetaData(), entry.getAccessMetaData(), this.accessReplicationThreshold);
     }
 
     @Override
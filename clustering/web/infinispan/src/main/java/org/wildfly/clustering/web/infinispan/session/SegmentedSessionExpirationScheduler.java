@@ -0,0 +1,275 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session;
+
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
+
+import org.jboss.threads.JBossThreadFactory;
+import org.wildfly.clustering.ee.Batch;
+import org.wildfly.clustering.ee.Batcher;
+import org.wildfly.clustering.ee.Remover;
+import org.wildfly.clustering.ee.infinispan.TransactionBatch;
+import org.wildfly.clustering.infinispan.spi.distribution.Locality;
+import org.wildfly.clustering.web.infinispan.logging.InfinispanWebLogger;
+import org.wildfly.clustering.web.session.ImmutableSessionMetaData;
+
+/**
+ * Session expiration scheduler that tracks sessions in time slots, grouped by the cache segment of each session.
+ * Unlike {@link SessionExpirationScheduler}, which schedules a task per session, a single task periodically expires all sessions of each elapsed time slot.
+ * Since all sessions of a given segment share the same primary owner, ownership changes are handled by dropping whole segments.
+ */
+public class SegmentedSessionExpirationScheduler implements Scheduler, Runnable {
+
+    private static final Duration DEFAULT_RESOLUTION = Duration.ofSeconds(1);
+
+    private final Map<String, Expiration> expirations = new ConcurrentHashMap<>();
+    private final Map<Integer, Segment> segments = new ConcurrentHashMap<>();
+    private final Batcher<TransactionBatch> batcher;
+    private final Remover<String> remover;
+    private final ToIntFunction<String> segmenter;
+    private final ScheduledExecutorService executor;
+    private final long resolution;
+    private final double accessReplicationThreshold;
+    private final Future<?> future;
+
+    public SegmentedSessionExpirationScheduler(Batcher<TransactionBatch> batcher, Remover<String> remover, ToIntFunction<String> segmenter) {
+        this(batcher, remover, segmenter, 0);
+    }
+
+    /**
+     * Creates a scheduler that defers the expiration of each session by the maximum lag of its last accessed time.
+     * @param accessReplicationThreshold the fraction of the max inactive interval by which the last accessed time of a session may lag
+     * @see CoalescingSessionAccessMetaData
+     */
+    public SegmentedSessionExpirationScheduler(Batcher<TransactionBatch> batcher, Remover<String> remover, ToIntFunction<String> segmenter, double accessReplicationThreshold) {
+        this(batcher, remover, segmenter, createScheduledExecutor(createThreadFactory()), DEFAULT_RESOLUTION, accessReplicationThreshold);
+    }
+
+    private static ThreadFactory createThreadFactory() {
+        return AccessController.doPrivileged(new PrivilegedAction<ThreadFactory>() {
+            @Override
+            public ThreadFactory run() {
+                return new JBossThreadFactory(new ThreadGroup(SegmentedSessionExpirationScheduler.class.getSimpleName()), Boolean.FALSE, null, "%G - %t", null, null);
+            }
+        });
+    }
+
+    private static ScheduledExecutorService createScheduledExecutor(ThreadFactory factory) {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, factory);
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        return executor;
+    }
+
+    public SegmentedSessionExpirationScheduler(Batcher<TransactionBatch> batcher, Remover<String> remover, ToIntFunction<String> segmenter, ScheduledExecutorService executor, Duration resolution) {
+        this(batcher, remover, segmenter, executor, resolution, 0);
+    }
+
+    public SegmentedSessionExpirationScheduler(Batcher<TransactionBatch> batcher, Remover<String> remover, ToIntFunction<String> segmenter, ScheduledExecutorService executor, Duration resolution, double accessReplicationThreshold) {
+        this.batcher = batcher;
+        this.remover = remover;
+        this.segmenter = segmenter;
+        this.executor = executor;
+        this.resolution = resolution.toMillis();
+        this.accessReplicationThreshold = accessReplicationThreshold;
+        this.future = executor.scheduleWithFixedDelay(this, this.resolution, this.resolution, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void schedule(String sessionId, ImmutableSessionMetaData metaData) {
+        Duration maxInactiveInterval = metaData.getMaxInactiveInterval();
+        if (!maxInactiveInterval.isZero()) {
+            // Defer expiration by the maximum lag of the last accessed time, consistent with the expiration test of the remover
+            Instant expirationTime = metaData.getLastAccessedTime().plus(maxInactiveInterval).plus(CoalescingSessionAccessMetaData.getMaxReplicationLag(maxInactiveInterval, this.accessReplicationThreshold));
+            // Round up to the next time slot, so that sessions never expire early
+            long slot = Math.floorDiv(expirationTime.toEpochMilli() + this.resolution - 1, this.resolution);
+            int segmentId = this.segmenter.applyAsInt(sessionId);
+            Expiration expiration = new Expiration(segmentId, slot);
+            InfinispanWebLogger.ROOT_LOGGER.tracef("Session %s will expire at %s", sessionId, expirationTime);
+            Expiration previous = this.expirations.put(sessionId, expiration);
+            if (previous != null) {
+                this.remove(sessionId, previous);
+            }
+            this.segments.computeIfAbsent(segmentId, key -> new Segment()).add(sessionId, slot);
+        } else {
+            this.cancel(sessionId);
+        }
+    }
+
+    @Override
+    public void cancel(String sessionId) {
+        Expiration expiration = this.expirations.remove(sessionId);
+        if (expiration != null) {
+            this.remove(sessionId, expiration);
+        }
+    }
+
+    private void remove(String sessionId, Expiration expiration) {
+        Segment segment = this.segments.get(expiration.getSegment());
+        if (segment != null) {
+            segment.remove(sessionId, expiration.getSlot());
+        }
+    }
+
+    @Override
+    public void cancel(Locality locality) {
+        for (Map.Entry<Integer, Segment> entry : this.segments.entrySet()) {
+            if (Thread.currentThread().isInterrupted()) break;
+            int segmentId = entry.getKey();
+            // All sessions within a segment share the same primary owner, so we only need to test a single session per segment
+            String sessionId = entry.getValue().any();
+            if ((sessionId != null) && !locality.isLocal(sessionId)) {
+                Set<String> sessionIds = entry.getValue().clear();
+                InfinispanWebLogger.ROOT_LOGGER.tracef("Canceling expiration of %d sessions of segment %d", sessionIds.size(), segmentId);
+                for (String id : sessionIds) {
+                    this.expirations.computeIfPresent(id, (key, expiration) -> (expiration.getSegment() == segmentId) ? null : expiration);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        long slot = Math.floorDiv(System.currentTimeMillis(), this.resolution);
+        for (Segment segment : this.segments.values()) {
+            List<String> sessionIds = segment.poll(slot);
+            if (!sessionIds.isEmpty()) {
+                InfinispanWebLogger.ROOT_LOGGER.tracef("Expiring %d sessions", sessionIds.size());
+                for (String sessionId : sessionIds) {
+                    if (Thread.currentThread().isInterrupted()) return;
+                    Expiration expiration = this.expirations.get(sessionId);
+                    // Skip sessions that were canceled or rescheduled concurrently
+                    if ((expiration != null) && (expiration.getSlot() <= slot) && this.expirations.remove(sessionId, expiration)) {
+                        this.expire(sessionId);
+                    }
+                }
+            }
+        }
+    }
+
+    private void expire(String sessionId) {
+        InfinispanWebLogger.ROOT_LOGGER.tracef("Expiring session %s", sessionId);
+        try (Batch batch = this.batcher.createBatch()) {
+            try {
+                this.remover.remove(sessionId);
+            } catch (Throwable e) {
+                InfinispanWebLogger.ROOT_LOGGER.failedToExpireSession(e, sessionId);
+                batch.discard();
+            }
+        } catch (RuntimeException e) {
+            // Never propagate, otherwise subsequent executions of this periodic task would be suppressed
+            InfinispanWebLogger.ROOT_LOGGER.failedToExpireSession(e, sessionId);
+        }
+    }
+
+    @Override
+    public void close() {
+        this.future.cancel(true);
+        this.executor.shutdown();
+        try {
+            // Wait for any running expiration task
+            this.executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.segments.clear();
+        this.expirations.clear();
+    }
+
+    private static class Expiration {
+        private final int segment;
+        private final long slot;
+
+        Expiration(int segment, long slot) {
+            this.segment = segment;
+            this.slot = slot;
+        }
+
+        int getSegment() {
+            return this.segment;
+        }
+
+        long getSlot() {
+            return this.slot;
+        }
+    }
+
+    /**
+     * The scheduled sessions of a single cache segment, indexed by time slot.
+     */
+    private static class Segment {
+        private final NavigableMap<Long, Set<String>> slots = new TreeMap<>();
+
+        synchronized void add(String sessionId, long slot) {
+            this.slots.computeIfAbsent(slot, key -> new HashSet<>()).add(sessionId);
+        }
+
+        synchronized void remove(String sessionId, long slot) {
+            Set<String> sessionIds = this.slots.get(slot);
+            if ((sessionIds != null) && sessionIds.remove(sessionId) && sessionIds.isEmpty()) {
+                this.slots.remove(slot);
+            }
+        }
+
+        synchronized String any() {
+            Map.Entry<Long, Set<String>> entry = this.slots.firstEntry();
+            return (entry != null) ? entry.getValue().iterator().next() : null;
+        }
+
+        synchronized List<String> poll(long slot) {
+            if (this.slots.isEmpty() || (this.slots.firstKey() > slot)) return Collections.emptyList();
+            List<String> result = new ArrayList<>();
+            NavigableMap<Long, Set<String>> elapsed = this.slots.headMap(slot, true);
+            for (Set<String> sessionIds : elapsed.values()) {
+                result.addAll(sessionIds);
+            }
+            elapsed.clear();
+            return result;
+        }
+
+        synchronized Set<String> clear() {
+            Set<String> result = new HashSet<>();
+            for (Set<String> sessionIds : this.slots.values()) {
+                result.addAll(sessionIds);
+            }
+            this.slots.clear();
+            return result;
+        }
+    }
+}
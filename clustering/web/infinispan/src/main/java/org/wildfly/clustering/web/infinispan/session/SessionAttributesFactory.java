@@ -25,12 +25,23 @@ package org.wildfly.clustering.web.infinispan.session;
 import org.wildfly.clustering.ee.Creator;
 import org.wildfly.clustering.ee.Locator;
 import org.wildfly.clustering.ee.Remover;
+import org.wildfly.clustering.web.session.DeltaReplicationStatistics;
 import org.wildfly.clustering.web.session.ImmutableSessionAttributes;
 
 /**
  * @author Paul Ferraro
  */
-public interface SessionAttributesFactory<V> extends Creator<String, V, Void>, Locator<String, V>, Remover<String> {
+public interface SessionAttributesFactory<V> extends Creator<String, V, Void>, Locator<String, V>, Remover<String>, DeltaReplicationStatistics {
     SessionAttributes createSessionAttributes(String id, V value);
     ImmutableSessionAttributes createImmutableSessionAttributes(String id, V value);
+
+    @Override
+    default long getDeltaReplicationCount() {
+        return 0L;
+    }
+
+    @Override
+    default long getDeltaReplicationFallbackCount() {
+        return 0L;
+    }
 }
@@ -32,10 +32,21 @@ public class SimpleSessionMetaData extends AbstractImmutableSessionMetaData impl
 
     private final SessionCreationMetaData creationMetaData;
     private final SessionAccessMetaData accessMetaData;
+    private final double accessReplicationThreshold;
 
     public SimpleSessionMetaData(SessionCreationMetaData creationMetaData, SessionAccessMetaData accessMetaData) {
+        this(creationMetaData, accessMetaData, 0);
+    }
+
+    /**
+     * Creates session meta data whose last accessed time may lag, if updates were coalesced.
+     * @param accessReplicationThreshold the fraction of the max inactive interval by which the last accessed time may lag
+     * @see CoalescingSessionAccessMetaData
+     */
+    public SimpleSessionMetaData(SessionCreationMetaData creationMetaData, SessionAccessMetaData accessMetaData, double accessReplicationThreshold) {
         this.creationMetaData = creationMetaData;
         this.accessMetaData = accessMetaData;
+        this.accessReplicationThreshold = accessReplicationThreshold;
     }
 
     @Override
@@ -44,6 +55,13 @@ public class SimpleSessionMetaData extends AbstractImmutableSessionMetaData impl
         return this.accessMetaData.getLastAccessedDuration().isZero();
     }
 
+    @Override
+    public boolean isExpired() {
+        Duration maxInactiveInterval = this.getMaxInactiveInterval();
+        // Tolerate any lag in the last accessed time, so that a session never expires early
+        return !maxInactiveInterval.isZero() ? this.getLastAccessedTime().plus(maxInactiveInterval).plus(CoalescingSessionAccessMetaData.getMaxReplicationLag(maxInactiveInterval, this.accessReplicationThreshold)).isBefore(Instant.now()) : false;
+    }
+
     @Override
     public boolean isValid() {
         return this.creationMetaData.isValid();
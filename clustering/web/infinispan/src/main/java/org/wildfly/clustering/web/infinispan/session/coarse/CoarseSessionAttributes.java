@@ -24,6 +24,7 @@ package org.wildfly.clustering.web.infinispan.session.coarse;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 
 import org.infinispan.commons.marshall.NotSerializableException;
 import org.wildfly.clustering.ee.Mutator;
@@ -42,14 +43,20 @@ public class CoarseSessionAttributes extends CoarseImmutableSessionAttributes im
     private final Mutator mutator;
     private final Marshallability marshallability;
     private final CacheProperties properties;
+    private final Predicate<Object> immutability;
 
     public CoarseSessionAttributes(Map<String, Object> attributes, Mutator mutator, Marshallability marshallability, CacheProperties properties) {
+        this(attributes, mutator, marshallability, properties, SessionAttributeImmutability.INSTANCE);
+    }
+
+    public CoarseSessionAttributes(Map<String, Object> attributes, Mutator mutator, Marshallability marshallability, CacheProperties properties, Predicate<Object> immutability) {
         super(attributes);
         this.attributes = attributes;
         this.mutations = !properties.isTransactional() ? ConcurrentHashMap.newKeySet() : null;
         this.mutator = mutator;
         this.marshallability = marshallability;
         this.properties = properties;
+        this.immutability = immutability;
     }
 
     @Override
@@ -81,7 +88,7 @@ public class CoarseSessionAttributes extends CoarseImmutableSessionAttributes im
     @Override
     public Object getAttribute(String name) {
         Object value = this.attributes.get(name);
-        if (!SessionAttributeImmutability.INSTANCE.test(value)) {
+        if (!this.immutability.test(value)) {
             if (this.mutations != null) {
                 this.mutations.add(name);
             } else {
@@ -26,6 +26,7 @@ import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 
 import org.infinispan.Cache;
 import org.infinispan.context.Flag;
@@ -43,6 +44,7 @@ import org.wildfly.clustering.web.infinispan.session.SessionAttributes;
 import org.wildfly.clustering.web.infinispan.session.SessionAttributesFactory;
 import org.wildfly.clustering.web.infinispan.session.SessionCreationMetaDataKey;
 import org.wildfly.clustering.web.session.ImmutableSessionAttributes;
+import org.wildfly.clustering.web.session.SessionAttributeImmutability;
 
 /**
  * {@link SessionAttributesFactory} for coarse granularity sessions, where all session attributes are stored in a single cache entry.
@@ -54,11 +56,21 @@ public class CoarseSessionAttributesFactory<V> implements SessionAttributesFacto
     private final Cache<SessionAttributesKey, V> cache;
     private final Marshaller<Map<String, Object>, V> marshaller;
     private final CacheProperties properties;
+    private final Predicate<Object> immutability;
 
     public CoarseSessionAttributesFactory(Cache<SessionAttributesKey, V> cache, Marshaller<Map<String, Object>, V> marshaller, CacheProperties properties) {
+        this(cache, marshaller, properties, SessionAttributeImmutability.INSTANCE);
+    }
+
+    /**
+     * Creates a factory for coarse granularity session attributes.
+     * @param immutability determines whether a session attribute is immutable, and thus need not be replicated following a read
+     */
+    public CoarseSessionAttributesFactory(Cache<SessionAttributesKey, V> cache, Marshaller<Map<String, Object>, V> marshaller, CacheProperties properties, Predicate<Object> immutability) {
         this.cache = cache;
         this.marshaller = marshaller;
         this.properties = properties;
+        this.immutability = immutability;
     }
 
     @Override
@@ -94,7 +106,7 @@ public class CoarseSessionAttributesFactory<V> implements SessionAttributesFacto
     public SessionAttributes createSessionAttributes(String id, Map.Entry<Map<String, Object>, V> entry) {
         SessionAttributesKey key = new SessionAttributesKey(id);
         Mutator mutator = this.properties.isTransactional() && this.cache.getAdvancedCache().getCacheEntry(key).isCreated() ? Mutator.PASSIVE : new CacheEntryMutator<>(this.cache, key, entry.getValue());
-        return new CoarseSessionAttributes(entry.getKey(), mutator, this.marshaller, this.properties);
+        return new CoarseSessionAttributes(entry.getKey(), mutator, this.marshaller, this.properties, this.immutability);
     }
 
     @Override
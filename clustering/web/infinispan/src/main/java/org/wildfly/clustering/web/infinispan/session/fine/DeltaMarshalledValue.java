@@ -0,0 +1,154 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session.fine;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.wildfly.clustering.marshalling.spi.MarshalledValue;
+import org.wildfly.clustering.web.attribute.DeltaCapable;
+
+/**
+ * Marshalled value of a {@link DeltaCapable} session attribute, composed of a base value and the deltas replicated since.
+ * Deltas are applied lazily, the first time the attribute is read.
+ * Successive values of the same attribute share their base value, so that a delta is never applied more than once.
+ * @param <C> the marshalling context type
+ */
+public class DeltaMarshalledValue<C> implements MarshalledValue<Object, C> {
+    private static final long serialVersionUID = 3536393716853958540L;
+
+    private final Base<C> base;
+    private final List<MarshalledValue<Object, C>> deltas;
+
+    /**
+     * Creates a value with no pending deltas.
+     * @param value the complete marshalled value
+     * @param count the number of deltas already reflected by the specified value
+     */
+    public DeltaMarshalledValue(MarshalledValue<Object, C> value, int count) {
+        this(value, count, Collections.emptyList());
+    }
+
+    DeltaMarshalledValue(MarshalledValue<Object, C> value, int count, List<MarshalledValue<Object, C>> deltas) {
+        this(new Base<>(value, count), deltas);
+    }
+
+    private DeltaMarshalledValue(Base<C> base, List<MarshalledValue<Object, C>> deltas) {
+        this.base = base;
+        this.deltas = deltas;
+    }
+
+    /**
+     * Returns a new value composed of this value and the specified delta.
+     * @param delta a marshalled delta
+     * @return a new marshalled value
+     */
+    public DeltaMarshalledValue<C> append(MarshalledValue<Object, C> delta) {
+        List<MarshalledValue<Object, C>> deltas = new ArrayList<>(this.deltas.size() + 1);
+        deltas.addAll(this.deltas);
+        deltas.add(delta);
+        return new DeltaMarshalledValue<>(this.base, deltas);
+    }
+
+    /**
+     * Returns the number of deltas replicated since the complete state of this attribute was last replicated.
+     * @return a number of deltas
+     */
+    public int getCount() {
+        return this.base.count + this.deltas.size();
+    }
+
+    /**
+     * Returns an equivalent value whose base value is not shared, and whose deltas have not yet been applied.
+     * Used for marshalling.
+     */
+    DeltaMarshalledValue<C> snapshot() {
+        synchronized (this.base) {
+            int applied = Math.min(this.base.applied, this.deltas.size());
+            return new DeltaMarshalledValue<>(this.base.value, this.base.count + applied, new ArrayList<>(this.deltas.subList(applied, this.deltas.size())));
+        }
+    }
+
+    MarshalledValue<Object, C> getBaseValue() {
+        return this.base.value;
+    }
+
+    int getBaseCount() {
+        return this.base.count;
+    }
+
+    List<MarshalledValue<Object, C>> getDeltas() {
+        return this.deltas;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Object get(C context) throws IOException, ClassNotFoundException {
+        synchronized (this.base) {
+            Object object = this.base.value.get(context);
+            if (object instanceof DeltaCapable) {
+                DeltaCapable<Object> attribute = (DeltaCapable<Object>) object;
+                for (int i = this.base.applied; i < this.deltas.size(); ++i) {
+                    attribute.applyDelta(this.deltas.get(i).get(context));
+                }
+            }
+            this.base.applied = Math.max(this.base.applied, this.deltas.size());
+            return object;
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return this.base.value.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (!(object instanceof DeltaMarshalledValue)) return false;
+        DeltaMarshalledValue<?> value = (DeltaMarshalledValue<?>) object;
+        return (this.base == value.base) && this.deltas.equals(value.deltas);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s + %d delta(s)", this.base.value, this.deltas.size());
+    }
+
+    /**
+     * The base value shared by successive values of a session attribute, and the number of deltas already applied to it.
+     */
+    private static class Base<C> implements Serializable {
+        private static final long serialVersionUID = -5216412519542402497L;
+
+        final MarshalledValue<Object, C> value;
+        final int count;
+        int applied = 0;
+
+        Base(MarshalledValue<Object, C> value, int count) {
+            this.value = value;
+            this.count = count;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session.fine;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.kohsuke.MetaInfServices;
+import org.wildfly.clustering.marshalling.Externalizer;
+import org.wildfly.clustering.marshalling.spi.IndexSerializer;
+import org.wildfly.clustering.marshalling.spi.MarshalledValue;
+
+/**
+ * Externalizer for {@link DeltaMarshalledValue}.
+ * Only those deltas that have not yet been applied to the base value are marshalled.
+ */
+@MetaInfServices(Externalizer.class)
+public class DeltaMarshalledValueExternalizer<C> implements Externalizer<DeltaMarshalledValue<C>> {
+
+    @Override
+    public void writeObject(ObjectOutput output, DeltaMarshalledValue<C> value) throws IOException {
+        DeltaMarshalledValue<C> snapshot = value.snapshot();
+        output.writeObject(snapshot.getBaseValue());
+        IndexSerializer.VARIABLE.writeInt(output, snapshot.getBaseCount());
+        List<MarshalledValue<Object, C>> deltas = snapshot.getDeltas();
+        IndexSerializer.VARIABLE.writeInt(output, deltas.size());
+        for (MarshalledValue<Object, C> delta : deltas) {
+            output.writeObject(delta);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public DeltaMarshalledValue<C> readObject(ObjectInput input) throws IOException, ClassNotFoundException {
+        MarshalledValue<Object, C> value = (MarshalledValue<Object, C>) input.readObject();
+        int count = IndexSerializer.VARIABLE.readInt(input);
+        int size = IndexSerializer.VARIABLE.readInt(input);
+        List<MarshalledValue<Object, C>> deltas = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i) {
+            deltas.add((MarshalledValue<Object, C>) input.readObject());
+        }
+        return new DeltaMarshalledValue<>(value, count, deltas);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Class<DeltaMarshalledValue<C>> getTargetClass() {
+        return (Class<DeltaMarshalledValue<C>>) (Class<?>) DeltaMarshalledValue.class;
+    }
+}
@@ -25,6 +25,7 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
 
 import org.infinispan.Cache;
 import org.infinispan.commons.marshall.NotSerializableException;
@@ -33,6 +34,7 @@ import org.wildfly.clustering.ee.infinispan.CacheProperties;
 import org.wildfly.clustering.ee.Mutator;
 import org.wildfly.clustering.ee.infinispan.CacheEntryMutator;
 import org.wildfly.clustering.marshalling.spi.Marshaller;
+import org.wildfly.clustering.web.attribute.DeltaCapable;
 import org.wildfly.clustering.web.infinispan.session.SessionAttributes;
 import org.wildfly.clustering.web.session.SessionAttributeImmutability;
 
@@ -48,8 +50,19 @@ public class FineSessionAttributes<V> extends FineImmutableSessionAttributes<V>
     private final Map<String, Mutator> mutations = new ConcurrentHashMap<>();
     private final Marshaller<Object, V> marshaller;
     private final CacheProperties properties;
+    private final SessionAttributeDeltaReplicator<?> replicator;
+    private final Map<SessionAttributeKey, DeltaCapable<?>> deltas = new ConcurrentHashMap<>();
+    private final Predicate<Object> immutability;
 
     public FineSessionAttributes(String id, AtomicInteger sequence, ConcurrentMap<String, Integer> names, Mutator namesMutator, Cache<SessionAttributeKey, V> cache, Marshaller<Object, V> marshaller, CacheProperties properties) {
+        this(id, sequence, names, namesMutator, cache, marshaller, properties, null);
+    }
+
+    public FineSessionAttributes(String id, AtomicInteger sequence, ConcurrentMap<String, Integer> names, Mutator namesMutator, Cache<SessionAttributeKey, V> cache, Marshaller<Object, V> marshaller, CacheProperties properties, SessionAttributeDeltaReplicator<?> replicator) {
+        this(id, sequence, names, namesMutator, cache, marshaller, properties, replicator, SessionAttributeImmutability.INSTANCE);
+    }
+
+    public FineSessionAttributes(String id, AtomicInteger sequence, ConcurrentMap<String, Integer> names, Mutator namesMutator, Cache<SessionAttributeKey, V> cache, Marshaller<Object, V> marshaller, CacheProperties properties, SessionAttributeDeltaReplicator<?> replicator, Predicate<Object> immutability) {
         super(id, names, cache, marshaller);
         this.sequence = sequence;
         this.names = names;
@@ -57,6 +70,8 @@ public class FineSessionAttributes<V> extends FineImmutableSessionAttributes<V>
         this.cache = cache;
         this.marshaller = marshaller;
         this.properties = properties;
+        this.replicator = replicator;
+        this.immutability = immutability;
     }
 
     @Override
@@ -67,6 +82,7 @@ public class FineSessionAttributes<V> extends FineImmutableSessionAttributes<V>
         SessionAttributeKey key = this.createKey(attributeId);
         Object result = this.read(name, this.cache.getAdvancedCache().withFlags(Flag.FORCE_SYNCHRONOUS).remove(key));
         this.mutations.remove(name);
+        this.deltas.remove(key);
         return result;
     }
 
@@ -87,6 +103,7 @@ public class FineSessionAttributes<V> extends FineImmutableSessionAttributes<V>
         SessionAttributeKey key = this.createKey(attributeId);
         Object result = this.read(name, this.cache.getAdvancedCache().withFlags(Flag.FORCE_SYNCHRONOUS).put(key, value));
         this.mutations.remove(name);
+        this.deltas.remove(key);
         return result;
     }
 
@@ -99,7 +116,12 @@ public class FineSessionAttributes<V> extends FineImmutableSessionAttributes<V>
         Object attribute = this.read(name, value);
         if (attribute != null) {
             // If the object is mutable, we need to indicate that the attribute should be replicated
-            if (!SessionAttributeImmutability.INSTANCE.test(attribute)) {
+            if (!this.immutability.test(attribute)) {
+                // If delta replication is enabled, replicate the modifications of a delta capable attribute on close
+                if ((this.replicator != null) && (attribute instanceof DeltaCapable)) {
+                    this.deltas.putIfAbsent(key, (DeltaCapable<?>) attribute);
+                    return attribute;
+                }
                 Mutator mutator = this.mutations.computeIfAbsent(name, k -> new CacheEntryMutator<>(this.cache, key, value));
                 // If cache is not transactional, mutate on close instead.
                 if (this.properties.isTransactional()) {
@@ -118,5 +140,9 @@ public class FineSessionAttributes<V> extends FineImmutableSessionAttributes<V>
             }
         }
         this.mutations.clear();
+        for (Map.Entry<SessionAttributeKey, DeltaCapable<?>> entry : this.deltas.entrySet()) {
+            this.replicator.replicate(entry.getKey(), entry.getValue());
+        }
+        this.deltas.clear();
     }
 }
@@ -27,6 +27,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
 
 import org.infinispan.Cache;
 import org.infinispan.context.Flag;
@@ -44,6 +45,7 @@ import org.wildfly.clustering.web.infinispan.session.SessionAttributes;
 import org.wildfly.clustering.web.infinispan.session.SessionAttributesFactory;
 import org.wildfly.clustering.web.infinispan.session.SessionCreationMetaDataKey;
 import org.wildfly.clustering.web.session.ImmutableSessionAttributes;
+import org.wildfly.clustering.web.session.SessionAttributeImmutability;
 
 /**
  * {@link SessionAttributesFactory} for fine granularity sessions.
@@ -58,12 +60,33 @@ public class FineSessionAttributesFactory<V> implements SessionAttributesFactory
     private final Cache<SessionAttributeKey, V> attributeCache;
     private final Marshaller<Object, V> marshaller;
     private final CacheProperties properties;
+    private final SessionAttributeDeltaReplicator<?> replicator;
+    private final Predicate<Object> immutability;
 
     public FineSessionAttributesFactory(Cache<SessionAttributeNamesKey, SessionAttributeNamesEntry> namesCache, Cache<SessionAttributeKey, V> attributeCache, Marshaller<Object, V> marshaller, CacheProperties properties) {
+        this(namesCache, attributeCache, marshaller, properties, null);
+    }
+
+    /**
+     * Creates a factory for fine granularity session attributes.
+     * @param replicator replicates modifications to delta capable session attributes, or null, if delta replication is disabled
+     */
+    public FineSessionAttributesFactory(Cache<SessionAttributeNamesKey, SessionAttributeNamesEntry> namesCache, Cache<SessionAttributeKey, V> attributeCache, Marshaller<Object, V> marshaller, CacheProperties properties, SessionAttributeDeltaReplicator<?> replicator) {
+        this(namesCache, attributeCache, marshaller, properties, replicator, SessionAttributeImmutability.INSTANCE);
+    }
+
+    /**
+     * Creates a factory for fine granularity session attributes.
+     * @param replicator replicates modifications to delta capable session attributes, or null, if delta replication is disabled
+     * @param immutability determines whether a session attribute is immutable, and thus need not be replicated following a read
+     */
+    public FineSessionAttributesFactory(Cache<SessionAttributeNamesKey, SessionAttributeNamesEntry> namesCache, Cache<SessionAttributeKey, V> attributeCache, Marshaller<Object, V> marshaller, CacheProperties properties, SessionAttributeDeltaReplicator<?> replicator, Predicate<Object> immutability) {
         this.namesCache = namesCache;
         this.attributeCache = attributeCache;
         this.marshaller = marshaller;
         this.properties = properties;
+        this.replicator = replicator;
+        this.immutability = immutability;
     }
 
     @Override
@@ -110,7 +133,7 @@ public class FineSessionAttributesFactory<V> implements SessionAttributesFactory
     public SessionAttributes createSessionAttributes(String id, SessionAttributeNamesEntry entry) {
         SessionAttributeNamesKey key = new SessionAttributeNamesKey(id);
         Mutator mutator = this.properties.isTransactional() && this.namesCache.getAdvancedCache().getCacheEntry(key).isCreated() ? Mutator.PASSIVE : new CacheEntryMutator<>(this.namesCache, key, entry);
-        return new FineSessionAttributes<>(id, entry.getSequence(), entry.getNames(), mutator, this.attributeCache, this.marshaller, this.properties);
+        return new FineSessionAttributes<>(id, entry.getSequence(), entry.getNames(), mutator, this.attributeCache, this.marshaller, this.properties, this.replicator, this.immutability);
     }
 
     @Override
@@ -118,6 +141,16 @@ public class FineSessionAttributesFactory<V> implements SessionAttributesFactory
         return new FineImmutableSessionAttributes<>(id, entry.getNames(), this.attributeCache, this.marshaller);
     }
 
+    @Override
+    public long getDeltaReplicationCount() {
+        return (this.replicator != null) ? this.replicator.getDeltaReplicationCount() : 0L;
+    }
+
+    @Override
+    public long getDeltaReplicationFallbackCount() {
+        return (this.replicator != null) ? this.replicator.getDeltaReplicationFallbackCount() : 0L;
+    }
+
     @CacheEntriesEvicted
     public void evicted(CacheEntriesEvictedEvent<Key<String>, ?> event) {
         if (!event.isPre()) {
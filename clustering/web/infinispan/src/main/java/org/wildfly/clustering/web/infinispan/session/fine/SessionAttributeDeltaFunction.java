@@ -0,0 +1,65 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session.fine;
+
+import java.util.function.Function;
+
+import org.infinispan.functional.EntryView.ReadWriteEntryView;
+import org.wildfly.clustering.marshalling.spi.MarshalledValue;
+
+/**
+ * Function that appends a delta to the marshalled value of a session attribute, executed by each owner of the cache entry.
+ * On the originating node, the deltas were already applied to the attribute itself, so the function instead stores the complete value.
+ * Returns the number of deltas replicated since the complete state of the attribute was last replicated,
+ * or null, if the session attribute no longer exists.
+ * @param <C> the marshalling context type
+ */
+public class SessionAttributeDeltaFunction<C> implements Function<ReadWriteEntryView<SessionAttributeKey, MarshalledValue<Object, C>>, Integer> {
+
+    private final MarshalledValue<Object, C> delta;
+    // Only defined on the originating node
+    private final transient MarshalledValue<Object, C> value;
+
+    public SessionAttributeDeltaFunction(MarshalledValue<Object, C> delta, MarshalledValue<Object, C> value) {
+        this.delta = delta;
+        this.value = value;
+    }
+
+    SessionAttributeDeltaFunction(MarshalledValue<Object, C> delta) {
+        this(delta, null);
+    }
+
+    MarshalledValue<Object, C> getDelta() {
+        return this.delta;
+    }
+
+    @Override
+    public Integer apply(ReadWriteEntryView<SessionAttributeKey, MarshalledValue<Object, C>> view) {
+        MarshalledValue<Object, C> current = view.find().orElse(null);
+        if (current == null) return null;
+        @SuppressWarnings("unchecked")
+        DeltaMarshalledValue<C> value = (current instanceof DeltaMarshalledValue) ? (DeltaMarshalledValue<C>) current : new DeltaMarshalledValue<>(current, 0);
+        DeltaMarshalledValue<C> result = (this.value != null) ? new DeltaMarshalledValue<>(this.value, value.getCount() + 1) : value.append(this.delta);
+        view.set(result);
+        return result.getCount();
+    }
+}
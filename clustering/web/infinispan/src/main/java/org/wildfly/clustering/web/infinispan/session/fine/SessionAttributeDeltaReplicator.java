@@ -0,0 +1,93 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session.fine;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.infinispan.Cache;
+import org.infinispan.functional.FunctionalMap.ReadWriteMap;
+import org.infinispan.functional.impl.FunctionalMapImpl;
+import org.infinispan.functional.impl.ReadWriteMapImpl;
+import org.wildfly.clustering.ee.infinispan.CacheEntryMutator;
+import org.wildfly.clustering.marshalling.spi.MarshalledValue;
+import org.wildfly.clustering.marshalling.spi.Marshaller;
+import org.wildfly.clustering.web.attribute.DeltaCapable;
+import org.wildfly.clustering.web.infinispan.logging.InfinispanWebLogger;
+import org.wildfly.clustering.web.session.DeltaReplicationStatistics;
+
+/**
+ * Replicates modifications to {@link DeltaCapable} session attributes as deltas, via a functional command executed by each owner.
+ * Falls back to replicating the complete state of the attribute if it does not provide a delta, if its delta is not marshallable,
+ * or if too many deltas have accumulated since its complete state was last replicated.
+ * @param <C> the marshalling context type
+ */
+public class SessionAttributeDeltaReplicator<C> implements DeltaReplicationStatistics {
+
+    // The maximum number of deltas retained by each owner before replicating the complete state of an attribute
+    static final int MAX_DELTAS = 16;
+
+    private final Cache<SessionAttributeKey, MarshalledValue<Object, C>> cache;
+    private final ReadWriteMap<SessionAttributeKey, MarshalledValue<Object, C>> map;
+    private final Marshaller<Object, MarshalledValue<Object, C>> marshaller;
+    private final LongAdder deltaCount = new LongAdder();
+    private final LongAdder fallbackCount = new LongAdder();
+
+    public SessionAttributeDeltaReplicator(Cache<SessionAttributeKey, MarshalledValue<Object, C>> cache, Marshaller<Object, MarshalledValue<Object, C>> marshaller) {
+        this.cache = cache;
+        this.map = ReadWriteMapImpl.create(FunctionalMapImpl.create(cache.getAdvancedCache()));
+        this.marshaller = marshaller;
+    }
+
+    /**
+     * Replicates the modifications to the specified session attribute.
+     * @param key the cache key of the session attribute
+     * @param attribute a modified session attribute
+     */
+    public void replicate(SessionAttributeKey key, DeltaCapable<?> attribute) {
+        MarshalledValue<Object, C> value = this.marshaller.write(attribute);
+        Object delta = attribute.getDelta();
+        if ((delta != null) && this.marshaller.isMarshallable(delta)) {
+            try {
+                Integer count = this.map.eval(key, new SessionAttributeDeltaFunction<>(this.marshaller.write(delta), value)).join();
+                if ((count != null) && (count < MAX_DELTAS)) {
+                    this.deltaCount.increment();
+                    return;
+                }
+            } catch (CompletionException e) {
+                InfinispanWebLogger.ROOT_LOGGER.debugf(e.getCause(), "Failed to replicate delta of %s, replicating complete state instead", key);
+            }
+        }
+        this.fallbackCount.increment();
+        new CacheEntryMutator<>(this.cache, key, value).mutate();
+    }
+
+    @Override
+    public long getDeltaReplicationCount() {
+        return this.deltaCount.sum();
+    }
+
+    @Override
+    public long getDeltaReplicationFallbackCount() {
+        return this.fallbackCount.sum();
+    }
+}
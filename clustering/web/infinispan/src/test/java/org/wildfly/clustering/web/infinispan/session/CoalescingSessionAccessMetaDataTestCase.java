@@ -0,0 +1,112 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.web.infinispan.session;
+
+import static org.junit.Assert.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.wildfly.clustering.ee.Mutator;
+
+/**
+ * Unit test for {@link CoalescingSessionAccessMetaData}.
+ */
+public class CoalescingSessionAccessMetaDataTestCase {
+    private final AtomicInteger mutations = new AtomicInteger();
+    private final Mutator mutator = this.mutations::incrementAndGet;
+    private final SessionCreationMetaData creationMetaData = new SimpleSessionCreationMetaData();
+    private final SessionAccessMetaData cachedMetaData = new SimpleSessionAccessMetaData();
+
+    @Test
+    public void setLastAccessedDuration() {
+        this.creationMetaData.setMaxInactiveInterval(Duration.ofMinutes(10L));
+
+        // First access is always replicated
+        this.access(Duration.ofSeconds(5L));
+        assertEquals(1, this.mutations.get());
+
+        // Threshold of 0.1 yields 60 second windows
+        this.access(Duration.ofSeconds(30L));
+        this.access(Duration.ofSeconds(59L));
+        assertEquals(1, this.mutations.get());
+        assertEquals(Duration.ofSeconds(59L), this.cachedMetaData.getLastAccessedDuration());
+
+        this.access(Duration.ofSeconds(61L));
+        assertEquals(2, this.mutations.get());
+
+        this.access(Duration.ofSeconds(119L));
+        assertEquals(2, this.mutations.get());
+
+        this.access(Duration.ofSeconds(300L));
+        assertEquals(3, this.mutations.get());
+    }
+
+    @Test
+    public void setMaxInactiveInterval() {
+        this.creationMetaData.setMaxInactiveInterval(Duration.ofMinutes(10L));
+        this.access(Duration.ofSeconds(5L));
+        assertEquals(1, this.mutations.get());
+
+        // A change to the max inactive interval during a request forces replication of the last accessed time
+        SessionAccessMetaData metaData = new CoalescingSessionAccessMetaData(this.cachedMetaData, this.creationMetaData, this.mutator, 0.1);
+        this.creationMetaData.setMaxInactiveInterval(Duration.ofMinutes(5L));
+        metaData.setLastAccessedDuration(Duration.ofSeconds(10L));
+        assertEquals(2, this.mutations.get());
+    }
+
+    @Test
+    public void neverExpire() {
+        this.creationMetaData.setMaxInactiveInterval(Duration.ZERO);
+
+        this.access(Duration.ofSeconds(5L));
+        this.access(Duration.ofSeconds(6L));
+        assertEquals(2, this.mutations.get());
+    }
+
+    @Test
+    public void isExpired() {
+        Duration maxInactiveInterval = Duration.ofMinutes(10L);
+        Instant creationTime = Instant.now().minus(Duration.ofMinutes(20L));
+        SessionCreationMetaData creationMetaData = new SimpleSessionCreationMetaData(creationTime);
+        creationMetaData.setMaxInactiveInterval(maxInactiveInterval);
+
+        // Simulate a replicated last accessed time that lags the actual last accessed time (10 minutes ago) by the maximum lag
+        Duration lag = CoalescingSessionAccessMetaData.getMaxReplicationLag(maxInactiveInterval, 0.1);
+        assertEquals(Duration.ofMinutes(1L), lag);
+        SessionAccessMetaData replicatedMetaData = new SimpleSessionAccessMetaData();
+        replicatedMetaData.setLastAccessedDuration(Duration.ofMinutes(10L).minus(lag).plusSeconds(1L));
+
+        assertTrue(new SimpleSessionMetaData(creationMetaData, replicatedMetaData).isExpired());
+        assertFalse(new SimpleSessionMetaData(creationMetaData, replicatedMetaData, 0.1).isExpired());
+
+        replicatedMetaData.setLastAccessedDuration(Duration.ofMinutes(8L));
+        assertTrue(new SimpleSessionMetaData(creationMetaData, replicatedMetaData, 0.1).isExpired());
+    }
+
+    private void access(Duration duration) {
+        new CoalescingSessionAccessMetaData(this.cachedMetaData, this.creationMetaData, this.mutator, 0.1).setLastAccessedDuration(duration);
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session.fine;
+
+import java.io.IOException;
+import java.io.Serializable;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.wildfly.clustering.marshalling.ExternalizerTester;
+import org.wildfly.clustering.marshalling.spi.MarshalledValue;
+import org.wildfly.clustering.web.attribute.DeltaCapable;
+
+/**
+ * Unit test for {@link DeltaMarshalledValue}.
+ */
+public class DeltaMarshalledValueTestCase {
+
+    @Test
+    public void get() throws ClassNotFoundException, IOException {
+        DeltaMarshalledValue<Void> value = new DeltaMarshalledValue<>(new TestMarshalledValue(new Counter(1)), 0);
+        Assert.assertEquals(0, value.getCount());
+
+        DeltaMarshalledValue<Void> value1 = value.append(new TestMarshalledValue(2));
+        DeltaMarshalledValue<Void> value2 = value1.append(new TestMarshalledValue(3));
+        Assert.assertEquals(1, value1.getCount());
+        Assert.assertEquals(2, value2.getCount());
+
+        // Deltas are applied lazily
+        Assert.assertEquals(3, ((Counter) value1.get(null)).getValue());
+        // Successive values share their base value, so deltas are never applied twice
+        Assert.assertEquals(6, ((Counter) value2.get(null)).getValue());
+        Assert.assertEquals(6, ((Counter) value2.get(null)).getValue());
+        Assert.assertEquals(6, ((Counter) value1.get(null)).getValue());
+
+        DeltaMarshalledValue<Void> value3 = value2.append(new TestMarshalledValue(4));
+        Assert.assertEquals(3, value3.getCount());
+        Assert.assertEquals(10, ((Counter) value3.get(null)).getValue());
+    }
+
+    @Test
+    public void externalizer() throws ClassNotFoundException, IOException {
+        DeltaMarshalledValue<Void> value = new DeltaMarshalledValue<>(new TestMarshalledValue(new Counter(1)), 2).append(new TestMarshalledValue(2));
+        new ExternalizerTester<>(new DeltaMarshalledValueExternalizer<Void>(), DeltaMarshalledValueTestCase::assertEquals).test(value);
+
+        // Applied deltas are not marshalled
+        value.get(null);
+        new ExternalizerTester<>(new DeltaMarshalledValueExternalizer<Void>(), DeltaMarshalledValueTestCase::assertEquals).test(value);
+    }
+
+    static void assertEquals(DeltaMarshalledValue<Void> value1, DeltaMarshalledValue<Void> value2) {
+        Assert.assertEquals(value1.getCount(), value2.getCount());
+        try {
+            Assert.assertEquals(((Counter) value1.get(null)).getValue(), ((Counter) value2.get(null)).getValue());
+        } catch (IOException | ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static class Counter implements DeltaCapable<Integer>, Serializable {
+        private static final long serialVersionUID = -6180958829738468236L;
+
+        private int value;
+
+        Counter(int value) {
+            this.value = value;
+        }
+
+        int getValue() {
+            return this.value;
+        }
+
+        @Override
+        public Integer getDelta() {
+            return null;
+        }
+
+        @Override
+        public void applyDelta(Integer delta) {
+            this.value += delta;
+        }
+    }
+
+    static class TestMarshalledValue implements MarshalledValue<Object, Void> {
+        private static final long serialVersionUID = 7466306006468233446L;
+
+        private final Object object;
+
+        TestMarshalledValue(Object object) {
+            this.object = object;
+        }
+
+        @Override
+        public Object get(Void context) {
+            return this.object;
+        }
+    }
+}
@@ -23,8 +23,10 @@
 package org.wildfly.clustering.web.session;
 
 import java.util.EnumSet;
+import java.util.Set;
 import java.util.function.Predicate;
 
+import org.wildfly.clustering.ee.CachedImmutability;
 import org.wildfly.clustering.ee.CollectionImmutability;
 import org.wildfly.clustering.ee.Immutability;
 import org.wildfly.clustering.web.annotation.Immutable;
@@ -57,11 +59,20 @@ public enum SessionAttributeImmutability implements Predicate<Object> {
     },
     ;
 
-    public static final Predicate<Object> INSTANCE = object -> {
-        for (SessionAttributeImmutability immutability : EnumSet.allOf(SessionAttributeImmutability.class)) {
-            if (immutability.test(object)) return true;
-        }
-        return false;
-    };
+    /**
+     * Tests whether all instances of a given class are immutable session attributes.
+     */
+    public static final Predicate<Class<?>> CLASS_INSTANCE = Immutability.CLASS_INSTANCE.or(targetClass -> targetClass.isAnnotationPresent(Immutable.class));
+    // Verdicts that only depend on the class of an object are computed once per class
+    public static final Predicate<Object> INSTANCE = new CachedImmutability(Immutability.OBJECT, CLASS_INSTANCE);
     static final Predicate<Object> COLLECTION_INSTANCE = new CollectionImmutability(INSTANCE);
+
+    /**
+     * Returns a session attribute immutability test that additionally deems instances of the specified application classes to be immutable.
+     * @param immutableClasses a set of classes whose instances are immutable
+     * @return an immutability test
+     */
+    public static Predicate<Object> forClasses(Set<Class<?>> immutableClasses) {
+        return immutableClasses.isEmpty() ? INSTANCE : new CachedImmutability(Immutability.OBJECT, CLASS_INSTANCE.or(immutableClasses::contains));
+    }
 }
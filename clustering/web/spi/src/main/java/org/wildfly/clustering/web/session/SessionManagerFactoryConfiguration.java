@@ -21,6 +21,8 @@
  */
 package org.wildfly.clustering.web.session;
 
+import java.util.Set;
+
 import org.wildfly.clustering.marshalling.spi.Marshallability;
 import org.wildfly.clustering.marshalling.spi.MarshalledValueFactory;
 import org.wildfly.clustering.web.LocalContextFactory;
@@ -36,6 +38,27 @@ public interface SessionManagerFactoryConfiguration<C extends Marshallability, L
 
     SessionAttributePersistenceStrategy getAttributePersistenceStrategy();
 
+    /**
+     * Indicates whether modifications to session attributes implementing {@link org.wildfly.clustering.web.attribute.DeltaCapable}
+     * should be replicated as deltas.  Only applies to the {@link SessionAttributePersistenceStrategy#FINE} persistence strategy.
+     * @return true, if delta replication is enabled, false otherwise
+     */
+    boolean isDeltaReplicationEnabled();
+
+    /**
+     * Returns the application classes whose instances are immutable, and thus never need to be replicated following a read,
+     * in addition to those detected by {@link SessionAttributeImmutability}.
+     * @return a set of classes
+     */
+    Set<Class<?>> getImmutableClasses();
+
+    /**
+     * Returns the fraction of the max inactive interval of a session by which its last accessed time must advance before it is replicated.
+     * Sessions may consequently expire later than their max inactive interval, by up to this fraction, but never earlier.
+     * @return a fraction between 0 and 1, where 0 replicates every access
+     */
+    double getAccessReplicationThreshold();
+
     String getServerName();
 
     String getDeploymentName();
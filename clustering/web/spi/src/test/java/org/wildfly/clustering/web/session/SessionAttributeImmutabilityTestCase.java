@@ -22,6 +22,8 @@
 
 package org.wildfly.clustering.web.session;
 
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.util.Collections;
@@ -52,7 +54,30 @@ public class SessionAttributeImmutabilityTestCase extends ImmutabilityTestCase {
         assertTrue(immutability.test(Collections.singletonMap("1", new ImmutableObject())));
     }
 
+    @Test
+    public void forClasses() throws Exception {
+        assertSame(SessionAttributeImmutability.INSTANCE, SessionAttributeImmutability.forClasses(Collections.emptySet()));
+
+        Predicate<Object> immutability = SessionAttributeImmutability.forClasses(Collections.singleton(RegisteredObject.class));
+        this.test(immutability);
+
+        // Repeated tests must yield the same (cached) verdict
+        for (int i = 0; i < 2; ++i) {
+            assertTrue(immutability.test(new RegisteredObject()));
+            assertTrue(immutability.test(Collections.singletonList(new RegisteredObject())));
+            assertFalse(immutability.test(new UnregisteredObject()));
+            assertFalse(immutability.test(Collections.singletonList(new UnregisteredObject())));
+            assertFalse(SessionAttributeImmutability.INSTANCE.test(new RegisteredObject()));
+        }
+    }
+
     @Immutable
     static class ImmutableObject {
     }
+
+    static class RegisteredObject {
+    }
+
+    static class UnregisteredObject {
+    }
 }
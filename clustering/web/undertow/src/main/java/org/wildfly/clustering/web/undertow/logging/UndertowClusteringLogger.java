@@ -24,6 +24,7 @@ package org.wildfly.clustering.web.undertow.logging;
 
 import org.jboss.logging.BasicLogger;
 import org.jboss.logging.Logger;
+import org.jboss.logging.annotations.Cause;
 import org.jboss.logging.annotations.Message;
 import org.jboss.logging.annotations.MessageLogger;
 
@@ -40,4 +41,7 @@ public interface UndertowClusteringLogger extends BasicLogger {
 
     @Message(id = 3, value = "Session manager was stopped")
     IllegalStateException sessionManagerStopped();
+
+    @Message(id = 4, value = "Class %s, specified by context parameter %s, could not be loaded")
+    IllegalArgumentException immutableClassNotFound(@Cause Throwable cause, String className, String parameter);
 }
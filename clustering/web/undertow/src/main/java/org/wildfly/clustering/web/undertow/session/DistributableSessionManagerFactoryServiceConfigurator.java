@@ -23,8 +23,11 @@ package org.wildfly.clustering.web.undertow.session;
 
 import java.io.Externalizable;
 import java.io.Serializable;
+import java.util.Collections;
 import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -54,6 +57,7 @@ import org.wildfly.clustering.service.SimpleServiceNameProvider;
 import org.wildfly.clustering.web.LocalContextFactory;
 import org.wildfly.clustering.web.session.SessionManagerFactoryConfiguration;
 import org.wildfly.clustering.web.session.SessionManagerFactoryServiceConfiguratorProvider;
+import org.wildfly.clustering.web.undertow.logging.UndertowClusteringLogger;
 import org.wildfly.extension.undertow.session.DistributableSessionManagerConfiguration;
 
 import io.undertow.servlet.api.SessionManagerFactory;
@@ -105,6 +109,15 @@ public class DistributableSessionManagerFactoryServiceConfigurator extends Simpl
         MarshallingContext context = new SimpleMarshallingContextFactory().createMarshallingContext(new SimpleMarshallingConfigurationRepository(MarshallingVersion.class, MarshallingVersion.CURRENT, module), module.getClassLoader());
         MarshalledValueFactory<MarshallingContext> factory = new SimpleMarshalledValueFactory(context);
         LocalContextFactory<LocalSessionContext> localContextFactory = new LocalSessionContextFactory();
+        Set<Class<?>> immutableClasses = new HashSet<>();
+        for (String className : config.getImmutableClassNames()) {
+            try {
+                immutableClasses.add(module.getClassLoader().loadClass(className));
+            } catch (ClassNotFoundException e) {
+                throw UndertowClusteringLogger.ROOT_LOGGER.immutableClassNotFound(e, className, DistributableSessionManagerConfiguration.IMMUTABLE_CLASSES_PARAMETER);
+            }
+        }
+        Set<Class<?>> immutableClassSet = Collections.unmodifiableSet(immutableClasses);
         SessionManagerFactoryConfiguration<MarshallingContext, LocalSessionContext> configuration = new SessionManagerFactoryConfiguration<MarshallingContext, LocalSessionContext>() {
             @Override
             public int getMaxActiveSessions() {
@@ -116,6 +129,21 @@ public class DistributableSessionManagerFactoryServiceConfigurator extends Simpl
                 return strategies.get(config.getGranularity());
             }
 
+            @Override
+            public boolean isDeltaReplicationEnabled() {
+                return config.isDeltaReplicationEnabled();
+            }
+
+            @Override
+            public Set<Class<?>> getImmutableClasses() {
+                return immutableClassSet;
+            }
+
+            @Override
+            public double getAccessReplicationThreshold() {
+                return config.getAccessReplicationThreshold();
+            }
+
             @Override
             public String getServerName() {
                 return config.getServerName();
@@ -25,23 +25,27 @@ package org.wildfly.clustering.web.undertow.session;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.wildfly.clustering.web.session.ActiveSessionStatistics;
+import org.wildfly.clustering.web.session.DeltaReplicationStatistics;
 import org.wildfly.clustering.web.session.InactiveSessionStatistics;
+import org.wildfly.extension.undertow.session.SessionAttributeDeltaStatistics;
 
 import io.undertow.server.session.Session;
 
 /**
  * @author Paul Ferraro
  */
-public class DistributableSessionManagerStatistics implements RecordableSessionManagerStatistics {
+public class DistributableSessionManagerStatistics implements RecordableSessionManagerStatistics, SessionAttributeDeltaStatistics {
 
     private final InactiveSessionStatistics inactiveSessionStatistics;
     private final ActiveSessionStatistics activeSessionStatistics;
+    private final DeltaReplicationStatistics deltaReplicationStatistics;
     private final int maxActiveSessions;
     private volatile long startTime = System.currentTimeMillis();
     private final AtomicLong createdSessionCount = new AtomicLong();
 
-    public DistributableSessionManagerStatistics(ActiveSessionStatistics activeSessionStatistics, InactiveSessionStatistics inactiveSessionStatistics, int maxActiveSessions) {
+    public <S extends ActiveSessionStatistics & DeltaReplicationStatistics> DistributableSessionManagerStatistics(S activeSessionStatistics, InactiveSessionStatistics inactiveSessionStatistics, int maxActiveSessions) {
         this.activeSessionStatistics = activeSessionStatistics;
+        this.deltaReplicationStatistics = activeSessionStatistics;
         this.inactiveSessionStatistics = inactiveSessionStatistics;
         this.maxActiveSessions = maxActiveSessions;
         this.reset();
@@ -98,4 +102,14 @@ public class DistributableSessionManagerStatistics implements RecordableSessionM
     public long getStartTime() {
         return this.startTime;
     }
+
+    @Override
+    public long getDeltaReplicationCount() {
+        return this.deltaReplicationStatistics.getDeltaReplicationCount();
+    }
+
+    @Override
+    public long getDeltaReplicationFallbackCount() {
+        return this.deltaReplicationStatistics.getDeltaReplicationFallbackCount();
+    }
 }
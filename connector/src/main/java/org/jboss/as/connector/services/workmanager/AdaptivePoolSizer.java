@@ -0,0 +1,320 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.connector.services.workmanager;
+
+import static java.security.AccessController.doPrivileged;
+import static org.jboss.as.connector.logging.ConnectorLogger.ROOT_LOGGER;
+
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.threads.JBossThreadFactory;
+
+/**
+ * Periodically grows and shrinks the short and long running thread pools of a work manager, based on the queue time,
+ * throughput and rejections observed by their {@link StatisticsExecutorImpl}.
+ * <p>
+ * A pool grows while works wait in the queue for longer than {@link #TARGET_QUEUE_TIME} or get rejected, and shrinks
+ * back once the queue stayed drained for {@link #SHRINK_INTERVALS} intervals and the added threads are idle. Growth which does not raise throughput, typically
+ * because works are blocked on a backend, is reverted and the pool is left alone for a few intervals. Pools never go
+ * below their configured size, nor above the configured ceiling.
+ * <p>
+ * The configured size of a pool is re-read at every interval, so a size written at runtime, e.g. through the
+ * management model, becomes the new configured size instead of being overwritten by the next resize.
+ */
+public class AdaptivePoolSizer implements Runnable {
+
+    public static final String SHORT_RUNNING = "short-running";
+
+    public static final String LONG_RUNNING = "long-running";
+
+    /**
+     * the interval between sizing decisions, in milliseconds
+     */
+    static final long INTERVAL = 5000;
+
+    /**
+     * the average queue time above which a pool grows, in nanoseconds
+     */
+    static final long TARGET_QUEUE_TIME = TimeUnit.MILLISECONDS.toNanos(20);
+
+    /**
+     * the number of intervals a pool is left alone after reverting ineffective growth
+     */
+    static final int BACK_OFF_INTERVALS = 6;
+
+    /**
+     * the number of consecutive intervals without queueing nor rejections before a pool shrinks
+     */
+    static final int SHRINK_INTERVALS = 3;
+
+    private final String name;
+    private final List<Pool> pools = new ArrayList<>(2);
+    private volatile long resizeCount;
+    private volatile String lastDecision;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Create an instance.
+     *
+     * @param name the work manager name
+     * @param shortRunning the short running pool
+     * @param longRunning the long running pool, or null if the work manager does not have one
+     * @param maxThreads the ceiling for the max threads of each pool, if not positive twice the configured max threads is used
+     */
+    public AdaptivePoolSizer(String name, StatisticsExecutorImpl shortRunning, StatisticsExecutorImpl longRunning, int maxThreads) {
+        this.name = name;
+        addPool(SHORT_RUNNING, shortRunning, maxThreads);
+        if (longRunning != null) {
+            addPool(LONG_RUNNING, longRunning, maxThreads);
+        }
+    }
+
+    private void addPool(String type, StatisticsExecutorImpl executor, int maxThreads) {
+        if (executor.isResizable()) {
+            pools.add(new Pool(type, executor, maxThreads));
+        } else {
+            ROOT_LOGGER.debugf("The %s pool of work manager %s does not support adaptive sizing", type, name);
+        }
+    }
+
+    public synchronized void start() {
+        final String namePattern = "JCA WorkManager " + name + " adaptive sizing -- %t";
+        final ThreadFactory threadFactory = doPrivileged(new PrivilegedAction<JBossThreadFactory>() {
+            public JBossThreadFactory run() {
+                return new JBossThreadFactory(null, Boolean.TRUE, null, namePattern, null, null);
+            }
+        });
+        scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        scheduler.scheduleWithFixedDelay(this, INTERVAL, INTERVAL, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops resizing and restores the configured size of the pools, unless it was changed since they were last resized.
+     */
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        for (Pool pool : pools) {
+            pool.restore();
+        }
+    }
+
+    @Override
+    public synchronized void run() {
+        for (Pool pool : pools) {
+            try {
+                pool.adjust();
+            } catch (RuntimeException e) {
+                ROOT_LOGGER.debugf(e, "Failed to adjust the %s pool of work manager %s", pool.type, name);
+            }
+        }
+    }
+
+    /**
+     * Get the current max threads of the pool of the specified type.
+     *
+     * @param type the pool type, {@link #SHORT_RUNNING} or {@link #LONG_RUNNING}
+     * @return the max threads, or -1 if the pool is not adaptively sized
+     */
+    public int getMaxThreads(String type) {
+        final Pool pool = getPool(type);
+        return pool != null ? pool.executor.getMaxThreads() : -1;
+    }
+
+    /**
+     * Get the average queue time observed in the last interval for the pool of the specified type.
+     *
+     * @param type the pool type, {@link #SHORT_RUNNING} or {@link #LONG_RUNNING}
+     * @return the average queue time in milliseconds, or -1 if the pool is not adaptively sized
+     */
+    public long getAverageQueueTime(String type) {
+        final Pool pool = getPool(type);
+        return pool != null ? TimeUnit.NANOSECONDS.toMillis(pool.averageQueueTime) : -1;
+    }
+
+    /**
+     * Get the number of times any pool was resized.
+     *
+     * @return the resize count
+     */
+    public long getResizeCount() {
+        return resizeCount;
+    }
+
+    /**
+     * Get a description of the last resize decision.
+     *
+     * @return the last decision, or null if no pool was resized yet
+     */
+    public String getLastDecision() {
+        return lastDecision;
+    }
+
+    private Pool getPool(String type) {
+        for (Pool pool : pools) {
+            if (pool.type.equals(type)) {
+                return pool;
+            }
+        }
+        return null;
+    }
+
+    private final class Pool {
+
+        private final String type;
+        private final StatisticsExecutorImpl executor;
+        private final int maxThreads;
+        private int configuredCore;
+        private int configuredMax;
+        private int ceiling;
+
+        /**
+         * the core and max threads last set on the pool, by this sizer or by the configuration
+         */
+        private int currentCore;
+        private int currentMax;
+
+        /**
+         * the threads added on top of the configured core and max threads
+         */
+        private int extra;
+        private int lastGrowth;
+        private long lastThroughput;
+        private int backOff;
+        private int quiet;
+
+        private long lastStarted;
+        private long lastCompleted;
+        private long lastRejected;
+        private long lastQueueTime;
+        private volatile long averageQueueTime;
+
+        private Pool(String type, StatisticsExecutorImpl executor, int maxThreads) {
+            this.type = type;
+            this.executor = executor;
+            this.maxThreads = maxThreads;
+            configure(executor.getCoreThreads(), executor.getMaxThreads());
+        }
+
+        private void configure(int core, int max) {
+            configuredCore = core;
+            configuredMax = max;
+            ceiling = maxThreads > 0 ? Math.max(maxThreads, max) : 2 * max;
+            currentCore = core;
+            currentMax = max;
+            extra = 0;
+        }
+
+        /**
+         * Takes the size of the pool as its configured size if it was changed since it was last set by this sizer.
+         *
+         * @return true if the pool was resized by someone else
+         */
+        private boolean reconfigured() {
+            final int core = executor.getCoreThreads();
+            final int max = executor.getMaxThreads();
+            if (core == currentCore && max == currentMax) {
+                return false;
+            }
+            ROOT_LOGGER.debugf("The %s pool of work manager %s was resized to %d core and %d max threads", type, name, core, max);
+            configure(core, max);
+            lastGrowth = 0;
+            backOff = 0;
+            quiet = 0;
+            return true;
+        }
+
+        void adjust() {
+            final long startedTotal = executor.getStartedCount();
+            final long completedTotal = executor.getCompletedCount();
+            final long rejectedTotal = executor.getRejectedCount();
+            final long queueTimeTotal = executor.getTotalQueueTime();
+            final long started = startedTotal - lastStarted;
+            final long throughput = completedTotal - lastCompleted;
+            final long rejected = rejectedTotal - lastRejected;
+            final long queueTime = started > 0 ? (queueTimeTotal - lastQueueTime) / started : 0;
+            final long inFlight = startedTotal - completedTotal;
+            lastStarted = startedTotal;
+            lastCompleted = completedTotal;
+            lastRejected = rejectedTotal;
+            lastQueueTime = queueTimeTotal;
+            averageQueueTime = queueTime;
+            if (reconfigured()) {
+                lastThroughput = throughput;
+                return;
+            }
+
+            final int growth = lastGrowth;
+            lastGrowth = 0;
+            if (rejected == 0 && queueTime < TARGET_QUEUE_TIME / 4) {
+                quiet++;
+            } else {
+                quiet = 0;
+            }
+            if (growth > 0 && throughput <= lastThroughput + lastThroughput / 20) {
+                // the added threads did not complete more work, most likely blocked on the same backend
+                resize(extra - growth, "throughput did not improve from " + lastThroughput + " to " + throughput + " works");
+                backOff = BACK_OFF_INTERVALS;
+            } else if (backOff > 0) {
+                backOff--;
+            } else if ((rejected > 0 || queueTime > TARGET_QUEUE_TIME) && currentMax < ceiling) {
+                final int step = Math.min(Math.max(1, currentMax / 4), ceiling - currentMax);
+                resize(extra + step, rejected > 0 ? rejected + " works rejected" : "average queue time " + TimeUnit.NANOSECONDS.toMillis(queueTime) + "ms");
+                lastGrowth = step;
+            } else if (extra > 0 && quiet >= SHRINK_INTERVALS) {
+                final int step = Math.min(Math.max(1, currentMax / 8), extra);
+                if (inFlight <= currentMax - step) {
+                    resize(extra - step, "no queueing for " + quiet + " intervals with " + inFlight + " works running");
+                    quiet = 0;
+                }
+            }
+            lastThroughput = throughput;
+        }
+
+        private void resize(int newExtra, String reason) {
+            final int previousMax = currentMax;
+            extra = newExtra;
+            currentCore = configuredCore + extra;
+            currentMax = configuredMax + extra;
+            executor.setThreads(currentCore, currentMax);
+            resizeCount++;
+            final String decision = type + " max threads " + previousMax + " -> " + currentMax + ": " + reason;
+            lastDecision = decision;
+            ROOT_LOGGER.debugf("Work manager %s resized %s", name, decision);
+        }
+
+        void restore() {
+            if (extra != 0 && !reconfigured()) {
+                configure(configuredCore, configuredMax);
+                executor.setThreads(configuredCore, configuredMax);
+            }
+        }
+    }
+}
@@ -61,15 +61,29 @@ public final class DistributedWorkManagerService implements Service<NamedDistrib
 
     private final InjectedValue<CommandDispatcherFactory> dispatcherFactory = new InjectedValue<>();
 
+    private final long statisticsBatchInterval;
+
     /**
      * create an instance
      *
      * @param value the work manager
      */
     public DistributedWorkManagerService(NamedDistributedWorkManager value) {
+        this(value, 0L);
+    }
+
+    /**
+     * create an instance
+     *
+     * @param value the work manager
+     * @param statisticsBatchInterval the interval, in milliseconds, at which statistics deltas are published to other members,
+     *        or 0 to publish each delta immediately
+     */
+    public DistributedWorkManagerService(NamedDistributedWorkManager value, long statisticsBatchInterval) {
         super();
         ROOT_LOGGER.debugf("Building DistributedWorkManager");
         this.value = value;
+        this.statisticsBatchInterval = statisticsBatchInterval;
     }
 
     @Override
@@ -81,7 +95,7 @@ public final class DistributedWorkManagerService implements Service<NamedDistrib
     public void start(StartContext context) throws StartException {
         ROOT_LOGGER.debugf("Starting JCA DistributedWorkManager: ", value.getName());
 
-        CommandDispatcherTransport transport = new CommandDispatcherTransport(this.dispatcherFactory.getValue(), this.value.getName());
+        CommandDispatcherTransport transport = new CommandDispatcherTransport(this.dispatcherFactory.getValue(), this.value.getName(), this.statisticsBatchInterval);
 
         this.value.setTransport(transport);
 
@@ -24,6 +24,7 @@ package org.jboss.as.connector.services.workmanager;
 
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.jboss.as.threads.ManagedJBossThreadPoolExecutorService;
 import org.jboss.as.threads.ManagedQueueExecutorService;
@@ -37,7 +38,8 @@ import org.jboss.threads.JBossThreadPoolExecutor;
 import org.jboss.threads.management.ThreadPoolExecutorMBean;
 
 /**
- * A StatisticsExecutor implementation keeping track of numberOfFreeThreads
+ * A StatisticsExecutor implementation keeping track of numberOfFreeThreads, and optionally of the time works wait
+ * in the pool's queue, which is used by the {@link AdaptivePoolSizer}.
  *
  * @author Stefano Maestri
  */
@@ -51,35 +53,197 @@ public class StatisticsExecutorImpl implements StatisticsExecutor {
 
     private final BlockingExecutor realExecutor;
 
+    private final boolean trackQueueTime;
+
+    private final LongAdder started = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder queueTime = new LongAdder();
+
     /**
      * StatisticsExecutorImpl constructor
      *
      * @param realExecutor the real executor we are delegating
      */
     public StatisticsExecutorImpl(BlockingExecutor realExecutor) {
+        this(realExecutor, false);
+    }
+
+    /**
+     * StatisticsExecutorImpl constructor
+     *
+     * @param realExecutor the real executor we are delegating
+     * @param trackQueueTime whether queue time, throughput and rejections of submitted works should be tracked
+     */
+    public StatisticsExecutorImpl(BlockingExecutor realExecutor, boolean trackQueueTime) {
         this.realExecutor = realExecutor;
+        this.trackQueueTime = trackQueueTime;
     }
 
 
     @Override
     public void execute(Runnable runnable) {
-        realExecutor.execute(runnable);
+        if (!trackQueueTime) {
+            realExecutor.execute(runnable);
+            return;
+        }
+        try {
+            realExecutor.execute(new TrackedRunnable(runnable));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
     }
 
     @Override
     public void executeBlocking(Runnable runnable) throws RejectedExecutionException, InterruptedException {
-        realExecutor.executeBlocking(runnable);
+        if (!trackQueueTime) {
+            realExecutor.executeBlocking(runnable);
+            return;
+        }
+        try {
+            realExecutor.executeBlocking(new TrackedRunnable(runnable));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
     }
 
     @Override
     public void executeBlocking(Runnable runnable, long l, TimeUnit timeUnit) throws RejectedExecutionException,
             InterruptedException {
-        realExecutor.executeBlocking(runnable, l, timeUnit);
+        if (!trackQueueTime) {
+            realExecutor.executeBlocking(runnable, l, timeUnit);
+            return;
+        }
+        try {
+            realExecutor.executeBlocking(new TrackedRunnable(runnable), l, timeUnit);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
     }
 
     @Override
     public void executeNonBlocking(Runnable runnable) throws RejectedExecutionException {
-        realExecutor.executeNonBlocking(runnable);
+        if (!trackQueueTime) {
+            realExecutor.executeNonBlocking(runnable);
+            return;
+        }
+        try {
+            realExecutor.executeNonBlocking(new TrackedRunnable(runnable));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+    }
+
+    /**
+     * Get the number of works which started running, only tracked if queue time tracking is enabled.
+     *
+     * @return the number of works started
+     */
+    public long getStartedCount() {
+        return started.sum();
+    }
+
+    /**
+     * Get the number of works which finished running, only tracked if queue time tracking is enabled.
+     *
+     * @return the number of works completed
+     */
+    public long getCompletedCount() {
+        return completed.sum();
+    }
+
+    /**
+     * Get the number of works rejected by the pool, only tracked if queue time tracking is enabled.
+     *
+     * @return the number of works rejected
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * Get the accumulated time works waited between submission and start, only tracked if queue time tracking
+     * is enabled.
+     *
+     * @return the total queue time in nanoseconds
+     */
+    public long getTotalQueueTime() {
+        return queueTime.sum();
+    }
+
+    /**
+     * Whether the core and max threads of the underlying pool can be changed at runtime. The pools of the subsystem are
+     * {@link ManagedQueueExecutorService}s, but a plain {@link JBossThreadPoolExecutor} may be delegated to as well, as
+     * supported by {@link #getNumberOfFreeThreads()}.
+     *
+     * @return true if {@link #setThreads(int, int)} is supported
+     */
+    public boolean isResizable() {
+        return realExecutor instanceof ManagedQueueExecutorService || realExecutor instanceof JBossThreadPoolExecutor;
+    }
+
+    /**
+     * Get the core threads of the underlying pool.
+     *
+     * @return the core threads, or -1 if the pool is not resizable
+     */
+    public int getCoreThreads() {
+        if (realExecutor instanceof ManagedQueueExecutorService) {
+            return ((ManagedQueueExecutorService) realExecutor).getCoreThreads();
+        } else if (realExecutor instanceof JBossThreadPoolExecutor) {
+            return ((JBossThreadPoolExecutor) realExecutor).getCorePoolSize();
+        } else {
+            return -1;
+        }
+    }
+
+    /**
+     * Get the max threads of the underlying pool.
+     *
+     * @return the max threads, or -1 if the pool is not resizable
+     */
+    public int getMaxThreads() {
+        if (realExecutor instanceof ManagedQueueExecutorService) {
+            return ((ManagedQueueExecutorService) realExecutor).getMaxThreads();
+        } else if (realExecutor instanceof JBossThreadPoolExecutor) {
+            return ((JBossThreadPoolExecutor) realExecutor).getMaximumPoolSize();
+        } else {
+            return -1;
+        }
+    }
+
+    /**
+     * Changes the core and max threads of the underlying pool, if resizable.
+     *
+     * @param coreThreads the new core threads
+     * @param maxThreads the new max threads, must not be lower than coreThreads
+     */
+    public void setThreads(int coreThreads, int maxThreads) {
+        // order the changes so that core threads never exceed max threads
+        final boolean growing = maxThreads > getMaxThreads();
+        if (realExecutor instanceof ManagedQueueExecutorService) {
+            final ManagedQueueExecutorService executor = (ManagedQueueExecutorService) realExecutor;
+            if (growing) {
+                executor.setMaxThreads(maxThreads);
+                executor.setCoreThreads(coreThreads);
+            } else {
+                executor.setCoreThreads(coreThreads);
+                executor.setMaxThreads(maxThreads);
+            }
+        } else if (realExecutor instanceof JBossThreadPoolExecutor) {
+            final JBossThreadPoolExecutor executor = (JBossThreadPoolExecutor) realExecutor;
+            if (growing) {
+                executor.setMaximumPoolSize(maxThreads);
+                executor.setCorePoolSize(coreThreads);
+            } else {
+                executor.setCorePoolSize(coreThreads);
+                executor.setMaximumPoolSize(maxThreads);
+            }
+        }
     }
 
     @Override
@@ -107,4 +271,28 @@ public class StatisticsExecutorImpl implements StatisticsExecutor {
         }
 
     }
+
+    /**
+     * Wraps a submitted work to measure the time it waits in the queue
+     */
+    private final class TrackedRunnable implements Runnable {
+
+        private final Runnable runnable;
+        private final long submitTime = System.nanoTime();
+
+        private TrackedRunnable(Runnable runnable) {
+            this.runnable = runnable;
+        }
+
+        @Override
+        public void run() {
+            queueTime.add(System.nanoTime() - submitTime);
+            started.increment();
+            try {
+                runnable.run();
+            } finally {
+                completed.increment();
+            }
+        }
+    }
 }
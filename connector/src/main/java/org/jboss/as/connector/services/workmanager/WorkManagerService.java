@@ -57,15 +57,34 @@ public final class WorkManagerService implements Service<NamedWorkManager> {
 
     private final InjectedValue<JBossContextXATerminator> xaTerminator = new InjectedValue<JBossContextXATerminator>();
 
+    private final boolean adaptiveSizing;
+
+    private final int adaptiveMaxThreads;
+
+    private volatile AdaptivePoolSizer poolSizer;
+
     /**
      * create an instance
      *
      * @param value the work manager
      */
     public WorkManagerService(NamedWorkManager value) {
+        this(value, false, 0);
+    }
+
+    /**
+     * create an instance
+     *
+     * @param value the work manager
+     * @param adaptiveSizing whether the thread pools should be adaptively sized
+     * @param adaptiveMaxThreads the ceiling for the max threads of adaptively sized pools, if not positive twice the configured max threads
+     */
+    public WorkManagerService(NamedWorkManager value, boolean adaptiveSizing, int adaptiveMaxThreads) {
         super();
         ROOT_LOGGER.debugf("Building WorkManager");
         this.value = value;
+        this.adaptiveSizing = adaptiveSizing;
+        this.adaptiveMaxThreads = adaptiveMaxThreads;
     }
 
     @Override
@@ -78,7 +97,14 @@ public final class WorkManagerService implements Service<NamedWorkManager> {
         ROOT_LOGGER.debugf("Starting JCA WorkManager: ", value.getName());
 
         BlockingExecutor longRunning = (BlockingExecutor) executorLong.getOptionalValue();
-        if (longRunning != null) {
+        if (adaptiveSizing) {
+            StatisticsExecutorImpl shortRunningExecutor = new StatisticsExecutorImpl((BlockingExecutor) executorShort.getValue(), true);
+            StatisticsExecutorImpl longRunningExecutor = longRunning != null ? new StatisticsExecutorImpl(longRunning, true) : null;
+            this.value.setLongRunningThreadPool(longRunningExecutor != null ? longRunningExecutor : shortRunningExecutor);
+            this.value.setShortRunningThreadPool(shortRunningExecutor);
+            poolSizer = new AdaptivePoolSizer(value.getName(), shortRunningExecutor, longRunningExecutor, adaptiveMaxThreads);
+            poolSizer.start();
+        } else if (longRunning != null) {
             this.value.setLongRunningThreadPool(longRunning);
             this.value.setShortRunningThreadPool(new StatisticsExecutorImpl((BlockingExecutor) executorShort.getValue()));
         } else {
@@ -115,6 +141,11 @@ public final class WorkManagerService implements Service<NamedWorkManager> {
         //shutting down immediately (synchronous method) the workmanager and release all works
         value.shutdown();
 
+        if (poolSizer != null) {
+            poolSizer.stop();
+            poolSizer = null;
+        }
+
         if (value.getName().equals(DEFAULT_NAME)) {
             WorkManagerCoordinator.getInstance().setDefaultWorkManager(null);
         } else {
@@ -124,6 +155,15 @@ public final class WorkManagerService implements Service<NamedWorkManager> {
         ROOT_LOGGER.debugf("Stopped JCA WorkManager: ", value.getName());
     }
 
+    /**
+     * Get the adaptive sizer of the thread pools.
+     *
+     * @return the sizer, or null if adaptive sizing is disabled or the service is not started
+     */
+    public AdaptivePoolSizer getPoolSizer() {
+        return poolSizer;
+    }
+
     public Injector<Executor> getExecutorShortInjector() {
         return executorShort;
     }
@@ -23,6 +23,8 @@
 package org.jboss.as.connector.services.workmanager.transport;
 
 import java.io.Serializable;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -31,6 +33,10 @@ import java.util.Set;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import javax.resource.spi.work.DistributableWork;
 import javax.resource.spi.work.WorkException;
@@ -40,6 +46,7 @@ import org.jboss.jca.core.api.workmanager.DistributedWorkManager;
 import org.jboss.jca.core.spi.workmanager.Address;
 import org.jboss.jca.core.workmanager.transport.remote.AbstractRemoteTransport;
 import org.jboss.jca.core.workmanager.transport.remote.ProtocolMessages.Request;
+import org.jboss.threads.JBossThreadFactory;
 import org.wildfly.clustering.Registration;
 import org.wildfly.clustering.dispatcher.Command;
 import org.wildfly.clustering.dispatcher.CommandDispatcher;
@@ -56,6 +63,10 @@ import org.wildfly.common.function.ExceptionSupplier;
 /**
  * {@link DistributedWorkManager}-specific transport based on a {@link CommandDispatcher}.
  * The current implementation is a direct translation of {@link org.jboss.jca.core.workmanager.transport.remote.jgroups.JGroupsTransport}.
+ * If a statistics batch interval is specified, statistics deltas destined for other members are accumulated locally
+ * and published as a single {@link DeltaBatchCommand} per member and interval.
+ * Free thread updates are always published within a batch, so that a member applies them in the order they were made.
+ * If the capacity of a work manager changes significantly, the pending batches are published immediately.
  * @author Paul Ferraro
  */
 public class CommandDispatcherTransport extends AbstractRemoteTransport<Node> implements GroupListener {
@@ -64,13 +75,27 @@ public class CommandDispatcherTransport extends AbstractRemoteTransport<Node> im
     private final CommandDispatcherFactory dispatcherFactory;
     private final String name;
 
+    private final long batchInterval;
+    private final Map<Node, Batch> batches = new HashMap<>();
+
     private volatile CommandDispatcher<CommandDispatcherTransport> dispatcher;
     private volatile Registration groupListenerRegistration;
+    private volatile ScheduledExecutorService batchExecutor;
     private volatile boolean initialized = false;
 
     public CommandDispatcherTransport(CommandDispatcherFactory dispatcherFactory, String name) {
+        this(dispatcherFactory, name, 0L);
+    }
+
+    /**
+     * @param dispatcherFactory a command dispatcher factory
+     * @param name the name of the distributed work manager
+     * @param batchInterval the interval, in milliseconds, at which statistics deltas are published, or 0 to publish each delta immediately
+     */
+    public CommandDispatcherTransport(CommandDispatcherFactory dispatcherFactory, String name, long batchInterval) {
         this.dispatcherFactory = dispatcherFactory;
         this.name = name;
+        this.batchInterval = batchInterval;
     }
 
     @Override
@@ -83,12 +108,28 @@ public class CommandDispatcherTransport extends AbstractRemoteTransport<Node> im
         this.dispatcher = this.dispatcherFactory.createCommandDispatcher(this.name, this);
         this.groupListenerRegistration = this.dispatcherFactory.getGroup().register(this);
         this.broadcast(new JoinCommand());
+        if (this.batchInterval > 0) {
+            final JBossThreadFactory threadFactory = AccessController.doPrivileged(new PrivilegedAction<JBossThreadFactory>() {
+                @Override
+                public JBossThreadFactory run() {
+                    return new JBossThreadFactory(new ThreadGroup("DistributedWorkManager-statistics-threads"), Boolean.TRUE, null, "%G - %t", null, null);
+                }
+            });
+            this.batchExecutor = Executors.newSingleThreadScheduledExecutor(threadFactory);
+            this.batchExecutor.scheduleWithFixedDelay(this::flush, this.batchInterval, this.batchInterval, TimeUnit.MILLISECONDS);
+        }
     }
 
     @Override
     public void shutdown() {
+        ScheduledExecutorService batchExecutor = this.batchExecutor;
+        if (batchExecutor != null) {
+            batchExecutor.shutdownNow();
+            this.batchExecutor = null;
+        }
         this.executor.close(() -> {
             try {
+                this.flush(this.drain());
                 this.broadcast(new LeaveCommand(this.getOwnAddress()));
             } catch (WorkException e) {
                 ConnectorLogger.ROOT_LOGGER.warn(e.getLocalizedMessage(), e);
@@ -116,6 +157,9 @@ public class CommandDispatcherTransport extends AbstractRemoteTransport<Node> im
 
     @Override
     protected Serializable sendMessage(Node physicalAddress, Request request, Serializable... parameters) throws WorkException {
+        if ((this.batchInterval > 0) && isBatchable(request) && !this.getOwnAddress().equals(physicalAddress) && this.batch(physicalAddress, request, parameters)) {
+            return null;
+        }
         Command<?, CommandDispatcherTransport> command = createCommand(request, parameters);
         CommandDispatcher<CommandDispatcherTransport> dispatcher = this.dispatcher;
         ExceptionSupplier<Optional<Serializable>, WorkException> task = new ExceptionSupplier<Optional<Serializable>, WorkException>() {
@@ -134,6 +178,103 @@ public class CommandDispatcherTransport extends AbstractRemoteTransport<Node> im
         return this.executor.execute(task).orElse(null).orElse(null);
     }
 
+    /**
+     * Indicates whether the specified request may be accumulated into a batch, i.e. whether it is a statistics delta,
+     * a free thread update, or clears the statistics.
+     */
+    private static boolean isBatchable(Request request) {
+        switch (request) {
+            case UPDATE_SHORTRUNNING_FREE:
+            case UPDATE_LONGRUNNING_FREE:
+            case CLEAR_DISTRIBUTED_STATISTICS: {
+                return true;
+            }
+            default: {
+                return DeltaBatchCommand.indexOf(request) >= 0;
+            }
+        }
+    }
+
+    /**
+     * Accumulates the specified message into the pending batch for the specified member, if possible.
+     * @return true, if the message was batched, false if it must be sent immediately
+     */
+    private boolean batch(Node member, Request request, Serializable... parameters) {
+        boolean update = (request == Request.UPDATE_SHORTRUNNING_FREE) || (request == Request.UPDATE_LONGRUNNING_FREE);
+        if (parameters.length < (update ? 2 : 1)) return false;
+        Address address = (Address) parameters[0];
+        boolean significant;
+        synchronized (this.batches) {
+            Batch batch = this.batches.computeIfAbsent(member, key -> new Batch());
+            switch (request) {
+                case UPDATE_SHORTRUNNING_FREE: {
+                    significant = batch.updateFree(batch.shortRunningFree, batch.sentShortRunningFree, address, (Long) parameters[1]);
+                    break;
+                }
+                case UPDATE_LONGRUNNING_FREE: {
+                    significant = batch.updateFree(batch.longRunningFree, batch.sentLongRunningFree, address, (Long) parameters[1]);
+                    break;
+                }
+                case CLEAR_DISTRIBUTED_STATISTICS: {
+                    // Deltas accumulated prior to clearing must not be applied afterwards
+                    batch.deltas.remove(address);
+                    return false;
+                }
+                default: {
+                    batch.deltas.computeIfAbsent(address, key -> new long[DeltaBatchCommand.DELTAS])[DeltaBatchCommand.indexOf(request)] += 1;
+                    return true;
+                }
+            }
+        }
+        if (significant) {
+            // Publish from the batch thread, so that this update cannot overtake a previous one
+            ScheduledExecutorService batchExecutor = this.batchExecutor;
+            if (batchExecutor != null) {
+                try {
+                    batchExecutor.execute(this::flush);
+                } catch (RejectedExecutionException e) {
+                    // Shutting down, pending batches are published on shutdown
+                }
+            }
+        }
+        return true;
+    }
+
+    private Map<Node, DeltaBatchCommand> drain() {
+        Map<Node, DeltaBatchCommand> commands = new HashMap<>();
+        synchronized (this.batches) {
+            for (Map.Entry<Node, Batch> entry : this.batches.entrySet()) {
+                DeltaBatchCommand command = entry.getValue().drain();
+                if (command != null) {
+                    commands.put(entry.getKey(), command);
+                }
+            }
+        }
+        return commands;
+    }
+
+    private void flush() {
+        Map<Node, DeltaBatchCommand> commands = this.drain();
+        if (!commands.isEmpty()) {
+            Runnable task = () -> this.flush(commands);
+            this.executor.execute(task);
+        }
+    }
+
+    private void flush(Map<Node, DeltaBatchCommand> commands) {
+        for (Map.Entry<Node, DeltaBatchCommand> entry : commands.entrySet()) {
+            try {
+                this.dispatcher.executeOnMember(entry.getValue(), entry.getKey()).whenComplete((result, e) -> {
+                    if ((e != null) && !(e instanceof CancellationException)) {
+                        ConnectorLogger.ROOT_LOGGER.warn(e.getLocalizedMessage(), e);
+                    }
+                });
+            } catch (CommandDispatcherException e) {
+                ConnectorLogger.ROOT_LOGGER.warn(e.getLocalizedMessage(), e);
+            }
+        }
+    }
+
     private void broadcast(Command<Void, CommandDispatcherTransport> command) throws WorkException {
         CommandDispatcher<CommandDispatcherTransport> dispatcher = this.dispatcher;
         ExceptionRunnable<WorkException> task = new ExceptionRunnable<WorkException>() {
@@ -234,6 +375,9 @@ public class CommandDispatcherTransport extends AbstractRemoteTransport<Node> im
             leavers.removeAll(membership.getMembers());
             // Handle abrupt leavers
             for (Node leaver : leavers) {
+                synchronized (this.batches) {
+                    this.batches.remove(leaver);
+                }
                 this.leave(leaver);
             }
 
@@ -276,4 +420,40 @@ public class CommandDispatcherTransport extends AbstractRemoteTransport<Node> im
             }
         }
     }
+
+    /**
+     * Statistics deltas and free thread updates pending for a given member.
+     */
+    private static class Batch {
+        final Map<Address, long[]> deltas = new HashMap<>();
+        final Map<Address, Long> shortRunningFree = new HashMap<>();
+        final Map<Address, Long> longRunningFree = new HashMap<>();
+        final Map<Address, Long> sentShortRunningFree = new HashMap<>();
+        final Map<Address, Long> sentLongRunningFree = new HashMap<>();
+
+        /**
+         * Records a free thread update into this batch, replacing any pending update for the same work manager.
+         * @return true, if the change since the last published update is significant, i.e. the work manager became exhausted,
+         * recovered from exhaustion, or its capacity changed by at least a quarter, in which case the batch should be published immediately
+         */
+        boolean updateFree(Map<Address, Long> pending, Map<Address, Long> sent, Address address, Long value) {
+            pending.put(address, value);
+            Long previous = sent.get(address);
+            long current = value.longValue();
+            return (previous == null) || (current == 0L) || (previous.longValue() == 0L) || (Math.abs(current - previous.longValue()) * 4 >= previous.longValue());
+        }
+
+        DeltaBatchCommand drain() {
+            if (this.deltas.isEmpty() && this.shortRunningFree.isEmpty() && this.longRunningFree.isEmpty()) {
+                return null;
+            }
+            this.sentShortRunningFree.putAll(this.shortRunningFree);
+            this.sentLongRunningFree.putAll(this.longRunningFree);
+            DeltaBatchCommand command = new DeltaBatchCommand(new HashMap<>(this.deltas), new HashMap<>(this.shortRunningFree), new HashMap<>(this.longRunningFree));
+            this.deltas.clear();
+            this.shortRunningFree.clear();
+            this.longRunningFree.clear();
+            return command;
+        }
+    }
 }
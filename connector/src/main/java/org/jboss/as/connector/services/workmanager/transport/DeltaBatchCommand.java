@@ -0,0 +1,135 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.connector.services.workmanager.transport;
+
+import java.util.Map;
+
+import org.jboss.jca.core.spi.workmanager.Address;
+import org.jboss.jca.core.workmanager.transport.remote.ProtocolMessages.Request;
+import org.wildfly.clustering.dispatcher.Command;
+
+/**
+ * Applies the statistics deltas and free thread updates accumulated by an aggregating {@link CommandDispatcherTransport}
+ * since its previous batch, replacing the individual delta and update commands.
+ */
+public class DeltaBatchCommand implements Command<Void, CommandDispatcherTransport> {
+    private static final long serialVersionUID = 2516374806583624581L;
+
+    static final int DOWORK_ACCEPTED = 0;
+    static final int DOWORK_REJECTED = 1;
+    static final int SCHEDULEWORK_ACCEPTED = 2;
+    static final int SCHEDULEWORK_REJECTED = 3;
+    static final int STARTWORK_ACCEPTED = 4;
+    static final int STARTWORK_REJECTED = 5;
+    static final int WORK_FAILED = 6;
+    static final int WORK_SUCCESSFUL = 7;
+    static final int DELTAS = 8;
+
+    private final Map<Address, long[]> deltas;
+    private final Map<Address, Long> shortRunningFree;
+    private final Map<Address, Long> longRunningFree;
+
+    public DeltaBatchCommand(Map<Address, long[]> deltas, Map<Address, Long> shortRunningFree, Map<Address, Long> longRunningFree) {
+        this.deltas = deltas;
+        this.shortRunningFree = shortRunningFree;
+        this.longRunningFree = longRunningFree;
+    }
+
+    /**
+     * Returns the index of the delta counter for the specified request.
+     * @param request a request
+     * @return the counter index, or -1 if the request is not a statistics delta
+     */
+    static int indexOf(Request request) {
+        switch (request) {
+            case DELTA_DOWORK_ACCEPTED: return DOWORK_ACCEPTED;
+            case DELTA_DOWORK_REJECTED: return DOWORK_REJECTED;
+            case DELTA_SCHEDULEWORK_ACCEPTED: return SCHEDULEWORK_ACCEPTED;
+            case DELTA_SCHEDULEWORK_REJECTED: return SCHEDULEWORK_REJECTED;
+            case DELTA_STARTWORK_ACCEPTED: return STARTWORK_ACCEPTED;
+            case DELTA_STARTWORK_REJECTED: return STARTWORK_REJECTED;
+            case DELTA_WORK_FAILED: return WORK_FAILED;
+            case DELTA_WORK_SUCCESSFUL: return WORK_SUCCESSFUL;
+            default: return -1;
+        }
+    }
+
+    @Override
+    public Void execute(CommandDispatcherTransport transport) {
+        for (Map.Entry<Address, long[]> entry : this.deltas.entrySet()) {
+            Address address = entry.getKey();
+            long[] counts = entry.getValue();
+            for (int i = 0; i < counts.length; ++i) {
+                for (long j = counts[i]; j > 0; --j) {
+                    apply(transport, address, i);
+                }
+            }
+        }
+        for (Map.Entry<Address, Long> entry : this.shortRunningFree.entrySet()) {
+            transport.localUpdateShortRunningFree(entry.getKey(), entry.getValue());
+        }
+        for (Map.Entry<Address, Long> entry : this.longRunningFree.entrySet()) {
+            transport.localUpdateLongRunningFree(entry.getKey(), entry.getValue());
+        }
+        return null;
+    }
+
+    private static void apply(CommandDispatcherTransport transport, Address address, int index) {
+        switch (index) {
+            case DOWORK_ACCEPTED: {
+                transport.localDeltaDoWorkAccepted(address);
+                break;
+            }
+            case DOWORK_REJECTED: {
+                transport.localDeltaDoWorkRejected(address);
+                break;
+            }
+            case SCHEDULEWORK_ACCEPTED: {
+                transport.localDeltaScheduleWorkAccepted(address);
+                break;
+            }
+            case SCHEDULEWORK_REJECTED: {
+                transport.localDeltaScheduleWorkRejected(address);
+                break;
+            }
+            case STARTWORK_ACCEPTED: {
+                transport.localDeltaStartWorkAccepted(address);
+                break;
+            }
+            case STARTWORK_REJECTED: {
+                transport.localDeltaStartWorkRejected(address);
+                break;
+            }
+            case WORK_FAILED: {
+                transport.localDeltaWorkFailed(address);
+                break;
+            }
+            case WORK_SUCCESSFUL: {
+                transport.localDeltaWorkSuccessful(address);
+                break;
+            }
+            default: {
+                throw new IllegalStateException(Integer.toString(index));
+            }
+        }
+    }
+}
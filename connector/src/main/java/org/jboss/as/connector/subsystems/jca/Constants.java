@@ -54,5 +54,11 @@ public class Constants {
 
     static final String ELYTRON_ENABLED_NAME = "elytron-enabled";
 
+    static final String ADAPTIVE_SIZING_NAME = "adaptive-sizing";
+
+    static final String ADAPTIVE_MAX_THREADS_NAME = "adaptive-max-threads";
+
+    static final String STATISTICS_BATCH_INTERVAL_NAME = "statistics-batch-interval";
+
 
 }
@@ -82,6 +82,7 @@ public class DistributedWorkManagerAdd extends AbstractAddStepHandler {
 
         String policy = JcaDistributedWorkManagerDefinition.DWmParameters.POLICY.getAttribute().resolveModelAttribute(context, model).asString();
         String selector = JcaDistributedWorkManagerDefinition.DWmParameters.SELECTOR.getAttribute().resolveModelAttribute(context, model).asString();
+        long statisticsBatchInterval = JcaDistributedWorkManagerDefinition.DWmParameters.STATISTICS_BATCH_INTERVAL.getAttribute().resolveModelAttribute(context, model).asLong();
 
         ServiceTarget serviceTarget = context.getServiceTarget();
         NamedDistributedWorkManager namedDistributedWorkManager = new NamedDistributedWorkManager(name, elytronEnabled);
@@ -145,7 +146,7 @@ public class DistributedWorkManagerAdd extends AbstractAddStepHandler {
             namedDistributedWorkManager.setSelector(new PingTime());
         }
 
-        DistributedWorkManagerService wmService = new DistributedWorkManagerService(namedDistributedWorkManager);
+        DistributedWorkManagerService wmService = new DistributedWorkManagerService(namedDistributedWorkManager, statisticsBatchInterval);
         ServiceBuilder<NamedDistributedWorkManager> builder = serviceTarget
                 .addService(ConnectorServices.WORKMANAGER_SERVICE.append(name), wmService);
         builder.addDependency(ClusteringDefaultRequirement.COMMAND_DISPATCHER_FACTORY.getServiceName(context), CommandDispatcherFactory.class, wmService.getCommandDispatcherFactoryInjector());
@@ -74,7 +74,16 @@ public enum Element {
     TRACER("tracer"),
 
     /** elytron-enabled element **/
-    ELYTRON_ENABLED("elytron-enabled");
+    ELYTRON_ENABLED("elytron-enabled"),
+
+    /** adaptive-sizing element **/
+    ADAPTIVE_SIZING("adaptive-sizing"),
+
+    /** adaptive-max-threads element **/
+    ADAPTIVE_MAX_THREADS("adaptive-max-threads"),
+
+    /** statistics-batch-interval element **/
+    STATISTICS_BATCH_INTERVAL("statistics-batch-interval");
 
 
 
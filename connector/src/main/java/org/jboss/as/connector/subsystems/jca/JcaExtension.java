@@ -80,7 +80,7 @@ public class JcaExtension implements Extension {
 
     public static final String SUBSYSTEM_NAME = "jca";
 
-    private static final ModelVersion CURRENT_MODEL_VERSION = ModelVersion.create(5, 0, 0);
+    private static final ModelVersion CURRENT_MODEL_VERSION = ModelVersion.create(6, 0, 0);
 
     private static final String RESOURCE_NAME = JcaExtension.class.getPackage().getName() + ".LocalDescriptions";
 
@@ -113,6 +113,7 @@ public class JcaExtension implements Extension {
         context.setSubsystemXmlMapping(SUBSYSTEM_NAME, Namespace.JCA_3_0.getUriString(), () -> ConnectorSubsystemParser.INSTANCE);
         context.setSubsystemXmlMapping(SUBSYSTEM_NAME, Namespace.JCA_4_0.getUriString(), () -> ConnectorSubsystemParser.INSTANCE);
         context.setSubsystemXmlMapping(SUBSYSTEM_NAME, Namespace.JCA_5_0.getUriString(), () -> ConnectorSubsystemParser.INSTANCE);
+        context.setSubsystemXmlMapping(SUBSYSTEM_NAME, Namespace.JCA_6_0.getUriString(), () -> ConnectorSubsystemParser.INSTANCE);
     }
 
     static final class ConnectorSubsystemParser implements XMLStreamConstants, XMLElementReader<List<ModelNode>>,
@@ -199,6 +200,7 @@ public class JcaExtension implements Extension {
                     ((SimpleAttributeDefinition) JcaDistributedWorkManagerDefinition.DWmParameters.NAME.getAttribute()).marshallAsAttribute(workManager, writer);
 
                     JcaDistributedWorkManagerDefinition.DWmParameters.ELYTRON_ENABLED.getAttribute().marshallAsElement(workManager, writer);
+                    JcaDistributedWorkManagerDefinition.DWmParameters.STATISTICS_BATCH_INTERVAL.getAttribute().marshallAsElement(workManager, writer);
 
                     for (Property prop : workManager.asPropertyList()) {
                         if (WORKMANAGER_LONG_RUNNING.equals(prop.getName()) && prop.getValue().isDefined() && prop.getValue().asPropertyList().size() != 0) {
@@ -266,6 +268,8 @@ public class JcaExtension implements Extension {
                     }
 
                     JcaWorkManagerDefinition.WmParameters.ELYTRON_ENABLED.getAttribute().marshallAsElement(workManager, writer);
+                    JcaWorkManagerDefinition.WmParameters.ADAPTIVE_SIZING.getAttribute().marshallAsElement(workManager, writer);
+                    JcaWorkManagerDefinition.WmParameters.ADAPTIVE_MAX_THREADS.getAttribute().marshallAsElement(workManager, writer);
 
                     if (workManager.hasDefined(WORKMANAGER_SHORT_RUNNING))  {
                         ThreadsParser.getInstance().writeBoundedQueueThreadPool(writer, workManager.get(WORKMANAGER_SHORT_RUNNING).asProperty(), Element.SHORT_RUNNING_THREADS.getLocalName(), false);
@@ -325,6 +329,7 @@ public class JcaExtension implements Extension {
             while (reader.hasNext() && reader.nextTag() != END_ELEMENT) {
 
                 switch (Namespace.forUri(reader.getNamespaceURI())) {
+                    case JCA_6_0:
                     case JCA_5_0:
                     case JCA_4_0:
                     case JCA_3_0:
@@ -385,7 +390,8 @@ public class JcaExtension implements Extension {
                             case TRACER: {
                                 if (Namespace.forUri(reader.getNamespaceURI()).equals(Namespace.JCA_3_0) ||
                                     Namespace.forUri(reader.getNamespaceURI()).equals(Namespace.JCA_4_0) ||
-                                    Namespace.forUri(reader.getNamespaceURI()).equals(Namespace.JCA_5_0)) {
+                                    Namespace.forUri(reader.getNamespaceURI()).equals(Namespace.JCA_5_0) ||
+                                    Namespace.forUri(reader.getNamespaceURI()).equals(Namespace.JCA_6_0)) {
                                     list.add(parseTracer(reader, address));
                                 } else {
                                     throw unexpectedElement(reader);
@@ -524,7 +530,8 @@ public class JcaExtension implements Extension {
                     }
                     case ELYTRON_ENABLED: {
                         switch (readerNS) {
-                            case JCA_5_0: {
+                            case JCA_5_0:
+                            case JCA_6_0: {
                                 String value = rawElementText(reader);
                                 JcaWorkManagerDefinition.WmParameters.ELYTRON_ENABLED.getAttribute().parseAndSetParameter(value, workManagerOperation, reader);
                                 break;
@@ -535,6 +542,32 @@ public class JcaExtension implements Extension {
                         }
                         break;
                     }
+                    case ADAPTIVE_SIZING: {
+                        switch (readerNS) {
+                            case JCA_6_0: {
+                                String value = rawElementText(reader);
+                                JcaWorkManagerDefinition.WmParameters.ADAPTIVE_SIZING.getAttribute().parseAndSetParameter(value, workManagerOperation, reader);
+                                break;
+                            }
+                            default: {
+                                throw unexpectedElement(reader);
+                            }
+                        }
+                        break;
+                    }
+                    case ADAPTIVE_MAX_THREADS: {
+                        switch (readerNS) {
+                            case JCA_6_0: {
+                                String value = rawElementText(reader);
+                                JcaWorkManagerDefinition.WmParameters.ADAPTIVE_MAX_THREADS.getAttribute().parseAndSetParameter(value, workManagerOperation, reader);
+                                break;
+                            }
+                            default: {
+                                throw unexpectedElement(reader);
+                            }
+                        }
+                        break;
+                    }
                     default:
                         throw unexpectedElement(reader);
                 }
@@ -603,7 +636,8 @@ public class JcaExtension implements Extension {
                             case JCA_2_0:
                             case JCA_3_0:
                             case JCA_4_0:
-                            case JCA_5_0: {
+                            case JCA_5_0:
+                            case JCA_6_0: {
                                 parsePolicy(reader, distributedWorkManagerOperation);
                                 break;
                             }
@@ -618,7 +652,8 @@ public class JcaExtension implements Extension {
                             case JCA_2_0:
                             case JCA_3_0:
                             case JCA_4_0:
-                            case JCA_5_0: {
+                            case JCA_5_0:
+                            case JCA_6_0: {
                                 parseSelector(reader, distributedWorkManagerOperation);
                                 break;
                             }
@@ -630,7 +665,8 @@ public class JcaExtension implements Extension {
                     }
                     case ELYTRON_ENABLED: {
                         switch (readerNS) {
-                            case JCA_5_0: {
+                            case JCA_5_0:
+                            case JCA_6_0: {
                                 String value = rawElementText(reader);
                                 ((SimpleAttributeDefinition) JcaDistributedWorkManagerDefinition.DWmParameters.ELYTRON_ENABLED.getAttribute()).parseAndSetParameter(value, distributedWorkManagerOperation, reader);
                                 break;
@@ -641,6 +677,19 @@ public class JcaExtension implements Extension {
                         }
                         break;
                     }
+                    case STATISTICS_BATCH_INTERVAL: {
+                        switch (readerNS) {
+                            case JCA_6_0: {
+                                String value = rawElementText(reader);
+                                ((SimpleAttributeDefinition) JcaDistributedWorkManagerDefinition.DWmParameters.STATISTICS_BATCH_INTERVAL.getAttribute()).parseAndSetParameter(value, distributedWorkManagerOperation, reader);
+                                break;
+                            }
+                            default: {
+                                throw unexpectedElement(reader);
+                            }
+                        }
+                        break;
+                    }
                     default:
                         throw unexpectedElement(reader);
                 }
@@ -36,6 +36,7 @@ public class JcaTransformers implements ExtensionTransformerRegistration{
 
     private static final ModelVersion EAP_6_2 = ModelVersion.create(1, 2, 0);
     private static final ModelVersion EAP_7_0 = ModelVersion.create(4, 0, 0);
+    private static final ModelVersion EAP_7_1 = ModelVersion.create(5, 0, 0);
 
     @Override
     public String getSubsystemName() {
@@ -45,8 +46,24 @@ public class JcaTransformers implements ExtensionTransformerRegistration{
     @Override
     public void registerTransformers(SubsystemTransformerRegistration subsystemRegistration) {
         ChainedTransformationDescriptionBuilder chainedBuilder = TransformationDescriptionBuilder.Factory.createChainedSubystemInstance(subsystemRegistration.getCurrentSubsystemVersion());
-        ResourceTransformationDescriptionBuilder parentBuilder = chainedBuilder.createBuilder(subsystemRegistration.getCurrentSubsystemVersion(), EAP_7_0);
-        ResourceTransformationDescriptionBuilder builder = parentBuilder.addChildResource(PATH_DISTRIBUTED_WORK_MANAGER);
+        ResourceTransformationDescriptionBuilder parentBuilder = chainedBuilder.createBuilder(subsystemRegistration.getCurrentSubsystemVersion(), EAP_7_1);
+        ResourceTransformationDescriptionBuilder builder = parentBuilder.addChildResource(PATH_WORK_MANAGER);
+        builder.getAttributeBuilder()
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(false, true, new ModelNode(false)),
+                        JcaWorkManagerDefinition.WmParameters.ADAPTIVE_SIZING.getAttribute())
+                .setDiscard(DiscardAttributeChecker.UNDEFINED, JcaWorkManagerDefinition.WmParameters.ADAPTIVE_MAX_THREADS.getAttribute())
+                .addRejectCheck(RejectAttributeChecker.DEFINED, JcaWorkManagerDefinition.WmParameters.ADAPTIVE_SIZING.getAttribute(),
+                        JcaWorkManagerDefinition.WmParameters.ADAPTIVE_MAX_THREADS.getAttribute())
+                .end();
+        builder = parentBuilder.addChildResource(PATH_DISTRIBUTED_WORK_MANAGER);
+        builder.getAttributeBuilder()
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(false, true, new ModelNode(0L)),
+                        JcaDistributedWorkManagerDefinition.DWmParameters.STATISTICS_BATCH_INTERVAL.getAttribute())
+                .addRejectCheck(RejectAttributeChecker.DEFINED, JcaDistributedWorkManagerDefinition.DWmParameters.STATISTICS_BATCH_INTERVAL.getAttribute())
+                .end();
+
+        parentBuilder = chainedBuilder.createBuilder(EAP_7_1, EAP_7_0);
+        builder = parentBuilder.addChildResource(PATH_DISTRIBUTED_WORK_MANAGER);
         builder.getAttributeBuilder()
                 .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(false, true, new ModelNode(false)),
                         JcaDistributedWorkManagerDefinition.DWmParameters.ELYTRON_ENABLED.getAttribute())
@@ -66,6 +83,7 @@ public class JcaTransformers implements ExtensionTransformerRegistration{
         chainedBuilder.buildAndRegister(subsystemRegistration, new ModelVersion[]{
                 EAP_6_2,
                 EAP_7_0,
+                EAP_7_1,
         });
     }
 }
@@ -22,6 +22,8 @@
 
 package org.jboss.as.connector.subsystems.jca;
 
+import static org.jboss.as.connector.subsystems.jca.Constants.ADAPTIVE_MAX_THREADS_NAME;
+import static org.jboss.as.connector.subsystems.jca.Constants.ADAPTIVE_SIZING_NAME;
 import static org.jboss.as.connector.subsystems.jca.Constants.ELYTRON_ENABLED_NAME;
 import static org.jboss.as.connector.subsystems.jca.Constants.ELYTRON_MANAGED_SECURITY;
 import static org.jboss.as.connector.subsystems.jca.Constants.WORKMANAGER;
@@ -33,6 +35,9 @@ import java.util.Set;
 
 import org.jboss.as.connector.logging.ConnectorLogger;
 import org.jboss.as.connector.metadata.api.common.Security;
+import org.jboss.as.connector.services.workmanager.AdaptivePoolSizer;
+import org.jboss.as.connector.services.workmanager.WorkManagerService;
+import org.jboss.as.connector.util.ConnectorServices;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.OperationStepHandler;
@@ -40,10 +45,12 @@ import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.ReadResourceNameOperationStepHandler;
 import org.jboss.as.controller.ReloadRequiredRemoveStepHandler;
+import org.jboss.as.controller.ReloadRequiredWriteAttributeHandler;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.Resource;
 import org.jboss.as.threads.BoundedQueueThreadPoolAdd;
@@ -53,6 +60,7 @@ import org.jboss.as.threads.CommonAttributes;
 import org.jboss.as.threads.ThreadsServices;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.service.ServiceName;
 
 /**
@@ -60,6 +68,28 @@ import org.jboss.msc.service.ServiceName;
  */
 public class JcaWorkManagerDefinition extends SimpleResourceDefinition {
     protected static final PathElement PATH_WORK_MANAGER = PathElement.pathElement(WORKMANAGER);
+
+    static final SimpleAttributeDefinition ADAPTIVE_SHORT_RUNNING_MAX_THREADS = new SimpleAttributeDefinitionBuilder("adaptive-short-running-max-threads", ModelType.INT)
+            .setStorageRuntime()
+            .build();
+    static final SimpleAttributeDefinition ADAPTIVE_LONG_RUNNING_MAX_THREADS = new SimpleAttributeDefinitionBuilder("adaptive-long-running-max-threads", ModelType.INT)
+            .setStorageRuntime()
+            .build();
+    static final SimpleAttributeDefinition ADAPTIVE_SHORT_RUNNING_QUEUE_TIME = new SimpleAttributeDefinitionBuilder("adaptive-short-running-queue-time", ModelType.LONG)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setStorageRuntime()
+            .build();
+    static final SimpleAttributeDefinition ADAPTIVE_LONG_RUNNING_QUEUE_TIME = new SimpleAttributeDefinitionBuilder("adaptive-long-running-queue-time", ModelType.LONG)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setStorageRuntime()
+            .build();
+    static final SimpleAttributeDefinition ADAPTIVE_RESIZE_COUNT = new SimpleAttributeDefinitionBuilder("adaptive-resize-count", ModelType.LONG)
+            .setStorageRuntime()
+            .build();
+    static final SimpleAttributeDefinition ADAPTIVE_LAST_DECISION = new SimpleAttributeDefinitionBuilder("adaptive-last-decision", ModelType.STRING)
+            .setStorageRuntime()
+            .build();
+
     private final boolean registerRuntimeOnly;
 
     private JcaWorkManagerDefinition(final boolean registerRuntimeOnly) {
@@ -80,7 +110,50 @@ public class JcaWorkManagerDefinition extends SimpleResourceDefinition {
 
         resourceRegistration.registerReadOnlyAttribute(WmParameters.NAME.getAttribute(), ReadResourceNameOperationStepHandler.INSTANCE);
         resourceRegistration.registerReadOnlyAttribute(WmParameters.ELYTRON_ENABLED.getAttribute(), null);
+        resourceRegistration.registerReadWriteAttribute(WmParameters.ADAPTIVE_SIZING.getAttribute(), null, new ReloadRequiredWriteAttributeHandler(WmParameters.ADAPTIVE_SIZING.getAttribute()));
+        resourceRegistration.registerReadWriteAttribute(WmParameters.ADAPTIVE_MAX_THREADS.getAttribute(), null, new ReloadRequiredWriteAttributeHandler(WmParameters.ADAPTIVE_MAX_THREADS.getAttribute()));
 
+        if (registerRuntimeOnly) {
+            resourceRegistration.registerMetric(ADAPTIVE_SHORT_RUNNING_MAX_THREADS, new AdaptiveSizingMetricsHandler() {
+                @Override
+                void handle(ModelNode result, AdaptivePoolSizer sizer) {
+                    result.set(sizer.getMaxThreads(AdaptivePoolSizer.SHORT_RUNNING));
+                }
+            });
+            resourceRegistration.registerMetric(ADAPTIVE_LONG_RUNNING_MAX_THREADS, new AdaptiveSizingMetricsHandler() {
+                @Override
+                void handle(ModelNode result, AdaptivePoolSizer sizer) {
+                    result.set(sizer.getMaxThreads(AdaptivePoolSizer.LONG_RUNNING));
+                }
+            });
+            resourceRegistration.registerMetric(ADAPTIVE_SHORT_RUNNING_QUEUE_TIME, new AdaptiveSizingMetricsHandler() {
+                @Override
+                void handle(ModelNode result, AdaptivePoolSizer sizer) {
+                    result.set(sizer.getAverageQueueTime(AdaptivePoolSizer.SHORT_RUNNING));
+                }
+            });
+            resourceRegistration.registerMetric(ADAPTIVE_LONG_RUNNING_QUEUE_TIME, new AdaptiveSizingMetricsHandler() {
+                @Override
+                void handle(ModelNode result, AdaptivePoolSizer sizer) {
+                    result.set(sizer.getAverageQueueTime(AdaptivePoolSizer.LONG_RUNNING));
+                }
+            });
+            resourceRegistration.registerMetric(ADAPTIVE_RESIZE_COUNT, new AdaptiveSizingMetricsHandler() {
+                @Override
+                void handle(ModelNode result, AdaptivePoolSizer sizer) {
+                    result.set(sizer.getResizeCount());
+                }
+            });
+            resourceRegistration.registerMetric(ADAPTIVE_LAST_DECISION, new AdaptiveSizingMetricsHandler() {
+                @Override
+                void handle(ModelNode result, AdaptivePoolSizer sizer) {
+                    final String decision = sizer.getLastDecision();
+                    if (decision != null) {
+                        result.set(decision);
+                    }
+                }
+            });
+        }
     }
 
     @Override
@@ -146,6 +219,26 @@ public class JcaWorkManagerDefinition extends SimpleResourceDefinition {
         }
     }
 
+    /**
+     * Reads a metric from the adaptive sizer of the work manager's thread pools, leaving the result undefined if
+     * adaptive sizing is disabled or the work manager is not started.
+     */
+    private abstract static class AdaptiveSizingMetricsHandler implements OperationStepHandler {
+
+        @Override
+        public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+            final ServiceController<?> controller = context.getServiceRegistry(false).getService(ConnectorServices.WORKMANAGER_SERVICE.append(context.getCurrentAddressValue()));
+            if (controller != null && controller.getService() instanceof WorkManagerService) {
+                final AdaptivePoolSizer sizer = ((WorkManagerService) controller.getService()).getPoolSizer();
+                if (sizer != null) {
+                    handle(context.getResult(), sizer);
+                }
+            }
+        }
+
+        abstract void handle(ModelNode result, AdaptivePoolSizer sizer);
+    }
+
     public enum WmParameters {
         NAME(SimpleAttributeDefinitionBuilder.create("name", ModelType.STRING)
                 .setAllowExpression(false)
@@ -158,6 +251,18 @@ public class JcaWorkManagerDefinition extends SimpleResourceDefinition {
                 .setXmlName(Security.Tag.ELYTRON_ENABLED.getLocalName())
                 .setAllowExpression(true)
                 .setDefaultValue(new ModelNode(ELYTRON_MANAGED_SECURITY))
+                .build()),
+        ADAPTIVE_SIZING(new SimpleAttributeDefinitionBuilder(ADAPTIVE_SIZING_NAME, ModelType.BOOLEAN, true)
+                .setXmlName(Element.ADAPTIVE_SIZING.getLocalName())
+                .setAllowExpression(true)
+                .setDefaultValue(new ModelNode(false))
+                .setRestartAllServices()
+                .build()),
+        ADAPTIVE_MAX_THREADS(new SimpleAttributeDefinitionBuilder(ADAPTIVE_MAX_THREADS_NAME, ModelType.INT, true)
+                .setXmlName(Element.ADAPTIVE_MAX_THREADS.getLocalName())
+                .setAllowExpression(true)
+                .setValidator(new IntRangeValidator(1, true, true))
+                .setRestartAllServices()
                 .build());
 
         WmParameters(SimpleAttributeDefinition attribute) {
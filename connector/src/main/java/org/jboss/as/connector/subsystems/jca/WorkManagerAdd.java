@@ -66,12 +66,14 @@ public class WorkManagerAdd extends AbstractAddStepHandler {
 
         String name = JcaWorkManagerDefinition.WmParameters.NAME.getAttribute().resolveModelAttribute(context, resource.getModel()).asString();
         boolean elytronEnabled = JcaWorkManagerDefinition.WmParameters.ELYTRON_ENABLED.getAttribute().resolveModelAttribute(context, resource.getModel()).asBoolean();
+        boolean adaptiveSizing = JcaWorkManagerDefinition.WmParameters.ADAPTIVE_SIZING.getAttribute().resolveModelAttribute(context, resource.getModel()).asBoolean();
+        ModelNode adaptiveMaxThreads = JcaWorkManagerDefinition.WmParameters.ADAPTIVE_MAX_THREADS.getAttribute().resolveModelAttribute(context, resource.getModel());
 
         ServiceTarget serviceTarget = context.getServiceTarget();
 
 
         NamedWorkManager wm = new NamedWorkManager(name, elytronEnabled);
-        WorkManagerService wmService = new WorkManagerService(wm);
+        WorkManagerService wmService = new WorkManagerService(wm, adaptiveSizing, adaptiveMaxThreads.isDefined() ? adaptiveMaxThreads.asInt() : 0);
         ServiceBuilder builder = serviceTarget
                 .addService(ConnectorServices.WORKMANAGER_SERVICE.append(name), wmService);
 
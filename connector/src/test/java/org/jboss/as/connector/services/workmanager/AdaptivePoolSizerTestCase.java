@@ -0,0 +1,164 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.connector.services.workmanager;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.threads.JBossThreadPoolExecutor;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the decisions of {@link AdaptivePoolSizer}, which are taken synchronously by invoking {@link AdaptivePoolSizer#run()}.
+ */
+public class AdaptivePoolSizerTestCase {
+
+    private JBossThreadPoolExecutor pool;
+    private StatisticsExecutorImpl executor;
+    private AdaptivePoolSizer sizer;
+
+    @Before
+    public void setUp() {
+        pool = new JBossThreadPoolExecutor(2, 2, 1, TimeUnit.MINUTES, new LinkedBlockingQueue<Runnable>());
+        executor = new StatisticsExecutorImpl(pool, true);
+        sizer = new AdaptivePoolSizer("test", executor, null, 4);
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void testGrowOnQueueTime() throws Exception {
+        queue(2, 4);
+        sizer.run();
+        Assert.assertEquals(3, sizer.getMaxThreads(AdaptivePoolSizer.SHORT_RUNNING));
+        Assert.assertEquals(3, pool.getCorePoolSize());
+        Assert.assertEquals(1, sizer.getResizeCount());
+        Assert.assertTrue(sizer.getAverageQueueTime(AdaptivePoolSizer.SHORT_RUNNING) > 0);
+        Assert.assertEquals(-1, sizer.getMaxThreads(AdaptivePoolSizer.LONG_RUNNING));
+    }
+
+    @Test
+    public void testRevertIneffectiveGrowth() throws Exception {
+        queue(2, 4);
+        sizer.run();
+        Assert.assertEquals(3, sizer.getMaxThreads(AdaptivePoolSizer.SHORT_RUNNING));
+        // nothing completed since the pool grew
+        sizer.run();
+        Assert.assertEquals(2, sizer.getMaxThreads(AdaptivePoolSizer.SHORT_RUNNING));
+        Assert.assertTrue(sizer.getLastDecision(), sizer.getLastDecision().contains("throughput"));
+        // backing off, queueing does not grow the pool
+        queue(2, 4);
+        sizer.run();
+        Assert.assertEquals(2, sizer.getMaxThreads(AdaptivePoolSizer.SHORT_RUNNING));
+    }
+
+    @Test
+    public void testShrinkWhenQuiet() throws Exception {
+        queue(2, 4);
+        sizer.run();
+        queue(0, 8);
+        sizer.run();
+        Assert.assertEquals(3, sizer.getMaxThreads(AdaptivePoolSizer.SHORT_RUNNING));
+        for (int i = 2; i < AdaptivePoolSizer.SHRINK_INTERVALS; i++) {
+            sizer.run();
+            Assert.assertEquals(3, sizer.getMaxThreads(AdaptivePoolSizer.SHORT_RUNNING));
+        }
+        sizer.run();
+        Assert.assertEquals(2, sizer.getMaxThreads(AdaptivePoolSizer.SHORT_RUNNING));
+        Assert.assertEquals(2, pool.getCorePoolSize());
+    }
+
+    @Test
+    public void testCeilingAndRestore() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            queue(4, 8 + 8 * i);
+            sizer.run();
+        }
+        Assert.assertEquals(4, sizer.getMaxThreads(AdaptivePoolSizer.SHORT_RUNNING));
+        sizer.stop();
+        Assert.assertEquals(2, pool.getCorePoolSize());
+        Assert.assertEquals(2, pool.getMaximumPoolSize());
+    }
+
+    @Test
+    public void testRuntimeResize() throws Exception {
+        queue(2, 4);
+        sizer.run();
+        Assert.assertEquals(3, sizer.getMaxThreads(AdaptivePoolSizer.SHORT_RUNNING));
+        // max threads written at runtime become the configured size
+        executor.setThreads(5, 5);
+        sizer.run();
+        Assert.assertEquals(5, pool.getCorePoolSize());
+        Assert.assertEquals(5, pool.getMaximumPoolSize());
+        // the pool is not shrunk below the new configured size
+        for (int i = 0; i < AdaptivePoolSizer.SHRINK_INTERVALS + 1; i++) {
+            sizer.run();
+        }
+        Assert.assertEquals(5, pool.getMaximumPoolSize());
+        Assert.assertEquals(1, sizer.getResizeCount());
+    }
+
+    @Test
+    public void testNoRestoreAfterRuntimeResize() throws Exception {
+        queue(2, 4);
+        sizer.run();
+        Assert.assertEquals(3, sizer.getMaxThreads(AdaptivePoolSizer.SHORT_RUNNING));
+        executor.setThreads(6, 6);
+        sizer.stop();
+        Assert.assertEquals(6, pool.getCorePoolSize());
+        Assert.assertEquals(6, pool.getMaximumPoolSize());
+    }
+
+    /**
+     * Submits the specified number of works blocking all the pool's threads, followed by other works, which queue for
+     * longer than the target queue time, and waits for all of them to complete.
+     */
+    private void queue(int blocking, int queued) throws InterruptedException {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(blocking + queued);
+        for (int i = 0; i < blocking; i++) {
+            executor.execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                done.countDown();
+            });
+        }
+        for (int i = 0; i < queued; i++) {
+            executor.execute(done::countDown);
+        }
+        if (blocking > 0) {
+            Thread.sleep(TimeUnit.NANOSECONDS.toMillis(AdaptivePoolSizer.TARGET_QUEUE_TIME) * 3);
+        }
+        release.countDown();
+        Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+    }
+}
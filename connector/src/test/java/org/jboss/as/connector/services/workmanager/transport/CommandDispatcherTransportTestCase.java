@@ -0,0 +1,172 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.connector.services.workmanager.transport;
+
+import static org.mockito.Mockito.*;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.jca.core.spi.workmanager.Address;
+import org.jboss.jca.core.workmanager.transport.remote.ProtocolMessages.Request;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.wildfly.clustering.Registration;
+import org.wildfly.clustering.dispatcher.Command;
+import org.wildfly.clustering.dispatcher.CommandDispatcher;
+import org.wildfly.clustering.dispatcher.CommandDispatcherFactory;
+import org.wildfly.clustering.group.Group;
+import org.wildfly.clustering.group.Node;
+
+/**
+ * Tests the dispatching of messages by a {@link CommandDispatcherTransport} configured with a statistics batch interval.
+ * The interval is long enough that batches are only published on shutdown, or following a significant free thread update.
+ */
+public class CommandDispatcherTransportTestCase {
+
+    private final CommandDispatcherFactory factory = mock(CommandDispatcherFactory.class);
+    private final Group group = mock(Group.class);
+    private final Node localMember = mock(Node.class);
+    private final Node member = mock(Node.class);
+    private final BlockingQueue<Command<?, ?>> commands = new LinkedBlockingQueue<>();
+    private final Address address = new Address("wm", "wm", "remote");
+
+    private CommandDispatcherTransport transport;
+
+    @SuppressWarnings("unchecked")
+    @Before
+    public void setUp() throws Exception {
+        CommandDispatcher<CommandDispatcherTransport> dispatcher = mock(CommandDispatcher.class);
+        when(this.factory.getGroup()).thenReturn(this.group);
+        doReturn(dispatcher).when(this.factory).createCommandDispatcher(any(), any());
+        when(this.group.getLocalMember()).thenReturn(this.localMember);
+        when(this.group.register(any())).thenReturn(mock(Registration.class));
+        doAnswer(invocation -> {
+            if (invocation.getArguments()[1] == this.member) {
+                this.commands.add((Command<?, ?>) invocation.getArguments()[0]);
+            }
+            return CompletableFuture.completedFuture(null);
+        }).when(dispatcher).executeOnMember(any(), any());
+
+        this.transport = new CommandDispatcherTransport(this.factory, "dwm", TimeUnit.HOURS.toMillis(1));
+        this.transport.startup();
+    }
+
+    @After
+    public void tearDown() {
+        this.transport.shutdown();
+    }
+
+    @Test
+    public void testNonBatchable() throws Exception {
+        // Requests without parameters must not be inspected for batching
+        Assert.assertNull(this.transport.sendMessage(this.member, Request.PING));
+        Assert.assertTrue(this.commands.poll() instanceof PingCommand);
+
+        this.transport.sendMessage(this.member, Request.GET_SHORTRUNNING_FREE, this.address);
+        Assert.assertTrue(this.commands.poll() instanceof ShortRunningFreeCommand);
+        Assert.assertTrue(this.commands.isEmpty());
+    }
+
+    @Test
+    public void testDeltas() throws Exception {
+        this.transport.sendMessage(this.member, Request.DELTA_DOWORK_ACCEPTED, this.address);
+        this.transport.sendMessage(this.member, Request.DELTA_DOWORK_ACCEPTED, this.address);
+        this.transport.sendMessage(this.member, Request.DELTA_WORK_FAILED, this.address);
+        this.transport.sendMessage(this.member, Request.DELTA_WORK_SUCCESSFUL, this.address);
+        Assert.assertTrue(this.commands.isEmpty());
+
+        this.transport.shutdown();
+
+        CommandDispatcherTransport receiver = mock(CommandDispatcherTransport.class);
+        this.apply(receiver);
+        verify(receiver, times(2)).localDeltaDoWorkAccepted(this.address);
+        verify(receiver).localDeltaWorkFailed(this.address);
+        verify(receiver).localDeltaWorkSuccessful(this.address);
+        verifyNoMoreInteractions(receiver);
+    }
+
+    @Test
+    public void testClear() throws Exception {
+        this.transport.sendMessage(this.member, Request.DELTA_DOWORK_ACCEPTED, this.address);
+        this.transport.sendMessage(this.member, Request.CLEAR_DISTRIBUTED_STATISTICS, this.address);
+        Assert.assertTrue(this.commands.poll() instanceof ClearDistributedStatisticsCommand);
+
+        // Deltas preceding the clear must be discarded
+        this.transport.shutdown();
+        Assert.assertTrue(this.commands.isEmpty());
+    }
+
+    @Test
+    public void testFreeUpdatesPreserveOrder() throws Exception {
+        CommandDispatcherTransport receiver = mock(CommandDispatcherTransport.class);
+
+        // Initial update is significant, and is published immediately by the batch thread
+        this.transport.sendMessage(this.member, Request.UPDATE_SHORTRUNNING_FREE, this.address, 10L);
+        this.apply(receiver);
+        verify(receiver).localUpdateShortRunningFree(this.address, 10L);
+
+        // Insignificant update is deferred, and then superseded by a significant update
+        this.transport.sendMessage(this.member, Request.UPDATE_SHORTRUNNING_FREE, this.address, 9L);
+        this.transport.sendMessage(this.member, Request.DELTA_WORK_SUCCESSFUL, this.address);
+        this.transport.sendMessage(this.member, Request.UPDATE_SHORTRUNNING_FREE, this.address, 0L);
+        this.apply(receiver);
+        verify(receiver).localDeltaWorkSuccessful(this.address);
+        verify(receiver).localUpdateShortRunningFree(this.address, 0L);
+
+        // Insignificant update is only published with the next batch
+        this.transport.sendMessage(this.member, Request.UPDATE_LONGRUNNING_FREE, this.address, 8L);
+        this.apply(receiver);
+        this.transport.sendMessage(this.member, Request.UPDATE_LONGRUNNING_FREE, this.address, 9L);
+        Assert.assertNull(this.commands.poll(100, TimeUnit.MILLISECONDS));
+        this.transport.shutdown();
+        this.apply(receiver);
+
+        verify(receiver, never()).localUpdateShortRunningFree(this.address, 9L);
+        verify(receiver).localUpdateLongRunningFree(this.address, 8L);
+        verify(receiver).localUpdateLongRunningFree(this.address, 9L);
+        verifyNoMoreInteractions(receiver);
+        Assert.assertTrue(this.commands.isEmpty());
+    }
+
+    @Test
+    public void testMalformed() throws Exception {
+        // An update lacking its value cannot be batched, and must fail as it would without batching
+        try {
+            this.transport.sendMessage(this.member, Request.UPDATE_SHORTRUNNING_FREE, this.address);
+            Assert.fail();
+        } catch (ArrayIndexOutOfBoundsException e) {
+            // Expected
+        }
+        Assert.assertTrue(this.commands.isEmpty());
+    }
+
+    private void apply(CommandDispatcherTransport receiver) throws InterruptedException {
+        Command<?, ?> command = this.commands.poll(10, TimeUnit.SECONDS);
+        Assert.assertTrue(String.valueOf(command), command instanceof DeltaBatchCommand);
+        ((DeltaBatchCommand) command).execute(receiver);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.connector.services.workmanager.transport;
+
+import static org.mockito.Mockito.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jboss.jca.core.spi.workmanager.Address;
+import org.jboss.jca.core.workmanager.transport.remote.ProtocolMessages.Request;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests that a {@link DeltaBatchCommand} applies its accumulated deltas and free thread updates to the receiving transport.
+ */
+public class DeltaBatchCommandTestCase {
+
+    @Test
+    public void testIndexOf() {
+        for (Request request : Request.values()) {
+            boolean delta = request.name().startsWith("DELTA_");
+            int index = DeltaBatchCommand.indexOf(request);
+            Assert.assertEquals(request.name(), delta, index >= 0);
+            Assert.assertTrue(request.name(), index < DeltaBatchCommand.DELTAS);
+        }
+    }
+
+    @Test
+    public void testExecute() {
+        Address address1 = new Address("wm1", "wm1", "node1");
+        Address address2 = new Address("wm2", "wm2", "node1");
+        long[] counts1 = new long[DeltaBatchCommand.DELTAS];
+        counts1[DeltaBatchCommand.DOWORK_ACCEPTED] = 3;
+        counts1[DeltaBatchCommand.WORK_SUCCESSFUL] = 2;
+        long[] counts2 = new long[DeltaBatchCommand.DELTAS];
+        counts2[DeltaBatchCommand.STARTWORK_REJECTED] = 1;
+        counts2[DeltaBatchCommand.WORK_FAILED] = 4;
+        Map<Address, long[]> deltas = new HashMap<>();
+        deltas.put(address1, counts1);
+        deltas.put(address2, counts2);
+        Map<Address, Long> shortRunningFree = new HashMap<>();
+        shortRunningFree.put(address1, 5L);
+        Map<Address, Long> longRunningFree = new HashMap<>();
+        longRunningFree.put(address2, 0L);
+
+        CommandDispatcherTransport transport = mock(CommandDispatcherTransport.class);
+
+        Assert.assertNull(new DeltaBatchCommand(deltas, shortRunningFree, longRunningFree).execute(transport));
+
+        verify(transport, times(3)).localDeltaDoWorkAccepted(address1);
+        verify(transport, times(2)).localDeltaWorkSuccessful(address1);
+        verify(transport).localDeltaStartWorkRejected(address2);
+        verify(transport, times(4)).localDeltaWorkFailed(address2);
+        verify(transport).localUpdateShortRunningFree(address1, 5L);
+        verify(transport).localUpdateLongRunningFree(address2, 0L);
+        verifyNoMoreInteractions(transport);
+    }
+
+    @Test
+    public void testExecuteEmpty() {
+        CommandDispatcherTransport transport = mock(CommandDispatcherTransport.class);
+
+        new DeltaBatchCommand(new HashMap<>(), new HashMap<>(), new HashMap<>()).execute(transport);
+
+        verifyZeroInteractions(transport);
+    }
+}
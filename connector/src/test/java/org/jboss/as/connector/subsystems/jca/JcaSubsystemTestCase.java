@@ -65,7 +65,7 @@ public class JcaSubsystemTestCase extends AbstractSubsystemBaseTest {
 
     @Override
     protected String getSubsystemXsdPath() throws Exception {
-        return "schema/wildfly-jca_5_0.xsd";
+        return "schema/wildfly-jca_6_0.xsd";
     }
 
     @Override
@@ -278,9 +278,12 @@ public class JcaSubsystemTestCase extends AbstractSubsystemBaseTest {
         ModelTestUtils.checkFailedTransformedBootOperations(mainServices, modelVersion, xmlOps,
                 new FailedOperationTransformationConfig()
                         .addFailedAttribute(PathAddress.pathAddress(JcaSubsystemRootDefinition.PATH_SUBSYSTEM, JcaDistributedWorkManagerDefinition.PATH_DISTRIBUTED_WORK_MANAGER),
-                                new FailedOperationTransformationConfig.NewAttributesConfig(ELYTRON_ENABLED.getAttribute()))
+                                new FailedOperationTransformationConfig.NewAttributesConfig(ELYTRON_ENABLED.getAttribute(),
+                                        JcaDistributedWorkManagerDefinition.DWmParameters.STATISTICS_BATCH_INTERVAL.getAttribute()))
                         .addFailedAttribute(PathAddress.pathAddress(JcaSubsystemRootDefinition.PATH_SUBSYSTEM, JcaWorkManagerDefinition.PATH_WORK_MANAGER),
-                                new FailedOperationTransformationConfig.NewAttributesConfig(ELYTRON_ENABLED.getAttribute())));
+                                new FailedOperationTransformationConfig.NewAttributesConfig(ELYTRON_ENABLED.getAttribute(),
+                                        JcaWorkManagerDefinition.WmParameters.ADAPTIVE_SIZING.getAttribute(),
+                                        JcaWorkManagerDefinition.WmParameters.ADAPTIVE_MAX_THREADS.getAttribute())));
     }
 
     /**
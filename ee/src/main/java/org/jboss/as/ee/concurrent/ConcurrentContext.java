@@ -22,6 +22,7 @@
 
 package org.jboss.as.ee.concurrent;
 
+import org.jboss.as.ee.concurrent.handle.NullContextHandle;
 import org.jboss.as.ee.concurrent.handle.ResetContextHandle;
 import org.jboss.as.ee.concurrent.handle.SetupContextHandle;
 import org.jboss.as.ee.logging.EeLogger;
@@ -41,6 +42,7 @@ import java.io.ObjectOutputStream;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.LinkedList;
@@ -48,6 +50,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 import static java.lang.Thread.currentThread;
 
@@ -95,8 +98,14 @@ public class ConcurrentContext {
         return current.peek();
     }
 
+    private static final AtomicReferenceFieldUpdater<ConcurrentContext, FactoryChain> FACTORY_CHAIN_UPDATER = AtomicReferenceFieldUpdater.newUpdater(ConcurrentContext.class, FactoryChain.class, "factoryChain");
+
     private final Map<String, ContextHandleFactory> factoryMap = new HashMap<>();
-    private List<ContextHandleFactory> factoryOrderedList;
+
+    /**
+     * the ordered factories, published together with the last chained handle saved by these
+     */
+    private volatile FactoryChain factoryChain = new FactoryChain(Collections.emptyList(), null);
 
     private volatile ServiceName serviceName;
 
@@ -126,7 +135,7 @@ public class ConcurrentContext {
         };
         SortedSet<ContextHandleFactory> sortedSet = new TreeSet<>(comparator);
         sortedSet.addAll(factoryMap.values());
-        factoryOrderedList = new ArrayList<>(sortedSet);
+        factoryChain = new FactoryChain(Collections.unmodifiableList(new ArrayList<>(sortedSet)), null);
     }
 
     /**
@@ -136,11 +145,48 @@ public class ConcurrentContext {
      * @return
      */
     public SetupContextHandle saveContext(ContextService contextService, Map<String, String> contextObjectProperties) {
-        final List<SetupContextHandle> handles = new ArrayList<>(factoryOrderedList.size());
-        for (ContextHandleFactory factory : factoryOrderedList) {
-            handles.add(factory.saveContext(contextService, contextObjectProperties));
+        final FactoryChain chain = factoryChain;
+        final List<ContextHandleFactory> factories = chain.factories;
+        final ChainedSetupContextHandle last = (chain.lastSetupContextHandle != null && chain.lastSetupContextHandle.setupHandles.size() == factories.size()) ? chain.lastSetupContextHandle : null;
+        List<SetupContextHandle> handles = null;
+        for (int i = 0; i < factories.size(); i++) {
+            final SetupContextHandle handle = factories.get(i).saveContext(contextService, contextObjectProperties);
+            if (handles == null) {
+                // factories return shared handles when the saved context did not change, in which case the last chain may be reused
+                if (last != null && last.setupHandles.get(i) == handle) {
+                    continue;
+                }
+                handles = new ArrayList<>(factories.size());
+                if (last != null) {
+                    handles.addAll(last.setupHandles.subList(0, i));
+                }
+            }
+            handles.add(handle);
+        }
+        if (handles == null) {
+            if (last != null) {
+                return last;
+            }
+            handles = new ArrayList<>(0);
+        }
+        final ChainedSetupContextHandle chainedSetupContextHandle = new ChainedSetupContextHandle(this, handles);
+        // if a factory was added meanwhile, the handle must not be cached with the new factories
+        FACTORY_CHAIN_UPDATER.compareAndSet(this, chain, new FactoryChain(factories, chainedSetupContextHandle));
+        return chainedSetupContextHandle;
+    }
+
+    /**
+     * The ordered factories, and the last chained handle saved with these, which is reused while the factories keep returning the same handles
+     */
+    private static class FactoryChain {
+
+        private final List<ContextHandleFactory> factories;
+        private final ChainedSetupContextHandle lastSetupContextHandle;
+
+        private FactoryChain(List<ContextHandleFactory> factories, ChainedSetupContextHandle lastSetupContextHandle) {
+            this.factories = factories;
+            this.lastSetupContextHandle = lastSetupContextHandle;
         }
-        return new ChainedSetupContextHandle(this, handles);
     }
 
     /**
@@ -163,7 +209,11 @@ public class ConcurrentContext {
             try {
                 ConcurrentContext.pushCurrent(concurrentContext);
                 for (SetupContextHandle handle : setupHandles) {
-                    resetHandles.addFirst(handle.setup());
+                    final ResetContextHandle resetHandle = handle.setup();
+                    // no need to keep track of resets which do nothing
+                    if (resetHandle != NullContextHandle.INSTANCE) {
+                        resetHandles.addFirst(resetHandle);
+                    }
                 }
             } catch (Error | RuntimeException e) {
                 resetContextHandle.reset();
@@ -0,0 +1,446 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ee.concurrent;
+
+import static org.jboss.as.ee.concurrent.ControlPointUtils.doWrap;
+import static org.jboss.as.ee.concurrent.SecurityIdentityUtils.doIdentityWrap;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.enterprise.concurrent.ManagedExecutorService;
+import javax.enterprise.concurrent.ManagedTask;
+import javax.enterprise.concurrent.ManagedTaskListener;
+
+import org.glassfish.enterprise.concurrent.ContextServiceImpl;
+import org.glassfish.enterprise.concurrent.spi.ContextHandle;
+import org.glassfish.enterprise.concurrent.spi.ContextSetupProvider;
+import org.jboss.as.ee.logging.EeLogger;
+import org.wildfly.extension.requestcontroller.ControlPoint;
+
+/**
+ * A managed executor service which delegates the execution of its tasks to a work-stealing {@link ForkJoinPool}, or to
+ * a virtual thread per task.
+ * <p/>
+ * Tasks are wrapped exactly as per {@link ManagedExecutorServiceImpl}, i.e. with the submitter's security identity and the control point,
+ * and the submitter's context, as saved by the context service's {@link ContextSetupProvider}, is set up around each task.
+ * {@link ManagedTaskListener}s are notified as per the Java EE RI.
+ * Hung task detection is not supported, since tasks are not executed by managed threads.
+ */
+public class DelegatingManagedExecutorServiceImpl extends AbstractExecutorService {
+
+    private static final MethodHandle NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = findVirtualThreadPerTaskExecutorFactory();
+
+    private final String name;
+    private final ExecutorService executor;
+    private final ContextServiceImpl contextService;
+    private final ControlPoint controlPoint;
+    private final int queueCapacity;
+    private final Adapter adapter = new Adapter();
+
+    private final LongAdder queueSize = new LongAdder();
+    private final LongAdder completedTaskCount = new LongAdder();
+    private final LongAdder totalQueueTime = new LongAdder();
+    private final LongAdder totalTaskTime = new LongAdder();
+    private final LongAccumulator maxTaskTime = new LongAccumulator(Math::max, 0L);
+
+    /**
+     * @param name the name of the executor, used to name its threads
+     * @param engine the engine which executes the tasks, either {@link ExecutorEngine#FORK_JOIN} or {@link ExecutorEngine#VIRTUAL_THREAD}
+     * @param parallelism the parallelism of the fork-join pool
+     * @param queueCapacity the maximum number of tasks awaiting execution, or {@link Integer#MAX_VALUE} or 0 if unbounded
+     * @param contextService the context service used to propagate the submitter's context, or null
+     * @param controlPoint the control point, or null
+     */
+    public DelegatingManagedExecutorServiceImpl(String name, ExecutorEngine engine, int parallelism, int queueCapacity, ContextServiceImpl contextService, ControlPoint controlPoint) {
+        this.name = name;
+        this.executor = (engine == ExecutorEngine.VIRTUAL_THREAD) ? createVirtualThreadPerTaskExecutor(name, parallelism) : createForkJoinPool(name, parallelism);
+        // Direct hand-off does not apply to these engines, so a capacity of 0 means unbounded
+        this.queueCapacity = (queueCapacity > 0) ? queueCapacity : Integer.MAX_VALUE;
+        this.contextService = contextService;
+        this.controlPoint = controlPoint;
+    }
+
+    private static ExecutorService createForkJoinPool(String name, int parallelism) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ForkJoinPool.ForkJoinWorkerThreadFactory factory = pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("EE-ManagedExecutorService-" + name + "-" + threadCount.incrementAndGet());
+            return thread;
+        };
+        // Tasks are never joined, so FIFO scheduling is preferable
+        return new ForkJoinPool(parallelism, factory, null, true);
+    }
+
+    private static ExecutorService createVirtualThreadPerTaskExecutor(String name, int parallelism) {
+        if (NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null) {
+            try {
+                return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invokeExact();
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        EeLogger.ROOT_LOGGER.virtualThreadsNotSupported(name);
+        return createForkJoinPool(name, parallelism);
+    }
+
+    private static MethodHandle findVirtualThreadPerTaskExecutorFactory() {
+        try {
+            return MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the view of this executor which may be exposed to applications, and which does not allow lifecycle related invocations.
+     * @return a managed executor service
+     */
+    public ManagedExecutorService getAdapter() {
+        return this.adapter;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Returns the number of tasks submitted but not yet started.
+     * @return a number of tasks
+     */
+    public int getQueueSize() {
+        return (int) Math.max(0, this.queueSize.sum());
+    }
+
+    public long getCompletedTaskCount() {
+        return this.completedTaskCount.sum();
+    }
+
+    /**
+     * Returns the average time tasks waited for execution.
+     * @param unit the unit of the result
+     * @return a duration
+     */
+    public long getAverageQueueTime(TimeUnit unit) {
+        long count = this.completedTaskCount.sum();
+        return (count > 0) ? unit.convert(this.totalQueueTime.sum() / count, TimeUnit.NANOSECONDS) : 0;
+    }
+
+    /**
+     * Returns the average time taken to execute a task.
+     * @param unit the unit of the result
+     * @return a duration
+     */
+    public long getAverageTaskTime(TimeUnit unit) {
+        long count = this.completedTaskCount.sum();
+        return (count > 0) ? unit.convert(this.totalTaskTime.sum() / count, TimeUnit.NANOSECONDS) : 0;
+    }
+
+    /**
+     * Returns the maximum time taken to execute a task.
+     * @param unit the unit of the result
+     * @return a duration
+     */
+    public long getMaxTaskTime(TimeUnit unit) {
+        return unit.convert(this.maxTaskTime.get(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    protected <T> RunnableFuture<T> newTaskFor(Runnable runnable, T value) {
+        return new ManagedTaskFuture<>(doIdentityWrap(doWrap(runnable, this.controlPoint)), value);
+    }
+
+    @Override
+    protected <T> RunnableFuture<T> newTaskFor(Callable<T> callable) {
+        return new ManagedTaskFuture<>(doIdentityWrap(doWrap(callable, this.controlPoint)));
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        ManagedTaskFuture<?> task = (command instanceof ManagedTaskFuture && ((ManagedTaskFuture<?>) command).getExecutor() == this) ? (ManagedTaskFuture<?>) command : (ManagedTaskFuture<?>) this.newTaskFor(command, null);
+        // The queue capacity is enforced on a best effort basis, to avoid contention between submitters
+        if ((this.queueCapacity != Integer.MAX_VALUE) && (this.queueSize.sum() >= this.queueCapacity)) {
+            RejectedExecutionException exception = EeLogger.ROOT_LOGGER.executorQueueFull(this.name);
+            task.reject(exception);
+            throw exception;
+        }
+        this.queueSize.increment();
+        try {
+            task.submitted();
+            this.executor.execute(task);
+        } catch (RuntimeException | Error e) {
+            this.queueSize.decrement();
+            task.reject(e);
+            throw e;
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        this.executor.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return this.executor.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return this.executor.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return this.executor.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return this.executor.awaitTermination(timeout, unit);
+    }
+
+    /**
+     * A task of this executor, which sets up the submitter's context, notifies the task's listener, if any, and records statistics.
+     */
+    private class ManagedTaskFuture<V> extends FutureTask<V> {
+        private final Object task;
+        private final ManagedTaskListener listener;
+        private final ContextHandle contextHandle;
+        private volatile long submitted;
+        private volatile boolean started;
+
+        ManagedTaskFuture(Runnable runnable, V result) {
+            super(runnable, result);
+            this.task = runnable;
+            this.listener = (runnable instanceof ManagedTask) ? ((ManagedTask) runnable).getManagedTaskListener() : null;
+            this.contextHandle = saveContext();
+        }
+
+        ManagedTaskFuture(Callable<V> callable) {
+            super(callable);
+            this.task = callable;
+            this.listener = (callable instanceof ManagedTask) ? ((ManagedTask) callable).getManagedTaskListener() : null;
+            this.contextHandle = saveContext();
+        }
+
+        DelegatingManagedExecutorServiceImpl getExecutor() {
+            return DelegatingManagedExecutorServiceImpl.this;
+        }
+
+        void submitted() {
+            this.submitted = System.nanoTime();
+            if (this.listener != null) {
+                this.listener.taskSubmitted(this, adapter, this.task);
+            }
+        }
+
+        void abort(Throwable exception) {
+            if (this.listener != null) {
+                this.listener.taskAborted(this, adapter, this.task, exception);
+                this.listener.taskDone(this, adapter, this.task, exception);
+            }
+        }
+
+        void reject(Throwable exception) {
+            // The control point request began when the task was wrapped, but will never complete
+            if (controlPoint != null) {
+                controlPoint.requestComplete();
+            }
+            this.abort(exception);
+        }
+
+        @Override
+        public void run() {
+            long start = System.nanoTime();
+            queueSize.decrement();
+            if (this.isDone()) {
+                // Cancelled before execution
+                if (controlPoint != null) {
+                    controlPoint.requestComplete();
+                }
+                return;
+            }
+            ContextSetupProvider provider = (this.contextHandle != null) ? contextService.getContextSetupProvider() : null;
+            ContextHandle resetHandle;
+            try {
+                resetHandle = (provider != null) ? provider.setup(this.contextHandle) : null;
+            } catch (RuntimeException e) {
+                if (controlPoint != null) {
+                    controlPoint.requestComplete();
+                }
+                this.setException(e);
+                this.abort(e);
+                return;
+            }
+            try {
+                this.started = true;
+                if (this.listener != null) {
+                    this.listener.taskStarting(this, adapter, this.task);
+                }
+                super.run();
+            } finally {
+                try {
+                    if (this.listener != null) {
+                        this.listener.taskDone(this, adapter, this.task, this.getFailure());
+                    }
+                } finally {
+                    if (resetHandle != null) {
+                        provider.reset(resetHandle);
+                    }
+                    long end = System.nanoTime();
+                    long taskTime = end - start;
+                    totalQueueTime.add(start - this.submitted);
+                    totalTaskTime.add(taskTime);
+                    maxTaskTime.accumulate(taskTime);
+                    completedTaskCount.increment();
+                }
+            }
+        }
+
+        @Override
+        protected void done() {
+            if (this.isCancelled() && (this.listener != null)) {
+                CancellationException exception = new CancellationException();
+                this.listener.taskAborted(this, adapter, this.task, exception);
+                // Otherwise, the listener is notified once the task completes
+                if (!this.started) {
+                    this.listener.taskDone(this, adapter, this.task, exception);
+                }
+            }
+        }
+
+        private Throwable getFailure() {
+            if (this.isCancelled()) {
+                return new CancellationException();
+            }
+            try {
+                this.get(0, TimeUnit.NANOSECONDS);
+                return null;
+            } catch (ExecutionException e) {
+                return e.getCause();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            } catch (TimeoutException e) {
+                return null;
+            }
+        }
+
+        private ContextHandle saveContext() {
+            return (contextService != null) ? contextService.getContextSetupProvider().saveContext(contextService) : null;
+        }
+    }
+
+    /**
+     * The view of the executor exposed to applications, for which lifecycle operations are not allowed.
+     */
+    private class Adapter implements ManagedExecutorService {
+
+        @Override
+        public void shutdown() {
+            throw EeLogger.ROOT_LOGGER.lifecycleOperationNotSupported();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            throw EeLogger.ROOT_LOGGER.lifecycleOperationNotSupported();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            throw EeLogger.ROOT_LOGGER.lifecycleOperationNotSupported();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            throw EeLogger.ROOT_LOGGER.lifecycleOperationNotSupported();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            throw EeLogger.ROOT_LOGGER.lifecycleOperationNotSupported();
+        }
+
+        @Override
+        public <T> Future<T> submit(Callable<T> task) {
+            return DelegatingManagedExecutorServiceImpl.this.submit(task);
+        }
+
+        @Override
+        public <T> Future<T> submit(Runnable task, T result) {
+            return DelegatingManagedExecutorServiceImpl.this.submit(task, result);
+        }
+
+        @Override
+        public Future<?> submit(Runnable task) {
+            return DelegatingManagedExecutorServiceImpl.this.submit(task);
+        }
+
+        @Override
+        public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks) throws InterruptedException {
+            return DelegatingManagedExecutorServiceImpl.this.invokeAll(tasks);
+        }
+
+        @Override
+        public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit) throws InterruptedException {
+            return DelegatingManagedExecutorServiceImpl.this.invokeAll(tasks, timeout, unit);
+        }
+
+        @Override
+        public <T> T invokeAny(Collection<? extends Callable<T>> tasks) throws InterruptedException, ExecutionException {
+            return DelegatingManagedExecutorServiceImpl.this.invokeAny(tasks);
+        }
+
+        @Override
+        public <T> T invokeAny(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            return DelegatingManagedExecutorServiceImpl.this.invokeAny(tasks, timeout, unit);
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            DelegatingManagedExecutorServiceImpl.this.execute(command);
+        }
+    }
+}
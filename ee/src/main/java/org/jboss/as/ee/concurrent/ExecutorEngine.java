@@ -0,0 +1,40 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ee.concurrent;
+
+/**
+ * The engines which may execute the tasks of a managed executor service.
+ */
+public enum ExecutorEngine {
+    /**
+     * A bounded thread pool, as per the Java EE RI.
+     */
+    THREAD_POOL,
+    /**
+     * A work-stealing {@link java.util.concurrent.ForkJoinPool}, suited to large numbers of short tasks.
+     */
+    FORK_JOIN,
+    /**
+     * A virtual thread per task, suited to large numbers of blocking tasks. Falls back to {@link #FORK_JOIN} if the JVM does not support virtual threads.
+     */
+    VIRTUAL_THREAD
+}
@@ -28,6 +28,7 @@ import static org.jboss.as.ee.concurrent.SecurityIdentityUtils.doIdentityWrap;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 import org.glassfish.enterprise.concurrent.ContextServiceImpl;
@@ -70,4 +71,12 @@ public class ManagedExecutorServiceImpl extends org.glassfish.enterprise.concurr
     public void execute(Runnable command) {
         super.execute(doIdentityWrap(doWrap(command, controlPoint)));
     }
+
+    /**
+     * Returns the number of tasks submitted but not yet started.
+     * @return a number of tasks
+     */
+    public int getQueueSize() {
+        return ((ThreadPoolExecutor) getThreadPoolExecutor()).getQueue().size();
+    }
 }
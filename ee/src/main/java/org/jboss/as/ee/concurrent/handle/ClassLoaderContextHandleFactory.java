@@ -40,14 +40,17 @@ public class ClassLoaderContextHandleFactory implements ContextHandleFactory {
     public static final String NAME = "CLASSLOADER";
 
     private final ClassLoader classLoader;
+    private final SetupContextHandle setupContextHandle;
 
     public ClassLoaderContextHandleFactory(ClassLoader classLoader) {
         this.classLoader = classLoader;
+        this.setupContextHandle = new ClassLoaderSetupContextHandle(classLoader);
     }
 
     @Override
     public SetupContextHandle saveContext(ContextService contextService, Map<String, String> contextObjectProperties) {
-        return new ClassLoaderSetupContextHandle(classLoader);
+        // the saved context is always the factory's classloader, the handle is immutable and thus shared
+        return setupContextHandle;
     }
 
     @Override
@@ -66,7 +69,7 @@ public class ClassLoaderContextHandleFactory implements ContextHandleFactory {
 
     @Override
     public SetupContextHandle readSetupContextHandle(ObjectInputStream in) throws IOException, ClassNotFoundException {
-        return new ClassLoaderSetupContextHandle(classLoader);
+        return setupContextHandle;
     }
 
     private static class ClassLoaderSetupContextHandle implements SetupContextHandle {
@@ -79,8 +82,12 @@ public class ClassLoaderContextHandleFactory implements ContextHandleFactory {
 
         @Override
         public ResetContextHandle setup() throws IllegalStateException {
-            final ClassLoaderResetContextHandle resetContextHandle = new ClassLoaderResetContextHandle(WildFlySecurityManager.getCurrentContextClassLoaderPrivileged());
-            WildFlySecurityManager.setCurrentContextClassLoaderPrivileged(classLoader);
+            final ClassLoader previous = WildFlySecurityManager.getCurrentContextClassLoaderPrivileged();
+            // always restore, since the task may switch the TCCL of the executing thread while it runs
+            final ClassLoaderResetContextHandle resetContextHandle = new ClassLoaderResetContextHandle(previous);
+            if (previous != classLoader) {
+                WildFlySecurityManager.setCurrentContextClassLoaderPrivileged(classLoader);
+            }
             return resetContextHandle;
         }
 
@@ -43,15 +43,18 @@ public class NamingContextHandleFactory implements ContextHandleFactory {
 
     private final NamespaceContextSelector namespaceContextSelector;
     private final ServiceName duServiceName;
+    private final NamingContextHandle contextHandle;
 
     public NamingContextHandleFactory(NamespaceContextSelector namespaceContextSelector, ServiceName duServiceName) {
         this.namespaceContextSelector = namespaceContextSelector;
         this.duServiceName = duServiceName;
+        this.contextHandle = new NamingContextHandle(namespaceContextSelector,duServiceName);
     }
 
     @Override
     public SetupContextHandle saveContext(ContextService contextService, Map<String, String> contextObjectProperties) {
-        return new NamingContextHandle(namespaceContextSelector,duServiceName);
+        // the handle keeps no state from the submitting thread, and is thus shared
+        return contextHandle;
     }
 
     @Override
@@ -70,7 +73,7 @@ public class NamingContextHandleFactory implements ContextHandleFactory {
 
     @Override
     public SetupContextHandle readSetupContextHandle(ObjectInputStream in) throws IOException, ClassNotFoundException {
-        return new NamingContextHandle(namespaceContextSelector,duServiceName);
+        return contextHandle;
     }
 
     private static class NamingContextHandle implements SetupContextHandle, ResetContextHandle {
@@ -90,6 +93,9 @@ public class NamingContextHandleFactory implements ContextHandleFactory {
 
         @Override
         public ResetContextHandle setup() throws IllegalStateException {
+            if(namespaceContextSelector == null && duServiceName == null) {
+                return NullContextHandle.INSTANCE;
+            }
             if(namespaceContextSelector != null) {
                 NamespaceContextSelector.pushCurrentSelector(namespaceContextSelector);
             }
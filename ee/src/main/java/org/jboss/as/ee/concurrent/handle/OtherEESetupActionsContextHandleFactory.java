@@ -43,14 +43,17 @@ public class OtherEESetupActionsContextHandleFactory implements ContextHandleFac
     public static final String NAME = "EE_SETUP_ACTIONS";
 
     private final List<SetupAction> setupActions;
+    private final SetupContextHandle setupContextHandle;
 
     public OtherEESetupActionsContextHandleFactory(List<SetupAction> setupActions) {
         this.setupActions = setupActions;
+        this.setupContextHandle = new OtherEESetupActionsSetupContextHandle(setupActions);
     }
 
     @Override
     public SetupContextHandle saveContext(ContextService contextService, Map<String, String> contextObjectProperties) {
-        return new OtherEESetupActionsSetupContextHandle(setupActions);
+        // the handle keeps no state from the submitting thread, and is thus shared
+        return setupContextHandle;
     }
 
     @Override
@@ -69,7 +72,7 @@ public class OtherEESetupActionsContextHandleFactory implements ContextHandleFac
 
     @Override
     public SetupContextHandle readSetupContextHandle(ObjectInputStream in) throws IOException, ClassNotFoundException {
-        return new OtherEESetupActionsSetupContextHandle(setupActions);
+        return setupContextHandle;
     }
 
     private static class OtherEESetupActionsSetupContextHandle implements SetupContextHandle {
@@ -87,6 +90,9 @@ public class OtherEESetupActionsContextHandleFactory implements ContextHandleFac
 
         @Override
         public ResetContextHandle setup() throws IllegalStateException {
+            if (setupActions.isEmpty()) {
+                return NullContextHandle.INSTANCE;
+            }
             final LinkedList<SetupAction> resetActions = new LinkedList<>();
             final OtherEESetupActionsResetContextHandle resetContextHandle = new OtherEESetupActionsResetContextHandle(resetActions);
             try {
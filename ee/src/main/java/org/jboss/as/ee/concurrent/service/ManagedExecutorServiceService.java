@@ -24,8 +24,9 @@ package org.jboss.as.ee.concurrent.service;
 
 import org.glassfish.enterprise.concurrent.AbstractManagedExecutorService;
 import org.glassfish.enterprise.concurrent.ContextServiceImpl;
-import org.glassfish.enterprise.concurrent.ManagedExecutorServiceAdapter;
 import org.glassfish.enterprise.concurrent.ManagedThreadFactoryImpl;
+import org.jboss.as.ee.concurrent.DelegatingManagedExecutorServiceImpl;
+import org.jboss.as.ee.concurrent.ExecutorEngine;
 import org.jboss.as.ee.concurrent.ManagedExecutorServiceImpl;
 import org.jboss.as.ee.logging.EeLogger;
 import org.jboss.msc.inject.Injector;
@@ -36,20 +37,26 @@ import org.jboss.msc.value.InjectedValue;
 import org.wildfly.extension.requestcontroller.ControlPoint;
 import org.wildfly.extension.requestcontroller.RequestController;
 
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 
+import javax.enterprise.concurrent.ManagedExecutorService;
+
 /**
- * Service responsible for creating, starting and stopping a ManagedExecutorServiceImpl.
+ * Service responsible for creating, starting and stopping a ManagedExecutorServiceImpl, or a DelegatingManagedExecutorServiceImpl,
+ * depending on the executor engine.
  * <p/>
  * Note that the service's value is the executor's adapter, which does not allows lifecyle related invocations.
  *
  * @author Eduardo Martins
  */
-public class ManagedExecutorServiceService extends EEConcurrentAbstractService<ManagedExecutorServiceAdapter> {
+public class ManagedExecutorServiceService extends EEConcurrentAbstractService<ManagedExecutorService> {
 
-    private volatile ManagedExecutorServiceImpl executorService;
+    private volatile ExecutorService executorService;
+    private volatile ManagedExecutorService adapter;
 
     private final String name;
+    private final ExecutorEngine engine;
     private final InjectedValue<ManagedThreadFactoryImpl> managedThreadFactoryInjectedValue;
     private final long hungTaskThreshold;
     private final boolean longRunningTasks;
@@ -76,11 +83,13 @@ public class ManagedExecutorServiceService extends EEConcurrentAbstractService<M
      * @param threadLifeTime
      * @param queueCapacity
      * @param rejectPolicy
+     * @param engine
      * @see ManagedExecutorServiceImpl#ManagedExecutorServiceImpl(String, org.glassfish.enterprise.concurrent.ManagedThreadFactoryImpl, long, boolean, int, int, long, java.util.concurrent.TimeUnit, long, int, org.glassfish.enterprise.concurrent.ContextServiceImpl, org.glassfish.enterprise.concurrent.AbstractManagedExecutorService.RejectPolicy, org.wildfly.extension.requestcontroller.ControlPoint)
      */
-    public ManagedExecutorServiceService(String name, String jndiName, long hungTaskThreshold, boolean longRunningTasks, int corePoolSize, int maxPoolSize, long keepAliveTime, TimeUnit keepAliveTimeUnit, long threadLifeTime, int queueCapacity, AbstractManagedExecutorService.RejectPolicy rejectPolicy) {
+    public ManagedExecutorServiceService(String name, String jndiName, long hungTaskThreshold, boolean longRunningTasks, int corePoolSize, int maxPoolSize, long keepAliveTime, TimeUnit keepAliveTimeUnit, long threadLifeTime, int queueCapacity, AbstractManagedExecutorService.RejectPolicy rejectPolicy, ExecutorEngine engine) {
         super(jndiName);
         this.name = name;
+        this.engine = engine;
         this.managedThreadFactoryInjectedValue = new InjectedValue<>();
         this.hungTaskThreshold = hungTaskThreshold;
         this.longRunningTasks = longRunningTasks;
@@ -95,6 +104,16 @@ public class ManagedExecutorServiceService extends EEConcurrentAbstractService<M
 
     @Override
     void startValue(StartContext context) throws StartException {
+        if(requestController.getOptionalValue() != null) {
+            controlPoint = requestController.getValue().getControlPoint(name, "managed-executor-service");
+        }
+        if (engine != ExecutorEngine.THREAD_POOL) {
+            // tasks are executed by the engine's own threads, so the managed thread factory is not used
+            final DelegatingManagedExecutorServiceImpl delegatingExecutorService = new DelegatingManagedExecutorServiceImpl(name, engine, maxPoolSize, queueCapacity, contextService.getOptionalValue(), controlPoint);
+            adapter = delegatingExecutorService.getAdapter();
+            executorService = delegatingExecutorService;
+            return;
+        }
         ManagedThreadFactoryImpl managedThreadFactory = managedThreadFactoryInjectedValue.getOptionalValue();
         if(managedThreadFactory == null) {
             // if not injected create one using normal thread priority
@@ -102,10 +121,9 @@ public class ManagedExecutorServiceService extends EEConcurrentAbstractService<M
             managedThreadFactory = new ElytronManagedThreadFactory(threadFactoryName, null, Thread.NORM_PRIORITY);
         }
 
-        if(requestController.getOptionalValue() != null) {
-            controlPoint = requestController.getValue().getControlPoint(name, "managed-executor-service");
-        }
-        executorService = new ManagedExecutorServiceImpl(name, managedThreadFactory, hungTaskThreshold, longRunningTasks, corePoolSize, maxPoolSize, keepAliveTime, keepAliveTimeUnit, threadLifeTime, queueCapacity, contextService.getOptionalValue(), rejectPolicy, controlPoint);
+        final ManagedExecutorServiceImpl managedExecutorService = new ManagedExecutorServiceImpl(name, managedThreadFactory, hungTaskThreshold, longRunningTasks, corePoolSize, maxPoolSize, keepAliveTime, keepAliveTimeUnit, threadLifeTime, queueCapacity, contextService.getOptionalValue(), rejectPolicy, controlPoint);
+        adapter = managedExecutorService.getAdapter();
+        executorService = managedExecutorService;
 
     }
 
@@ -113,22 +131,32 @@ public class ManagedExecutorServiceService extends EEConcurrentAbstractService<M
     void stopValue(StopContext context) {
         if (executorService != null) {
             executorService.shutdownNow();
-            if(managedThreadFactoryInjectedValue.getOptionalValue() == null) {
+            if(executorService instanceof ManagedExecutorServiceImpl && managedThreadFactoryInjectedValue.getOptionalValue() == null) {
                 // if not injected the thread factory was created on start, and now needs to stop
-                executorService.getManagedThreadFactory().stop();
+                ((ManagedExecutorServiceImpl) executorService).getManagedThreadFactory().stop();
             }
             this.executorService = null;
+            this.adapter = null;
         }
         if(controlPoint != null) {
             requestController.getValue().removeControlPoint(controlPoint);
         }
     }
 
-    public ManagedExecutorServiceAdapter getValue() throws IllegalStateException {
-        if (executorService == null) {
+    public ManagedExecutorService getValue() throws IllegalStateException {
+        final ManagedExecutorService adapter = this.adapter;
+        if (adapter == null) {
             throw EeLogger.ROOT_LOGGER.concurrentServiceValueUninitialized();
         }
-        return executorService.getAdapter();
+        return adapter;
+    }
+
+    /**
+     * Returns the executor, either a {@link ManagedExecutorServiceImpl} or a {@link DelegatingManagedExecutorServiceImpl}, for which runtime statistics may be reported.
+     * @return the executor, or null if this service is not started
+     */
+    public ExecutorService getExecutorService() {
+        return executorService;
     }
 
     public Injector<ManagedThreadFactoryImpl> getManagedThreadFactoryInjector() {
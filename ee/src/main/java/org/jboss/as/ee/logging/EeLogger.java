@@ -30,6 +30,7 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.Collection;
 import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
 
 import javax.xml.namespace.QName;
 import javax.xml.stream.Location;
@@ -1147,4 +1148,14 @@ public interface EeLogger extends BasicLogger {
     //        "Support for this setting will be removed once all EE 8 APIs are provided and certified.")
     //void notUsingEE8PreviewMode();
 
+    @LogMessage(level = WARN)
+    @Message(id = 120, value = "Virtual threads are not supported by this JVM, managed executor service %s will use a fork-join pool instead")
+    void virtualThreadsNotSupported(String name);
+
+    @Message(id = 121, value = "Lifecycle operations are not supported by managed executor services")
+    IllegalStateException lifecycleOperationNotSupported();
+
+    @Message(id = 122, value = "Task rejected, the queue of managed executor service %s is full")
+    RejectedExecutionException executorQueueFull(String name);
+
 }
@@ -40,11 +40,21 @@ import org.jboss.as.controller.operations.validation.StringLengthValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.Resource;
+import org.jboss.as.controller.transform.description.DiscardAttributeChecker;
 import org.jboss.as.controller.transform.description.RejectAttributeChecker;
 import org.jboss.as.controller.transform.description.ResourceTransformationDescriptionBuilder;
+import org.jboss.as.ee.concurrent.DelegatingManagedExecutorServiceImpl;
+import org.jboss.as.ee.concurrent.ExecutorEngine;
+import org.jboss.as.ee.concurrent.ManagedExecutorServiceImpl;
+import org.jboss.as.ee.concurrent.service.ConcurrentServiceNames;
+import org.jboss.as.ee.concurrent.service.ManagedExecutorServiceService;
 import org.jboss.as.ee.logging.EeLogger;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.ServiceController;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Eduardo Martins
@@ -61,6 +71,12 @@ public class ManagedExecutorServiceResourceDefinition extends SimpleResourceDefi
     public static final String KEEPALIVE_TIME = "keepalive-time";
     public static final String QUEUE_LENGTH = "queue-length";
     public static final String REJECT_POLICY = "reject-policy";
+    public static final String ENGINE = "engine";
+    public static final String QUEUE_SIZE = "queue-size";
+    public static final String COMPLETED_TASK_COUNT = "completed-task-count";
+    public static final String AVERAGE_QUEUE_TIME = "average-queue-time";
+    public static final String AVERAGE_TASK_TIME = "average-task-time";
+    public static final String MAX_TASK_TIME = "max-task-time";
 
     public static final SimpleAttributeDefinition JNDI_NAME_AD =
             new SimpleAttributeDefinitionBuilder(JNDI_NAME, ModelType.STRING, false)
@@ -136,8 +152,43 @@ public class ManagedExecutorServiceResourceDefinition extends SimpleResourceDefi
                     .setValidator(EnumValidator.create(AbstractManagedExecutorService.RejectPolicy.class, true, true))
                     .build();
 
+    public static final SimpleAttributeDefinition ENGINE_AD =
+            new SimpleAttributeDefinitionBuilder(ENGINE, ModelType.STRING, true)
+                    .setAllowExpression(true)
+                    .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
+                    .setDefaultValue(new ModelNode(ExecutorEngine.THREAD_POOL.toString()))
+                    .setValidator(EnumValidator.create(ExecutorEngine.class, true, true))
+                    .build();
+
+    static final SimpleAttributeDefinition QUEUE_SIZE_AD =
+            new SimpleAttributeDefinitionBuilder(QUEUE_SIZE, ModelType.INT, true)
+                    .setStorageRuntime()
+                    .build();
 
-    static final SimpleAttributeDefinition[] ATTRIBUTES = {JNDI_NAME_AD, CONTEXT_SERVICE_AD, THREAD_FACTORY_AD, HUNG_TASK_THRESHOLD_AD, LONG_RUNNING_TASKS_AD, CORE_THREADS_AD, MAX_THREADS_AD, KEEPALIVE_TIME_AD, QUEUE_LENGTH_AD, REJECT_POLICY_AD};
+    static final SimpleAttributeDefinition COMPLETED_TASK_COUNT_AD =
+            new SimpleAttributeDefinitionBuilder(COMPLETED_TASK_COUNT, ModelType.LONG, true)
+                    .setStorageRuntime()
+                    .build();
+
+    static final SimpleAttributeDefinition AVERAGE_QUEUE_TIME_AD =
+            new SimpleAttributeDefinitionBuilder(AVERAGE_QUEUE_TIME, ModelType.LONG, true)
+                    .setMeasurementUnit(MeasurementUnit.MICROSECONDS)
+                    .setStorageRuntime()
+                    .build();
+
+    static final SimpleAttributeDefinition AVERAGE_TASK_TIME_AD =
+            new SimpleAttributeDefinitionBuilder(AVERAGE_TASK_TIME, ModelType.LONG, true)
+                    .setMeasurementUnit(MeasurementUnit.MICROSECONDS)
+                    .setStorageRuntime()
+                    .build();
+
+    static final SimpleAttributeDefinition MAX_TASK_TIME_AD =
+            new SimpleAttributeDefinitionBuilder(MAX_TASK_TIME, ModelType.LONG, true)
+                    .setMeasurementUnit(MeasurementUnit.MICROSECONDS)
+                    .setStorageRuntime()
+                    .build();
+
+    static final SimpleAttributeDefinition[] ATTRIBUTES = {JNDI_NAME_AD, CONTEXT_SERVICE_AD, THREAD_FACTORY_AD, HUNG_TASK_THRESHOLD_AD, LONG_RUNNING_TASKS_AD, CORE_THREADS_AD, MAX_THREADS_AD, KEEPALIVE_TIME_AD, QUEUE_LENGTH_AD, REJECT_POLICY_AD, ENGINE_AD};
 
     public static final ManagedExecutorServiceResourceDefinition INSTANCE = new ManagedExecutorServiceResourceDefinition();
 
@@ -151,6 +202,51 @@ public class ManagedExecutorServiceResourceDefinition extends SimpleResourceDefi
         for (AttributeDefinition attr : ATTRIBUTES) {
             resourceRegistration.registerReadWriteAttribute(attr, null, writeHandler);
         }
+        resourceRegistration.registerMetric(QUEUE_SIZE_AD, new ExecutorMetricsHandler() {
+            @Override
+            void handle(ModelNode result, ExecutorService executor) {
+                if (executor instanceof DelegatingManagedExecutorServiceImpl) {
+                    result.set(((DelegatingManagedExecutorServiceImpl) executor).getQueueSize());
+                } else if (executor instanceof ManagedExecutorServiceImpl) {
+                    result.set(((ManagedExecutorServiceImpl) executor).getQueueSize());
+                }
+            }
+        });
+        resourceRegistration.registerMetric(COMPLETED_TASK_COUNT_AD, new ExecutorMetricsHandler() {
+            @Override
+            void handle(ModelNode result, ExecutorService executor) {
+                if (executor instanceof DelegatingManagedExecutorServiceImpl) {
+                    result.set(((DelegatingManagedExecutorServiceImpl) executor).getCompletedTaskCount());
+                } else if (executor instanceof ManagedExecutorServiceImpl) {
+                    result.set(((ManagedExecutorServiceImpl) executor).getCompletedTaskCount());
+                }
+            }
+        });
+        // Task times are only recorded by the fork-join and virtual thread engines
+        resourceRegistration.registerMetric(AVERAGE_QUEUE_TIME_AD, new ExecutorMetricsHandler() {
+            @Override
+            void handle(ModelNode result, ExecutorService executor) {
+                if (executor instanceof DelegatingManagedExecutorServiceImpl) {
+                    result.set(((DelegatingManagedExecutorServiceImpl) executor).getAverageQueueTime(TimeUnit.MICROSECONDS));
+                }
+            }
+        });
+        resourceRegistration.registerMetric(AVERAGE_TASK_TIME_AD, new ExecutorMetricsHandler() {
+            @Override
+            void handle(ModelNode result, ExecutorService executor) {
+                if (executor instanceof DelegatingManagedExecutorServiceImpl) {
+                    result.set(((DelegatingManagedExecutorServiceImpl) executor).getAverageTaskTime(TimeUnit.MICROSECONDS));
+                }
+            }
+        });
+        resourceRegistration.registerMetric(MAX_TASK_TIME_AD, new ExecutorMetricsHandler() {
+            @Override
+            void handle(ModelNode result, ExecutorService executor) {
+                if (executor instanceof DelegatingManagedExecutorServiceImpl) {
+                    result.set(((DelegatingManagedExecutorServiceImpl) executor).getMaxTaskTime(TimeUnit.MICROSECONDS));
+                }
+            }
+        });
     }
 
     void registerTransformers_4_0(final ResourceTransformationDescriptionBuilder builder) {
@@ -161,6 +257,40 @@ public class ManagedExecutorServiceResourceDefinition extends SimpleResourceDefi
                 .end();
     }
 
+    void registerTransformers_5_0(final ResourceTransformationDescriptionBuilder builder) {
+        final PathElement pathElement = getPathElement();
+        final ResourceTransformationDescriptionBuilder resourceBuilder = builder.addChildResource(pathElement);
+        resourceBuilder.getAttributeBuilder()
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(ExecutorEngine.THREAD_POOL.toString())), ENGINE_AD)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, ENGINE_AD)
+                .end();
+    }
+
+    /**
+     * Reads a runtime statistic of the executor of the managed executor service service, if installed.
+     */
+    abstract static class ExecutorMetricsHandler implements OperationStepHandler {
+
+        abstract void handle(ModelNode result, ExecutorService executor);
+
+        @Override
+        public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+            final String name = context.getCurrentAddressValue();
+            context.addStep(new OperationStepHandler() {
+                @Override
+                public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+                    final ServiceController<?> controller = context.getServiceRegistry(false).getService(ConcurrentServiceNames.getManagedExecutorServiceServiceName(name));
+                    if (controller != null) {
+                        final ExecutorService executor = ((ManagedExecutorServiceService) controller.getService()).getExecutorService();
+                        if (executor != null) {
+                            handle(context.getResult(), executor);
+                        }
+                    }
+                }
+            }, OperationContext.Stage.RUNTIME);
+        }
+    }
+
     static class ValidatingWriteHandler extends ReloadRequiredWriteAttributeHandler {
         public ValidatingWriteHandler(final AttributeDefinition... definitions) {
             super(definitions);
@@ -0,0 +1,192 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ee.utils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Histogram of durations (e.g. of requests or invocations), in microseconds, using logarithmic buckets of linear sub-buckets
+ * (as per HdrHistogram) such that recorded values retain 2 significant digits.
+ * Each bucket is a {@link LongAdder}, created when it first records a value, so that concurrent callers of similar duration
+ * do not contend on a single counter and recording a value into an existing bucket never allocates.
+ * In addition to the cumulative {@link #snapshot()}, {@link #getRecentSnapshot()} returns the distribution of the most recent interval.
+ */
+public class TimeHistogram {
+
+    // Number of bits of precision retained for each value, i.e. values are accurate to within 1/64
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT >> 1;
+    // Durations longer than an hour are recorded as an hour
+    static final long MAX_VALUE = TimeUnit.HOURS.toMicros(1);
+    private static final int BUCKETS = index(MAX_VALUE) + 1;
+    private static final long DEFAULT_INTERVAL = TimeUnit.MINUTES.toNanos(1);
+
+    private final AtomicReferenceArray<LongAdder> counts = new AtomicReferenceArray<>(BUCKETS);
+    private final long interval;
+    private final LongSupplier ticker;
+    // Snapshots taken at the start of the previous and current intervals
+    private volatile Snapshot previous = new Snapshot(new long[BUCKETS]);
+    private volatile Snapshot current = this.previous;
+    private volatile long intervalStart;
+
+    public TimeHistogram() {
+        this(DEFAULT_INTERVAL, System::nanoTime);
+    }
+
+    /**
+     * @param interval the duration of an interval in nanoseconds
+     * @param ticker the source of the current time in nanoseconds
+     */
+    public TimeHistogram(long interval, LongSupplier ticker) {
+        this.interval = interval;
+        this.ticker = ticker;
+        this.intervalStart = ticker.getAsLong();
+    }
+
+    /**
+     * Records the specified duration.
+     * @param micros a duration in microseconds
+     */
+    public void record(long micros) {
+        final int index = index(Math.max(0, Math.min(micros, MAX_VALUE)));
+        LongAdder count = this.counts.get(index);
+        if (count == null) {
+            final LongAdder newCount = new LongAdder();
+            count = this.counts.compareAndSet(index, null, newCount) ? newCount : this.counts.get(index);
+        }
+        count.increment();
+    }
+
+    /**
+     * Returns a snapshot of all values recorded by this histogram.
+     * @return a snapshot
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; ++i) {
+            LongAdder count = this.counts.get(i);
+            if (count != null) {
+                counts[i] = count.sum();
+            }
+        }
+        return new Snapshot(counts);
+    }
+
+    /**
+     * Returns a snapshot of the values recorded since the start of the previous interval,
+     * i.e. covering between one and two intervals of the most recent values.
+     * Intervals only roll over on demand, so if this method is not called for some time, the snapshot covers a correspondingly longer period.
+     * @return a snapshot
+     */
+    public Snapshot getRecentSnapshot() {
+        long now = this.ticker.getAsLong();
+        if (now - this.intervalStart >= this.interval) {
+            synchronized (this) {
+                if (now - this.intervalStart >= this.interval) {
+                    this.previous = this.current;
+                    this.current = this.snapshot();
+                    this.intervalStart = now;
+                }
+            }
+        }
+        return this.snapshot().minus(this.previous);
+    }
+
+    static int index(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = Long.SIZE - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift * SUB_BUCKET_HALF_COUNT) + (int) (value >>> shift);
+    }
+
+    static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index / SUB_BUCKET_HALF_COUNT) - 1;
+        long lowest = (long) (index - (shift * SUB_BUCKET_HALF_COUNT)) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    /**
+     * Immutable distribution of recorded values.
+     */
+    public static class Snapshot {
+        private final long[] counts;
+        private final long count;
+
+        Snapshot(long[] counts) {
+            this.counts = counts;
+            long count = 0;
+            for (long value : counts) {
+                count += value;
+            }
+            this.count = count;
+        }
+
+        /**
+         * Returns the number of values in this snapshot.
+         * @return a number of values
+         */
+        public long getCount() {
+            return this.count;
+        }
+
+        /**
+         * Returns the value, in microseconds, below which the specified percentage of the values in this snapshot fall.
+         * @param percentile a percentile between 0 and 100
+         * @return a value in microseconds, or 0 if this snapshot is empty
+         */
+        public long getValueAtPercentile(double percentile) {
+            if (this.count == 0) {
+                return 0;
+            }
+            long target = Math.max(1, (long) Math.ceil(Math.min(percentile, 100d) / 100d * this.count));
+            long total = 0;
+            for (int i = 0; i < this.counts.length; ++i) {
+                total += this.counts[i];
+                if (total >= target) {
+                    return highestEquivalentValue(i);
+                }
+            }
+            return highestEquivalentValue(this.counts.length - 1);
+        }
+
+        /**
+         * Returns the distribution of the values in this snapshot that are not in the specified earlier snapshot of the same histogram.
+         * @param earlier an earlier snapshot
+         * @return a snapshot
+         */
+        public Snapshot minus(Snapshot earlier) {
+            long[] counts = new long[this.counts.length];
+            for (int i = 0; i < counts.length; ++i) {
+                counts[i] = this.counts[i] - earlier.counts[i];
+            }
+            return new Snapshot(counts);
+        }
+    }
+}
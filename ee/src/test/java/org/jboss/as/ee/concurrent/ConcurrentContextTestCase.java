@@ -0,0 +1,197 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ee.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.enterprise.concurrent.ContextService;
+
+import org.jboss.as.ee.concurrent.handle.ContextHandleFactory;
+import org.jboss.as.ee.concurrent.handle.NullContextHandle;
+import org.jboss.as.ee.concurrent.handle.ResetContextHandle;
+import org.jboss.as.ee.concurrent.handle.SetupContextHandle;
+import org.junit.Test;
+
+/**
+ * Unit test for the reuse of chained handles by {@link ConcurrentContext#saveContext(ContextService, Map)}.
+ */
+public class ConcurrentContextTestCase {
+
+    private static final ThreadLocal<AtomicInteger> SETUP_COUNT = ThreadLocal.withInitial(AtomicInteger::new);
+
+    @Test
+    public void reuse() {
+        ConcurrentContext context = new ConcurrentContext();
+        TestContextHandleFactory first = new TestContextHandleFactory("first", 1);
+        context.addFactory(first);
+
+        SetupContextHandle handle = context.saveContext(null, null);
+        // Factories returned the same handles, so the chain is reused
+        assertSame(handle, context.saveContext(null, null));
+        assertEquals(1, setup(handle));
+
+        first.changed();
+        SetupContextHandle changedHandle = context.saveContext(null, null);
+        assertNotSame(handle, changedHandle);
+        assertSame(changedHandle, context.saveContext(null, null));
+    }
+
+    @Test
+    public void addFactory() {
+        ConcurrentContext context = new ConcurrentContext();
+        context.addFactory(new TestContextHandleFactory("first", 1));
+
+        SetupContextHandle handle = context.saveContext(null, null);
+        assertEquals(1, setup(handle));
+
+        context.addFactory(new TestContextHandleFactory("second", 2));
+
+        // The chain must be rebuilt, even though the first factory returned the same handle
+        SetupContextHandle newHandle = context.saveContext(null, null);
+        assertNotSame(handle, newHandle);
+        assertEquals(2, setup(newHandle));
+        assertSame(newHandle, context.saveContext(null, null));
+    }
+
+    @Test
+    public void addFactoryDuringSave() throws Exception {
+        ConcurrentContext context = new ConcurrentContext();
+        CountDownLatch saving = new CountDownLatch(1);
+        CountDownLatch added = new CountDownLatch(1);
+        context.addFactory(new TestContextHandleFactory("first", 1) {
+            @Override
+            public SetupContextHandle saveContext(ContextService contextService, Map<String, String> contextObjectProperties) {
+                if (saving.getCount() > 0) {
+                    saving.countDown();
+                    try {
+                        added.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return super.saveContext(contextService, contextObjectProperties);
+            }
+        });
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<SetupContextHandle> future = executor.submit(() -> context.saveContext(null, null));
+            assertTrue(saving.await(10, TimeUnit.SECONDS));
+            context.addFactory(new TestContextHandleFactory("second", 2));
+            added.countDown();
+            // The handle saved concurrently only chains the factories known when saving started
+            assertEquals(1, setup(future.get(10, TimeUnit.SECONDS)));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // The handle saved concurrently must not be reused with the new factories
+        SetupContextHandle handle = context.saveContext(null, null);
+        assertEquals(2, setup(handle));
+        assertSame(handle, context.saveContext(null, null));
+    }
+
+    /**
+     * Sets up and resets the specified handle, returning the number of chained handles set up.
+     */
+    private static int setup(SetupContextHandle handle) {
+        AtomicInteger count = SETUP_COUNT.get();
+        count.set(0);
+        handle.setup().reset();
+        return count.get();
+    }
+
+    private static class TestContextHandleFactory implements ContextHandleFactory {
+        private final String name;
+        private final int priority;
+        private volatile SetupContextHandle handle;
+
+        TestContextHandleFactory(String name, int priority) {
+            this.name = name;
+            this.priority = priority;
+            this.changed();
+        }
+
+        void changed() {
+            this.handle = new TestSetupContextHandle(this.name);
+        }
+
+        @Override
+        public SetupContextHandle saveContext(ContextService contextService, Map<String, String> contextObjectProperties) {
+            return this.handle;
+        }
+
+        @Override
+        public int getChainPriority() {
+            return this.priority;
+        }
+
+        @Override
+        public String getName() {
+            return this.name;
+        }
+
+        @Override
+        public void writeSetupContextHandle(SetupContextHandle contextHandle, ObjectOutputStream out) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public SetupContextHandle readSetupContextHandle(ObjectInputStream in) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static class TestSetupContextHandle implements SetupContextHandle {
+        private static final long serialVersionUID = 1L;
+
+        private final String factoryName;
+
+        TestSetupContextHandle(String factoryName) {
+            this.factoryName = factoryName;
+        }
+
+        @Override
+        public ResetContextHandle setup() {
+            SETUP_COUNT.get().incrementAndGet();
+            return NullContextHandle.INSTANCE;
+        }
+
+        @Override
+        public String getFactoryName() {
+            return this.factoryName;
+        }
+    }
+}
@@ -0,0 +1,359 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ee.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.enterprise.concurrent.ContextService;
+import javax.enterprise.concurrent.ManagedExecutorService;
+import javax.enterprise.concurrent.ManagedTask;
+import javax.enterprise.concurrent.ManagedTaskListener;
+
+import org.glassfish.enterprise.concurrent.spi.ContextHandle;
+import org.glassfish.enterprise.concurrent.spi.ContextSetupProvider;
+import org.junit.After;
+import org.junit.Test;
+import org.wildfly.extension.requestcontroller.ControlPoint;
+
+/**
+ * Unit test for {@link DelegatingManagedExecutorServiceImpl}.
+ */
+public class DelegatingManagedExecutorServiceImplTestCase {
+
+    private DelegatingManagedExecutorServiceImpl executor;
+
+    @After
+    public void destroy() throws InterruptedException {
+        if (this.executor != null) {
+            this.executor.shutdown();
+            assertTrue(this.executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void listener() throws Exception {
+        this.executor = new DelegatingManagedExecutorServiceImpl("test", ExecutorEngine.FORK_JOIN, 2, 0, null, null);
+
+        RecordingTask task = new RecordingTask(null);
+        Future<?> future = this.executor.getAdapter().submit(task);
+        assertTrue(task.done.await(10, TimeUnit.SECONDS));
+        assertNull(future.get());
+        assertEquals(3, task.events.size());
+        assertEquals("submitted", task.events.get(0));
+        assertEquals("starting", task.events.get(1));
+        assertEquals("done", task.events.get(2));
+        assertNull(task.failure.get());
+
+        RuntimeException exception = new RuntimeException();
+        RecordingTask failingTask = new RecordingTask(exception);
+        future = this.executor.getAdapter().submit(failingTask);
+        assertTrue(failingTask.done.await(10, TimeUnit.SECONDS));
+        try {
+            future.get();
+            fail("Expected ExecutionException");
+        } catch (ExecutionException e) {
+            assertSame(exception, e.getCause());
+        }
+        assertEquals(3, failingTask.events.size());
+        assertEquals("done", failingTask.events.get(2));
+        assertSame(exception, failingTask.failure.get());
+    }
+
+    @Test
+    public void cancelBeforeRun() throws Exception {
+        ControlPoint controlPoint = mock(ControlPoint.class);
+        this.executor = new DelegatingManagedExecutorServiceImpl("test", ExecutorEngine.FORK_JOIN, 1, 0, null, controlPoint);
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> blocker = this.executor.submit(new BlockingTask(started, release));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        RecordingTask task = new RecordingTask(null);
+        Future<?> future = this.executor.submit(task);
+        assertEquals(1, this.executor.getQueueSize());
+        assertTrue(future.cancel(false));
+
+        release.countDown();
+        blocker.get(10, TimeUnit.SECONDS);
+        this.executor.shutdown();
+        assertTrue(this.executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertTrue(task.done.await(0, TimeUnit.SECONDS));
+        assertEquals(3, task.events.size());
+        assertEquals("submitted", task.events.get(0));
+        assertEquals("aborted", task.events.get(1));
+        assertEquals("done", task.events.get(2));
+        assertTrue(task.failure.get() instanceof CancellationException);
+        assertFalse(task.ran);
+        assertEquals(0, this.executor.getQueueSize());
+
+        // The control point request of the cancelled task must still complete
+        verify(controlPoint, times(2)).forceBeginRequest();
+        verify(controlPoint, times(2)).requestComplete();
+    }
+
+    @Test
+    public void queueCapacity() throws Exception {
+        ControlPoint controlPoint = mock(ControlPoint.class);
+        this.executor = new DelegatingManagedExecutorServiceImpl("test", ExecutorEngine.FORK_JOIN, 1, 1, null, controlPoint);
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> blocker = this.executor.submit(new BlockingTask(started, release));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        Future<?> queued = this.executor.submit(new BlockingTask(new CountDownLatch(1), release));
+        assertEquals(1, this.executor.getQueueSize());
+
+        RecordingTask task = new RecordingTask(null);
+        try {
+            this.executor.submit(task);
+            fail("Expected RejectedExecutionException");
+        } catch (RejectedExecutionException e) {
+            assertEquals(2, task.events.size());
+            assertEquals("aborted", task.events.get(0));
+            assertEquals("done", task.events.get(1));
+            assertSame(e, task.failure.get());
+        }
+        assertFalse(task.ran);
+        assertEquals(1, this.executor.getQueueSize());
+
+        release.countDown();
+        blocker.get(10, TimeUnit.SECONDS);
+        queued.get(10, TimeUnit.SECONDS);
+        assertEquals(0, this.executor.getQueueSize());
+
+        // Once drained, the queue accepts tasks again
+        this.executor.submit(() -> { }).get(10, TimeUnit.SECONDS);
+
+        verify(controlPoint, times(4)).forceBeginRequest();
+        verify(controlPoint, times(4)).requestComplete();
+    }
+
+    @Test
+    public void context() throws Exception {
+        RecordingContextSetupProvider provider = new RecordingContextSetupProvider();
+        ContextServiceImpl contextService = new ContextServiceImpl("test", provider, null);
+        this.executor = new DelegatingManagedExecutorServiceImpl("test", ExecutorEngine.FORK_JOIN, 2, 0, contextService, null);
+
+        Future<ContextHandle> future = this.executor.submit(provider.current::get);
+        assertSame(provider.resetHandle, provider.resetHandles.poll(10, TimeUnit.SECONDS));
+        assertSame(provider.savedHandle, future.get());
+        assertSame(provider.savedHandle, provider.setupHandles.poll());
+
+        // A failure to set up the context fails the task, without running it
+        RuntimeException exception = new RuntimeException();
+        provider.setupFailure = exception;
+        RecordingTask task = new RecordingTask(null);
+        future = this.executor.submit(task, null);
+        try {
+            future.get(10, TimeUnit.SECONDS);
+            fail("Expected ExecutionException");
+        } catch (ExecutionException e) {
+            assertSame(exception, e.getCause());
+        }
+        assertTrue(task.done.await(10, TimeUnit.SECONDS));
+        assertFalse(task.ran);
+        assertEquals("aborted", task.events.get(1));
+        assertSame(exception, task.failure.get());
+        assertTrue(provider.resetHandles.isEmpty());
+    }
+
+    @Test
+    public void controlPoint() throws Exception {
+        ControlPoint controlPoint = mock(ControlPoint.class);
+        this.executor = new DelegatingManagedExecutorServiceImpl("test", ExecutorEngine.FORK_JOIN, 4, 0, null, controlPoint);
+
+        int count = 100;
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < count; ++i) {
+            futures.add(this.executor.submit(new RecordingTask((i % 2 == 0) ? new RuntimeException() : null)));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get(10, TimeUnit.SECONDS);
+            } catch (ExecutionException e) {
+                // Expected for failing tasks
+            }
+        }
+        this.executor.shutdown();
+        assertTrue(this.executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        verify(controlPoint, times(count)).forceBeginRequest();
+        verify(controlPoint, times(count)).requestComplete();
+        assertEquals(count, this.executor.getCompletedTaskCount());
+    }
+
+    @Test
+    public void virtualThread() throws Exception {
+        this.executor = new DelegatingManagedExecutorServiceImpl("test", ExecutorEngine.VIRTUAL_THREAD, 2, 0, null, null);
+
+        Thread thread = this.executor.submit(Thread::currentThread).get(10, TimeUnit.SECONDS);
+        Boolean virtual;
+        try {
+            virtual = (Boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+        } catch (NoSuchMethodException e) {
+            // Virtual threads are not supported, so the executor must fall back to a fork-join pool
+            virtual = null;
+        }
+        if (virtual != null) {
+            assertTrue(virtual);
+        } else {
+            assertTrue(thread.getName(), thread.getName().startsWith("EE-ManagedExecutorService-test-"));
+        }
+        this.executor.shutdown();
+        assertTrue(this.executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(1, this.executor.getCompletedTaskCount());
+    }
+
+    private static class BlockingTask implements Runnable {
+        private final CountDownLatch started;
+        private final CountDownLatch release;
+
+        BlockingTask(CountDownLatch started, CountDownLatch release) {
+            this.started = started;
+            this.release = release;
+        }
+
+        @Override
+        public void run() {
+            this.started.countDown();
+            try {
+                this.release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static class RecordingTask implements Runnable, ManagedTask, ManagedTaskListener {
+        final List<String> events = new CopyOnWriteArrayList<>();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final CountDownLatch done = new CountDownLatch(1);
+        private final RuntimeException exception;
+        volatile boolean ran;
+
+        RecordingTask(RuntimeException exception) {
+            this.exception = exception;
+        }
+
+        @Override
+        public void run() {
+            this.ran = true;
+            if (this.exception != null) {
+                throw this.exception;
+            }
+        }
+
+        @Override
+        public ManagedTaskListener getManagedTaskListener() {
+            return this;
+        }
+
+        @Override
+        public Map<String, String> getExecutionProperties() {
+            return null;
+        }
+
+        @Override
+        public void taskSubmitted(Future<?> future, ManagedExecutorService executor, Object task) {
+            this.events.add("submitted");
+        }
+
+        @Override
+        public void taskAborted(Future<?> future, ManagedExecutorService executor, Object task, Throwable exception) {
+            this.events.add("aborted");
+        }
+
+        @Override
+        public void taskDone(Future<?> future, ManagedExecutorService executor, Object task, Throwable exception) {
+            this.events.add("done");
+            this.failure.set(exception);
+            this.done.countDown();
+        }
+
+        @Override
+        public void taskStarting(Future<?> future, ManagedExecutorService executor, Object task) {
+            this.events.add("starting");
+        }
+    }
+
+    private static class RecordingContextSetupProvider implements ContextSetupProvider {
+        private static final long serialVersionUID = 1L;
+
+        final ContextHandle savedHandle = new ContextHandle() { };
+        final ContextHandle resetHandle = new ContextHandle() { };
+        final BlockingQueue<ContextHandle> setupHandles = new LinkedBlockingQueue<>();
+        final BlockingQueue<ContextHandle> resetHandles = new LinkedBlockingQueue<>();
+        final ThreadLocal<ContextHandle> current = new ThreadLocal<>();
+        volatile RuntimeException setupFailure;
+
+        @Override
+        public ContextHandle saveContext(ContextService contextService) {
+            return this.savedHandle;
+        }
+
+        @Override
+        public ContextHandle saveContext(ContextService contextService, Map<String, String> contextObjectProperties) {
+            return this.savedHandle;
+        }
+
+        @Override
+        public ContextHandle setup(ContextHandle contextHandle) {
+            if (this.setupFailure != null) {
+                throw this.setupFailure;
+            }
+            this.setupHandles.add(contextHandle);
+            this.current.set(contextHandle);
+            return this.resetHandle;
+        }
+
+        @Override
+        public void reset(ContextHandle contextHandle) {
+            this.current.remove();
+            this.resetHandles.add(contextHandle);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ee.concurrent.handle;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that {@link ClassLoaderContextHandleFactory} restores the TCCL of the executing thread.
+ */
+public class ClassLoaderContextHandleFactoryTestCase {
+
+    private final ClassLoader classLoader = new URLClassLoader(new URL[0]);
+    private final ClassLoader otherClassLoader = new URLClassLoader(new URL[0]);
+    private final ContextHandleFactory factory = new ClassLoaderContextHandleFactory(this.classLoader);
+
+    private ClassLoader original;
+
+    @Before
+    public void setUp() {
+        this.original = Thread.currentThread().getContextClassLoader();
+    }
+
+    @After
+    public void tearDown() {
+        Thread.currentThread().setContextClassLoader(this.original);
+    }
+
+    @Test
+    public void testSetupAndReset() {
+        Thread.currentThread().setContextClassLoader(this.otherClassLoader);
+        ResetContextHandle reset = this.factory.saveContext(null, null).setup();
+        Assert.assertSame(this.classLoader, Thread.currentThread().getContextClassLoader());
+        reset.reset();
+        Assert.assertSame(this.otherClassLoader, Thread.currentThread().getContextClassLoader());
+    }
+
+    @Test
+    public void testResetWhenAlreadySet() {
+        // the executing thread already has the saved TCCL, but the task switches it without restoring it
+        Thread.currentThread().setContextClassLoader(this.classLoader);
+        ResetContextHandle reset = this.factory.saveContext(null, null).setup();
+        Assert.assertSame(this.classLoader, Thread.currentThread().getContextClassLoader());
+        Thread.currentThread().setContextClassLoader(this.otherClassLoader);
+        reset.reset();
+        Assert.assertSame(this.classLoader, Thread.currentThread().getContextClassLoader());
+    }
+}
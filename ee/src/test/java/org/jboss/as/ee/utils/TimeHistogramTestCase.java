@@ -0,0 +1,84 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ee.utils;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+/**
+ * Unit test for {@link TimeHistogram}.
+ */
+public class TimeHistogramTestCase {
+
+    @Test
+    public void testBuckets() {
+        int previous = -1;
+        for (long value = 0; value < 1 << 20; ++value) {
+            int index = TimeHistogram.index(value);
+            assertTrue(index == previous || index == previous + 1);
+            long highest = TimeHistogram.highestEquivalentValue(index);
+            assertTrue(highest >= value);
+            // Values within a bucket differ by less than 1/64
+            assertTrue(highest - value <= value / 64);
+            previous = index;
+        }
+    }
+
+    @Test
+    public void testPercentiles() {
+        TimeHistogram histogram = new TimeHistogram();
+        assertEquals(0, histogram.snapshot().getValueAtPercentile(99));
+        for (long value = 1; value <= 10000; ++value) {
+            histogram.record(value);
+        }
+        histogram.record(Long.MAX_VALUE);
+        TimeHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(10001, snapshot.getCount());
+        assertEquals(5000, snapshot.getValueAtPercentile(50), 5000 / 64);
+        assertEquals(9900, snapshot.getValueAtPercentile(99), 9900 / 64);
+        assertEquals(9990, snapshot.getValueAtPercentile(99.9), 9990 / 64);
+        assertEquals(TimeHistogram.MAX_VALUE, snapshot.getValueAtPercentile(100), TimeHistogram.MAX_VALUE / 64);
+    }
+
+    @Test
+    public void testRecentSnapshot() {
+        AtomicLong ticker = new AtomicLong();
+        TimeHistogram histogram = new TimeHistogram(1000L, ticker::get);
+        histogram.record(100);
+        ticker.addAndGet(999L);
+        // Interval has not yet elapsed
+        assertEquals(1, histogram.getRecentSnapshot().getCount());
+        ticker.addAndGet(1L);
+        histogram.record(200);
+        // Values recorded during the previous interval are still included
+        assertEquals(2, histogram.getRecentSnapshot().getCount());
+        ticker.addAndGet(1000L);
+        histogram.record(300);
+        TimeHistogram.Snapshot snapshot = histogram.getRecentSnapshot();
+        assertEquals(1, snapshot.getCount());
+        assertEquals(300, snapshot.getValueAtPercentile(50), 300 / 64);
+        assertEquals(3, histogram.snapshot().getCount());
+    }
+}
@@ -94,6 +94,22 @@ public interface Cache<K, V extends Identifiable<K>> extends AffinitySupport<K>,
 
     int getTotalSize();
 
+    /**
+     * Returns the number of idle objects whose expiration is pending.
+     * @return the number of objects scheduled for expiration
+     */
+    default int getPendingExpirationCount() {
+        return 0;
+    }
+
+    /**
+     * Returns the average time between the moment an idle object became eligible for expiration and its actual expiration.
+     * @return the average expiration lag in milliseconds
+     */
+    default long getExpirationLag() {
+        return 0;
+    }
+
     /**
      * Checks whether the supplied {@link Throwable} is remotable meaning it can be safely sent to the client over the wire.
      */
@@ -0,0 +1,196 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.cache.simple;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Tracks the expiration of idle cache entries using coarse time slots.
+ * Each scheduled key is placed into the bucket of the slot containing its deadline, and a single periodic sweep
+ * expires whole buckets at once, so scheduling and cancelling an expiration never allocates a per-entry task.
+ * A key is never expired before its deadline; it may be expired up to one slot (plus the sweep delay) after it.
+ *
+ * @param <K> the cache key type
+ */
+class ExpirationWheel<K> {
+
+    private final long resolution;
+    // Deadline of each pending expiration, in the same time base as the sweep
+    private final ConcurrentMap<K, Long> deadlines = new ConcurrentHashMap<>();
+    private final ConcurrentNavigableMap<Long, Bucket<K>> buckets = new ConcurrentSkipListMap<>();
+    private final LongAdder expiredCount = new LongAdder();
+    private final LongAdder expirationLag = new LongAdder();
+
+    /**
+     * @param resolution the width of a time slot, which is also the expected sweep period
+     */
+    ExpirationWheel(long resolution) {
+        if (resolution <= 0) throw new IllegalArgumentException();
+        this.resolution = resolution;
+    }
+
+    long getResolution() {
+        return this.resolution;
+    }
+
+    /**
+     * Schedules the expiration of the specified key, replacing any previously scheduled expiration.
+     * @param key a cache key
+     * @param deadline the time at which the key becomes eligible for expiration
+     */
+    void schedule(K key, long deadline) {
+        Long slot = this.slot(deadline);
+        Long previous = this.deadlines.put(key, deadline);
+        if (previous != null) {
+            Long previousSlot = this.slot(previous);
+            if (!previousSlot.equals(slot)) {
+                this.removeFromBucket(previousSlot, key);
+            }
+        }
+        // A bucket is closed only after the sweep has removed it, in which case a fresh bucket is created for the same slot
+        while (!this.buckets.computeIfAbsent(slot, s -> new Bucket<>()).add(key)) {
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Cancels the scheduled expiration of the specified key, if any.
+     * @param key a cache key
+     * @return true, if an expiration was cancelled, false otherwise
+     */
+    boolean cancel(K key) {
+        Long deadline = this.deadlines.remove(key);
+        if (deadline == null) return false;
+        this.removeFromBucket(this.slot(deadline), key);
+        return true;
+    }
+
+    /**
+     * Expires all keys whose time slot has fully elapsed.
+     * @param now the current time
+     * @param task the expiration task to run for each expired key
+     * @return the number of expired keys
+     */
+    int expire(long now, Consumer<K> task) {
+        long current = Math.floorDiv(now, this.resolution);
+        // Claim all elapsed buckets before running any expiration task, so that keys scheduled by a task are left to the next sweep
+        Map<Long, Set<K>> elapsed = new TreeMap<>();
+        for (Long slot : this.buckets.headMap(current, true).keySet()) {
+            Bucket<K> bucket = this.buckets.remove(slot);
+            if (bucket != null) {
+                elapsed.put(slot, bucket.close());
+            }
+        }
+        int count = 0;
+        for (Map.Entry<Long, Set<K>> entry : elapsed.entrySet()) {
+            Long slot = entry.getKey();
+            for (K key : entry.getValue()) {
+                Long deadline = this.deadlines.get(key);
+                // Skip keys that were cancelled or rescheduled into another slot
+                if ((deadline != null) && slot.equals(this.slot(deadline)) && this.deadlines.remove(key, deadline)) {
+                    this.expiredCount.increment();
+                    this.expirationLag.add(now - deadline);
+                    count += 1;
+                    task.accept(key);
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Cancels all scheduled expirations.
+     */
+    void clear() {
+        this.deadlines.clear();
+        this.buckets.clear();
+    }
+
+    /**
+     * @return the number of keys with a scheduled expiration
+     */
+    int getPendingCount() {
+        return this.deadlines.size();
+    }
+
+    /**
+     * @return the number of keys expired by this wheel
+     */
+    long getExpiredCount() {
+        return this.expiredCount.sum();
+    }
+
+    /**
+     * @return the average time between the deadline of an expired key and its actual expiration, or 0 if no key has expired yet
+     */
+    long getAverageExpirationLag() {
+        long count = this.expiredCount.sum();
+        return (count > 0) ? this.expirationLag.sum() / count : 0;
+    }
+
+    private Long slot(long deadline) {
+        // The slot whose end is the first slot boundary at or after the deadline
+        return -Math.floorDiv(-deadline, this.resolution);
+    }
+
+    private void removeFromBucket(Long slot, K key) {
+        Bucket<K> bucket = this.buckets.get(slot);
+        if (bucket != null) {
+            bucket.remove(key);
+        }
+    }
+
+    private static class Bucket<K> {
+        private Set<K> keys = new HashSet<>();
+        private boolean closed = false;
+
+        synchronized boolean add(K key) {
+            if (this.closed) return false;
+            this.keys.add(key);
+            return true;
+        }
+
+        synchronized void remove(K key) {
+            // Once closed, the keys are owned by the sweep, which skips cancelled keys on its own
+            if (!this.closed) {
+                this.keys.remove(key);
+            }
+        }
+
+        synchronized Set<K> close() {
+            this.closed = true;
+            Set<K> keys = this.keys;
+            this.keys = Collections.emptySet();
+            return keys;
+        }
+    }
+}
@@ -24,7 +24,6 @@ package org.jboss.as.ejb3.cache.simple;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -42,6 +41,7 @@ import org.wildfly.clustering.ejb.IdentifierFactory;
 
 /**
  * Simple {@link Cache} implementation using in-memory storage and eager expiration.
+ * Idle beans are expired by a single periodic sweep of an {@link ExpirationWheel}, rather than by one scheduled task per bean.
  *
  * @author Paul Ferraro
  *
@@ -50,13 +50,19 @@ import org.wildfly.clustering.ejb.IdentifierFactory;
  */
 public class SimpleCache<K, V extends Identifiable<K>> implements Cache<K, V> {
 
-    final Map<K, Future<?>> expirationFutures = new ConcurrentHashMap<>();
+    // Bounds on the width of an expiration time slot, relative to which a bean may expire late
+    private static final long MIN_EXPIRATION_RESOLUTION = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long MAX_EXPIRATION_RESOLUTION = TimeUnit.SECONDS.toNanos(1);
+    private static final int EXPIRATION_SLOTS_PER_TIMEOUT = 16;
+
     private final ConcurrentMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
     private final StatefulObjectFactory<V> factory;
     private final IdentifierFactory<K> identifierFactory;
     private final StatefulTimeoutInfo timeout;
     private final ServerEnvironment environment;
     private final ScheduledExecutorService executor;
+    private final ExpirationWheel<K> expiration;
+    private volatile Future<?> sweepFuture;
 
     public SimpleCache(StatefulObjectFactory<V> factory, IdentifierFactory<K> identifierFactory, StatefulTimeoutInfo timeout, ServerEnvironment environment, ScheduledExecutorService executor) {
         this.factory = factory;
@@ -64,33 +70,36 @@ public class SimpleCache<K, V extends Identifiable<K>> implements Cache<K, V> {
         this.timeout = timeout;
         this.environment = environment;
         this.executor = executor;
+        long value = (timeout != null) ? timeout.getValue() : -1L;
+        if (value > 0) {
+            long resolution = timeout.getTimeUnit().toNanos(value) / EXPIRATION_SLOTS_PER_TIMEOUT;
+            this.expiration = new ExpirationWheel<>(Math.min(Math.max(resolution, MIN_EXPIRATION_RESOLUTION), MAX_EXPIRATION_RESOLUTION));
+        } else {
+            this.expiration = null;
+        }
     }
 
     @Override
     public void start() {
-        // Do nothing
+        if (this.expiration != null) {
+            long resolution = this.expiration.getResolution();
+            this.sweepFuture = this.executor.scheduleWithFixedDelay(new ExpirationTask(), resolution, resolution, TimeUnit.NANOSECONDS);
+        }
     }
 
     @Override
     public void stop() {
-        for (Future<?> future: this.expirationFutures.values()) {
+        Future<?> future = this.sweepFuture;
+        if (future != null) {
             future.cancel(true);
-        }
-        for (Future<?> future: this.expirationFutures.values()) {
-            if (!future.isCancelled() && !future.isDone()) {
-                try {
-                    future.get();
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                } catch (ExecutionException e) {
-                    // Ignore
-                }
-            }
+            this.sweepFuture = null;
         }
         for(Map.Entry<K, Entry<V>> entry : entries.entrySet()) {
             this.factory.destroyInstance(entry.getValue().getValue());
         }
-        this.expirationFutures.clear();
+        if (this.expiration != null) {
+            this.expiration.clear();
+        }
         this.entries.clear();
     }
 
@@ -122,11 +131,13 @@ public class SimpleCache<K, V extends Identifiable<K>> implements Cache<K, V> {
 
     @Override
     public void discard(V value) {
+        this.cancelExpiration(value.getId());
         this.entries.remove(value.getId());
     }
 
     @Override
     public void remove(K key) {
+        this.cancelExpiration(key);
         Entry<V> entry = this.entries.remove(key);
         if (entry != null) {
             this.factory.destroyInstance(entry.getValue());
@@ -135,10 +146,7 @@ public class SimpleCache<K, V extends Identifiable<K>> implements Cache<K, V> {
 
     @Override
     public V get(K key) {
-        Future<?> future = this.expirationFutures.get(key);
-        if (future != null) {
-            future.cancel(true);
-        }
+        this.cancelExpiration(key);
         Entry<V> entry = this.entries.get(key);
         if (entry == null) return null;
         entry.use();
@@ -158,12 +166,7 @@ public class SimpleCache<K, V extends Identifiable<K>> implements Cache<K, V> {
             if (this.timeout != null) {
                 long value = this.timeout.getValue();
                 if (value > 0) {
-                    TimeUnit unit = this.timeout.getTimeUnit();
-                    RemoveTask task = new RemoveTask(id);
-                    // Make sure the expiration future map insertion happens before map removal (during task execution).
-                    synchronized (task) {
-                        this.expirationFutures.put(id, this.executor.schedule(task, value, unit));
-                    }
+                    this.expiration.schedule(id, System.nanoTime() + this.timeout.getTimeUnit().toNanos(value));
                 } else if (value == 0) {
                     // The EJB specification allows a 0 timeout, which means the bean is immediately eligible for removal.
                     // However, removing it directly is faster than scheduling it for immediate removal.
@@ -188,19 +191,40 @@ public class SimpleCache<K, V extends Identifiable<K>> implements Cache<K, V> {
         return this.getCacheSize();
     }
 
-    class RemoveTask implements Runnable {
-        private final K key;
+    @Override
+    public int getPendingExpirationCount() {
+        return (this.expiration != null) ? this.expiration.getPendingCount() : 0;
+    }
+
+    @Override
+    public long getExpirationLag() {
+        return (this.expiration != null) ? TimeUnit.NANOSECONDS.toMillis(this.expiration.getAverageExpirationLag()) : 0;
+    }
 
-        RemoveTask(K key) {
-            this.key = key;
+    private void cancelExpiration(K key) {
+        if (this.expiration != null) {
+            this.expiration.cancel(key);
         }
+    }
 
+    class ExpirationTask implements Runnable {
         @Override
-        public synchronized void run() {
-            if (!Thread.currentThread().isInterrupted()) {
-                SimpleCache.this.remove(this.key);
+        public void run() {
+            // Never propagate, otherwise subsequent executions of this periodic task would be suppressed
+            try {
+                SimpleCache.this.expiration.expire(System.nanoTime(), this::expire);
+            } catch (Throwable e) {
+                EjbLogger.ROOT_LOGGER.failedToExpireStatefulSessionBeans(e);
+            }
+        }
+
+        private void expire(K key) {
+            // An exception must neither abort the current sweep nor suppress subsequent sweeps
+            try {
+                SimpleCache.this.remove(key);
+            } catch (Throwable e) {
+                EjbLogger.ROOT_LOGGER.failedToExpireStatefulSessionBean(key, e);
             }
-            SimpleCache.this.expirationFutures.remove(this.key);
         }
     }
 
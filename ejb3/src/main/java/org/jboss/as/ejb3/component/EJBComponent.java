@@ -97,6 +97,7 @@ public abstract class EJBComponent extends BasicComponent implements ServerActiv
     private final Map<MethodTransactionAttributeKey, TransactionAttributeType> txAttrs;
     private final Map<MethodTransactionAttributeKey, Integer> txTimeouts;
     private final Map<MethodTransactionAttributeKey, Boolean> txExplicitAttrs;
+    private final MethodInvocationDescriptors invocationDescriptors = new MethodInvocationDescriptors(this);
 
     private final EJBUtilities utilities;
     private final boolean isBeanManagedTransaction;
@@ -381,7 +382,18 @@ public abstract class EJBComponent extends BasicComponent implements ServerActiv
     }
 
     public TransactionAttributeType getTransactionAttributeType(final MethodIntf methodIntf, final Method method) {
-        return getTransactionAttributeType(methodIntf, MethodIdentifier.getIdentifierForMethod(method));
+        return getMethodInvocationDescriptor(methodIntf, method).getTransactionAttributeType();
+    }
+
+    /**
+     * Returns the invocation metadata of the specified method, which is resolved on first use and then reused.
+     *
+     * @param methodIntf the method interface through which the method is invoked
+     * @param method the invoked method
+     * @return the descriptor of the method
+     */
+    public MethodInvocationDescriptor getMethodInvocationDescriptor(final MethodIntf methodIntf, final Method method) {
+        return invocationDescriptors.get(methodIntf, method);
     }
 
     public TransactionAttributeType getTransactionAttributeType(final MethodIntf methodIntf, final MethodIdentifier method) {
@@ -429,7 +441,7 @@ public abstract class EJBComponent extends BasicComponent implements ServerActiv
     }
 
     public int getTransactionTimeout(final MethodIntf methodIntf, final Method method) {
-        return getTransactionTimeout(methodIntf, MethodIdentifier.getIdentifierForMethod(method));
+        return getMethodInvocationDescriptor(methodIntf, method).getTransactionTimeout();
     }
 
     public int getTransactionTimeout(final MethodIntf methodIntf, final MethodIdentifier method) {
@@ -471,6 +483,10 @@ public abstract class EJBComponent extends BasicComponent implements ServerActiv
         return utilities.isStatisticsEnabled();
     }
 
+    public boolean isStatisticsHistogramsEnabled() {
+        return utilities.isStatisticsHistogramsEnabled();
+    }
+
     public Object lookup(String name) throws IllegalArgumentException {
         if (name == null) {
             throw EjbLogger.ROOT_LOGGER.jndiNameCannotBeNull();
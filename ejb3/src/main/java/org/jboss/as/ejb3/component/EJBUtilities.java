@@ -63,6 +63,7 @@ public class EJBUtilities implements EndpointDeployer, Service<EJBUtilities> {
     private final InjectedValue<ResourceAdapterRepository> resourceAdapterRepositoryValue = new InjectedValue<ResourceAdapterRepository>();
 
     private volatile boolean statisticsEnabled = false;
+    private volatile boolean statisticsHistogramsEnabled = false;
 
     public ActivationSpec createActivationSpecs(final String resourceAdapterName, final Class<?> messageListenerInterface,
                                                 final Properties activationConfigProperties, final ClassLoader classLoader) {
@@ -161,6 +162,14 @@ public class EJBUtilities implements EndpointDeployer, Service<EJBUtilities> {
         this.statisticsEnabled = b;
     }
 
+    public boolean isStatisticsHistogramsEnabled() {
+        return statisticsHistogramsEnabled;
+    }
+
+    public void setStatisticsHistogramsEnabled(final boolean b) {
+        this.statisticsHistogramsEnabled = b;
+    }
+
     @Override
     public void start(StartContext context) throws StartException {
     }
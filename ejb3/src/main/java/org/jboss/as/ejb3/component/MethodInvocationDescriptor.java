@@ -0,0 +1,108 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.ejb.TransactionAttributeType;
+
+import org.jboss.as.ee.component.Component;
+import org.jboss.as.ejb3.tx.ApplicationExceptionDetails;
+import org.jboss.invocation.InterceptorContext;
+import org.jboss.invocation.proxy.MethodIdentifier;
+
+/**
+ * The invocation metadata of a method of an EJB view, resolved once per {@link MethodIntf} and {@link Method}
+ * so that interceptors need not derive a {@link MethodIdentifier} and probe the metadata maps of the component on every call.
+ */
+public final class MethodInvocationDescriptor {
+
+    private static final ApplicationExceptionDetails NOT_AN_APPLICATION_EXCEPTION = new ApplicationExceptionDetails(null, false, false);
+
+    private final EJBComponent component;
+    private final MethodIntf methodIntf;
+    private final Method method;
+    private final TransactionAttributeType transactionAttributeType;
+    private final int transactionTimeout;
+    private final ConcurrentMap<Class<?>, ApplicationExceptionDetails> applicationExceptions = new ConcurrentHashMap<>(4);
+
+    MethodInvocationDescriptor(final EJBComponent component, final MethodIntf methodIntf, final Method method) {
+        final MethodIdentifier identifier = MethodIdentifier.getIdentifierForMethod(method);
+        this.component = component;
+        this.methodIntf = methodIntf;
+        this.method = method;
+        this.transactionAttributeType = component.getTransactionAttributeType(methodIntf, identifier);
+        this.transactionTimeout = component.getTransactionTimeout(methodIntf, identifier);
+    }
+
+    /**
+     * Returns the descriptor of the method of the specified invocation, which is remembered by the invocation.
+     *
+     * @param invocation an invocation of an EJB component method
+     * @return the descriptor of the invoked method
+     */
+    public static MethodInvocationDescriptor of(final InterceptorContext invocation) {
+        MethodInvocationDescriptor descriptor = invocation.getPrivateData(MethodInvocationDescriptor.class);
+        if (descriptor == null || descriptor.method != invocation.getMethod()) {
+            final EJBComponent component = (EJBComponent) invocation.getPrivateData(Component.class);
+            descriptor = component.getMethodInvocationDescriptor(MethodIntfHelper.of(invocation), invocation.getMethod());
+            invocation.putPrivateData(MethodInvocationDescriptor.class, descriptor);
+        }
+        return descriptor;
+    }
+
+    public MethodIntf getMethodIntf() {
+        return this.methodIntf;
+    }
+
+    public Method getMethod() {
+        return this.method;
+    }
+
+    public TransactionAttributeType getTransactionAttributeType() {
+        return this.transactionAttributeType;
+    }
+
+    public int getTransactionTimeout() {
+        return this.transactionTimeout;
+    }
+
+    /**
+     * Returns the application exception details of the specified exception class when thrown by this method.
+     *
+     * @param exceptionClass the exception class
+     * @return the application exception details, or null if the exception class is not an application exception
+     * @see EJBComponent#getApplicationException(Class, Method)
+     */
+    public ApplicationExceptionDetails getApplicationException(final Class<?> exceptionClass) {
+        ApplicationExceptionDetails details = this.applicationExceptions.get(exceptionClass);
+        if (details == null) {
+            details = this.component.getApplicationException(exceptionClass, this.method);
+            this.applicationExceptions.putIfAbsent(exceptionClass, (details != null) ? details : NOT_AN_APPLICATION_EXCEPTION);
+        } else if (details == NOT_AN_APPLICATION_EXCEPTION) {
+            return null;
+        }
+        return details;
+    }
+}
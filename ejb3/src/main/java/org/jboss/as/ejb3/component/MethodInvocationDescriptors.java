@@ -0,0 +1,57 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component;
+
+import java.lang.reflect.Method;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The {@link MethodInvocationDescriptor}s of the methods of an EJB component, created on first use, per {@link MethodIntf}.
+ */
+final class MethodInvocationDescriptors {
+
+    private final EJBComponent component;
+    private final Map<MethodIntf, ConcurrentMap<Method, MethodInvocationDescriptor>> descriptors = new EnumMap<>(MethodIntf.class);
+
+    MethodInvocationDescriptors(final EJBComponent component) {
+        this.component = component;
+        for (MethodIntf methodIntf : MethodIntf.values()) {
+            this.descriptors.put(methodIntf, new ConcurrentHashMap<>());
+        }
+    }
+
+    MethodInvocationDescriptor get(final MethodIntf methodIntf, final Method method) {
+        final ConcurrentMap<Method, MethodInvocationDescriptor> descriptors = this.descriptors.get(methodIntf);
+        MethodInvocationDescriptor descriptor = descriptors.get(method);
+        if (descriptor == null) {
+            descriptor = new MethodInvocationDescriptor(this.component, methodIntf, method);
+            final MethodInvocationDescriptor existing = descriptors.putIfAbsent(method, descriptor);
+            if (existing != null) {
+                descriptor = existing;
+            }
+        }
+        return descriptor;
+    }
+}
@@ -23,6 +23,7 @@ package org.jboss.as.ejb3.component.concurrent;
 
 import org.jboss.as.ee.component.interceptors.InvocationType;
 import org.jboss.as.ee.concurrent.handle.ContextHandleFactory;
+import org.jboss.as.ee.concurrent.handle.NullContextHandle;
 import org.jboss.as.ee.concurrent.handle.ResetContextHandle;
 import org.jboss.as.ee.concurrent.handle.SetupContextHandle;
 import org.jboss.as.ejb3.context.CurrentInvocationContext;
@@ -44,12 +45,18 @@ public class EJBContextHandleFactory implements ContextHandleFactory {
 
     public static final EJBContextHandleFactory INSTANCE = new EJBContextHandleFactory();
 
+    /**
+     * the handle saved when there is no ejb invocation, which holds no state and is thus shared
+     */
+    private static final EJBContextHandle NO_INVOCATION_HANDLE = new EJBContextHandle(null);
+
     private EJBContextHandleFactory() {
     }
 
     @Override
     public SetupContextHandle saveContext(ContextService contextService, Map<String, String> contextObjectProperties) {
-        return new EJBContextHandle();
+        final InterceptorContext interceptorContext = CurrentInvocationContext.get();
+        return interceptorContext != null ? new EJBContextHandle(interceptorContext) : NO_INVOCATION_HANDLE;
     }
 
     @Override
@@ -76,8 +83,7 @@ public class EJBContextHandleFactory implements ContextHandleFactory {
 
         private final transient InterceptorContext interceptorContext;
 
-        private EJBContextHandle() {
-            final InterceptorContext interceptorContext = CurrentInvocationContext.get();
+        private EJBContextHandle(InterceptorContext interceptorContext) {
             if(interceptorContext != null) {
                 this.interceptorContext = interceptorContext.clone();
                 // overwrite invocation type so EE concurrency tasks have special access to resources such as the user tx
@@ -94,9 +100,10 @@ public class EJBContextHandleFactory implements ContextHandleFactory {
 
         @Override
         public ResetContextHandle setup() throws IllegalStateException {
-            if(interceptorContext != null) {
-                CurrentInvocationContext.push(interceptorContext);
+            if(interceptorContext == null) {
+                return NullContextHandle.INSTANCE;
             }
+            CurrentInvocationContext.push(interceptorContext);
             return this;
         }
 
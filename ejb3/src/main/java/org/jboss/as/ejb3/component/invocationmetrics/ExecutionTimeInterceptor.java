@@ -43,13 +43,14 @@ public class ExecutionTimeInterceptor extends AbstractEJBInterceptor {
             return context.proceed();
         final Long startWaitTime = (Long) context.getPrivateData(WaitTimeInterceptor.START_WAIT_TIME);
         final long waitTime = startWaitTime != null && startWaitTime != 0L ? System.currentTimeMillis() - startWaitTime : 0L;
-        component.getInvocationMetrics().startInvocation();
-        final long start = System.currentTimeMillis();
+        final InvocationMetrics metrics = component.getInvocationMetrics();
+        metrics.startInvocation();
+        final long start = System.nanoTime();
         try {
             return context.proceed();
         } finally {
-            final long executionTime = System.currentTimeMillis() - start;
-            component.getInvocationMetrics().finishInvocation(context.getMethod(), waitTime, executionTime);
+            final long executionTime = System.nanoTime() - start;
+            metrics.finishInvocation(context.getMethod(), waitTime, executionTime, component.isStatisticsHistogramsEnabled());
         }
     }
 }
@@ -22,17 +22,21 @@
 package org.jboss.as.ejb3.component.invocationmetrics;
 
 import java.lang.reflect.Method;
-import java.util.AbstractMap;
-import java.util.AbstractSet;
-import java.util.Iterator;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jboss.as.ee.utils.TimeHistogram;
 
 /**
+ * Invocation metrics of a component, kept per method.
+ * Totals are accumulated in {@link LongAdder}s, which spread concurrent updates across cells,
+ * so recording an invocation neither allocates nor retries; the component totals are summed from the methods on demand.
+ *
  * @author <a href="mailto:cdewolf@redhat.com">Carlo de Wolf</a>
  */
 public class InvocationMetrics {
@@ -40,17 +44,28 @@ public class InvocationMetrics {
         final long invocations;
         final long executionTime;
         final long waitTime;
+        final TimeHistogram executionTimeHistogram;
 
-        private Values(final long invocations, final long waitTime, final long executionTime) {
+        private Values(final long invocations, final long waitTime, final long executionTime, final TimeHistogram executionTimeHistogram) {
             this.invocations = invocations;
             this.executionTime = executionTime;
             this.waitTime = waitTime;
+            this.executionTimeHistogram = executionTimeHistogram;
         }
 
         public long getExecutionTime() {
             return executionTime;
         }
 
+        /**
+         * Returns the histogram of execution times of this method.
+         *
+         * @return the histogram, or {@code null} if no invocation was recorded while histograms were enabled
+         */
+        public TimeHistogram getExecutionTimeHistogram() {
+            return executionTimeHistogram;
+        }
+
         public long getInvocations() {
             return invocations;
         }
@@ -60,38 +75,69 @@ public class InvocationMetrics {
         }
     }
 
-    private final AtomicReference<Values> values = new AtomicReference<Values>(new Values(0, 0, 0));
+    private static class MethodMetrics {
+        final LongAdder invocations = new LongAdder();
+        final LongAdder waitTime = new LongAdder();
+        // in nanoseconds, so that invocations shorter than a millisecond still add up
+        final LongAdder executionTime = new LongAdder();
+        volatile TimeHistogram executionTimeHistogram;
+
+        void record(final long invocationWaitTime, final long invocationExecutionNanos, final boolean recordHistogram) {
+            invocations.increment();
+            waitTime.add(invocationWaitTime);
+            executionTime.add(invocationExecutionNanos);
+            if (recordHistogram) {
+                histogram().record(TimeUnit.NANOSECONDS.toMicros(invocationExecutionNanos));
+            }
+        }
+
+        private TimeHistogram histogram() {
+            TimeHistogram histogram = executionTimeHistogram;
+            if (histogram == null) {
+                synchronized (this) {
+                    histogram = executionTimeHistogram;
+                    if (histogram == null) {
+                        histogram = new TimeHistogram();
+                        executionTimeHistogram = histogram;
+                    }
+                }
+            }
+            return histogram;
+        }
+
+        Values values() {
+            return new Values(invocations.sum(), waitTime.sum(), TimeUnit.NANOSECONDS.toMillis(executionTime.sum()), executionTimeHistogram);
+        }
+    }
+
+    // The peak can only be tracked against an exact count, so this remains a single counter, updated by one atomic add per call
     private final AtomicLong concurrent = new AtomicLong(0);
     private final AtomicLong peakConcurrent = new AtomicLong(0);
 
-    private final ConcurrentMap<String, AtomicReference<Values>> methods = new ConcurrentHashMap<String, AtomicReference<Values>>();
-
-    void finishInvocation(final Method method, final long invocationWaitTime, final long invocationExecutionTime) {
+    private final ConcurrentMap<String, MethodMetrics> methods = new ConcurrentHashMap<String, MethodMetrics>();
+
+    /**
+     * Records a completed invocation.
+     *
+     * @param method the invoked method
+     * @param invocationWaitTime the time, in milliseconds, spent waiting to obtain an instance
+     * @param invocationExecutionNanos the time, in nanoseconds, spent within the method
+     * @param recordHistogram whether the execution time should also be recorded in the histogram of the method
+     */
+    void finishInvocation(final Method method, final long invocationWaitTime, final long invocationExecutionNanos, final boolean recordHistogram) {
         concurrent.decrementAndGet();
-        for(;;) {
-            final Values oldv = values.get();
-            final Values newv = new Values(oldv.invocations + 1, oldv.waitTime + invocationWaitTime, oldv.executionTime + invocationExecutionTime);
-            if (values.compareAndSet(oldv, newv))
-                break;
-        }
-        final AtomicReference<Values> methodValues = ref(methods, method.getName());
-        for (;;) {
-            final Values oldv = methodValues.get();
-            final Values newv = new Values(oldv.invocations + 1, oldv.waitTime + invocationWaitTime, oldv.executionTime + invocationExecutionTime);
-            if (methodValues.compareAndSet(oldv, newv))
-                break;
-        }
+        methodMetrics(method.getName()).record(invocationWaitTime, invocationExecutionNanos, recordHistogram);
     }
 
-    private static AtomicReference<Values> ref(final ConcurrentMap<String, AtomicReference<Values>> map, final String key) {
-        AtomicReference<Values> ref = map.get(key);
-        if (ref == null) {
-            ref = new AtomicReference<Values>(new Values(0, 0, 0));
-            final AtomicReference<Values> prevRef = map.putIfAbsent(key, ref);
-            if (prevRef != null)
-                ref = prevRef;
+    private MethodMetrics methodMetrics(final String name) {
+        MethodMetrics metrics = methods.get(name);
+        if (metrics == null) {
+            metrics = new MethodMetrics();
+            final MethodMetrics prevMetrics = methods.putIfAbsent(name, metrics);
+            if (prevMetrics != null)
+                metrics = prevMetrics;
         }
-        return ref;
+        return metrics;
     }
 
     public long getConcurrent() {
@@ -99,62 +145,27 @@ public class InvocationMetrics {
     }
 
     public long getExecutionTime() {
-        return values.get().executionTime;
+        long executionTime = 0;
+        for (MethodMetrics metrics : methods.values()) {
+            executionTime += metrics.executionTime.sum();
+        }
+        return TimeUnit.NANOSECONDS.toMillis(executionTime);
     }
 
     public long getInvocations() {
-        return values.get().invocations;
+        long invocations = 0;
+        for (MethodMetrics metrics : methods.values()) {
+            invocations += metrics.invocations.sum();
+        }
+        return invocations;
     }
 
     public Map<String, Values> getMethods() {
-        return new AbstractMap<String, Values>() {
-            @Override
-            public Set<Entry<String, Values>> entrySet() {
-                return new AbstractSet<Entry<String, Values>>() {
-                    @Override
-                    public Iterator<Entry<String, Values>> iterator() {
-                        final Iterator<Entry<String, AtomicReference<Values>>> delegate = methods.entrySet().iterator();
-                        return new Iterator<Entry<String, Values>>() {
-                            @Override
-                            public boolean hasNext() {
-                                return delegate.hasNext();
-                            }
-
-                            @Override
-                            public Entry<String, Values> next() {
-                                final Entry<String, AtomicReference<Values>> next = delegate.next();
-                                return new Entry<String, Values>() {
-                                    @Override
-                                    public String getKey() {
-                                        return next.getKey();
-                                    }
-
-                                    @Override
-                                    public Values getValue() {
-                                        return next.getValue().get();
-                                    }
-
-                                    @Override
-                                    public Values setValue(final Values value) {
-                                        throw new UnsupportedOperationException("NYI");
-                                    }
-                                };
-                            }
-
-                            @Override
-                            public void remove() {
-                                throw new UnsupportedOperationException("NYI");
-                            }
-                        };
-                    }
-
-                    @Override
-                    public int size() {
-                        return methods.size();
-                    }
-                };
-            }
-        };
+        final Map<String, Values> values = new HashMap<String, Values>();
+        for (Map.Entry<String, MethodMetrics> entry : methods.entrySet()) {
+            values.put(entry.getKey(), entry.getValue().values());
+        }
+        return values;
     }
 
     public long getPeakConcurrent() {
@@ -162,13 +173,19 @@ public class InvocationMetrics {
     }
 
     public long getWaitTime() {
-        return values.get().waitTime;
+        long waitTime = 0;
+        for (MethodMetrics metrics : methods.values()) {
+            waitTime += metrics.waitTime.sum();
+        }
+        return waitTime;
     }
 
     void startInvocation() {
         final long v = concurrent.incrementAndGet();
-        // concurrent might decrement here, but we take that missing peak for granted.
-        if (peakConcurrent.get() < v)
-            peakConcurrent.incrementAndGet();
+        // only write the peak when it is exceeded, so that the common case is a read of an unchanged value
+        long peak = peakConcurrent.get();
+        while (peak < v && !peakConcurrent.compareAndSet(peak, v)) {
+            peak = peakConcurrent.get();
+        }
     }
 }
@@ -58,9 +58,13 @@ public class StrictMaxPoolConfigService implements Service<StrictMaxPoolConfig>
 
 
     public StrictMaxPoolConfigService(final String poolName, int declaredMaxSize, Derive derive, long timeout, TimeUnit timeUnit) {
+        this(poolName, declaredMaxSize, derive, timeout, timeUnit, false);
+    }
+
+    public StrictMaxPoolConfigService(final String poolName, int declaredMaxSize, Derive derive, long timeout, TimeUnit timeUnit, boolean striped) {
         this.declaredMaxSize = declaredMaxSize;
         this.derive = derive;
-        this.poolConfig = new StrictMaxPoolConfig(poolName, declaredMaxSize, timeout, timeUnit);
+        this.poolConfig = new StrictMaxPoolConfig(poolName, declaredMaxSize, timeout, timeUnit, striped);
     }
 
     @Override
@@ -115,6 +119,10 @@ public class StrictMaxPoolConfigService implements Service<StrictMaxPoolConfig>
         poolConfig.setTimeoutUnit(timeUnit);
     }
 
+    public void setStriped(boolean striped) {
+        poolConfig.setStriped(striped);
+    }
+
     @Override
     public void stop(StopContext context) {
 
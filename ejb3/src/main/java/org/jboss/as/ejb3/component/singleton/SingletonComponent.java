@@ -74,9 +74,9 @@ public class SingletonComponent extends SessionBeanComponent {
     private final Object creationLock = new Object();
 
     /**
-     * A spec compliant {@link EJBReadWriteLock}
+     * A spec compliant {@link EJBReadWriteLock}, or its {@link StripedEJBReadWriteLock} variant for read-mostly beans
      */
-    private final ReadWriteLock readWriteLock = new EJBReadWriteLock();
+    private final ReadWriteLock readWriteLock;
 
     /**
      * Construct a new instance.
@@ -89,6 +89,7 @@ public class SingletonComponent extends SessionBeanComponent {
         super(singletonComponentCreateService);
         this.dependsOn = dependsOn;
         this.initOnStartup = singletonComponentCreateService.isInitOnStartup();
+        this.readWriteLock = singletonComponentCreateService.isStripedLock() ? new StripedEJBReadWriteLock() : new EJBReadWriteLock();
 
         this.beanLevelLockType = singletonComponentCreateService.getBeanLockType();
         this.methodLockTypes = singletonComponentCreateService.getMethodApplicableLockTypes();
@@ -80,6 +80,11 @@ public class SingletonComponentDescription extends SessionBeanComponentDescripti
      */
     private boolean initOnStartup;
 
+    /**
+     * Flag to indicate whether container-managed concurrency uses a {@link StripedEJBReadWriteLock}
+     */
+    private boolean stripedLock;
+
     private final List<ServiceName> dependsOn = new ArrayList<ServiceName>();
 
     /**
@@ -111,7 +116,7 @@ public class SingletonComponentDescription extends SessionBeanComponentDescripti
 
         ComponentConfiguration singletonComponentConfiguration = new ComponentConfiguration(this, classIndex, moduleClassLoader, moduleLoader);
         // setup the component create service
-        singletonComponentConfiguration.setComponentCreateServiceFactory(new SingletonComponentCreateServiceFactory(this.isInitOnStartup(), dependsOn));
+        singletonComponentConfiguration.setComponentCreateServiceFactory(new SingletonComponentCreateServiceFactory(this.isInitOnStartup(), this.isStripedLock(), dependsOn));
         if(isExplicitSecurityDomainConfigured()) {
             getConfigurators().add(new ComponentConfigurator() {
                     @Override
@@ -195,6 +200,18 @@ public class SingletonComponentDescription extends SessionBeanComponentDescripti
 
     }
 
+    /**
+     * Returns true if container-managed concurrency of this singleton bean uses a {@link StripedEJBReadWriteLock}
+     * instead of an {@link EJBReadWriteLock}
+     */
+    public boolean isStripedLock() {
+        return this.stripedLock;
+    }
+
+    public void setStripedLock(final boolean stripedLock) {
+        this.stripedLock = stripedLock;
+    }
+
     @Override
     public SessionBeanType getSessionBeanType() {
         return SessionBeanComponentDescription.SessionBeanType.SINGLETON;
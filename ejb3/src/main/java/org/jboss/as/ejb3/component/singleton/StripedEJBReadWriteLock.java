@@ -0,0 +1,207 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component.singleton;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.jboss.as.ejb3.logging.EjbLogger;
+
+/**
+ * A scalable alternative to {@link EJBReadWriteLock} for read-mostly singleton beans.
+ * Readers only acquire the read lock of the stripe assigned to their thread, so concurrent readers on different threads
+ * do not contend on a shared lock state. Writers acquire the write lock of every stripe, in order, within the requested
+ * access timeout. Like {@link EJBReadWriteLock}, this lock is reentrant, allows a thread holding the write lock to
+ * acquire the read lock, and throws an {@link javax.ejb.IllegalLoopbackException} when a thread holding a read lock
+ * tries to obtain the write lock.
+ */
+public class StripedEJBReadWriteLock implements ReadWriteLock, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private static final int MAX_STRIPES = 64;
+
+    private final ReentrantReadWriteLock[] stripes;
+    private final int mask;
+    private final Lock readLock = new ReadLock();
+    private final Lock writeLock = new WriteLock();
+
+    public StripedEJBReadWriteLock() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param concurrency the expected number of concurrent readers, rounded up to a power of 2
+     */
+    public StripedEJBReadWriteLock(int concurrency) {
+        int stripes = 1;
+        while (stripes < Math.min(concurrency, MAX_STRIPES)) {
+            stripes <<= 1;
+        }
+        this.stripes = new ReentrantReadWriteLock[stripes];
+        for (int i = 0; i < stripes; ++i) {
+            this.stripes[i] = new ReentrantReadWriteLock();
+        }
+        this.mask = stripes - 1;
+    }
+
+    /**
+     * Returns the stripe assigned to the current thread, which is the same for the lifetime of the thread.
+     */
+    private ReentrantReadWriteLock stripe() {
+        return this.stripes[(int) Thread.currentThread().getId() & this.mask];
+    }
+
+    /**
+     * Ensures that the current thread doesn't hold any read locks. If
+     * the thread holds any read locks, this method throws a {@link javax.ejb.IllegalLoopbackException}.
+     */
+    private void checkLoopback() {
+        if (this.stripe().getReadHoldCount() > 0) {
+            throw EjbLogger.ROOT_LOGGER.failToUpgradeToWriteLock();
+        }
+    }
+
+    /**
+     * Releases the write locks of the first <code>count</code> stripes, in reverse order.
+     */
+    private void unlockStripes(int count) {
+        for (int i = count - 1; i >= 0; --i) {
+            this.stripes[i].writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Lock readLock() {
+        return this.readLock;
+    }
+
+    @Override
+    public Lock writeLock() {
+        return this.writeLock;
+    }
+
+    private class ReadLock implements Lock, Serializable {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public void lock() {
+            stripe().readLock().lock();
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            stripe().readLock().lockInterruptibly();
+        }
+
+        @Override
+        public boolean tryLock() {
+            return stripe().readLock().tryLock();
+        }
+
+        @Override
+        public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+            return stripe().readLock().tryLock(time, unit);
+        }
+
+        @Override
+        public void unlock() {
+            stripe().readLock().unlock();
+        }
+
+        @Override
+        public Condition newCondition() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private class WriteLock implements Lock, Serializable {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public void lock() {
+            checkLoopback();
+            for (ReentrantReadWriteLock stripe : stripes) {
+                stripe.writeLock().lock();
+            }
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            checkLoopback();
+            for (int i = 0; i < stripes.length; ++i) {
+                try {
+                    stripes[i].writeLock().lockInterruptibly();
+                } catch (InterruptedException e) {
+                    unlockStripes(i);
+                    throw e;
+                }
+            }
+        }
+
+        @Override
+        public boolean tryLock() {
+            checkLoopback();
+            for (int i = 0; i < stripes.length; ++i) {
+                if (!stripes[i].writeLock().tryLock()) {
+                    unlockStripes(i);
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+            checkLoopback();
+            // The access timeout applies to the acquisition of all stripes
+            long deadline = System.nanoTime() + unit.toNanos(time);
+            for (int i = 0; i < stripes.length; ++i) {
+                boolean locked;
+                try {
+                    locked = stripes[i].writeLock().tryLock(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                } catch (InterruptedException e) {
+                    unlockStripes(i);
+                    throw e;
+                }
+                if (!locked) {
+                    unlockStripes(i);
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public void unlock() {
+            unlockStripes(stripes.length);
+        }
+
+        @Override
+        public Condition newCondition() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -35,29 +35,45 @@ import org.jboss.as.ee.metadata.MethodAnnotationAggregator;
 import org.jboss.as.ee.metadata.RuntimeAnnotationInformation;
 import org.jboss.as.ejb3.logging.EjbLogger;
 import org.jboss.as.ejb3.component.session.SessionBeanComponentDescription;
+import org.jboss.as.ejb3.component.singleton.SingletonComponentDescription;
 import org.jboss.as.ejb3.concurrency.AccessTimeoutDetails;
+import org.jboss.as.ejb3.concurrency.EJBBoundLockMetaData;
+import org.jboss.as.ejb3.deployment.EjbDeploymentAttachmentKeys;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.reflect.ClassReflectionIndex;
 import org.jboss.as.server.deployment.reflect.DeploymentReflectionIndex;
 import org.jboss.invocation.proxy.MethodIdentifier;
+import org.jboss.metadata.ejb.spec.AssemblyDescriptorMetaData;
 import org.jboss.metadata.ejb.spec.ConcurrentMethodMetaData;
 import org.jboss.metadata.ejb.spec.ConcurrentMethodsMetaData;
+import org.jboss.metadata.ejb.spec.EjbJarMetaData;
 import org.jboss.metadata.ejb.spec.NamedMethodMetaData;
 import org.jboss.metadata.ejb.spec.SessionBean31MetaData;
 import org.jboss.metadata.ejb.spec.SessionBeanMetaData;
 
 /**
- * Class that can merge {@link javax.ejb.Lock} and {@link javax.ejb.AccessTimeout} metadata
+ * Class that can merge {@link javax.ejb.Lock} and {@link javax.ejb.AccessTimeout} metadata, as well as the singleton
+ * bean read-write lock selected via jboss-ejb3.xml or the subsystem default
  *
  * @author Stuart Douglas
  */
 public class EjbConcurrencyMergingProcessor extends AbstractMergingProcessor<SessionBeanComponentDescription> {
 
+    private volatile boolean stripedLockByDefault = false;
+
     public EjbConcurrencyMergingProcessor() {
         super(SessionBeanComponentDescription.class);
     }
 
+    public boolean isStripedLockByDefault() {
+        return stripedLockByDefault;
+    }
+
+    public void setStripedLockByDefault(final boolean stripedLockByDefault) {
+        this.stripedLockByDefault = stripedLockByDefault;
+    }
+
     protected void handleAnnotations(final DeploymentUnit deploymentUnit, final EEApplicationClasses applicationClasses, final DeploymentReflectionIndex deploymentReflectionIndex, final Class<?> componentClass, final SessionBeanComponentDescription componentConfiguration) {
 
         //handle lock annotations
@@ -90,6 +106,10 @@ public class EjbConcurrencyMergingProcessor extends AbstractMergingProcessor<Ses
 
     protected void handleDeploymentDescriptor(final DeploymentUnit deploymentUnit, final DeploymentReflectionIndex deploymentReflectionIndex, final Class<?> componentClass, final SessionBeanComponentDescription componentConfiguration) throws DeploymentUnitProcessingException {
 
+        if (componentConfiguration instanceof SingletonComponentDescription) {
+            this.handleStripedLock(deploymentUnit, (SingletonComponentDescription) componentConfiguration);
+        }
+
         if (componentConfiguration.getDescriptorData() == null) {
             return;
         }
@@ -127,6 +147,37 @@ public class EjbConcurrencyMergingProcessor extends AbstractMergingProcessor<Ses
     }
 
 
+    private void handleStripedLock(final DeploymentUnit deploymentUnit, final SingletonComponentDescription description) {
+        Boolean striped = null;
+        Boolean stripedApplicableForAllBeans = null;
+        final EjbJarMetaData ejbJarMetaData = deploymentUnit.getAttachment(EjbDeploymentAttachmentKeys.EJB_JAR_METADATA);
+        if (ejbJarMetaData != null) {
+            final AssemblyDescriptorMetaData assemblyMetadata = ejbJarMetaData.getAssemblyDescriptor();
+            if (assemblyMetadata != null) {
+                final List<EJBBoundLockMetaData> lockMetaDatas = assemblyMetadata.getAny(EJBBoundLockMetaData.class);
+                if (lockMetaDatas != null) {
+                    for (final EJBBoundLockMetaData lockMetaData : lockMetaDatas) {
+                        if (lockMetaData.getEjbName().equals(description.getComponentName())) {
+                            striped = lockMetaData.getStriped();
+                            break;
+                        }
+                        // check the lock that's applicable for all EJBs.
+                        if (lockMetaData.getEjbName().equals("*")) {
+                            stripedApplicableForAllBeans = lockMetaData.getStriped();
+                        }
+                    }
+                }
+            }
+        }
+        if (striped != null) {
+            description.setStripedLock(striped);
+        } else if (stripedApplicableForAllBeans != null) {
+            description.setStripedLock(stripedApplicableForAllBeans);
+        } else {
+            description.setStripedLock(this.stripedLockByDefault);
+        }
+    }
+
     private Method resolveMethod(final DeploymentReflectionIndex index, final Class<?> currentClass, final Class<?> componentClass, final NamedMethodMetaData methodData) throws DeploymentUnitProcessingException {
         if (currentClass == null) {
             throw EjbLogger.ROOT_LOGGER.failToFindMethodWithParameterTypes(componentClass.getName(), methodData.getMethodName(), methodData.getMethodParams());
@@ -25,11 +25,8 @@ package org.jboss.as.ejb3.iiop;
 import javax.ejb.TransactionAttributeType;
 import javax.transaction.Transaction;
 
-import org.jboss.as.ee.component.Component;
-import org.jboss.as.ee.component.ComponentView;
 import org.jboss.as.ejb3.logging.EjbLogger;
-import org.jboss.as.ejb3.component.EJBComponent;
-import org.jboss.as.ejb3.component.MethodIntf;
+import org.jboss.as.ejb3.component.MethodInvocationDescriptor;
 import org.jboss.invocation.ImmediateInterceptorFactory;
 import org.jboss.invocation.Interceptor;
 import org.jboss.invocation.InterceptorContext;
@@ -49,21 +46,7 @@ public class EjbIIOPTransactionInterceptor implements Interceptor {
         // Do we have a foreign transaction context?
         Transaction tx = TxServerInterceptor.getCurrentTransaction();
         if (tx instanceof ForeignTransaction) {
-            final EJBComponent component = (EJBComponent) invocation.getPrivateData(Component.class);
-
-            //for timer invocations there is no view, so the methodInf is attached directly
-            //to the context. Otherwise we retrieve it from the invoked view
-            MethodIntf methodIntf = invocation.getPrivateData(MethodIntf.class);
-            if (methodIntf == null) {
-                final ComponentView componentView = invocation.getPrivateData(ComponentView.class);
-                if (componentView != null) {
-                    methodIntf = componentView.getPrivateData(MethodIntf.class);
-                } else {
-                    methodIntf = MethodIntf.BEAN;
-                }
-            }
-
-            final TransactionAttributeType attr = component.getTransactionAttributeType(methodIntf, invocation.getMethod());
+            final TransactionAttributeType attr = MethodInvocationDescriptor.of(invocation).getTransactionAttributeType();
             if (attr != TransactionAttributeType.NOT_SUPPORTED && attr != TransactionAttributeType.REQUIRES_NEW) {
                 throw EjbLogger.ROOT_LOGGER.transactionPropagationNotSupported();
             }
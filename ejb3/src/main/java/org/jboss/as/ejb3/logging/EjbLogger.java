@@ -3175,4 +3175,42 @@ public interface EjbLogger extends BasicLogger {
     @LogMessage(level = WARN)
     @Message(id = 508, value = "Failed to persist timer's state %s due to %s")
     void exceptionPersistTimerState(Timer timer, Exception e);
+
+    @LogMessage(level = ERROR)
+    @Message(id = 509, value = "Failed to run scheduled timer service task %s")
+    void failedToRunScheduledTask(Runnable task, @Cause Throwable cause);
+
+    @LogMessage(level = WARN)
+    @Message(id = 510, value = "Timer journal segment %s is truncated or corrupted at offset %d, ignoring the remaining records")
+    void timerJournalSegmentTruncated(File segment, int offset);
+
+    @Message(id = 511, value = "Could not open timer journal in %s")
+    RuntimeException failToOpenTimerJournal(File directory, @Cause Throwable cause);
+
+    @Message(id = 512, value = "Could not write to timer journal in %s")
+    RuntimeException failToWriteTimerJournal(File directory, @Cause Throwable cause);
+
+    @LogMessage(level = ERROR)
+    @Message(id = 513, value = "Could not compact timer journal in %s")
+    void failToCompactTimerJournal(File directory, @Cause Throwable cause);
+
+    @LogMessage(level = INFO)
+    @Message(id = 514, value = "Imported %d timers of %s from %s into the timer journal")
+    void importedTimersIntoJournal(int count, String timedObjectId, File directory);
+
+    @LogMessage(level = WARN)
+    @Message(id = 515, value = "Cannot add the LAST_MODIFIED column to the timer table, falling back to a full refresh of the timers of partition %s")
+    void couldNotEnableIncrementalTimerRefresh(String partition, @Cause SQLException e);
+
+    @LogMessage(level = ERROR)
+    @Message(id = 516, value = "Failed to refresh the timers changed in partition %s")
+    void failedToRefreshChangedTimers(String partition, @Cause SQLException e);
+
+    @LogMessage(level = WARN)
+    @Message(id = 517, value = "Failed to expire stateful session bean %s")
+    void failedToExpireStatefulSessionBean(Object id, @Cause Throwable cause);
+
+    @LogMessage(level = ERROR)
+    @Message(id = 518, value = "Failed to expire idle stateful session beans")
+    void failedToExpireStatefulSessionBeans(@Cause Throwable cause);
 }
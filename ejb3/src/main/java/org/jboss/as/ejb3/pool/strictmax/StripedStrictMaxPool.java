@@ -0,0 +1,276 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.pool.strictmax;
+
+import static org.jboss.as.ejb3.logging.EjbLogger.ROOT_LOGGER;
+
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.jboss.as.ejb3.logging.EjbLogger;
+import org.jboss.as.ejb3.pool.AbstractPool;
+import org.jboss.as.ejb3.pool.StatelessObjectFactory;
+
+/**
+ * A pool with a maximum size, whose permits and idle instances are striped across a number of lanes.
+ * <p/>
+ * Unlike {@link StrictMaxPool}, which funnels every invocation through a single semaphore and a single queue,
+ * each calling thread is mapped onto a preferred stripe and only touches the permits and idle instances of that
+ * stripe. Other stripes are only visited (stolen from) when the preferred stripe is exhausted, and callers only
+ * park once no stripe has a permit left. The sum of the permits over all stripes never exceeds the maximum
+ * size, so the same global limit as {@link StrictMaxPool} is enforced.
+ */
+public class StripedStrictMaxPool<T> extends AbstractPool<T> {
+
+    private final Stripe<T>[] stripes;
+    private final int mask;
+    /**
+     * The maximum number of instances allowed in the pool
+     */
+    private final int maxSize;
+    /**
+     * The time to wait for a permit.
+     */
+    private final long timeout;
+    private final TimeUnit timeUnit;
+
+    // Only used by threads that could not obtain a permit from any stripe
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitReleased = this.lock.newCondition();
+    private volatile int waiters = 0;
+
+    public StripedStrictMaxPool(StatelessObjectFactory<T> factory, int maxSize, long timeout, TimeUnit timeUnit) {
+        this(factory, maxSize, timeout, timeUnit, Runtime.getRuntime().availableProcessors());
+    }
+
+    @SuppressWarnings("unchecked")
+    StripedStrictMaxPool(StatelessObjectFactory<T> factory, int maxSize, long timeout, TimeUnit timeUnit, int concurrency) {
+        super(factory);
+        this.maxSize = maxSize;
+        this.timeout = timeout;
+        this.timeUnit = timeUnit;
+        // Never create more stripes than permits, otherwise some stripes would be permanently empty
+        int count = powerOfTwoAtMost(Math.max(1, Math.min(concurrency, maxSize)));
+        this.stripes = new Stripe[count];
+        this.mask = count - 1;
+        for (int i = 0; i < count; ++i) {
+            this.stripes[i] = new Stripe<>((maxSize / count) + ((i < (maxSize % count)) ? 1 : 0));
+        }
+    }
+
+    private static int powerOfTwoAtMost(int value) {
+        return Integer.highestOneBit(value);
+    }
+
+    /**
+     * Returns the index of the stripe preferred by the current thread.
+     */
+    private int preferredStripe() {
+        long id = Thread.currentThread().getId();
+        int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & this.mask;
+    }
+
+    public void discard(T ctx) {
+        if (ROOT_LOGGER.isTraceEnabled()) {
+            ROOT_LOGGER.tracef("Discard instance %s#%s", this, ctx);
+        }
+
+        this.releasePermit(this.stripes[this.preferredStripe()]);
+
+        // Let the super do any other remove stuff
+        super.doRemove(ctx);
+    }
+
+    public int getCurrentSize() {
+        return getCreateCount() - getRemoveCount();
+    }
+
+    public int getAvailableCount() {
+        int available = 0;
+        for (Stripe<T> stripe : this.stripes) {
+            available += stripe.get();
+        }
+        return available;
+    }
+
+    public int getMaxSize() {
+        return this.maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        throw EjbLogger.ROOT_LOGGER.methodNotImplemented();
+    }
+
+    /**
+     * Get an instance without identity.
+     * Can be used by finders,create-methods, and activation
+     *
+     * @return Context /w instance
+     */
+    public T get() {
+        int index = this.preferredStripe();
+        if (!this.tryAcquirePermit(index)) {
+            this.awaitPermit(index);
+        }
+
+        T bean = this.stripes[index].instances.pollFirst();
+        if (bean != null) {
+            return bean;
+        }
+        // Local stripe has no idle instance, try to steal the coldest instance of another stripe
+        for (int i = 1; i < this.stripes.length; ++i) {
+            bean = this.stripes[(index + i) & this.mask].instances.pollLast();
+            if (bean != null) {
+                return bean;
+            }
+        }
+
+        try {
+            // Pool is empty, create an instance
+            bean = create();
+        } finally {
+            if (bean == null) {
+                this.releasePermit(this.stripes[index]);
+            }
+        }
+        return bean;
+    }
+
+    /**
+     * Return an instance after invocation.
+     * <p/>
+     * Called in 2 cases:
+     * a) Done with finder method
+     * b) Just removed
+     *
+     * @param obj
+     */
+    public void release(T obj) {
+        if (ROOT_LOGGER.isTraceEnabled()) {
+            ROOT_LOGGER.tracef("%s/%s Free instance: %s", this.maxSize - this.getAvailableCount(), this.maxSize, this);
+        }
+
+        Stripe<T> stripe = this.stripes[this.preferredStripe()];
+        stripe.instances.offerFirst(obj);
+
+        this.releasePermit(stripe);
+    }
+
+    @Override
+    @Deprecated
+    public void remove(T ctx) {
+        if (ROOT_LOGGER.isTraceEnabled()) {
+            ROOT_LOGGER.tracef("Removing instance: %s#%s", this, ctx);
+        }
+
+        this.releasePermit(this.stripes[this.preferredStripe()]);
+        // let the super do the other remove stuff
+        super.doRemove(ctx);
+    }
+
+    public void start() {
+    }
+
+    public void stop() {
+        for (Stripe<T> stripe : this.stripes) {
+            for (T obj = stripe.instances.poll(); obj != null; obj = stripe.instances.poll()) {
+                destroy(obj);
+            }
+        }
+    }
+
+    /**
+     * Attempts to take a permit from the specified stripe, falling back to the remaining stripes.
+     */
+    private boolean tryAcquirePermit(int index) {
+        for (int i = 0; i < this.stripes.length; ++i) {
+            if (this.stripes[(index + i) & this.mask].tryAcquire()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void awaitPermit(int index) {
+        long remaining = this.timeUnit.toNanos(this.timeout);
+        this.lock.lock();
+        try {
+            // Publishing the waiter before re-checking the stripes guarantees that a concurrent release will signal us
+            this.waiters += 1;
+            try {
+                while (!this.tryAcquirePermit(index)) {
+                    if (remaining <= 0L) {
+                        throw EjbLogger.ROOT_LOGGER.failedToAcquirePermit(this.timeout, this.timeUnit);
+                    }
+                    remaining = this.permitReleased.awaitNanos(remaining);
+                }
+            } finally {
+                this.waiters -= 1;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw EjbLogger.ROOT_LOGGER.acquireSemaphoreInterrupted();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private void releasePermit(Stripe<T> stripe) {
+        stripe.incrementAndGet();
+        if (this.waiters > 0) {
+            this.lock.lock();
+            try {
+                this.permitReleased.signal();
+            } finally {
+                this.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * A stripe of permits and idle instances.
+     * The permit count is the value of this atomic integer, the trailing fields keep neighbouring stripes off the same cache line.
+     */
+    @SuppressWarnings({ "serial", "unused" })
+    private static class Stripe<T> extends AtomicInteger {
+        final Deque<T> instances = new ConcurrentLinkedDeque<>();
+        private long p1, p2, p3, p4, p5, p6, p7;
+
+        Stripe(int permits) {
+            super(permits);
+        }
+
+        boolean tryAcquire() {
+            for (int permits = this.get(); permits > 0; permits = this.get()) {
+                if (this.compareAndSet(permits, permits - 1)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
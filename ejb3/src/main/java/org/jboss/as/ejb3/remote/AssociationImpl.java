@@ -91,16 +91,20 @@ final class AssociationImpl implements Association, AutoCloseable {
     private final DeploymentRepository deploymentRepository;
     private final ClusterTopologyRegistrar clusterTopologyRegistrar;
     private final Registry<String, List<ClientMapping>> clientMappingRegistry;
+    private final EjbRoutingIndex routingIndex;
     private volatile Executor executor;
 
     AssociationImpl(final DeploymentRepository deploymentRepository, final Registry<String, List<ClientMapping>> clientMappingRegistry) {
         this.deploymentRepository = deploymentRepository;
         this.clientMappingRegistry = clientMappingRegistry;
         this.clusterTopologyRegistrar = (clientMappingRegistry != null) ? new ClusterTopologyRegistrar(clientMappingRegistry) : null;
+        this.routingIndex = new EjbRoutingIndex(deploymentRepository);
+        deploymentRepository.addListener(this.routingIndex);
     }
 
     @Override
     public void close() {
+        this.deploymentRepository.removeListener(this.routingIndex);
         if (this.clusterTopologyRegistrar != null) this.clusterTopologyRegistrar.close();
     }
 
@@ -397,16 +401,7 @@ final class AssociationImpl implements Association, AutoCloseable {
     }
 
     private EjbDeploymentInformation findEJB(final String appName, final String moduleName, final String distinctName, final String beanName) {
-        final DeploymentModuleIdentifier ejbModule = new DeploymentModuleIdentifier(appName, moduleName, distinctName);
-        final Map<DeploymentModuleIdentifier, ModuleDeployment> modules = this.deploymentRepository.getStartedModules();
-        if (modules == null || modules.isEmpty()) {
-            return null;
-        }
-        final ModuleDeployment moduleDeployment = modules.get(ejbModule);
-        if (moduleDeployment == null) {
-            return null;
-        }
-        return moduleDeployment.getEjbs().get(beanName);
+        return this.routingIndex.find(appName, moduleName, distinctName, beanName);
     }
 
     private class ClusterTopologyRegistrar implements RegistryListener<String, List<ClientMapping>> {
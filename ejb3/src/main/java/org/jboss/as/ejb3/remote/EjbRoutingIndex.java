@@ -0,0 +1,95 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.remote;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jboss.as.ejb3.deployment.DeploymentModuleIdentifier;
+import org.jboss.as.ejb3.deployment.DeploymentRepository;
+import org.jboss.as.ejb3.deployment.DeploymentRepositoryListener;
+import org.jboss.as.ejb3.deployment.EjbDeploymentInformation;
+import org.jboss.as.ejb3.deployment.ModuleDeployment;
+
+/**
+ * Index of the EJBs of all started deployments, by application, module, distinct and bean name, used to route remote requests.
+ * The index is rebuilt whenever a deployment starts or is removed, and replaced atomically, so that a lookup neither
+ * copies the deployment repository nor allocates.
+ */
+final class EjbRoutingIndex implements DeploymentRepositoryListener {
+
+    private final DeploymentRepository repository;
+    private volatile Map<String, Map<String, Map<String, Map<String, EjbDeploymentInformation>>>> ejbs = Collections.emptyMap();
+
+    EjbRoutingIndex(final DeploymentRepository repository) {
+        this.repository = repository;
+    }
+
+    EjbDeploymentInformation find(final String appName, final String moduleName, final String distinctName, final String beanName) {
+        final Map<String, Map<String, Map<String, EjbDeploymentInformation>>> modules = this.ejbs.get(appName);
+        if (modules == null) {
+            return null;
+        }
+        final Map<String, Map<String, EjbDeploymentInformation>> distinctModules = modules.get(moduleName);
+        if (distinctModules == null) {
+            return null;
+        }
+        final Map<String, EjbDeploymentInformation> beans = distinctModules.get(distinctName);
+        return (beans != null) ? beans.get(beanName) : null;
+    }
+
+    @Override
+    public void listenerAdded(final DeploymentRepository repository) {
+        this.rebuild();
+    }
+
+    @Override
+    public void deploymentAvailable(final DeploymentModuleIdentifier deployment, final ModuleDeployment moduleDeployment) {
+        // Not routable until started
+    }
+
+    @Override
+    public void deploymentStarted(final DeploymentModuleIdentifier deployment, final ModuleDeployment moduleDeployment) {
+        this.rebuild();
+    }
+
+    @Override
+    public void deploymentRemoved(final DeploymentModuleIdentifier deployment) {
+        this.rebuild();
+    }
+
+    /**
+     * Rebuilds the index from the started modules of the repository.
+     * Rebuilds are serialized, so that the index published last always reflects the latest repository state.
+     */
+    private synchronized void rebuild() {
+        final Map<String, Map<String, Map<String, Map<String, EjbDeploymentInformation>>>> ejbs = new HashMap<>();
+        for (Map.Entry<DeploymentModuleIdentifier, ModuleDeployment> entry : this.repository.getStartedModules().entrySet()) {
+            final DeploymentModuleIdentifier identifier = entry.getKey();
+            ejbs.computeIfAbsent(identifier.getApplicationName(), key -> new HashMap<>())
+                    .computeIfAbsent(identifier.getModuleName(), key -> new HashMap<>())
+                    .put(identifier.getDistinctName(), entry.getValue().getEjbs());
+        }
+        this.ejbs = ejbs;
+    }
+}
@@ -32,6 +32,8 @@ import org.jboss.as.controller.ServiceRemoveStepHandler;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
 import org.jboss.as.controller.operations.validation.ModelTypeValidator;
 import org.jboss.as.controller.operations.validation.StringLengthValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
@@ -85,6 +87,22 @@ public class DatabaseDataStoreResourceDefinition extends SimpleResourceDefinitio
                     .setDefaultValue(new ModelNode(true))
                     .build();
 
+    public static final SimpleAttributeDefinition INCREMENTAL_REFRESH =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.INCREMENTAL_REFRESH, ModelType.BOOLEAN, true)
+                    .setAllowExpression(true)
+                    .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
+                    .setDefaultValue(new ModelNode(false))
+                    .build();
+
+    public static final SimpleAttributeDefinition WRITE_BATCH_WINDOW =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.WRITE_BATCH_WINDOW, ModelType.INT, true)
+                    .setAllowExpression(true)
+                    .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
+                    .setDefaultValue(new ModelNode(0))
+                    .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+                    .setValidator(new IntRangeValidator(0, Integer.MAX_VALUE, true, true))
+                    .build();
+
     public static final Map<String, AttributeDefinition> ATTRIBUTES ;
 
     static {
@@ -94,6 +112,8 @@ public class DatabaseDataStoreResourceDefinition extends SimpleResourceDefinitio
         map.put(PARTITION.getName(), PARTITION);
         map.put(REFRESH_INTERVAL.getName(), REFRESH_INTERVAL);
         map.put(ALLOW_EXECUTION.getName(), ALLOW_EXECUTION);
+        map.put(INCREMENTAL_REFRESH.getName(), INCREMENTAL_REFRESH);
+        map.put(WRITE_BATCH_WINDOW.getName(), WRITE_BATCH_WINDOW);
 
         ATTRIBUTES = Collections.unmodifiableMap(map);
     }
@@ -385,7 +385,7 @@ public class EJB3Subsystem12Parser implements XMLElementReader<List<ModelNode>>
                     missingRequiredAttributes.remove(EJB3SubsystemXMLAttribute.DEFAULT_ACCESS_TIMEOUT);
                     break;
                 default:
-                    throw unexpectedAttribute(reader, i);
+                    parseSingletonBeanAttribute(reader, i, attribute, ejb3SubsystemAddOperation);
             }
         }
         requireNoContent(reader);
@@ -394,6 +394,10 @@ public class EJB3Subsystem12Parser implements XMLElementReader<List<ModelNode>>
         }
     }
 
+    protected void parseSingletonBeanAttribute(final XMLExtendedStreamReader reader, final int index, final EJB3SubsystemXMLAttribute attribute, final ModelNode ejb3SubsystemAddOperation) throws XMLStreamException {
+        throw unexpectedAttribute(reader, index);
+    }
+
     private void parsePools(final XMLExtendedStreamReader reader, final List<ModelNode> operations) throws XMLStreamException {
         // no attributes expected
         requireNoAttributes(reader);
@@ -87,7 +87,7 @@ public class EJB3Subsystem13Parser extends EJB3Subsystem12Parser {
                     missingRequiredAttributes.remove(EJB3SubsystemXMLAttribute.ENABLED);
                     break;
                 default:
-                    throw unexpectedAttribute(reader, i);
+                    parseStatisticsAttribute(reader, i, attribute, ejb3SubsystemAddOperation);
             }
         }
         requireNoContent(reader);
@@ -96,6 +96,10 @@ public class EJB3Subsystem13Parser extends EJB3Subsystem12Parser {
         }
     }
 
+    protected void parseStatisticsAttribute(final XMLExtendedStreamReader reader, final int index, final EJB3SubsystemXMLAttribute attribute, final ModelNode ejb3SubsystemAddOperation) throws XMLStreamException {
+        throw unexpectedAttribute(reader, index);
+    }
+
     private void parseDefaultDistinctName(final XMLExtendedStreamReader reader, final ModelNode ejb3SubsystemAddOperation) throws XMLStreamException {
         final int count = reader.getAttributeCount();
         final EnumSet<EJB3SubsystemXMLAttribute> missingRequiredAttributes = EnumSet.of(EJB3SubsystemXMLAttribute.VALUE);
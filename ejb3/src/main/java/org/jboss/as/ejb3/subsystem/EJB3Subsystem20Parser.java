@@ -163,7 +163,7 @@ public class EJB3Subsystem20Parser extends EJB3Subsystem14Parser {
                     break;
                 }
                 default:
-                    throw unexpectedAttribute(reader, i);
+                    parseTimerServiceAttribute(reader, i, attribute, timerServiceAdd);
             }
         }
         if (!required.isEmpty()) {
@@ -180,6 +180,10 @@ public class EJB3Subsystem20Parser extends EJB3Subsystem14Parser {
         }
     }
 
+    protected void parseTimerServiceAttribute(final XMLExtendedStreamReader reader, final int index, final EJB3SubsystemXMLAttribute attribute, final ModelNode operation) throws XMLStreamException {
+        throw unexpectedAttribute(reader, index);
+    }
+
     private void parseDataStores(final XMLExtendedStreamReader reader, final List<ModelNode> operations) throws XMLStreamException {
         while (reader.hasNext() && reader.nextTag() != XMLStreamConstants.END_ELEMENT) {
             switch (EJB3SubsystemXMLElement.forName(reader.getLocalName())) {
@@ -202,6 +206,7 @@ public class EJB3Subsystem20Parser extends EJB3Subsystem14Parser {
         String dataStorePath = null;
         String dataStorePathRelativeTo = null;
         String name = null;
+        final ModelNode fileDataStoreAdd = new ModelNode();
         final EnumSet<EJB3SubsystemXMLAttribute> required = EnumSet.of(EJB3SubsystemXMLAttribute.NAME, EJB3SubsystemXMLAttribute.PATH);
         final int count = reader.getAttributeCount();
         for (int i = 0; i < count; i++) {
@@ -229,7 +234,7 @@ public class EJB3Subsystem20Parser extends EJB3Subsystem14Parser {
                     dataStorePathRelativeTo = FileDataStoreResourceDefinition.RELATIVE_TO.parse(value, reader).asString();
                     break;
                 default:
-                    throw unexpectedAttribute(reader, i);
+                    parseFileDataStoreAttribute(reader, i, attribute, fileDataStoreAdd);
             }
         }
         if (!required.isEmpty()) {
@@ -239,7 +244,6 @@ public class EJB3Subsystem20Parser extends EJB3Subsystem14Parser {
         address.add(SUBSYSTEM, EJB3Extension.SUBSYSTEM_NAME);
         address.add(SERVICE, TIMER_SERVICE);
         address.add(FILE_DATA_STORE, name);
-        final ModelNode fileDataStoreAdd = new ModelNode();
         fileDataStoreAdd.get(OP).set(ADD);
         fileDataStoreAdd.get(ADDRESS).set(address);
         fileDataStoreAdd.get(PATH).set(dataStorePath);
@@ -250,6 +254,10 @@ public class EJB3Subsystem20Parser extends EJB3Subsystem14Parser {
         requireNoContent(reader);
     }
 
+    protected void parseFileDataStoreAttribute(final XMLExtendedStreamReader reader, final int index, final EJB3SubsystemXMLAttribute attribute, final ModelNode operation) throws XMLStreamException {
+        throw unexpectedAttribute(reader, index);
+    }
+
 
     protected void parseDatabaseDataStore(final XMLExtendedStreamReader reader, final List<ModelNode> operations) throws XMLStreamException {
         String name = null;
@@ -0,0 +1,112 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.subsystem;
+
+import static org.jboss.as.controller.parsing.ParseUtils.unexpectedAttribute;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.staxmapper.XMLExtendedStreamReader;
+
+/**
+ * Parser for ejb3:6.0 namespace.
+ */
+public class EJB3Subsystem60Parser extends EJB3Subsystem50Parser {
+
+    EJB3Subsystem60Parser() {
+    }
+
+    @Override
+    protected EJB3SubsystemNamespace getExpectedNamespace() {
+        return EJB3SubsystemNamespace.EJB3_6_0;
+    }
+
+    @Override
+    protected void parseSingletonBeanAttribute(final XMLExtendedStreamReader reader, final int index, final EJB3SubsystemXMLAttribute attribute, final ModelNode ejb3SubsystemAddOperation) throws XMLStreamException {
+        switch (attribute) {
+            case STRIPED_LOCK:
+                EJB3SubsystemRootResourceDefinition.DEFAULT_SINGLETON_BEAN_STRIPED_LOCK.parseAndSetParameter(reader.getAttributeValue(index), ejb3SubsystemAddOperation, reader);
+                break;
+            default:
+                throw unexpectedAttribute(reader, index);
+        }
+    }
+
+    @Override
+    protected void parseStatisticsAttribute(final XMLExtendedStreamReader reader, final int index, final EJB3SubsystemXMLAttribute attribute, final ModelNode ejb3SubsystemAddOperation) throws XMLStreamException {
+        switch (attribute) {
+            case HISTOGRAMS_ENABLED:
+                EJB3SubsystemRootResourceDefinition.STATISTICS_HISTOGRAMS_ENABLED.parseAndSetParameter(reader.getAttributeValue(index), ejb3SubsystemAddOperation, reader);
+                break;
+            default:
+                throw unexpectedAttribute(reader, index);
+        }
+    }
+
+    @Override
+    protected void parseStrictMaxPoolAttribute(final XMLExtendedStreamReader reader, final int index, final EJB3SubsystemXMLAttribute attribute, final ModelNode operation) throws XMLStreamException {
+        switch (attribute) {
+            case STRIPED:
+                StrictMaxPoolResourceDefinition.STRIPED.parseAndSetParameter(reader.getAttributeValue(index), operation, reader);
+                break;
+            default:
+                throw unexpectedAttribute(reader, index);
+        }
+    }
+
+    @Override
+    protected void parseTimerServiceAttribute(final XMLExtendedStreamReader reader, final int index, final EJB3SubsystemXMLAttribute attribute, final ModelNode operation) throws XMLStreamException {
+        switch (attribute) {
+            case SCHEDULER:
+                TimerServiceResourceDefinition.SCHEDULER.parseAndSetParameter(reader.getAttributeValue(index), operation, reader);
+                break;
+            default:
+                throw unexpectedAttribute(reader, index);
+        }
+    }
+
+    @Override
+    protected void parseFileDataStoreAttribute(final XMLExtendedStreamReader reader, final int index, final EJB3SubsystemXMLAttribute attribute, final ModelNode operation) throws XMLStreamException {
+        switch (attribute) {
+            case JOURNAL:
+                FileDataStoreResourceDefinition.JOURNAL.parseAndSetParameter(reader.getAttributeValue(index), operation, reader);
+                break;
+            default:
+                throw unexpectedAttribute(reader, index);
+        }
+    }
+
+    @Override
+    protected void parseDatabaseDataStoreAttribute(final XMLExtendedStreamReader reader, final int index, final EJB3SubsystemXMLAttribute attribute, final ModelNode operation) throws XMLStreamException {
+        switch (attribute) {
+            case INCREMENTAL_REFRESH:
+                DatabaseDataStoreResourceDefinition.INCREMENTAL_REFRESH.parseAndSetParameter(reader.getAttributeValue(index), operation, reader);
+                break;
+            case WRITE_BATCH_WINDOW:
+                DatabaseDataStoreResourceDefinition.WRITE_BATCH_WINDOW.parseAndSetParameter(reader.getAttributeValue(index), operation, reader);
+                break;
+            default:
+                throw unexpectedAttribute(reader, index);
+        }
+    }
+}
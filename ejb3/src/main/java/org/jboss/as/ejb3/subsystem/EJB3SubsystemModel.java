@@ -67,12 +67,14 @@ public interface EJB3SubsystemModel {
 
     String ENABLE_STATISTICS = "enable-statistics";
     String STATISTICS_ENABLED = "statistics-enabled";
+    String STATISTICS_HISTOGRAMS_ENABLED = "statistics-histograms-enabled";
 
     String FILE_DATA_STORE = "file-data-store";
 
     String MAX_POOL_SIZE = "max-pool-size";
     String DERIVE_SIZE = "derive-size";
     String DERIVED_SIZE = "derived-size";
+    String STRIPED = "striped";
 
     String STRICT_MAX_BEAN_INSTANCE_POOL = "strict-max-bean-instance-pool";
 
@@ -81,8 +83,10 @@ public interface EJB3SubsystemModel {
 
     String RELATIVE_TO = "relative-to";
     String PATH = "path";
+    String JOURNAL = "journal";
 
     String DEFAULT_SINGLETON_BEAN_ACCESS_TIMEOUT = "default-singleton-bean-access-timeout";
+    String DEFAULT_SINGLETON_BEAN_STRIPED_LOCK = "default-singleton-bean-striped-lock";
     String DEFAULT_STATEFUL_BEAN_ACCESS_TIMEOUT = "default-stateful-bean-access-timeout";
     String DEFAULT_DATA_STORE = "default-data-store";
 
@@ -101,6 +105,7 @@ public interface EJB3SubsystemModel {
     String TIMER_SERVICE = "timer-service";
     String THREAD_POOL = "thread-pool";
     String THREAD_POOL_NAME = "thread-pool-name";
+    String SCHEDULER = "scheduler";
     String DEFAULT = "default";
 
     String USE_QUALIFIED_NAME = "use-qualified-name";
@@ -135,6 +140,12 @@ public interface EJB3SubsystemModel {
     String PARTITION  = "partition";
     String REFRESH_INTERVAL = "refresh-interval";
     String ALLOW_EXECUTION = "allow-execution";
+    String INCREMENTAL_REFRESH = "incremental-refresh";
+    String WRITE_BATCH_WINDOW = "write-batch-window";
+    String WRITE_BATCH_COUNT = "write-batch-count";
+    String WRITE_BATCH_AVERAGE_SIZE = "write-batch-average-size";
+    String WRITE_BATCH_MAX_SIZE = "write-batch-max-size";
+    String WRITE_BATCH_AVERAGE_LATENCY = "write-batch-average-latency";
 
     String STATIC_URLS = "static-urls";
 
@@ -57,11 +57,16 @@ public enum EJB3SubsystemXMLAttribute {
 
     @Deprecated GROUPS_PATH("groups-path"),
 
+    HISTOGRAMS_ENABLED("histograms-enabled"),
+
     @Deprecated IDLE_TIMEOUT("idle-timeout"),
     @Deprecated IDLE_TIMEOUT_UNIT("idle-timeout-unit"),
+    INCREMENTAL_REFRESH("incremental-refresh"),
     INSTANCE_ACQUISITION_TIMEOUT("instance-acquisition-timeout"),
     INSTANCE_ACQUISITION_TIMEOUT_UNIT("instance-acquisition-timeout-unit"),
 
+    JOURNAL("journal"),
+
     KEEPALIVE_TIME("keepalive-time"),
 
     LOCAL_RECEIVER_PASS_BY_VALUE("local-receiver-pass-by-value"),
@@ -87,8 +92,11 @@ public enum EJB3SubsystemXMLAttribute {
     RELATIVE_TO("relative-to"),
     RESOURCE_ADAPTER_NAME("resource-adapter-name"),
 
+    SCHEDULER("scheduler"),
     @Deprecated SESSIONS_PATH("sessions-path"),
     STATIC_URLS("static-urls"),
+    STRIPED("striped"),
+    STRIPED_LOCK("striped-lock"),
     @Deprecated SUBDIRECTORY_COUNT("subdirectory-count"),
 
     THREAD_POOL_NAME("thread-pool-name"),
@@ -98,12 +106,15 @@ public enum EJB3SubsystemXMLAttribute {
 
     VALUE("value"),
 
+    WRITE_BATCH_WINDOW("write-batch-window"),
+
     ACTIVE("active"),
 
     EXECUTE_IN_WORKER("execute-in-worker"),
 
     // Elytron integration
     OUTFLOW_SECURITY_DOMAINS("outflow-security-domains"),
+
     SECURITY_DOMAIN("security-domain"),
     ENABLE_JACC("enable-jacc"),
     URI("uri"),
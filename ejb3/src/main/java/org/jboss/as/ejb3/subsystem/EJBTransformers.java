@@ -74,6 +74,7 @@ public class EJBTransformers implements ExtensionTransformerRegistration {
     private static final ModelVersion VERSION_1_3_0 = ModelVersion.create(1, 3, 0);
     private static final ModelVersion VERSION_3_0_0 = ModelVersion.create(3, 0, 0);
     private static final ModelVersion VERSION_4_0_0 = ModelVersion.create(4, 0, 0);
+    private static final ModelVersion VERSION_5_0_0 = ModelVersion.create(5, 0, 0);
 
     @Override
     public String getSubsystemName() {
@@ -86,6 +87,7 @@ public class EJBTransformers implements ExtensionTransformerRegistration {
         registerTimerTransformers_1_3_0(subsystemRegistration);
         registerTransformers_3_0_0(subsystemRegistration);
         registerTransformers_4_0_0(subsystemRegistration);
+        registerTransformers_5_0_0(subsystemRegistration);
     }
 
     private static void registerTransformers_1_2_1(SubsystemTransformerRegistration subsystemRegistration) {
@@ -135,6 +137,8 @@ public class EJBTransformers implements ExtensionTransformerRegistration {
         registerRemoteTransformers(builder);
         registerMdbDeliveryGroupTransformers(builder);
         registerStrictMaxPoolTransformers(builder);
+        registerSingletonStripedLockTransformers(builder);
+        registerStatisticsHistogramsTransformers(builder);
         registerApplicationSecurityDomainDTransformers(builder);
         registerIdentityTransformers(builder);
         builder.rejectChildResource(PathElement.pathElement(EJB3SubsystemModel.REMOTING_PROFILE));
@@ -162,8 +166,11 @@ public class EJBTransformers implements ExtensionTransformerRegistration {
         registerMdbDeliveryGroupTransformers(builder);
         registerRemoteTransformers(builder);
         registerStrictMaxPoolTransformers(builder);
+        registerSingletonStripedLockTransformers(builder);
+        registerStatisticsHistogramsTransformers(builder);
         registerApplicationSecurityDomainDTransformers(builder);
         registerIdentityTransformers(builder);
+        registerTimerServiceTransformers(builder.addChildResource(EJB3SubsystemModel.TIMER_SERVICE_PATH));
 
         // Rename new statistics-enabled attribute to old enable-statistics
         builder.getAttributeBuilder().addRename(EJB3SubsystemModel.STATISTICS_ENABLED, EJB3SubsystemModel.ENABLE_STATISTICS);
@@ -185,6 +192,11 @@ public class EJBTransformers implements ExtensionTransformerRegistration {
         builder.getAttributeBuilder().setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(false)), EJB3SubsystemRootResourceDefinition.ENABLE_GRACEFUL_TXN_SHUTDOWN);
         builder.getAttributeBuilder().addRejectCheck(RejectAttributeChecker.DEFINED, EJB3SubsystemRootResourceDefinition.ENABLE_GRACEFUL_TXN_SHUTDOWN);
 
+        registerStripedStrictMaxPoolTransformers(builder);
+        registerSingletonStripedLockTransformers(builder);
+        registerStatisticsHistogramsTransformers(builder);
+        registerTimerServiceTransformers(builder.addChildResource(EJB3SubsystemModel.TIMER_SERVICE_PATH));
+
         // Rename new statistics-enabled attribute to old enable-statistics
         builder.getAttributeBuilder()
                .addRename(EJB3SubsystemModel.STATISTICS_ENABLED, EJB3SubsystemModel.ENABLE_STATISTICS);
@@ -192,6 +204,17 @@ public class EJBTransformers implements ExtensionTransformerRegistration {
         TransformationDescription.Tools.register(builder.build(), subsystemRegistration, VERSION_4_0_0);
     }
 
+    private static void registerTransformers_5_0_0(SubsystemTransformerRegistration subsystemRegistration) {
+        final ResourceTransformationDescriptionBuilder builder = TransformationDescriptionBuilder.Factory.createSubsystemInstance();
+
+        registerStripedStrictMaxPoolTransformers(builder);
+        registerSingletonStripedLockTransformers(builder);
+        registerStatisticsHistogramsTransformers(builder);
+        registerTimerServiceTransformers(builder.addChildResource(EJB3SubsystemModel.TIMER_SERVICE_PATH));
+
+        TransformationDescription.Tools.register(builder.build(), subsystemRegistration, VERSION_5_0_0);
+    }
+
     private static void registerRemoteTransformers(ResourceTransformationDescriptionBuilder parent) {
         ResourceTransformationDescriptionBuilder remoteService = parent.addChildResource(EJB3SubsystemModel.REMOTE_SERVICE_PATH);
         remoteService.getAttributeBuilder()
@@ -213,7 +236,48 @@ public class EJBTransformers implements ExtensionTransformerRegistration {
         parent.addChildResource(PathElement.pathElement(EJB3SubsystemModel.STRICT_MAX_BEAN_INSTANCE_POOL))
                 .getAttributeBuilder()
                 .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(StrictMaxPoolResourceDefinition.DeriveSize.NONE.toString())), DERIVE_SIZE)
-                .addRejectCheck(RejectAttributeChecker.DEFINED, DERIVE_SIZE);
+                .addRejectCheck(RejectAttributeChecker.DEFINED, DERIVE_SIZE)
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(false)), StrictMaxPoolResourceDefinition.STRIPED)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, StrictMaxPoolResourceDefinition.STRIPED);
+    }
+
+    private static void registerStripedStrictMaxPoolTransformers(ResourceTransformationDescriptionBuilder parent) {
+        parent.addChildResource(PathElement.pathElement(EJB3SubsystemModel.STRICT_MAX_BEAN_INSTANCE_POOL))
+                .getAttributeBuilder()
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(false)), StrictMaxPoolResourceDefinition.STRIPED)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, StrictMaxPoolResourceDefinition.STRIPED);
+    }
+
+    private static void registerStatisticsHistogramsTransformers(ResourceTransformationDescriptionBuilder builder) {
+        builder.getAttributeBuilder()
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(false)), EJB3SubsystemRootResourceDefinition.STATISTICS_HISTOGRAMS_ENABLED)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, EJB3SubsystemRootResourceDefinition.STATISTICS_HISTOGRAMS_ENABLED);
+    }
+
+    private static void registerSingletonStripedLockTransformers(ResourceTransformationDescriptionBuilder builder) {
+        builder.getAttributeBuilder()
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(false)), EJB3SubsystemRootResourceDefinition.DEFAULT_SINGLETON_BEAN_STRIPED_LOCK)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, EJB3SubsystemRootResourceDefinition.DEFAULT_SINGLETON_BEAN_STRIPED_LOCK);
+    }
+
+    private static ResourceTransformationDescriptionBuilder registerTimerServiceTransformers(ResourceTransformationDescriptionBuilder timerService) {
+        timerService.getAttributeBuilder()
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(TimerServiceResourceDefinition.Scheduler.TIMER.toString())), TimerServiceResourceDefinition.SCHEDULER)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, TimerServiceResourceDefinition.SCHEDULER);
+        registerFileDataStoreTransformers(timerService.addChildResource(EJB3SubsystemModel.FILE_DATA_STORE_PATH));
+        ResourceTransformationDescriptionBuilder databaseDataStore = timerService.addChildResource(EJB3SubsystemModel.DATABASE_DATA_STORE_PATH);
+        databaseDataStore.getAttributeBuilder()
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(false)), DatabaseDataStoreResourceDefinition.INCREMENTAL_REFRESH)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, DatabaseDataStoreResourceDefinition.INCREMENTAL_REFRESH)
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(0)), DatabaseDataStoreResourceDefinition.WRITE_BATCH_WINDOW)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, DatabaseDataStoreResourceDefinition.WRITE_BATCH_WINDOW);
+        return databaseDataStore;
+    }
+
+    private static void registerFileDataStoreTransformers(ResourceTransformationDescriptionBuilder fileDataStore) {
+        fileDataStore.getAttributeBuilder()
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(false)), FileDataStoreResourceDefinition.JOURNAL)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, FileDataStoreResourceDefinition.JOURNAL);
     }
 
     private static void registerMdbDeliveryGroupTransformers(ResourceTransformationDescriptionBuilder parent) {
@@ -230,11 +294,14 @@ public class EJBTransformers implements ExtensionTransformerRegistration {
         DataStoreTransformer dataStoreTransformer = new DataStoreTransformer();
         timerService.getAttributeBuilder()
                 .setDiscard(DiscardAttributeChecker.ALWAYS, EJB3SubsystemModel.DEFAULT_DATA_STORE)//this is ok, as default-data-store only has any sense with new model, but it is always set!
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(TimerServiceResourceDefinition.Scheduler.TIMER.toString())), TimerServiceResourceDefinition.SCHEDULER)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, TimerServiceResourceDefinition.SCHEDULER)
                 .end();
         timerService.discardOperations(ModelDescriptionConstants.ADD);
         timerService.setCustomResourceTransformer(dataStoreTransformer);
         timerService.rejectChildResource(EJB3SubsystemModel.DATABASE_DATA_STORE_PATH);
         ResourceTransformationDescriptionBuilder fileDataStore = timerService.addChildRedirection(EJB3SubsystemModel.FILE_DATA_STORE_PATH, (current, builder) -> builder.getCurrent());
+        registerFileDataStoreTransformers(fileDataStore);
 
         fileDataStore.addOperationTransformationOverride(ModelDescriptionConstants.ADD)
                 .inheritResourceAttributeDefinitions()
@@ -245,7 +312,7 @@ public class EJBTransformers implements ExtensionTransformerRegistration {
 
     private static void registerTimerTransformers_1_3_0(ResourceTransformationDescriptionBuilder parent) {
         ResourceTransformationDescriptionBuilder timerService = parent.addChildResource(EJB3SubsystemModel.TIMER_SERVICE_PATH);
-        ResourceTransformationDescriptionBuilder db = timerService.addChildResource(EJB3SubsystemModel.DATABASE_DATA_STORE_PATH);
+        ResourceTransformationDescriptionBuilder db = registerTimerServiceTransformers(timerService);
                 db.getAttributeBuilder()
                         .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(-1)), REFRESH_INTERVAL)
                         .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(true)), ALLOW_EXECUTION)
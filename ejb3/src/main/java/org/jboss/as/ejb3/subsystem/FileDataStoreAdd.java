@@ -66,9 +66,10 @@ public class FileDataStoreAdd extends AbstractAddStepHandler {
         final String path = pathNode.isDefined() ? pathNode.asString() : null;
         final ModelNode relativeToNode = FileDataStoreResourceDefinition.RELATIVE_TO.resolveModelAttribute(context, model);
         final String relativeTo = relativeToNode.isDefined() ? relativeToNode.asString() : null;
+        final boolean journal = FileDataStoreResourceDefinition.JOURNAL.resolveModelAttribute(context, model).asBoolean();
 
 
-        final FileTimerPersistence fileTimerPersistence = new FileTimerPersistence(true, path, relativeTo);
+        final FileTimerPersistence fileTimerPersistence = new FileTimerPersistence(true, path, relativeTo, journal);
         final PathAddress address = PathAddress.pathAddress(operation.get(OP_ADDR));
         final ServiceName serviceName = TimerPersistence.SERVICE_NAME.append(address.getLastElement().getValue());
         context.getServiceTarget().addService(serviceName, fileTimerPersistence)
@@ -30,6 +30,7 @@ import org.jboss.dmr.ModelNode;
 import org.jboss.msc.service.ServiceRegistry;
 
 import static org.jboss.as.ejb3.subsystem.EJB3SubsystemRootResourceDefinition.STATISTICS_ENABLED;
+import static org.jboss.as.ejb3.subsystem.EJB3SubsystemRootResourceDefinition.STATISTICS_HISTOGRAMS_ENABLED;
 
 /**
  * @author <a href="mailto:cdewolf@redhat.com">Carlo de Wolf</a>
@@ -38,7 +39,7 @@ class StatisticsEnabledWriteHandler extends AbstractWriteAttributeHandler<Void>
     static StatisticsEnabledWriteHandler INSTANCE = new StatisticsEnabledWriteHandler();
 
     StatisticsEnabledWriteHandler(){
-        super(STATISTICS_ENABLED);
+        super(STATISTICS_ENABLED, STATISTICS_HISTOGRAMS_ENABLED);
     }
 
     @Override
@@ -57,7 +58,10 @@ class StatisticsEnabledWriteHandler extends AbstractWriteAttributeHandler<Void>
 
     void updateToRuntime(final OperationContext context, final ModelNode model) throws OperationFailedException {
         final boolean statisticsEnabled = STATISTICS_ENABLED.resolveModelAttribute(context, model).asBoolean();
-        utilities(context).setStatisticsEnabled(statisticsEnabled);
+        final boolean statisticsHistogramsEnabled = STATISTICS_HISTOGRAMS_ENABLED.resolveModelAttribute(context, model).asBoolean();
+        final EJBUtilities utilities = utilities(context);
+        utilities.setStatisticsEnabled(statisticsEnabled);
+        utilities.setStatisticsHistogramsEnabled(statisticsHistogramsEnabled);
     }
 
     private static EJBUtilities utilities(final OperationContext context) {
@@ -22,9 +22,11 @@
 
 package org.jboss.as.ejb3.subsystem;
 
+import static java.security.AccessController.doPrivileged;
 import static org.jboss.as.ejb3.logging.EjbLogger.ROOT_LOGGER;
 
-import java.util.Timer;
+import java.security.PrivilegedAction;
+import java.util.concurrent.ThreadFactory;
 
 import org.jboss.as.controller.AbstractBoottimeAddStepHandler;
 import org.jboss.as.controller.AttributeDefinition;
@@ -34,6 +36,9 @@ import org.jboss.as.ejb3.deployment.processors.AroundTimeoutAnnotationParsingPro
 import org.jboss.as.ejb3.deployment.processors.TimerServiceDeploymentProcessor;
 import org.jboss.as.ejb3.deployment.processors.annotation.TimerServiceAnnotationProcessor;
 import org.jboss.as.ejb3.deployment.processors.merging.TimerMethodMergingProcessor;
+import org.jboss.as.ejb3.timerservice.scheduler.HashedWheelTimeoutScheduler;
+import org.jboss.as.ejb3.timerservice.scheduler.TimeoutScheduler;
+import org.jboss.as.ejb3.timerservice.scheduler.TimerTimeoutScheduler;
 import org.jboss.as.server.AbstractDeploymentChainStep;
 import org.jboss.as.server.DeploymentProcessorTarget;
 import org.jboss.as.server.deployment.Phase;
@@ -43,6 +48,7 @@ import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
+import org.jboss.threads.JBossThreadFactory;
 
 /**
  * Adds the timer service
@@ -77,6 +83,7 @@ public class TimerServiceAdd extends AbstractBoottimeAddStepHandler {
         final String defaultDataStore = TimerServiceResourceDefinition.DEFAULT_DATA_STORE.resolveModelAttribute(context, model).asString();
         final String threadPoolName = TimerServiceResourceDefinition.THREAD_POOL_NAME.resolveModelAttribute(context, model).asString();
         final ServiceName threadPoolServiceName = EJB3SubsystemModel.BASE_THREAD_POOL_SERVICE_NAME.append(threadPoolName);
+        final TimerServiceResourceDefinition.Scheduler scheduler = TimerServiceResourceDefinition.Scheduler.fromValue(TimerServiceResourceDefinition.SCHEDULER.resolveModelAttribute(context, model).asString());
 
         context.addStep(new AbstractDeploymentChainStep() {
             protected void execute(DeploymentProcessorTarget processorTarget) {
@@ -89,29 +96,47 @@ public class TimerServiceAdd extends AbstractBoottimeAddStepHandler {
             }
         }, OperationContext.Stage.RUNTIME);
 
-        context.getServiceTarget().addService(TimerServiceDeploymentProcessor.TIMER_SERVICE_NAME, new TimerValueService())
+        context.getServiceTarget().addService(TimerServiceDeploymentProcessor.TIMER_SERVICE_NAME, new TimerValueService(scheduler))
                 .install();
 
     }
 
-    private static final class TimerValueService implements Service<Timer> {
+    private static final class TimerValueService implements Service<TimeoutScheduler> {
 
-        private Timer timer;
+        private static final ThreadFactory THREAD_FACTORY = doPrivileged(new PrivilegedAction<JBossThreadFactory>() {
+            @Override
+            public JBossThreadFactory run() {
+                return new JBossThreadFactory(new ThreadGroup(HashedWheelTimeoutScheduler.class.getSimpleName()), Boolean.TRUE, null, "%G - %t", null, null);
+            }
+        });
+
+        private final TimerServiceResourceDefinition.Scheduler scheduler;
+        private TimeoutScheduler timeoutScheduler;
+
+        TimerValueService(final TimerServiceResourceDefinition.Scheduler scheduler) {
+            this.scheduler = scheduler;
+        }
 
         @Override
         public synchronized void start(final StartContext context) throws StartException {
-            timer = new Timer();
+            switch (scheduler) {
+                case HASHED_WHEEL:
+                    timeoutScheduler = new HashedWheelTimeoutScheduler(THREAD_FACTORY);
+                    break;
+                default:
+                    timeoutScheduler = new TimerTimeoutScheduler();
+            }
         }
 
         @Override
         public synchronized void stop(final StopContext context) {
-            timer.cancel();
-            timer = null;
+            timeoutScheduler.stop();
+            timeoutScheduler = null;
         }
 
         @Override
-        public synchronized Timer getValue() throws IllegalStateException, IllegalArgumentException {
-            return timer;
+        public synchronized TimeoutScheduler getValue() throws IllegalStateException, IllegalArgumentException {
+            return timeoutScheduler;
         }
     }
 }
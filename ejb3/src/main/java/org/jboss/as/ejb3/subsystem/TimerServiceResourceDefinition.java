@@ -32,10 +32,13 @@ import org.jboss.as.controller.ReloadRequiredWriteAttributeHandler;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.operations.validation.EnumValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.as.controller.services.path.PathManager;
+import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 
 /**
@@ -57,6 +60,35 @@ public class TimerServiceResourceDefinition extends SimpleResourceDefinition {
                     //.setDefaultValue(new ModelNode("default-file-store")) //for backward compatibility!
                     .build();
 
+    static final SimpleAttributeDefinition SCHEDULER =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.SCHEDULER, ModelType.STRING, true)
+                    .setAllowExpression(true)
+                    .setDefaultValue(new ModelNode(Scheduler.TIMER.toString()))
+                    .setValidator(EnumValidator.create(Scheduler.class, true, true))
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .build();
+
+    static final SimpleAttributeDefinition WRITE_BATCH_COUNT =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.WRITE_BATCH_COUNT, ModelType.LONG, true)
+                    .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+                    .build();
+
+    static final SimpleAttributeDefinition WRITE_BATCH_AVERAGE_SIZE =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.WRITE_BATCH_AVERAGE_SIZE, ModelType.DOUBLE, true)
+                    .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+                    .build();
+
+    static final SimpleAttributeDefinition WRITE_BATCH_MAX_SIZE =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.WRITE_BATCH_MAX_SIZE, ModelType.INT, true)
+                    .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+                    .build();
+
+    static final SimpleAttributeDefinition WRITE_BATCH_AVERAGE_LATENCY =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.WRITE_BATCH_AVERAGE_LATENCY, ModelType.LONG, true)
+                    .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+                    .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+                    .build();
+
     public static final Map<String, AttributeDefinition> ATTRIBUTES ;
 
     private final PathManager pathManager;
@@ -65,6 +97,7 @@ public class TimerServiceResourceDefinition extends SimpleResourceDefinition {
         Map<String, AttributeDefinition> map = new LinkedHashMap<String, AttributeDefinition>();
         map.put(THREAD_POOL_NAME.getName(), THREAD_POOL_NAME);
         map.put(DEFAULT_DATA_STORE.getName(), DEFAULT_DATA_STORE);
+        map.put(SCHEDULER.getName(), SCHEDULER);
 
         ATTRIBUTES = Collections.unmodifiableMap(map);
     }
@@ -83,6 +116,9 @@ public class TimerServiceResourceDefinition extends SimpleResourceDefinition {
         for (AttributeDefinition attr : ATTRIBUTES.values()) {
             resourceRegistration.registerReadWriteAttribute(attr, null, new ReloadRequiredWriteAttributeHandler(attr));
         }
+        for (AttributeDefinition metric : new AttributeDefinition[] { WRITE_BATCH_COUNT, WRITE_BATCH_AVERAGE_SIZE, WRITE_BATCH_MAX_SIZE, WRITE_BATCH_AVERAGE_LATENCY }) {
+            resourceRegistration.registerMetric(metric, TimerServiceWriteBatchMetricsHandler.INSTANCE);
+        }
     }
 
     @Override
@@ -91,4 +127,29 @@ public class TimerServiceResourceDefinition extends SimpleResourceDefinition {
         resourceRegistration.registerSubModel(DatabaseDataStoreResourceDefinition.INSTANCE);
     }
 
+    /**
+     * The engines that can be used to schedule timer expirations.
+     */
+    enum Scheduler {
+        TIMER("timer"), HASHED_WHEEL("hashed-wheel");
+
+        private final String value;
+
+        Scheduler(String value) {
+            this.value = value;
+        }
+
+        public String toString() {
+            return value;
+        }
+
+        public static Scheduler fromValue(String value) {
+            for (Scheduler scheduler : values()) {
+                if (scheduler.value.equals(value)) {
+                    return scheduler;
+                }
+            }
+            return valueOf(value);
+        }
+    }
 }
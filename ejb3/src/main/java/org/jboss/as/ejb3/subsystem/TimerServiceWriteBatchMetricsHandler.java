@@ -0,0 +1,84 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.subsystem;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.ejb3.logging.EjbLogger;
+import org.jboss.as.ejb3.timerservice.persistence.TimerPersistence;
+import org.jboss.as.ejb3.timerservice.persistence.database.DatabaseTimerPersistence;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceRegistry;
+
+/**
+ * Reads the JDBC write batch metrics of the timer service, aggregated over all its database data stores.
+ */
+public class TimerServiceWriteBatchMetricsHandler extends AbstractRuntimeOnlyHandler {
+
+    static final TimerServiceWriteBatchMetricsHandler INSTANCE = new TimerServiceWriteBatchMetricsHandler();
+
+    private TimerServiceWriteBatchMetricsHandler() {
+    }
+
+    @Override
+    protected void executeRuntimeStep(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+        final String attributeName = operation.require(ModelDescriptionConstants.NAME).asString();
+        final ServiceRegistry registry = context.getServiceRegistry(false);
+        long batches = 0;
+        long timers = 0;
+        int maxSize = 0;
+        long latency = 0;
+        for (String name : context.readResource(PathAddress.EMPTY_ADDRESS).getChildrenNames(EJB3SubsystemModel.DATABASE_DATA_STORE)) {
+            final ServiceController<?> sc = registry.getService(TimerPersistence.SERVICE_NAME.append(name));
+            if (sc != null && sc.getService() instanceof DatabaseTimerPersistence) {
+                final DatabaseTimerPersistence persistence = (DatabaseTimerPersistence) sc.getService();
+                batches += persistence.getWriteBatchCount();
+                timers += persistence.getWriteBatchTimerCount();
+                maxSize = Math.max(maxSize, persistence.getWriteBatchMaxSize());
+                latency += persistence.getWriteBatchLatency();
+            }
+        }
+        final ModelNode result = context.getResult();
+        switch (attributeName) {
+            case EJB3SubsystemModel.WRITE_BATCH_COUNT:
+                result.set(batches);
+                break;
+            case EJB3SubsystemModel.WRITE_BATCH_AVERAGE_SIZE:
+                result.set(batches == 0 ? 0d : (double) timers / batches);
+                break;
+            case EJB3SubsystemModel.WRITE_BATCH_MAX_SIZE:
+                result.set(maxSize);
+                break;
+            case EJB3SubsystemModel.WRITE_BATCH_AVERAGE_LATENCY:
+                result.set(batches == 0 ? 0L : TimeUnit.NANOSECONDS.toMillis(latency / batches));
+                break;
+            default:
+                throw EjbLogger.ROOT_LOGGER.unknownAttribute(attributeName);
+        }
+    }
+}
@@ -29,6 +29,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.Serializable;
 import java.lang.reflect.Method;
+import java.security.PrivilegedAction;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.PreparedStatement;
@@ -41,16 +42,17 @@ import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.sql.DataSource;
@@ -58,9 +60,13 @@ import javax.transaction.HeuristicMixedException;
 import javax.transaction.HeuristicRollbackException;
 import javax.transaction.NotSupportedException;
 import javax.transaction.RollbackException;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
 import javax.transaction.SystemException;
 import javax.transaction.TransactionManager;
+import javax.transaction.TransactionSynchronizationRegistry;
 
+import org.jboss.as.ejb3.component.stateful.CurrentSynchronizationCallback;
 import org.jboss.as.ejb3.logging.EjbLogger;
 import org.jboss.as.ejb3.timerservice.CalendarTimer;
 import org.jboss.as.ejb3.timerservice.TimerImpl;
@@ -68,6 +74,7 @@ import org.jboss.as.ejb3.timerservice.TimerServiceImpl;
 import org.jboss.as.ejb3.timerservice.TimerState;
 import org.jboss.as.ejb3.timerservice.persistence.TimeoutMethod;
 import org.jboss.as.ejb3.timerservice.persistence.TimerPersistence;
+import org.jboss.as.ejb3.timerservice.scheduler.TimeoutScheduler;
 import org.jboss.as.naming.ManagedReference;
 import org.jboss.as.naming.ManagedReferenceFactory;
 import org.jboss.marshalling.InputStreamByteInput;
@@ -84,8 +91,11 @@ import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.InjectedValue;
+import org.jboss.threads.JBossThreadFactory;
 import org.wildfly.transaction.client.ContextTransactionManager;
 
+import static java.security.AccessController.doPrivileged;
+
 /**
  * <p>
  * Database timer persistence store.
@@ -101,7 +111,8 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
     private final InjectedValue<ModuleLoader> moduleLoader = new InjectedValue<ModuleLoader>();
     private final Map<String, TimerChangeListener> changeListeners = Collections.synchronizedMap(new HashMap<String, TimerChangeListener>());
 
-    private final InjectedValue<java.util.Timer> timerInjectedValue = new InjectedValue<java.util.Timer>();
+    private final InjectedValue<TimeoutScheduler> timerInjectedValue = new InjectedValue<TimeoutScheduler>();
+    private final InjectedValue<TransactionSynchronizationRegistry> transactionSynchronizationRegistry = new InjectedValue<TransactionSynchronizationRegistry>();
 
     private final Map<String, Set<String>> knownTimerIds = new HashMap<>();
 
@@ -117,12 +128,23 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
     private final int refreshInterval;
     /** Flag whether this instance should execute persistent timers*/
     private final boolean allowExecution;
+    /** Flag whether a refresh should only read the timers changed since the previous refresh*/
+    private volatile boolean incrementalRefresh;
+    /** Time in millis at which the previous incremental refresh started*/
+    private long lastRefresh;
+    /** Time in millis at which the previous full refresh started*/
+    private long lastFullRefresh;
+    /** Window in millis within which timer state updates are coalesced before being written, 0 to write them immediately*/
+    private final int writeBatchWindow;
+    /** Key of the per transaction batch in the transaction synchronization registry*/
+    private final Object transactionBatchKey = new Object();
+    private volatile TimerWriteBatcher<TimerImpl> writeBatcher;
     private volatile ManagedReference managedReference;
     private volatile DataSource dataSource;
     private volatile Properties sql;
     private MarshallerFactory factory;
     private MarshallingConfiguration configuration;
-    private RefreshTask refreshTask;
+    private TimeoutScheduler.ScheduledTask refreshTask;
 
     /** Names for the different SQL commands stored in the properties*/
     private static final String CREATE_TABLE = "create-table";
@@ -132,15 +154,45 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
     private static final String LOAD_TIMER = "load-timer";
     private static final String DELETE_TIMER = "delete-timer";
     private static final String UPDATE_RUNNING = "update-running";
+    private static final String CHECK_LAST_MODIFIED = "check-last-modified";
+    private static final String ADD_LAST_MODIFIED = "add-last-modified";
+    private static final String TOUCH_TIMER = "touch-timer";
+    private static final String CANCEL_TIMER = "cancel-timer";
+    private static final String LOAD_CHANGED_TIMERS = "load-changed-timers";
+    private static final String DELETE_CANCELLED_TIMERS = "delete-cancelled-timers";
+    /**
+     * How far back in millis an incremental refresh looks beyond the start of the previous one, to tolerate clock skew
+     * between the nodes and the delay between a row being stamped and its transaction being committed
+     */
+    private static final long INCREMENTAL_REFRESH_OVERLAP = 10000;
+    /**
+     * Interval in millis between full refreshes in incremental mode, which also pick up changes missed by the incremental
+     * refreshes. Cancelled and expired timers are kept as tombstones for this long.
+     */
+    private static final long FULL_REFRESH_INTERVAL = 300000;
+    /** Number of pending timer state updates at which they are written without waiting for the batch window*/
+    private static final int MAX_WRITE_BATCH_SIZE = 500;
+    private static final ThreadFactory WRITE_BATCH_THREAD_FACTORY = doPrivileged(new PrivilegedAction<JBossThreadFactory>() {
+        @Override
+        public JBossThreadFactory run() {
+            return new JBossThreadFactory(new ThreadGroup(DatabaseTimerPersistence.class.getSimpleName()), Boolean.TRUE, null, "%G - %t", null, null);
+        }
+    });
     /** The format for scheduler start and end date*/
     private static final String SCHEDULER_DATE_FORMAT = "yyyy-MM-dd HH:mm:ss";
 
     public DatabaseTimerPersistence(final String database, String partition, String nodeName, int refreshInterval, boolean allowExecution) {
+        this(database, partition, nodeName, refreshInterval, allowExecution, false, 0);
+    }
+
+    public DatabaseTimerPersistence(final String database, String partition, String nodeName, int refreshInterval, boolean allowExecution, boolean incrementalRefresh, int writeBatchWindow) {
         this.database = database;
         this.partition = partition;
         this.nodeName = nodeName;
         this.refreshInterval = refreshInterval;
         this.allowExecution = allowExecution;
+        this.incrementalRefresh = incrementalRefresh;
+        this.writeBatchWindow = writeBatchWindow;
     }
 
     @Override
@@ -164,9 +216,18 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
         extractDialects();
         investigateDialect();
         checkDatabase();
+        if (incrementalRefresh) {
+            checkLastModified();
+        }
+        lastRefresh = lastFullRefresh = System.currentTimeMillis();
+        if (writeBatchWindow > 0) {
+            writeBatcher = new TimerWriteBatcher<>(TimerImpl::getId, this::writeUpdates, writeBatchWindow, MAX_WRITE_BATCH_SIZE, WRITE_BATCH_THREAD_FACTORY);
+        }
         if (refreshInterval > 0) {
-            refreshTask = new RefreshTask();
-            timerInjectedValue.getValue().schedule(refreshTask, refreshInterval, refreshInterval);
+            refreshTask = timerInjectedValue.getValue().scheduleWithFixedDelay(new RefreshTask(), refreshInterval, refreshInterval);
+        } else if (incrementalRefresh) {
+            // the tombstones are otherwise deleted by the full refreshes, which this node does not run
+            refreshTask = timerInjectedValue.getValue().scheduleWithFixedDelay(() -> deleteTombstones(System.currentTimeMillis() - FULL_REFRESH_INTERVAL), FULL_REFRESH_INTERVAL, FULL_REFRESH_INTERVAL);
         }
     }
 
@@ -174,6 +235,11 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
     public synchronized void stop(final StopContext context) {
         if (refreshTask != null) {
             refreshTask.cancel();
+            refreshTask = null;
+        }
+        if (writeBatcher != null) {
+            writeBatcher.close();
+            writeBatcher = null;
         }
         knownTimerIds.clear();
         managedReference.release();
@@ -308,6 +374,48 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
         }
     }
 
+    /**
+     * Checks whether the timer table has the LAST_MODIFIED column needed by the incremental refresh and adds it if
+     * necessary. The incremental refresh is disabled if the column cannot be added.
+     */
+    private void checkLastModified() {
+        Connection connection = null;
+        Statement statement = null;
+        PreparedStatement preparedStatement = null;
+        ResultSet resultSet = null;
+        try {
+            connection = dataSource.getConnection();
+            preparedStatement = connection.prepareStatement(sql(CHECK_LAST_MODIFIED));
+            preparedStatement.setString(1, "NON-EXISTENT");
+            resultSet = preparedStatement.executeQuery();
+        } catch (SQLException e) {
+            //the query failed, assume it is because the column does not exist
+            if (connection != null) {
+                try {
+                    for (final String sql : sql(ADD_LAST_MODIFIED).split(";")) {
+                        try {
+                            statement = connection.createStatement();
+                            statement.executeUpdate(sql);
+                        } finally {
+                            safeClose(statement);
+                        }
+                    }
+                } catch (SQLException e1) {
+                    incrementalRefresh = false;
+                    EjbLogger.EJB3_TIMER_LOGGER.couldNotEnableIncrementalTimerRefresh(partition, e1);
+                }
+            } else {
+                incrementalRefresh = false;
+                EjbLogger.EJB3_TIMER_LOGGER.couldNotEnableIncrementalTimerRefresh(partition, e);
+            }
+        } finally {
+            safeClose(resultSet);
+            safeClose(preparedStatement);
+            safeClose(statement);
+            safeClose(connection);
+        }
+    }
+
     private String sql(final String key) {
         if (database != null) {
             String result = sql.getProperty(key + "." + database);
@@ -328,10 +436,22 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
             synchronized (this) {
                 knownTimerIds.get(timerEntity.getTimedObjectId()).add(timerEntity.getId());
             }
+            final TransactionBatch batch = transactionBatch();
+            if (batch != null) {
+                batch.create(timerEntity);
+                return;
+            }
             connection = dataSource.getConnection();
             statement = connection.prepareStatement(createTimer);
             statementParameters(timerEntity, statement);
             statement.execute();
+            if (incrementalRefresh) {
+                // stamp the new row so that the incremental refresh of the other nodes picks it up
+                safeClose(statement);
+                statement = connection.prepareStatement(sql(TOUCH_TIMER));
+                touchParameters(timerEntity, System.currentTimeMillis(), statement);
+                statement.execute();
+            }
         } catch (SQLException e) {
             throw new RuntimeException(e);
         } finally {
@@ -347,33 +467,45 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
         PreparedStatement statement = null;
         ResultSet resultSet = null;
         try {
+            final boolean removed = timerEntity.getState() == TimerState.CANCELED ||
+                    timerEntity.getState() == TimerState.EXPIRED;
+            synchronized (this) {
+                if (removed) {
+                    knownTimerIds.get(timerEntity.getTimedObjectId()).remove(timerEntity.getId());
+                } else {
+                    knownTimerIds.get(timerEntity.getTimedObjectId()).add(timerEntity.getId());
+                }
+            }
+            final TimerWriteBatcher<TimerImpl> writeBatcher = this.writeBatcher;
+            if (writeBatcher != null) {
+                final TransactionBatch batch = transactionBatch();
+                if (batch != null) {
+                    if (removed) {
+                        batch.remove(timerEntity);
+                    } else {
+                        batch.update(timerEntity);
+                    }
+                    return;
+                } else if (!removed) {
+                    writeBatcher.add(timerEntity);
+                    return;
+                }
+            }
             connection = dataSource.getConnection();
-            if (timerEntity.getState() == TimerState.CANCELED ||
-                    timerEntity.getState() == TimerState.EXPIRED) {
+            if (incrementalRefresh && removed) {
+                // keep a tombstone, a deleted row would not be seen by the incremental refresh of the other nodes
+                statement = connection.prepareStatement(sql(CANCEL_TIMER));
+                cancelParameters(timerEntity, System.currentTimeMillis(), statement);
+                statement.execute();
+            } else if (removed) {
                 String deleteTimer = sql(DELETE_TIMER);
                 statement = connection.prepareStatement(deleteTimer);
-                statement.setString(1, timerEntity.getTimedObjectId());
-                statement.setString(2, timerEntity.getId());
-                statement.setString(3, partition);
+                deleteParameters(timerEntity, statement);
                 statement.execute();
-                synchronized (this) {
-                    knownTimerIds.get(timerEntity.getTimedObjectId()).remove(timerEntity.getId());
-                }
             } else {
-                synchronized (this) {
-                    knownTimerIds.get(timerEntity.getTimedObjectId()).add(timerEntity.getId());
-                }
                 String updateTimer = sql(UPDATE_TIMER);
                 statement = connection.prepareStatement(updateTimer);
-                statement.setTimestamp(1, timestamp(timerEntity.getNextExpiration()));
-                statement.setTimestamp(2, timestamp(timerEntity.getPreviousRun()));
-                statement.setString(3, timerEntity.getState().name());
-                setNodeName(timerEntity.getState(), statement, 4);
-                // WHERE CLAUSE
-                statement.setString(5, timerEntity.getTimedObjectId());
-                statement.setString(6, timerEntity.getId());
-                statement.setString(7, partition);
-                statement.setString(8, nodeName);   // only persist if this node or empty
+                updateParameters(timerEntity, statement);
                 statement.execute();
             }
         } catch (SQLException e) {
@@ -392,6 +524,11 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
             //timers never execute on this node
             return false;
         }
+        final TimerWriteBatcher<TimerImpl> writeBatcher = this.writeBatcher;
+        if (writeBatcher != null) {
+            // the pending state of the timer has to be written before it can be compared
+            writeBatcher.flush(timer.getId());
+        }
         String loadTimer = sql(UPDATE_RUNNING);
         Connection connection = null;
         PreparedStatement statement = null;
@@ -462,6 +599,9 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
             resultSet = statement.executeQuery();
             final List<Holder> timers = new ArrayList<>();
             while (resultSet.next()) {
+                if (isTombstone(resultSet.getString(9))) {
+                    continue;
+                }
                 try {
                     final Holder timerImpl = timerFromResult(resultSet, timerService);
                     if (timerImpl != null) {
@@ -529,6 +669,13 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
         return this;
     }
 
+    /**
+     * Cancelled and expired timers are only kept in the table as tombstones for the incremental refresh.
+     */
+    private static boolean isTombstone(final String timerState) {
+        return TimerState.CANCELED.name().equals(timerState) || TimerState.EXPIRED.name().equals(timerState);
+    }
+
     private Holder timerFromResult(final ResultSet resultSet, final TimerServiceImpl timerService) throws SQLException {
         boolean calendarTimer = resultSet.getBoolean(24);
         final String nodeName = resultSet.getString(25);
@@ -654,6 +801,159 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
         setNodeName(timerEntity.getState(), statement, 26);
     }
 
+    private void updateParameters(final TimerImpl timerEntity, final PreparedStatement statement) throws SQLException {
+        statement.setTimestamp(1, timestamp(timerEntity.getNextExpiration()));
+        statement.setTimestamp(2, timestamp(timerEntity.getPreviousRun()));
+        statement.setString(3, timerEntity.getState().name());
+        setNodeName(timerEntity.getState(), statement, 4);
+        // WHERE CLAUSE
+        statement.setString(5, timerEntity.getTimedObjectId());
+        statement.setString(6, timerEntity.getId());
+        statement.setString(7, partition);
+        statement.setString(8, nodeName);   // only persist if this node or empty
+    }
+
+    private void deleteParameters(final TimerImpl timerEntity, final PreparedStatement statement) throws SQLException {
+        statement.setString(1, timerEntity.getTimedObjectId());
+        statement.setString(2, timerEntity.getId());
+        statement.setString(3, partition);
+    }
+
+    private void touchParameters(final TimerImpl timerEntity, final long lastModified, final PreparedStatement statement) throws SQLException {
+        statement.setLong(1, lastModified);
+        statement.setString(2, timerEntity.getTimedObjectId());
+        statement.setString(3, timerEntity.getId());
+        statement.setString(4, partition);
+    }
+
+    private void cancelParameters(final TimerImpl timerEntity, final long lastModified, final PreparedStatement statement) throws SQLException {
+        statement.setString(1, timerEntity.getState().name());
+        statement.setLong(2, lastModified);
+        statement.setString(3, timerEntity.getTimedObjectId());
+        statement.setString(4, timerEntity.getId());
+        statement.setString(5, partition);
+    }
+
+    /**
+     * Gets the batch collecting the timer changes of the current transaction, if writes are batched and a transaction
+     * is active.
+     *
+     * @return the batch of the current transaction, or {@code null} if the change has to be written right away
+     */
+    private TransactionBatch transactionBatch() {
+        final TimerWriteBatcher<TimerImpl> writeBatcher = this.writeBatcher;
+        if (writeBatcher == null || isBeforeCompletion()) {
+            return null;
+        }
+        final TransactionSynchronizationRegistry registry = transactionSynchronizationRegistry.getValue();
+        if (registry.getTransactionStatus() != Status.STATUS_ACTIVE) {
+            return null;
+        }
+        TransactionBatch batch = (TransactionBatch) registry.getResource(transactionBatchKey);
+        if (batch == null) {
+            batch = new TransactionBatch(writeBatcher);
+            registry.registerInterposedSynchronization(batch);
+            registry.putResource(transactionBatchKey, batch);
+        }
+        return batch;
+    }
+
+    private static boolean isBeforeCompletion() {
+        final CurrentSynchronizationCallback.CallbackType type = CurrentSynchronizationCallback.get();
+        if (type != null) {
+            return type == CurrentSynchronizationCallback.CallbackType.BEFORE_COMPLETION;
+        }
+        return false;
+    }
+
+    /**
+     * Writes the timers created and removed within a transaction with JDBC batches, on a connection enlisted in that
+     * transaction.
+     */
+    private void writeChanges(final Collection<TimerImpl> created, final Collection<TimerImpl> removed) throws SQLException {
+        Connection connection = null;
+        PreparedStatement statement = null;
+        try {
+            connection = dataSource.getConnection();
+            final long now = System.currentTimeMillis();
+            if (!created.isEmpty()) {
+                statement = connection.prepareStatement(sql(CREATE_TIMER));
+                for (TimerImpl timer : created) {
+                    statementParameters(timer, statement);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                if (incrementalRefresh) {
+                    safeClose(statement);
+                    statement = connection.prepareStatement(sql(TOUCH_TIMER));
+                    for (TimerImpl timer : created) {
+                        touchParameters(timer, now, statement);
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                }
+                safeClose(statement);
+                statement = null;
+            }
+            if (!removed.isEmpty()) {
+                statement = connection.prepareStatement(sql(incrementalRefresh ? CANCEL_TIMER : DELETE_TIMER));
+                for (TimerImpl timer : removed) {
+                    if (incrementalRefresh) {
+                        cancelParameters(timer, now, statement);
+                    } else {
+                        deleteParameters(timer, statement);
+                    }
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        } finally {
+            safeClose(statement);
+            safeClose(connection);
+        }
+    }
+
+    /**
+     * Writes a batch of timer state updates in a transaction of its own. If the batch fails, the timers are written
+     * one by one so that a single failing timer does not prevent the others from being written.
+     */
+    private void writeUpdates(final List<TimerImpl> timers) {
+        final ContextTransactionManager tm = ContextTransactionManager.getInstance();
+        Connection connection = null;
+        PreparedStatement statement = null;
+        try {
+            tm.begin();
+            try {
+                connection = dataSource.getConnection();
+                statement = connection.prepareStatement(sql(UPDATE_TIMER));
+                for (TimerImpl timer : timers) {
+                    updateParameters(timer, statement);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            } catch (SQLException | RuntimeException e) {
+                tm.setRollbackOnly();
+                throw e;
+            } finally {
+                safeClose(statement);
+                safeClose(connection);
+                if (tm.getStatus() == Status.STATUS_MARKED_ROLLBACK) {
+                    tm.rollback();
+                } else {
+                    tm.commit();
+                }
+            }
+        } catch (Exception e) {
+            if (timers.size() == 1) {
+                EjbLogger.EJB3_TIMER_LOGGER.exceptionPersistTimerState(timers.get(0), e);
+            } else {
+                for (TimerImpl timer : timers) {
+                    writeUpdates(Collections.singletonList(timer));
+                }
+            }
+        }
+    }
+
     private String serialize(final Serializable serializable) {
         if (serializable == null) {
             return null;
@@ -745,10 +1045,46 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
         return moduleLoader;
     }
 
-    public InjectedValue<Timer> getTimerInjectedValue() {
+    public InjectedValue<TimeoutScheduler> getTimerInjectedValue() {
         return timerInjectedValue;
     }
 
+    public InjectedValue<TransactionSynchronizationRegistry> getTransactionSynchronizationRegistry() {
+        return transactionSynchronizationRegistry;
+    }
+
+    /**
+     * @return the number of JDBC batches written since the store was started, or 0 if writes are not batched
+     */
+    public long getWriteBatchCount() {
+        final TimerWriteBatcher<TimerImpl> writeBatcher = this.writeBatcher;
+        return writeBatcher == null ? 0 : writeBatcher.getBatchCount();
+    }
+
+    /**
+     * @return the number of timer changes written in JDBC batches since the store was started
+     */
+    public long getWriteBatchTimerCount() {
+        final TimerWriteBatcher<TimerImpl> writeBatcher = this.writeBatcher;
+        return writeBatcher == null ? 0 : writeBatcher.getBatchedCount();
+    }
+
+    /**
+     * @return the number of timer changes of the largest JDBC batch written since the store was started
+     */
+    public int getWriteBatchMaxSize() {
+        final TimerWriteBatcher<TimerImpl> writeBatcher = this.writeBatcher;
+        return writeBatcher == null ? 0 : writeBatcher.getMaxBatchSize();
+    }
+
+    /**
+     * @return the sum in nanoseconds, over all JDBC batches, of the time between the first change of a batch being queued and the batch being written
+     */
+    public long getWriteBatchLatency() {
+        final TimerWriteBatcher<TimerImpl> writeBatcher = this.writeBatcher;
+        return writeBatcher == null ? 0 : writeBatcher.getLatency();
+    }
+
     private static void safeClose(final Closeable resource) {
         try {
             if (resource != null) {
@@ -789,7 +1125,29 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
         }
     }
 
-    private class RefreshTask extends TimerTask {
+    /**
+     * Deletes the tombstones of cancelled and expired timers that are older than the given time.
+     */
+    private void deleteTombstones(final long before) {
+        Connection connection = null;
+        PreparedStatement statement = null;
+        try {
+            connection = dataSource.getConnection();
+            statement = connection.prepareStatement(sql(DELETE_CANCELLED_TIMERS));
+            statement.setString(1, partition);
+            statement.setLong(2, before);
+            statement.setString(3, TimerState.CANCELED.name());
+            statement.setString(4, TimerState.EXPIRED.name());
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            EjbLogger.EJB3_TIMER_LOGGER.debugf(e, "Failed to delete the tombstones of partition %s", partition);
+        } finally {
+            safeClose(statement);
+            safeClose(connection);
+        }
+    }
+
+    private class RefreshTask implements Runnable {
 
         private volatile AtomicBoolean running = new AtomicBoolean();
 
@@ -797,70 +1155,237 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
         public void run() {
             if (running.compareAndSet(false, true)) {
                 try {
-                    Set<String> timedObjects;
-                    synchronized (DatabaseTimerPersistence.this) {
-                        timedObjects = new HashSet<>(knownTimerIds.keySet());
+                    final long now = System.currentTimeMillis();
+                    if (incrementalRefresh && now - lastFullRefresh < FULL_REFRESH_INTERVAL) {
+                        if (refreshChanged(lastRefresh - INCREMENTAL_REFRESH_OVERLAP)) {
+                            lastRefresh = now;
+                        }
+                    } else {
+                        if (incrementalRefresh) {
+                            deleteTombstones(now - FULL_REFRESH_INTERVAL);
+                        }
+                        refreshAll();
+                        lastRefresh = lastFullRefresh = now;
                     }
-                    for (String timedObjectId : timedObjects) {
-                        TimerChangeListener listener = changeListeners.get(timedObjectId);
-                        if (listener == null) {
+                } finally {
+                    running.set(false);
+                }
+            }
+
+        }
+
+        /**
+         * Reloads all timers of every known timed object, one query per timed object.
+         */
+        private void refreshAll() {
+            Set<String> timedObjects;
+            synchronized (DatabaseTimerPersistence.this) {
+                timedObjects = new HashSet<>(knownTimerIds.keySet());
+            }
+            for (String timedObjectId : timedObjects) {
+                TimerChangeListener listener = changeListeners.get(timedObjectId);
+                if (listener == null) {
+                    continue;
+                }
+                final Set<String> existing;
+                synchronized (DatabaseTimerPersistence.this) {
+                    existing = new HashSet<>(knownTimerIds.get(timedObjectId));
+                }
+                String loadTimer = sql(LOAD_ALL_TIMERS);
+                Connection connection = null;
+                PreparedStatement statement = null;
+                ResultSet resultSet = null;
+                try {
+                    connection = dataSource.getConnection();
+                    statement = connection.prepareStatement(loadTimer);
+                    statement.setString(1, timedObjectId);
+                    statement.setString(2, partition);
+                    resultSet = statement.executeQuery();
+                    while (resultSet.next()) {
+                        if (isTombstone(resultSet.getString(9))) {
                             continue;
                         }
-                        final Set<String> existing;
-                        synchronized (DatabaseTimerPersistence.this) {
-                            existing = new HashSet<>(knownTimerIds.get(timedObjectId));
-                        }
-                        String loadTimer = sql(LOAD_ALL_TIMERS);
-                        Connection connection = null;
-                        PreparedStatement statement = null;
-                        ResultSet resultSet = null;
                         try {
-                            connection = dataSource.getConnection();
-                            statement = connection.prepareStatement(loadTimer);
-                            statement.setString(1, timedObjectId);
-                            statement.setString(2, partition);
-                            resultSet = statement.executeQuery();
-                            while (resultSet.next()) {
-                                try {
-                                    String id = resultSet.getString(1);
-                                    if (!existing.remove(id)) {
-                                        synchronized (DatabaseTimerPersistence.this) {
-                                            knownTimerIds.get(timedObjectId).add(id);
-                                        }
-                                        final Holder holder = timerFromResult(resultSet, listener.getTimerService());
-                                        if(holder != null) {
-                                            listener.timerAdded(holder.timer);
-                                        }
-                                    }
-                                } catch (Exception e) {
-                                    EjbLogger.EJB3_TIMER_LOGGER.timerReinstatementFailed(resultSet.getString(2), resultSet.getString(1), e);
+                            String id = resultSet.getString(1);
+                            if (!existing.remove(id)) {
+                                synchronized (DatabaseTimerPersistence.this) {
+                                    knownTimerIds.get(timedObjectId).add(id);
                                 }
-                            }
-
-                            synchronized (DatabaseTimerPersistence.this) {
-                                Set<String> timers = knownTimerIds.get(timedObjectId);
-                                for (String timer : existing) {
-                                    timers.remove(timer);
-                                    listener.timerRemoved(timer);
+                                final Holder holder = timerFromResult(resultSet, listener.getTimerService());
+                                if(holder != null) {
+                                    listener.timerAdded(holder.timer);
                                 }
                             }
-                        } catch (SQLException e) {
-                            EjbLogger.EJB3_TIMER_LOGGER.failedToRefreshTimers(timedObjectId);
-                        } finally {
-                            safeClose(resultSet);
-                            safeClose(statement);
-                            safeClose(connection);
+                        } catch (Exception e) {
+                            EjbLogger.EJB3_TIMER_LOGGER.timerReinstatementFailed(resultSet.getString(2), resultSet.getString(1), e);
+                        }
+                    }
+
+                    synchronized (DatabaseTimerPersistence.this) {
+                        Set<String> timers = knownTimerIds.get(timedObjectId);
+                        for (String timer : existing) {
+                            timers.remove(timer);
+                            listener.timerRemoved(timer);
                         }
                     }
+                } catch (SQLException e) {
+                    EjbLogger.EJB3_TIMER_LOGGER.failedToRefreshTimers(timedObjectId);
                 } finally {
-                    running.set(false);
+                    safeClose(resultSet);
+                    safeClose(statement);
+                    safeClose(connection);
+                }
+            }
+        }
+
+        /**
+         * Loads the timers of the partition that were stamped after the given time with a single query, and applies
+         * the additions and removals per timed object.
+         *
+         * @return {@code true} if the changes were read, {@code false} if the refresh should be retried from the same point
+         */
+        private boolean refreshChanged(final long since) {
+            final Map<String, Map<String, Holder>> added = new HashMap<>();
+            final Map<String, List<String>> removed = new HashMap<>();
+            final Map<String, Set<String>> existing = new HashMap<>();
+            Connection connection = null;
+            PreparedStatement statement = null;
+            ResultSet resultSet = null;
+            try {
+                connection = dataSource.getConnection();
+                statement = connection.prepareStatement(sql(LOAD_CHANGED_TIMERS));
+                statement.setString(1, partition);
+                statement.setLong(2, since);
+                resultSet = statement.executeQuery();
+                while (resultSet.next()) {
+                    final String timedObjectId = resultSet.getString(2);
+                    final TimerChangeListener listener = changeListeners.get(timedObjectId);
+                    if (listener == null) {
+                        continue;
+                    }
+                    Set<String> known = existing.get(timedObjectId);
+                    if (known == null) {
+                        synchronized (DatabaseTimerPersistence.this) {
+                            final Set<String> ids = knownTimerIds.get(timedObjectId);
+                            if (ids == null) {
+                                continue;
+                            }
+                            known = new HashSet<>(ids);
+                        }
+                        existing.put(timedObjectId, known);
+                    }
+                    final String id = resultSet.getString(1);
+                    if (isTombstone(resultSet.getString(9))) {
+                        if (known.remove(id)) {
+                            removed.computeIfAbsent(timedObjectId, key -> new ArrayList<>()).add(id);
+                        }
+                    } else if (known.add(id)) {
+                        // like the full refresh, a timer that cannot be reinstated is still known, so it is not retried
+                        final Map<String, Holder> timers = added.computeIfAbsent(timedObjectId, key -> new LinkedHashMap<>());
+                        timers.put(id, null);
+                        try {
+                            timers.put(id, timerFromResult(resultSet, listener.getTimerService()));
+                        } catch (Exception e) {
+                            EjbLogger.EJB3_TIMER_LOGGER.timerReinstatementFailed(timedObjectId, id, e);
+                        }
+                    }
                 }
+            } catch (SQLException e) {
+                EjbLogger.EJB3_TIMER_LOGGER.failedToRefreshChangedTimers(partition, e);
+                return false;
+            } finally {
+                safeClose(resultSet);
+                safeClose(statement);
+                safeClose(connection);
             }
 
+            for (String timedObjectId : existing.keySet()) {
+                final TimerChangeListener listener = changeListeners.get(timedObjectId);
+                final Map<String, Holder> addedTimers = added.getOrDefault(timedObjectId, Collections.emptyMap());
+                final List<String> removedTimers = removed.getOrDefault(timedObjectId, Collections.emptyList());
+                if (listener == null || (addedTimers.isEmpty() && removedTimers.isEmpty())) {
+                    continue;
+                }
+                final List<Holder> newTimers = new ArrayList<>(addedTimers.size());
+                synchronized (DatabaseTimerPersistence.this) {
+                    final Set<String> timers = knownTimerIds.get(timedObjectId);
+                    if (timers == null) {
+                        continue;
+                    }
+                    // the known timers may have changed locally since they were read, so only apply what is still new
+                    for (Map.Entry<String, Holder> timer : addedTimers.entrySet()) {
+                        if (timers.add(timer.getKey()) && timer.getValue() != null) {
+                            newTimers.add(timer.getValue());
+                        }
+                    }
+                    for (String timer : removedTimers) {
+                        if (timers.remove(timer)) {
+                            listener.timerRemoved(timer);
+                        }
+                    }
+                }
+                for (Holder holder : newTimers) {
+                    listener.timerAdded(holder.timer);
+                }
+            }
+            return true;
         }
     }
 
 
+    /**
+     * Collects the timer changes of a transaction. Created and removed timers are written with JDBC batches before the
+     * transaction completes, state updates are handed to the write-behind batcher once it committed.
+     */
+    private final class TransactionBatch implements Synchronization {
+
+        private final TimerWriteBatcher<TimerImpl> writeBatcher;
+        private final long since = System.nanoTime();
+        private final Map<String, TimerImpl> created = new LinkedHashMap<>();
+        private final Map<String, TimerImpl> updated = new LinkedHashMap<>();
+        private final Map<String, TimerImpl> removed = new LinkedHashMap<>();
+
+        TransactionBatch(final TimerWriteBatcher<TimerImpl> writeBatcher) {
+            this.writeBatcher = writeBatcher;
+        }
+
+        synchronized void create(final TimerImpl timer) {
+            created.put(timer.getId(), timer);
+        }
+
+        synchronized void update(final TimerImpl timer) {
+            // a timer created in this transaction is inserted with its latest state
+            if (!created.containsKey(timer.getId())) {
+                updated.put(timer.getId(), timer);
+            }
+        }
+
+        synchronized void remove(final TimerImpl timer) {
+            updated.remove(timer.getId());
+            removed.put(timer.getId(), timer);
+        }
+
+        @Override
+        public synchronized void beforeCompletion() {
+            if (created.isEmpty() && removed.isEmpty()) {
+                return;
+            }
+            try {
+                writeChanges(created.values(), removed.values());
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+            writeBatcher.record(created.size() + removed.size(), since);
+        }
+
+        @Override
+        public synchronized void afterCompletion(final int status) {
+            if (status == Status.STATUS_COMMITTED) {
+                writeBatcher.addAll(updated.values());
+            }
+        }
+    }
+
     static final class Holder {
         final TimerImpl timer;
         final boolean requiresReset;
@@ -0,0 +1,261 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.persistence.database;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Write-behind stage for the timer state updates of the database timer store. Updates are coalesced per key, so only
+ * the latest value of each key is written, and are handed to the writer as one batch once the batch window elapsed
+ * or the batch is full. Batches are written one at a time, in the order they were filled.
+ * <p>
+ * The batcher also keeps the statistics of the batches written by the store, including the ones that are written
+ * within a transaction and are only {@link #record(int, long) recorded} here.
+ *
+ * @param <T> the type of the batched values
+ */
+final class TimerWriteBatcher<T> implements Closeable {
+
+    /**
+     * Writes a batch of values. Failures are expected to be handled by the writer.
+     */
+    interface Writer<T> {
+        void write(List<T> batch);
+    }
+
+    private final Function<T, String> key;
+    private final Writer<T> writer;
+    private final long window;
+    private final int maxBatchSize;
+    private final ScheduledExecutorService executor;
+
+    // guarded by this
+    private Map<String, T> pending = new LinkedHashMap<>();
+    // the batch taken out of pending that is being written
+    private Map<String, T> writing = Collections.emptyMap();
+    private long pendingSince;
+    private boolean flushScheduled;
+    private boolean closed;
+
+    private final LongAdder batchCount = new LongAdder();
+    private final LongAdder batchedCount = new LongAdder();
+    private final LongAdder latency = new LongAdder();
+    private final LongAccumulator maxSize = new LongAccumulator(Math::max, 0);
+
+    /**
+     * @param key the function returning the key on which values are coalesced
+     * @param writer the writer of the batches
+     * @param window the time in millis a value may wait for other values before its batch is written
+     * @param maxBatchSize the number of pending values at which a batch is written without waiting for the window
+     * @param threadFactory the factory of the thread writing the batches
+     */
+    TimerWriteBatcher(final Function<T, String> key, final Writer<T> writer, final long window, final int maxBatchSize, final ThreadFactory threadFactory) {
+        this.key = key;
+        this.writer = writer;
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+        this.executor = Executors.newSingleThreadScheduledExecutor(threadFactory);
+    }
+
+    void add(final T value) {
+        addAll(Collections.singletonList(value));
+    }
+
+    void addAll(final Collection<? extends T> values) {
+        if (values.isEmpty()) {
+            return;
+        }
+        final boolean full;
+        synchronized (this) {
+            if (closed) {
+                // the writer thread is gone, write in the caller
+                final long start = System.nanoTime();
+                final List<T> batch = new ArrayList<>(values);
+                writer.write(batch);
+                record(batch.size(), start);
+                return;
+            }
+            if (pending.isEmpty()) {
+                pendingSince = System.nanoTime();
+            }
+            for (T value : values) {
+                pending.put(key.apply(value), value);
+            }
+            full = pending.size() >= maxBatchSize;
+            if (!full && flushScheduled) {
+                return;
+            }
+            flushScheduled = true;
+        }
+        if (full) {
+            executor.execute(this::writePending);
+        } else {
+            executor.schedule(this::writePending, window, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Writes the pending batch and waits for it to be written, if it or the batch being written contains a value for
+     * the given key. As batches are written one at a time, waiting for the pending batch also waits for the batch
+     * being written.
+     */
+    void flush(final String key) {
+        synchronized (this) {
+            if (closed || !(pending.containsKey(key) || writing.containsKey(key))) {
+                return;
+            }
+        }
+        await(executor.submit(this::writePending));
+    }
+
+    /**
+     * Writes the pending batch and waits for it to be written.
+     */
+    void flush() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+        }
+        await(executor.submit(this::writePending));
+    }
+
+    /**
+     * Records a batch written outside of this batcher.
+     *
+     * @param size the number of values in the batch
+     * @param since the {@link System#nanoTime()} at which the first value of the batch was queued
+     */
+    void record(final int size, final long since) {
+        batchCount.increment();
+        batchedCount.add(size);
+        latency.add(System.nanoTime() - since);
+        maxSize.accumulate(size);
+    }
+
+    /**
+     * @return the number of batches written
+     */
+    long getBatchCount() {
+        return batchCount.sum();
+    }
+
+    /**
+     * @return the number of values written in all batches
+     */
+    long getBatchedCount() {
+        return batchedCount.sum();
+    }
+
+    /**
+     * @return the size of the largest batch written
+     */
+    int getMaxBatchSize() {
+        return (int) maxSize.get();
+    }
+
+    /**
+     * @return the sum in nanoseconds, over all batches, of the time between the first value of a batch being queued and the batch being written
+     */
+    long getLatency() {
+        return latency.sum();
+    }
+
+    @Override
+    public void close() {
+        final Future<?> future;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            future = executor.submit(this::writePending);
+            closed = true;
+        }
+        try {
+            await(future);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private void writePending() {
+        final List<T> batch;
+        final long since;
+        synchronized (this) {
+            flushScheduled = false;
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = new ArrayList<>(pending.values());
+            since = pendingSince;
+            writing = pending;
+            pending = new LinkedHashMap<>();
+        }
+        try {
+            writer.write(batch);
+            record(batch.size(), since);
+        } finally {
+            synchronized (this) {
+                writing = Collections.emptyMap();
+            }
+        }
+    }
+
+    private static void await(final Future<?> future) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    future.get();
+                    return;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    final Throwable cause = e.getCause();
+                    if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    }
+                    throw new IllegalStateException(cause);
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -38,6 +38,7 @@ import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.InjectedValue;
 import org.jboss.staxmapper.XMLExtendedStreamWriter;
 import org.jboss.staxmapper.XMLMapper;
+import org.jboss.threads.JBossThreadFactory;
 import org.wildfly.security.manager.WildFlySecurityManager;
 
 import javax.transaction.Status;
@@ -50,21 +51,29 @@ import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLOutputFactory;
 import javax.xml.stream.XMLStreamReader;
 import javax.xml.stream.XMLStreamWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.FilePermission;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.lang.reflect.Constructor;
 import java.security.PrivilegedAction;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -74,6 +83,10 @@ import static org.jboss.as.ejb3.logging.EjbLogger.EJB3_TIMER_LOGGER;
 /**
  * File based persistent timer store.
  * <p/>
+ * By default each timer is stored in its own XML file. If the journal is enabled, timers are instead stored in a
+ * {@link TimerJournal}, and the changes made to timers within a transaction are written and flushed together once it
+ * commits. Timers found in XML files are imported into the journal when they are first loaded.
+ * <p/>
  * TODO: this is fairly hackey at the moment, it should be registered as an XA resource to support proper XA semantics
  *
  * @author Stuart Douglas
@@ -82,8 +95,16 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
 
     private static final FilePermission FILE_PERMISSION = new FilePermission("<<ALL FILES>>", "read,write,delete");
     private static final XMLInputFactory INPUT_FACTORY = XMLInputFactory.newInstance();
+    private static final String JOURNAL_DIRECTORY = "journal";
+    private static final ThreadFactory JOURNAL_THREAD_FACTORY = doPrivileged(new PrivilegedAction<JBossThreadFactory>() {
+        @Override
+        public JBossThreadFactory run() {
+            return new JBossThreadFactory(new ThreadGroup(TimerJournal.class.getSimpleName()), Boolean.TRUE, null, "%G - %t", null, null);
+        }
+    });
 
     private final boolean createIfNotExists;
+    private final boolean journal;
     private MarshallerFactory factory;
     private MarshallingConfiguration configuration;
     private final InjectedValue<TransactionManager> transactionManager = new InjectedValue<TransactionManager>();
@@ -94,11 +115,18 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
     private final String pathRelativeTo;
     private File baseDir;
     private PathManager.Callback.Handle callbackHandle;
+    private volatile TimerJournal timerJournal;
+    private ExecutorService journalExecutor;
+    private String journalTransactionKey;
 
     private final ConcurrentMap<String, Lock> locks = new ConcurrentHashMap<String, Lock>();
     private final ConcurrentMap<String, String> directories = new ConcurrentHashMap<String, String>();
 
     public FileTimerPersistence(final boolean createIfNotExists, final String path, final String pathRelativeTo) {
+        this(createIfNotExists, path, pathRelativeTo, false);
+    }
+
+    public FileTimerPersistence(final boolean createIfNotExists, final String path, final String pathRelativeTo, final boolean journal) {
         final SecurityManager sm = System.getSecurityManager();
         if (sm != null) {
             sm.checkPermission(FILE_PERMISSION);
@@ -106,6 +134,7 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
         this.createIfNotExists = createIfNotExists;
         this.path = path;
         this.pathRelativeTo = pathRelativeTo;
+        this.journal = journal;
     }
 
     @Override
@@ -146,10 +175,21 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
         if (!baseDir.isDirectory()) {
             throw EJB3_TIMER_LOGGER.invalidTimerFileStoreDir(baseDir);
         }
+        if (journal) {
+            journalExecutor = Executors.newSingleThreadExecutor(JOURNAL_THREAD_FACTORY);
+            timerJournal = new TimerJournal(new File(baseDir, JOURNAL_DIRECTORY), TimerJournal.DEFAULT_SEGMENT_SIZE, journalExecutor);
+            journalTransactionKey = "org.jboss.as.ejb3.timerJournalKey." + baseDir.getAbsolutePath();
+        }
     }
 
     @Override
     public void stop(final StopContext context) {
+        if (timerJournal != null) {
+            timerJournal.close();
+            timerJournal = null;
+            journalExecutor.shutdown();
+            journalExecutor = null;
+        }
         locks.clear();
         directories.clear();
         if (callbackHandle != null) {
@@ -200,6 +240,10 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
     }
 
     private void persistTimer(final TimerImpl timer, boolean newTimer) {
+        if (timerJournal != null) {
+            persistTimerInJournal(timer, newTimer);
+            return;
+        }
         final Lock lock = getLock(timer.getTimedObjectId());
         try {
             final int status = transactionManager.getValue().getStatus();
@@ -242,6 +286,53 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
         }
     }
 
+    private void persistTimerInJournal(final TimerImpl timer, final boolean newTimer) {
+        try {
+            final int status = transactionManager.getValue().getStatus();
+            if (status == Status.STATUS_MARKED_ROLLBACK || status == Status.STATUS_ROLLEDBACK ||
+                    status == Status.STATUS_ROLLING_BACK) {
+                //no need to persist anyway
+                return;
+            }
+            if (status == Status.STATUS_NO_TRANSACTION ||
+                    status == Status.STATUS_UNKNOWN || isBeforeCompletion()
+                    || status == Status.STATUS_COMMITTED) {
+                final TimerJournal journal = timerJournal;
+                journal.sync(journal.append(Collections.singletonList(journalRecord(timer, newTimer))));
+            } else {
+                final TransactionSynchronizationRegistry registry = transactionSynchronizationRegistry.getValue();
+                //all the timers changed in the transaction are written together when it completes
+                JournalTransactionSynchronization synchronization = (JournalTransactionSynchronization) registry.getResource(journalTransactionKey);
+                if (synchronization == null) {
+                    synchronization = new JournalTransactionSynchronization();
+                    registry.registerInterposedSynchronization(synchronization);
+                    registry.putResource(journalTransactionKey, synchronization);
+                }
+                final String key = timerTransactionKey(timer);
+                synchronization.add(key, newTimer);
+                //update the most recent version of the timer to be persisted
+                registry.putResource(key, timer);
+            }
+        } catch (SystemException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private TimerJournal.Record journalRecord(final TimerImpl timer, final boolean newTimer) {
+        if (timer.getState() == TimerState.CANCELED ||
+                timer.getState() == TimerState.EXPIRED) {
+            return TimerJournal.Record.remove(timer.getTimedObjectId(), timer.getId());
+        }
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            writeTimer(timer, out);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+        return newTimer ? TimerJournal.Record.create(timer.getTimedObjectId(), timer.getId(), out.toByteArray()) :
+                TimerJournal.Record.update(timer.getTimedObjectId(), timer.getId(), out.toByteArray());
+    }
+
     private String timerTransactionKey(final TimerImpl TimerImpl) {
         return "org.jboss.as.ejb3.timerTransactionKey." + TimerImpl.getId();
     }
@@ -272,6 +363,9 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
         final Lock lock = getLock(timedObjectId);
         try {
             lock.lock();
+            if (timerJournal != null) {
+                return loadTimersFromJournal(timedObjectId, timerService);
+            }
             final Map<String, TimerImpl> timers = getTimers(timedObjectId, timerService);
 
             final List<TimerImpl> entities = new ArrayList<TimerImpl>();
@@ -284,6 +378,53 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
         }
     }
 
+    private List<TimerImpl> loadTimersFromJournal(final String timedObjectId, final TimerServiceImpl timerService) {
+        final TimerJournal journal = timerJournal;
+        importTimers(journal, timedObjectId, timerService);
+        final XMLMapper mapper = createMapper(timerService);
+        final List<TimerImpl> entities = new ArrayList<TimerImpl>();
+        for (byte[] payload : journal.read(timedObjectId)) {
+            try {
+                for (TimerImpl timer : readTimers(mapper, new ByteArrayInputStream(payload))) {
+                    entities.add(mostRecentEntityVersion(timer));
+                }
+            } catch (Exception e) {
+                EJB3_TIMER_LOGGER.failToRestoreTimersFromFile(new File(baseDir, JOURNAL_DIRECTORY), e);
+            }
+        }
+        return entities;
+    }
+
+    /**
+     * Moves the timers stored in the XML (or legacy) files of the timed object into the journal. Should be called under lock
+     */
+    private void importTimers(final TimerJournal journal, final String timedObjectId, final TimerServiceImpl timerService) {
+        final File directory = new File(baseDir, timedObjectId.replace(File.separator, "-"));
+        if (!directory.isDirectory()) {
+            return;
+        }
+        final Map<String, TimerImpl> timers = loadTimersFromFile(timedObjectId, timerService);
+        if (timers.isEmpty()) {
+            return;
+        }
+        final List<TimerJournal.Record> records = new ArrayList<>(timers.size());
+        for (TimerImpl timer : timers.values()) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try {
+                writeTimer(timer, out);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+            //timers already in the journal are more recent than their XML files
+            records.add(TimerJournal.Record.importTimer(timedObjectId, timer.getId(), out.toByteArray()));
+        }
+        journal.sync(journal.append(records));
+        for (TimerImpl timer : timers.values()) {
+            fileName(timedObjectId, timer.getId()).delete();
+        }
+        EJB3_TIMER_LOGGER.importedTimersIntoJournal(timers.size(), timedObjectId, directory);
+    }
+
     @Override
     public Closeable registerChangeListener(String timedObjectId, TimerChangeListener listener) {
         return new Closeable() {
@@ -362,14 +503,8 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
 
             try {
                 in = new FileInputStream(timerFile);
-                final XMLInputFactory inputFactory = INPUT_FACTORY;
-                setIfSupported(inputFactory, XMLInputFactory.IS_VALIDATING, Boolean.FALSE);
-                setIfSupported(inputFactory, XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
-                final XMLStreamReader streamReader = inputFactory.createXMLStreamReader(in);
                 try {
-                    List<TimerImpl> timerList = new ArrayList<>();
-                    mapper.parseDocument(timerList, streamReader);
-                    for (TimerImpl timer : timerList) {
+                    for (TimerImpl timer : readTimers(mapper, in)) {
                         if (timer.getId().equals("deleted-timer")) {
                             timerFile.delete();
                             break;
@@ -395,6 +530,16 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
         return timers;
     }
 
+    private List<TimerImpl> readTimers(final XMLMapper mapper, final InputStream in) throws Exception {
+        final XMLInputFactory inputFactory = INPUT_FACTORY;
+        setIfSupported(inputFactory, XMLInputFactory.IS_VALIDATING, Boolean.FALSE);
+        setIfSupported(inputFactory, XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        final XMLStreamReader streamReader = inputFactory.createXMLStreamReader(in);
+        final List<TimerImpl> timerList = new ArrayList<>();
+        mapper.parseDocument(timerList, streamReader);
+        return timerList;
+    }
+
     private XMLMapper createMapper(TimerServiceImpl timerService) {
         final XMLMapper mapper = XMLMapper.Factory.create();
         mapper.registerRootElement(new QName(EjbTimerXmlParser_1_0.NAMESPACE, EjbTimerXmlPersister.TIMERS), new EjbTimerXmlParser_1_0(timerService, factory, configuration, timerService.getTimedObjectInvoker().getValue().getClassLoader()));
@@ -483,6 +628,51 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
 
     }
 
+    private final class JournalTransactionSynchronization implements Synchronization {
+
+        // timer transaction key -> whether the timer was created within the transaction
+        private final Map<String, Boolean> transactionKeys = new LinkedHashMap<String, Boolean>();
+        private final List<TimerImpl> timers = new ArrayList<TimerImpl>();
+        private final List<Boolean> newTimers = new ArrayList<Boolean>();
+
+        synchronized void add(final String transactionKey, final boolean newTimer) {
+            transactionKeys.merge(transactionKey, newTimer, Boolean::logicalOr);
+        }
+
+        @Override
+        public synchronized void beforeCompletion() {
+            //get the latest version of each entity
+            for (Map.Entry<String, Boolean> entry : transactionKeys.entrySet()) {
+                final TimerImpl timer = (TimerImpl) transactionSynchronizationRegistry.getValue().getResource(entry.getKey());
+                if (timer != null) {
+                    timers.add(timer);
+                    newTimers.add(entry.getValue());
+                }
+            }
+        }
+
+        @Override
+        public synchronized void afterCompletion(final int status) {
+            if (status != Status.STATUS_COMMITTED || timers.isEmpty()) {
+                return;
+            }
+            doPrivileged(new PrivilegedAction<Void>() {
+                public Void run() {
+                    final TimerJournal journal = timerJournal;
+                    if (journal == null) {
+                        return null;
+                    }
+                    final List<TimerJournal.Record> records = new ArrayList<TimerJournal.Record>(timers.size());
+                    for (int i = 0; i < timers.size(); ++i) {
+                        records.add(journalRecord(timers.get(i), newTimers.get(i)));
+                    }
+                    journal.sync(journal.append(records));
+                    return null;
+                }
+            });
+        }
+    }
+
     private void writeFile(TimerImpl timer) {
         final File file = fileName(timer.getTimedObjectId(), timer.getId());
 
@@ -498,11 +688,7 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
             FileOutputStream out = new FileOutputStream(file);
 
             try {
-                XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(out);
-                XMLMapper mapper = createMapper(timer.getTimerService());
-                mapper.deparseDocument(new EjbTimerXmlPersister(factory, configuration), Collections.singletonList(timer), writer);
-                writer.flush();
-                writer.close();
+                writeTimer(timer, out);
             } finally {
                 safeClose(out);
             }
@@ -511,6 +697,14 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
         }
     }
 
+    private void writeTimer(final TimerImpl timer, final OutputStream out) throws Exception {
+        XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(out);
+        XMLMapper mapper = createMapper(timer.getTimerService());
+        mapper.deparseDocument(new EjbTimerXmlPersister(factory, configuration), Collections.singletonList(timer), writer);
+        writer.flush();
+        writer.close();
+    }
+
     public InjectedValue<TransactionManager> getTransactionManager() {
         return transactionManager;
     }
@@ -0,0 +1,511 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.persistence.filestore;
+
+import static org.jboss.as.ejb3.logging.EjbLogger.EJB3_TIMER_LOGGER;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.zip.CRC32;
+
+/**
+ * Segmented, memory mapped, append-only journal of timer records.
+ * <p/>
+ * Each record either stores the serialized state of a timer or removes it. Records are appended to the current segment
+ * and only the location of the most recent record of each live timer is kept in memory, so replaying the journal on
+ * startup only needs to scan the segments, without deserializing any timer.
+ * <p/>
+ * {@link #append(List)} makes records visible immediately, while {@link #sync(long)} makes them durable. Concurrent
+ * callers of {@link #sync(long)} share a single flush of the current segment (group commit).
+ * <p/>
+ * Once the segments hold more dead records than live ones, the oldest segment is compacted in the background: its live
+ * records are copied to the head of the journal, after which the segment is deleted. Since segments are only ever
+ * deleted in order, removal records can be dropped along with the oldest segment without resurrecting any timer.
+ */
+final class TimerJournal implements Closeable {
+
+    static final int DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final int MAGIC = 0x454a544a;
+    private static final int VERSION = 1;
+    // Segment header: magic, version
+    private static final int SEGMENT_HEADER_SIZE = 8;
+    // Record header: body length, body checksum
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final byte PUT = 1;
+    private static final byte REMOVE = 2;
+
+    private final File directory;
+    private final int segmentSize;
+    private final Executor compactionExecutor;
+    private final LinkedList<Segment> segments = new LinkedList<>();
+    private final Map<String, Map<String, Location>> index = new HashMap<>();
+    private final Object syncLock = new Object();
+    private Segment current;
+    private long nextSequence;
+    // Total number of bytes appended since the journal was opened
+    private long appended;
+    private volatile long synced;
+    private boolean compacting;
+    private boolean closed;
+
+    TimerJournal(File directory, int segmentSize, Executor compactionExecutor) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.compactionExecutor = compactionExecutor;
+        try {
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IOException(directory.getAbsolutePath());
+            }
+            this.replay();
+        } catch (IOException e) {
+            throw EJB3_TIMER_LOGGER.failToOpenTimerJournal(directory, e);
+        }
+    }
+
+    /**
+     * Returns the serialized state of the live timers of the specified timed object.
+     */
+    synchronized List<byte[]> read(String timedObjectId) {
+        final Map<String, Location> locations = this.index.get(timedObjectId);
+        if (locations == null) {
+            return Collections.emptyList();
+        }
+        final List<byte[]> result = new ArrayList<>(locations.size());
+        for (Location location : locations.values()) {
+            final byte[] payload = new byte[location.payloadLength];
+            location.segment.read(location.offset + location.payloadOffset, payload);
+            result.add(payload);
+        }
+        return result;
+    }
+
+    /**
+     * Appends the specified records to the journal.
+     *
+     * @return the position to pass to {@link #sync(long)} in order to make the records durable
+     */
+    synchronized long append(List<Record> records) {
+        if (this.closed) {
+            throw new IllegalStateException();
+        }
+        try {
+            for (Record record : records) {
+                final Map<String, Location> locations = this.index.get(record.timedObjectId);
+                final boolean exists = (locations != null) && locations.containsKey(record.timerId);
+                if ((record.mode == Record.Mode.UPDATE || record.mode == Record.Mode.REMOVE) && !exists) {
+                    // Already removed, possibly by another thread
+                    continue;
+                }
+                if (record.mode == Record.Mode.IMPORT && exists) {
+                    continue;
+                }
+                final byte[] body = record.encode();
+                this.ensureCapacity(RECORD_HEADER_SIZE + body.length);
+                final CRC32 checksum = new CRC32();
+                checksum.update(body);
+                final int offset = this.current.position;
+                this.current.write(offset, body, (int) checksum.getValue());
+                this.appended += RECORD_HEADER_SIZE + body.length;
+                this.apply(record.timedObjectId, record.timerId, (record.payload != null) ? new Location(this.current, offset, RECORD_HEADER_SIZE + body.length, RECORD_HEADER_SIZE + body.length - record.payload.length) : null);
+            }
+            return this.appended;
+        } catch (IOException e) {
+            throw EJB3_TIMER_LOGGER.failToWriteTimerJournal(this.directory, e);
+        }
+    }
+
+    /**
+     * Makes all records appended up to the specified position durable.
+     */
+    void sync(long position) {
+        if (this.synced >= position) {
+            return;
+        }
+        synchronized (this.syncLock) {
+            // Another thread may have flushed our records while we were waiting
+            if (this.synced >= position) {
+                return;
+            }
+            final Segment segment;
+            final long target;
+            synchronized (this) {
+                if (this.closed) {
+                    return;
+                }
+                segment = this.current;
+                target = this.appended;
+            }
+            // Segments preceding the current one were flushed when they were sealed
+            segment.force();
+            this.synced = target;
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!this.closed) {
+            this.closed = true;
+            if (this.current != null) {
+                this.current.force();
+            }
+            this.segments.clear();
+            this.index.clear();
+            this.current = null;
+        }
+    }
+
+    private void replay() throws IOException {
+        final File[] files = this.directory.listFiles((dir, name) -> name.endsWith(SEGMENT_SUFFIX));
+        if (files == null) {
+            throw new IOException(this.directory.getAbsolutePath());
+        }
+        Arrays.sort(files);
+        boolean truncated = false;
+        for (File file : files) {
+            final long sequence;
+            try {
+                sequence = Long.parseLong(file.getName().substring(0, file.getName().length() - SEGMENT_SUFFIX.length()), 16);
+            } catch (NumberFormatException e) {
+                continue;
+            }
+            this.nextSequence = sequence + 1;
+            final Segment segment = Segment.open(file);
+            if (segment == null) {
+                EJB3_TIMER_LOGGER.timerJournalSegmentTruncated(file, 0);
+                continue;
+            }
+            this.segments.add(segment);
+            int offset = SEGMENT_HEADER_SIZE;
+            truncated = false;
+            while (offset + RECORD_HEADER_SIZE <= segment.capacity()) {
+                final int length = segment.buffer.getInt(offset);
+                if (length == 0) {
+                    break;
+                }
+                if (length < 0 || offset + RECORD_HEADER_SIZE + length > segment.capacity()) {
+                    EJB3_TIMER_LOGGER.timerJournalSegmentTruncated(file, offset);
+                    truncated = true;
+                    break;
+                }
+                final byte[] body = new byte[length];
+                segment.read(offset + RECORD_HEADER_SIZE, body);
+                final CRC32 checksum = new CRC32();
+                checksum.update(body);
+                if ((int) checksum.getValue() != segment.buffer.getInt(offset + 4)) {
+                    EJB3_TIMER_LOGGER.timerJournalSegmentTruncated(file, offset);
+                    truncated = true;
+                    break;
+                }
+                final ByteArrayInputStream bytes = new ByteArrayInputStream(body);
+                final DataInputStream input = new DataInputStream(bytes);
+                final byte type = input.readByte();
+                final String timedObjectId = input.readUTF();
+                final String timerId = input.readUTF();
+                final int payloadOffset = RECORD_HEADER_SIZE + length - bytes.available();
+                this.apply(timedObjectId, timerId, (type == PUT) ? new Location(segment, offset, RECORD_HEADER_SIZE + length, payloadOffset) : null);
+                offset += RECORD_HEADER_SIZE + length;
+            }
+            segment.position = offset;
+        }
+        if (!this.segments.isEmpty()) {
+            this.current = this.segments.getLast();
+            if (truncated) {
+                // Discard any partially written record, so that it cannot be mistaken for a valid one once overwritten
+                this.current.clear(this.current.position);
+            }
+        }
+    }
+
+    /**
+     * Points the specified timer to its new location, or removes it if the location is null.
+     */
+    private void apply(String timedObjectId, String timerId, Location location) {
+        final Location previous;
+        if (location != null) {
+            previous = this.index.computeIfAbsent(timedObjectId, key -> new HashMap<>()).put(timerId, location);
+            location.segment.live += location.size;
+        } else {
+            final Map<String, Location> locations = this.index.get(timedObjectId);
+            previous = (locations != null) ? locations.remove(timerId) : null;
+            if (locations != null && locations.isEmpty()) {
+                this.index.remove(timedObjectId);
+            }
+        }
+        if (previous != null) {
+            previous.segment.live -= previous.size;
+        }
+    }
+
+    private void ensureCapacity(int size) throws IOException {
+        if (this.current != null && this.current.position + size <= this.current.capacity()) {
+            return;
+        }
+        if (this.current != null) {
+            // Seal the current segment, so that sync() only ever needs to flush the last one
+            this.current.force();
+        }
+        final long sequence = this.nextSequence++;
+        this.current = Segment.create(new File(this.directory, String.format("%016x%s", sequence, SEGMENT_SUFFIX)), Math.max(this.segmentSize, SEGMENT_HEADER_SIZE + size));
+        this.segments.add(this.current);
+        if (!this.compacting && this.isCompactionNeeded()) {
+            this.compacting = true;
+            this.compactionExecutor.execute(this::compact);
+        }
+    }
+
+    private boolean isCompactionNeeded() {
+        if (this.segments.size() < 2) {
+            return false;
+        }
+        long used = 0;
+        long live = 0;
+        for (Segment segment : this.segments) {
+            used += segment.position - SEGMENT_HEADER_SIZE;
+            live += segment.live;
+        }
+        final long dead = used - live;
+        return (dead > live) && (dead > this.segmentSize);
+    }
+
+    private void compact() {
+        try {
+            while (true) {
+                final Segment oldest;
+                synchronized (this) {
+                    if (this.closed || !this.isCompactionNeeded()) {
+                        return;
+                    }
+                    oldest = this.segments.getFirst();
+                    for (Map<String, Location> locations : this.index.values()) {
+                        for (Map.Entry<String, Location> entry : locations.entrySet()) {
+                            final Location location = entry.getValue();
+                            if (location.segment != oldest) {
+                                continue;
+                            }
+                            final byte[] record = new byte[location.size];
+                            oldest.read(location.offset, record);
+                            this.ensureCapacity(record.length);
+                            final int offset = this.current.position;
+                            this.current.copy(offset, record);
+                            this.appended += record.length;
+                            oldest.live -= location.size;
+                            entry.setValue(new Location(this.current, offset, location.size, location.payloadOffset));
+                            this.current.live += location.size;
+                        }
+                    }
+                    // Copied records must be durable before the segment holding the originals goes away
+                    this.current.force();
+                    this.segments.removeFirst();
+                }
+                if (!oldest.file.delete()) {
+                    EJB3_TIMER_LOGGER.debugf("Could not delete compacted timer journal segment %s", oldest.file);
+                }
+            }
+        } catch (Throwable e) {
+            EJB3_TIMER_LOGGER.failToCompactTimerJournal(this.directory, e);
+        } finally {
+            synchronized (this) {
+                this.compacting = false;
+            }
+        }
+    }
+
+    /**
+     * A timer record to append to the journal.
+     */
+    static final class Record {
+
+        enum Mode {
+            /** Stores a new timer. */
+            CREATE,
+            /** Stores a timer, unless it was removed. */
+            UPDATE,
+            /** Stores a timer, unless it is already present. */
+            IMPORT,
+            /** Removes a timer. */
+            REMOVE,
+        }
+
+        final Mode mode;
+        final String timedObjectId;
+        final String timerId;
+        final byte[] payload;
+
+        private Record(Mode mode, String timedObjectId, String timerId, byte[] payload) {
+            this.mode = mode;
+            this.timedObjectId = timedObjectId;
+            this.timerId = timerId;
+            this.payload = payload;
+        }
+
+        static Record create(String timedObjectId, String timerId, byte[] payload) {
+            return new Record(Mode.CREATE, timedObjectId, timerId, payload);
+        }
+
+        static Record update(String timedObjectId, String timerId, byte[] payload) {
+            return new Record(Mode.UPDATE, timedObjectId, timerId, payload);
+        }
+
+        static Record importTimer(String timedObjectId, String timerId, byte[] payload) {
+            return new Record(Mode.IMPORT, timedObjectId, timerId, payload);
+        }
+
+        static Record remove(String timedObjectId, String timerId) {
+            return new Record(Mode.REMOVE, timedObjectId, timerId, null);
+        }
+
+        byte[] encode() throws IOException {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + ((this.payload != null) ? this.payload.length : 0));
+            final DataOutputStream output = new DataOutputStream(bytes);
+            output.writeByte((this.payload != null) ? PUT : REMOVE);
+            output.writeUTF(this.timedObjectId);
+            output.writeUTF(this.timerId);
+            if (this.payload != null) {
+                output.write(this.payload);
+            }
+            output.flush();
+            return bytes.toByteArray();
+        }
+    }
+
+    private static final class Location {
+        final Segment segment;
+        // Offset of the record within its segment
+        final int offset;
+        // Size of the whole record, including its header
+        final int size;
+        // Offset of the payload within the record
+        final int payloadOffset;
+        final int payloadLength;
+
+        Location(Segment segment, int offset, int size, int payloadOffset) {
+            this.segment = segment;
+            this.offset = offset;
+            this.size = size;
+            this.payloadOffset = payloadOffset;
+            this.payloadLength = size - payloadOffset;
+        }
+    }
+
+    private static final class Segment {
+        final File file;
+        final MappedByteBuffer buffer;
+        // Offset at which the next record will be written, only accessed while holding the journal lock
+        int position = SEGMENT_HEADER_SIZE;
+        // Number of bytes occupied by the most recent record of live timers, only accessed while holding the journal lock
+        long live;
+
+        private Segment(File file, MappedByteBuffer buffer) {
+            this.file = file;
+            this.buffer = buffer;
+        }
+
+        static Segment create(File file, int size) throws IOException {
+            final Segment segment = new Segment(file, map(file, size));
+            segment.buffer.putInt(0, MAGIC);
+            segment.buffer.putInt(4, VERSION);
+            return segment;
+        }
+
+        /**
+         * Maps an existing segment, or returns null if the file is not a valid segment.
+         */
+        static Segment open(File file) throws IOException {
+            if (file.length() < SEGMENT_HEADER_SIZE || file.length() > Integer.MAX_VALUE) {
+                return null;
+            }
+            final MappedByteBuffer buffer = map(file, (int) file.length());
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                return null;
+            }
+            return new Segment(file, buffer);
+        }
+
+        private static MappedByteBuffer map(File file, int size) throws IOException {
+            // The mapping remains valid once the file is closed
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                if (raf.length() < size) {
+                    raf.setLength(size);
+                }
+                return raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+            }
+        }
+
+        int capacity() {
+            return this.buffer.capacity();
+        }
+
+        void read(int offset, byte[] target) {
+            final ByteBuffer source = this.buffer.duplicate();
+            source.position(offset);
+            source.get(target);
+        }
+
+        void write(int offset, byte[] body, int checksum) {
+            final ByteBuffer target = this.buffer.duplicate();
+            target.position(offset + RECORD_HEADER_SIZE);
+            target.put(body);
+            target.putInt(offset + 4, checksum);
+            // Write the length last, as it marks the record as present
+            target.putInt(offset, body.length);
+            this.position = offset + RECORD_HEADER_SIZE + body.length;
+        }
+
+        void copy(int offset, byte[] record) {
+            final ByteBuffer target = this.buffer.duplicate();
+            target.position(offset);
+            target.put(record);
+            this.position = offset + record.length;
+        }
+
+        void clear(int offset) {
+            final ByteBuffer target = this.buffer.duplicate();
+            target.position(offset);
+            while (target.hasRemaining()) {
+                target.put((byte) 0);
+            }
+        }
+
+        void force() {
+            this.buffer.force();
+        }
+    }
+}
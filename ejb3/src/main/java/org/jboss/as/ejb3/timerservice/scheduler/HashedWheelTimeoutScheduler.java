@@ -0,0 +1,343 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.scheduler;
+
+import static org.jboss.as.ejb3.logging.EjbLogger.EJB3_TIMER_LOGGER;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * {@link TimeoutScheduler} based on a hashed timing wheel.
+ * <p/>
+ * Time is divided into ticks of fixed duration, and each scheduled task is placed into the wheel bucket of the tick at
+ * which it expires, along with the number of full wheel rotations remaining before it is due. Scheduling and
+ * cancellation are O(1): callers only enqueue the task (or its cancellation) into lock-free queues, which are drained by
+ * the worker thread at the start of each tick. On every tick, the worker only visits the tasks of a single bucket.
+ * <p/>
+ * Tasks fire at most one tick late, which is why the tick duration should stay well below the timer granularity
+ * applications rely upon.
+ */
+public class HashedWheelTimeoutScheduler implements TimeoutScheduler {
+
+    public static final long DEFAULT_TICK_DURATION = 10;
+    public static final int DEFAULT_WHEEL_SIZE = 1024;
+    // Upper bound on the number of newly scheduled tasks moved into the wheel per tick, so a scheduling storm cannot starve expiration
+    private static final int MAX_TRANSFERS_PER_TICK = 100_000;
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Queue<Entry> scheduled = new ConcurrentLinkedQueue<>();
+    private final Queue<Entry> cancelled = new ConcurrentLinkedQueue<>();
+    private final Thread worker;
+    private final long startTime;
+    private volatile boolean running = true;
+    // Only accessed by the worker thread
+    private long tick = 0;
+
+    public HashedWheelTimeoutScheduler(ThreadFactory threadFactory) {
+        this(threadFactory, DEFAULT_TICK_DURATION, TimeUnit.MILLISECONDS, DEFAULT_WHEEL_SIZE);
+    }
+
+    public HashedWheelTimeoutScheduler(ThreadFactory threadFactory, long tickDuration, TimeUnit unit, int wheelSize) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException(Long.toString(tickDuration));
+        }
+        if (wheelSize <= 0) {
+            throw new IllegalArgumentException(Integer.toString(wheelSize));
+        }
+        this.tickNanos = unit.toNanos(tickDuration);
+        int size = Integer.highestOneBit(wheelSize);
+        if (size < wheelSize) {
+            size <<= 1;
+        }
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; ++i) {
+            this.wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+        this.startTime = System.nanoTime();
+        this.worker = threadFactory.newThread(new Worker());
+        this.worker.start();
+    }
+
+    @Override
+    public ScheduledTask schedule(Runnable task, long delay) {
+        return this.add(new Entry(this, task, this.deadline(delay), 0L));
+    }
+
+    @Override
+    public ScheduledTask scheduleAtFixedRate(Runnable task, long delay, long period) {
+        return this.add(new Entry(this, task, this.deadline(delay), this.period(period)));
+    }
+
+    @Override
+    public ScheduledTask scheduleWithFixedDelay(Runnable task, long delay, long period) {
+        return this.add(new Entry(this, task, this.deadline(delay), -this.period(period)));
+    }
+
+    @Override
+    public void purge() {
+        // Cancelled tasks are unlinked from the wheel on the next tick
+    }
+
+    @Override
+    public void stop() {
+        this.running = false;
+        this.worker.interrupt();
+    }
+
+    private long deadline(long delay) {
+        return this.now() + TimeUnit.MILLISECONDS.toNanos(Math.max(delay, 0L));
+    }
+
+    private long period(long period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException(Long.toString(period));
+        }
+        return TimeUnit.MILLISECONDS.toNanos(period);
+    }
+
+    private long now() {
+        return System.nanoTime() - this.startTime;
+    }
+
+    private Entry add(Entry entry) {
+        if (!this.running) {
+            throw new IllegalStateException();
+        }
+        this.scheduled.add(entry);
+        return entry;
+    }
+
+    /**
+     * Places the specified entry into the bucket of the tick at which it expires.
+     * Only called by the worker thread.
+     */
+    void place(Entry entry) {
+        long expiryTick = entry.deadline / this.tickNanos;
+        entry.remainingRounds = (expiryTick - this.tick) / this.wheel.length;
+        // Entries that are already due are placed into the current bucket
+        this.wheel[(int) (Math.max(expiryTick, this.tick) & this.mask)].add(entry);
+    }
+
+    private class Worker implements Runnable {
+        @Override
+        public void run() {
+            while (HashedWheelTimeoutScheduler.this.running) {
+                long now = this.awaitNextTick();
+                if (now < 0) {
+                    break;
+                }
+                this.unlinkCancelled();
+                this.transferScheduled();
+                Entry due = HashedWheelTimeoutScheduler.this.wheel[(int) (HashedWheelTimeoutScheduler.this.tick & HashedWheelTimeoutScheduler.this.mask)].expire(now);
+                // Advance before running the due tasks, so that rescheduled periodic tasks never land in the bucket just expired
+                HashedWheelTimeoutScheduler.this.tick += 1;
+                while (due != null) {
+                    Entry next = due.next;
+                    due.next = null;
+                    due.expire();
+                    due = next;
+                }
+            }
+            HashedWheelTimeoutScheduler.this.scheduled.clear();
+            HashedWheelTimeoutScheduler.this.cancelled.clear();
+        }
+
+        /**
+         * Sleeps until the start of the next tick.
+         * @return the current time, relative to the start time of this scheduler, or -1 if this scheduler was stopped.
+         */
+        private long awaitNextTick() {
+            long deadline = HashedWheelTimeoutScheduler.this.tickNanos * (HashedWheelTimeoutScheduler.this.tick + 1);
+            while (true) {
+                long now = HashedWheelTimeoutScheduler.this.now();
+                long sleep = TimeUnit.NANOSECONDS.toMillis(deadline - now + TimeUnit.MILLISECONDS.toNanos(1) - 1);
+                if (sleep <= 0) {
+                    return now;
+                }
+                try {
+                    Thread.sleep(sleep);
+                } catch (InterruptedException e) {
+                    if (!HashedWheelTimeoutScheduler.this.running) {
+                        return -1;
+                    }
+                }
+            }
+        }
+
+        private void unlinkCancelled() {
+            for (Entry entry = HashedWheelTimeoutScheduler.this.cancelled.poll(); entry != null; entry = HashedWheelTimeoutScheduler.this.cancelled.poll()) {
+                Bucket bucket = entry.bucket;
+                if (bucket != null) {
+                    bucket.remove(entry);
+                }
+            }
+        }
+
+        private void transferScheduled() {
+            for (int i = 0; i < MAX_TRANSFERS_PER_TICK; ++i) {
+                Entry entry = HashedWheelTimeoutScheduler.this.scheduled.poll();
+                if (entry == null) {
+                    return;
+                }
+                if (entry.state == Entry.ACTIVE) {
+                    HashedWheelTimeoutScheduler.this.place(entry);
+                }
+            }
+        }
+    }
+
+    /**
+     * Doubly-linked list of the entries hashed to the same tick.
+     * Only accessed by the worker thread.
+     */
+    private static class Bucket {
+        private Entry head;
+        private Entry tail;
+
+        void add(Entry entry) {
+            entry.bucket = this;
+            if (this.head == null) {
+                this.head = this.tail = entry;
+            } else {
+                this.tail.next = entry;
+                entry.previous = this.tail;
+                this.tail = entry;
+            }
+        }
+
+        Entry remove(Entry entry) {
+            Entry next = entry.next;
+            if (entry.previous != null) {
+                entry.previous.next = next;
+            }
+            if (entry.next != null) {
+                entry.next.previous = entry.previous;
+            }
+            if (entry == this.head) {
+                this.head = next;
+            }
+            if (entry == this.tail) {
+                this.tail = entry.previous;
+            }
+            entry.previous = null;
+            entry.next = null;
+            entry.bucket = null;
+            return next;
+        }
+
+        /**
+         * Detaches the entries of this bucket that are due.
+         * @return the head of the list of due entries, linked via {@link Entry#next}
+         */
+        Entry expire(long now) {
+            Entry due = null;
+            Entry entry = this.head;
+            while (entry != null) {
+                if (entry.state != Entry.ACTIVE) {
+                    entry = this.remove(entry);
+                } else if ((entry.remainingRounds <= 0) && (entry.deadline <= now)) {
+                    Entry next = this.remove(entry);
+                    entry.next = due;
+                    due = entry;
+                    entry = next;
+                } else {
+                    entry.remainingRounds -= 1;
+                    entry = entry.next;
+                }
+            }
+            return due;
+        }
+    }
+
+    private static class Entry implements ScheduledTask {
+        static final int ACTIVE = 0;
+        static final int CANCELLED = 1;
+        static final int EXPIRED = 2;
+        private static final AtomicIntegerFieldUpdater<Entry> STATE = AtomicIntegerFieldUpdater.newUpdater(Entry.class, "state");
+
+        final HashedWheelTimeoutScheduler scheduler;
+        final Runnable task;
+        // Nanoseconds relative to the start time of the scheduler
+        long deadline;
+        // Positive for fixed rate, negative for fixed delay, 0 for single action
+        final long period;
+        volatile int state = ACTIVE;
+
+        // Only accessed by the worker thread
+        long remainingRounds;
+        Bucket bucket;
+        Entry previous;
+        Entry next;
+
+        Entry(HashedWheelTimeoutScheduler scheduler, Runnable task, long deadline, long period) {
+            this.scheduler = scheduler;
+            this.task = task;
+            this.deadline = deadline;
+            this.period = period;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (!STATE.compareAndSet(this, ACTIVE, CANCELLED)) {
+                return false;
+            }
+            // Let the worker unlink this entry from its bucket
+            this.scheduler.cancelled.add(this);
+            return true;
+        }
+
+        void expire() {
+            if (this.period == 0L) {
+                if (!STATE.compareAndSet(this, ACTIVE, EXPIRED)) {
+                    return;
+                }
+                this.run();
+            } else {
+                this.run();
+                if (this.state == ACTIVE) {
+                    this.deadline = (this.period > 0L) ? this.deadline + this.period : this.scheduler.now() - this.period;
+                    this.scheduler.place(this);
+                }
+            }
+        }
+
+        private void run() {
+            try {
+                this.task.run();
+            } catch (Throwable e) {
+                EJB3_TIMER_LOGGER.failedToRunScheduledTask(this.task, e);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return this.task.toString();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.scheduler;
+
+/**
+ * Schedules the tasks used by the timer service and its persistence stores to track timeouts.
+ * <p/>
+ * Tasks are run by a thread owned by the scheduler and are expected to complete quickly,
+ * typically by handing the actual work over to an executor.
+ */
+public interface TimeoutScheduler {
+
+    /**
+     * Schedules the specified task for a single execution after the specified delay.
+     *
+     * @param task the task to run
+     * @param delay the delay in milliseconds
+     * @return a handle that can be used to cancel the task
+     */
+    ScheduledTask schedule(Runnable task, long delay);
+
+    /**
+     * Schedules the specified task for repeated executions, the first one after the specified delay and subsequent ones
+     * relative to the scheduled time of the initial execution.
+     *
+     * @param task the task to run
+     * @param delay the delay in milliseconds before the first execution
+     * @param period the period in milliseconds between successive executions
+     * @return a handle that can be used to cancel the task
+     */
+    ScheduledTask scheduleAtFixedRate(Runnable task, long delay, long period);
+
+    /**
+     * Schedules the specified task for repeated executions, the first one after the specified delay and subsequent ones
+     * relative to the actual time of the previous execution.
+     *
+     * @param task the task to run
+     * @param delay the delay in milliseconds before the first execution
+     * @param period the delay in milliseconds between the end of an execution and the start of the next
+     * @return a handle that can be used to cancel the task
+     */
+    ScheduledTask scheduleWithFixedDelay(Runnable task, long delay, long period);
+
+    /**
+     * Releases any resources held on behalf of cancelled tasks.
+     */
+    void purge();
+
+    /**
+     * Stops this scheduler, discarding any scheduled tasks.
+     */
+    void stop();
+
+    /**
+     * Handle to a scheduled task.
+     */
+    interface ScheduledTask {
+        /**
+         * Cancels any future execution of the task.
+         *
+         * @return true, if this prevented at least one execution of the task, false otherwise
+         */
+        boolean cancel();
+    }
+}
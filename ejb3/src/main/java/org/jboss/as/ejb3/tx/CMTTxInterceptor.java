@@ -41,8 +41,7 @@ import javax.transaction.Transaction;
 import org.jboss.as.ee.component.Component;
 import org.jboss.as.ejb3.logging.EjbLogger;
 import org.jboss.as.ejb3.component.EJBComponent;
-import org.jboss.as.ejb3.component.MethodIntf;
-import org.jboss.as.ejb3.component.MethodIntfHelper;
+import org.jboss.as.ejb3.component.MethodInvocationDescriptor;
 import org.jboss.invocation.ImmediateInterceptorFactory;
 import org.jboss.invocation.Interceptor;
 import org.jboss.invocation.InterceptorContext;
@@ -130,9 +129,9 @@ public class CMTTxInterceptor implements Interceptor {
         final ContextTransactionManager tm = ContextTransactionManager.getInstance();
         final int oldTimeout = tm.getTransactionTimeout();
         try {
-            final MethodIntf methodIntf = MethodIntfHelper.of(invocation);
-            final TransactionAttributeType attr = component.getTransactionAttributeType(methodIntf, invocation.getMethod());
-            final int timeoutInSeconds = component.getTransactionTimeout(methodIntf, invocation.getMethod());
+            final MethodInvocationDescriptor descriptor = MethodInvocationDescriptor.of(invocation);
+            final TransactionAttributeType attr = descriptor.getTransactionAttributeType();
+            final int timeoutInSeconds = descriptor.getTransactionTimeout();
             switch (attr) {
                 case MANDATORY:
                     return mandatory(invocation, component);
@@ -188,7 +187,7 @@ public class CMTTxInterceptor implements Interceptor {
             setRollbackOnly(tx, e2);
             throw e2;
         } catch (Exception e) {
-            ApplicationExceptionDetails ae = component.getApplicationException(e.getClass(), invocation.getMethod());
+            ApplicationExceptionDetails ae = getApplicationException(invocation, component, e.getClass());
 
             if (ae != null) {
                 if (ae.isRollback()) setRollbackOnly(tx, e);
@@ -219,7 +218,7 @@ public class CMTTxInterceptor implements Interceptor {
         } catch (EJBException e) {
             throw e;
         } catch (RuntimeException e) {
-            ApplicationExceptionDetails ae = component.getApplicationException(e.getClass(), invocation.getMethod());
+            ApplicationExceptionDetails ae = getApplicationException(invocation, component, e.getClass());
             throw ae != null ? e : new EJBException(e);
         } catch (Exception e) {
             throw e;
@@ -236,7 +235,7 @@ public class CMTTxInterceptor implements Interceptor {
         try {
             result = invocation.proceed();
         } catch (Throwable t) {
-            ApplicationExceptionDetails ae = component.getApplicationException(t.getClass(), invocation.getMethod());
+            ApplicationExceptionDetails ae = getApplicationException(invocation, component, t.getClass());
             try {
                 try {
                     throw t;
@@ -263,6 +262,11 @@ public class CMTTxInterceptor implements Interceptor {
         return result;
     }
 
+    private static ApplicationExceptionDetails getApplicationException(final InterceptorContext invocation, final EJBComponent component, final Class<?> exceptionClass) {
+        // lifecycle callback invocations have no method
+        return (invocation.getMethod() != null) ? MethodInvocationDescriptor.of(invocation).getApplicationException(exceptionClass) : component.getApplicationException(exceptionClass, null);
+    }
+
     private int safeGetStatus(final AbstractTransaction tx) {
         try {
             return tx.getStatus();
@@ -0,0 +1,157 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.cache.simple;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link ExpirationWheel}.
+ */
+public class ExpirationWheelTestCase {
+
+    private final List<String> expired = new ArrayList<>();
+    private final ExpirationWheel<String> wheel = new ExpirationWheel<>(10);
+
+    @Test
+    public void expire() {
+        this.wheel.schedule("a", 15);
+        this.wheel.schedule("b", 20);
+        this.wheel.schedule("c", 21);
+        assertEquals(3, this.wheel.getPendingCount());
+
+        // Nothing expires before its deadline, even if it shares a slot with an elapsed deadline
+        assertEquals(0, this.wheel.expire(19, this.expired::add));
+        assertEquals(2, this.wheel.expire(20, this.expired::add));
+        Collections.sort(this.expired);
+        assertEquals(Arrays.asList("a", "b"), this.expired);
+        assertEquals(1, this.wheel.getPendingCount());
+
+        this.expired.clear();
+        assertEquals(1, this.wheel.expire(35, this.expired::add));
+        assertEquals(Collections.singletonList("c"), this.expired);
+        assertEquals(0, this.wheel.getPendingCount());
+        assertEquals(3, this.wheel.getExpiredCount());
+        // lag of a = 5, b = 0, c = 14
+        assertEquals(6, this.wheel.getAverageExpirationLag());
+    }
+
+    @Test
+    public void cancel() {
+        this.wheel.schedule("a", 15);
+        assertTrue(this.wheel.cancel("a"));
+        assertFalse(this.wheel.cancel("a"));
+        assertEquals(0, this.wheel.getPendingCount());
+        assertEquals(0, this.wheel.expire(100, this.expired::add));
+        assertTrue(this.expired.isEmpty());
+        assertEquals(0, this.wheel.getAverageExpirationLag());
+    }
+
+    @Test
+    public void reschedule() {
+        this.wheel.schedule("a", 15);
+        this.wheel.schedule("a", 45);
+        assertEquals(1, this.wheel.getPendingCount());
+        assertEquals(0, this.wheel.expire(40, this.expired::add));
+        assertEquals(1, this.wheel.expire(50, this.expired::add));
+        assertEquals(Collections.singletonList("a"), this.expired);
+
+        // A key rescheduled after its bucket was swept is expired by a later sweep
+        this.expired.clear();
+        this.wheel.schedule("b", 55);
+        this.wheel.expire(60, key -> this.wheel.schedule("b", 58));
+        assertEquals(1, this.wheel.getPendingCount());
+        assertEquals(1, this.wheel.expire(60, this.expired::add));
+        assertEquals(Collections.singletonList("b"), this.expired);
+    }
+
+    @Test
+    public void negativeTime() {
+        // System.nanoTime() may be negative
+        this.wheel.schedule("a", -25);
+        assertEquals(0, this.wheel.expire(-26, this.expired::add));
+        assertEquals(1, this.wheel.expire(-20, this.expired::add));
+        assertEquals(Collections.singletonList("a"), this.expired);
+    }
+
+    @Test
+    public void cancelDuringSweep() throws Exception {
+        ExpirationWheel<Integer> wheel = new ExpirationWheel<>(10);
+        int count = 10000;
+        for (int round = 0; round < 20; ++round) {
+            for (int i = 0; i < count; ++i) {
+                wheel.schedule(i, 15);
+            }
+            CountDownLatch started = new CountDownLatch(1);
+            AtomicInteger expired = new AtomicInteger();
+            AtomicInteger cancelled = new AtomicInteger();
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            try {
+                // Cancel every other key, while the sweep claims and iterates over the same bucket
+                Future<?> future = executor.submit(() -> {
+                    started.countDown();
+                    for (int i = 0; i < count; i += 2) {
+                        if (wheel.cancel(i)) {
+                            cancelled.incrementAndGet();
+                        }
+                        Thread.yield();
+                    }
+                    return null;
+                });
+                started.await();
+                wheel.expire(20, key -> {
+                    expired.incrementAndGet();
+                    Thread.yield();
+                });
+                future.get();
+            } finally {
+                executor.shutdownNow();
+            }
+            // Each key was either expired or cancelled, but never both
+            assertEquals(0, wheel.getPendingCount());
+            assertEquals(count, expired.get() + cancelled.get());
+            assertTrue(expired.get() >= count / 2);
+        }
+    }
+
+    @Test
+    public void clear() {
+        this.wheel.schedule("a", 15);
+        this.wheel.schedule("b", 25);
+        this.wheel.clear();
+        assertEquals(0, this.wheel.getPendingCount());
+        assertEquals(0, this.wheel.expire(100, this.expired::add));
+    }
+}
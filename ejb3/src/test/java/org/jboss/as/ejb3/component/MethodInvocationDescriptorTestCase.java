@@ -0,0 +1,122 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.same;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.Method;
+
+import javax.ejb.TransactionAttributeType;
+
+import org.jboss.as.ee.component.Component;
+import org.jboss.as.ejb3.tx.ApplicationExceptionDetails;
+import org.jboss.invocation.InterceptorContext;
+import org.jboss.invocation.proxy.MethodIdentifier;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the resolution and reuse of {@link MethodInvocationDescriptor}s, as used by the transaction interceptors.
+ */
+public class MethodInvocationDescriptorTestCase {
+
+    private final EJBComponent component = mock(EJBComponent.class);
+    private final MethodInvocationDescriptors descriptors = new MethodInvocationDescriptors(this.component);
+
+    private Method method;
+    private Method otherMethod;
+
+    @Before
+    public void setUp() throws Exception {
+        this.method = Object.class.getMethod("toString");
+        this.otherMethod = Object.class.getMethod("hashCode");
+        when(this.component.getTransactionAttributeType(eq(MethodIntf.LOCAL), any(MethodIdentifier.class))).thenReturn(TransactionAttributeType.MANDATORY);
+        when(this.component.getTransactionAttributeType(eq(MethodIntf.REMOTE), any(MethodIdentifier.class))).thenReturn(TransactionAttributeType.NEVER);
+        when(this.component.getTransactionTimeout(eq(MethodIntf.LOCAL), any(MethodIdentifier.class))).thenReturn(10);
+        when(this.component.getTransactionTimeout(eq(MethodIntf.REMOTE), any(MethodIdentifier.class))).thenReturn(20);
+        when(this.component.getMethodInvocationDescriptor(any(MethodIntf.class), any(Method.class))).then(invocation -> this.descriptors.get((MethodIntf) invocation.getArguments()[0], (Method) invocation.getArguments()[1]));
+    }
+
+    @Test
+    public void testSeparatePerMethodIntf() {
+        MethodInvocationDescriptor local = this.descriptors.get(MethodIntf.LOCAL, this.method);
+        MethodInvocationDescriptor remote = this.descriptors.get(MethodIntf.REMOTE, this.method);
+
+        Assert.assertNotSame(local, remote);
+        Assert.assertSame(local, this.descriptors.get(MethodIntf.LOCAL, this.method));
+        Assert.assertSame(remote, this.descriptors.get(MethodIntf.REMOTE, this.method));
+
+        Assert.assertSame(MethodIntf.LOCAL, local.getMethodIntf());
+        Assert.assertSame(this.method, local.getMethod());
+        Assert.assertSame(TransactionAttributeType.MANDATORY, local.getTransactionAttributeType());
+        Assert.assertEquals(10, local.getTransactionTimeout());
+
+        Assert.assertSame(MethodIntf.REMOTE, remote.getMethodIntf());
+        Assert.assertSame(this.method, remote.getMethod());
+        Assert.assertSame(TransactionAttributeType.NEVER, remote.getTransactionAttributeType());
+        Assert.assertEquals(20, remote.getTransactionTimeout());
+    }
+
+    @Test
+    public void testApplicationException() {
+        ApplicationExceptionDetails details = new ApplicationExceptionDetails(IllegalArgumentException.class.getName(), false, true);
+        when(this.component.getApplicationException(IllegalArgumentException.class, this.method)).thenReturn(details);
+
+        MethodInvocationDescriptor descriptor = this.descriptors.get(MethodIntf.LOCAL, this.method);
+
+        // Neither the details, nor the absence thereof, are resolved more than once
+        for (int i = 0; i < 3; ++i) {
+            Assert.assertSame(details, descriptor.getApplicationException(IllegalArgumentException.class));
+            Assert.assertNull(descriptor.getApplicationException(IllegalStateException.class));
+        }
+        verify(this.component, times(1)).getApplicationException(IllegalArgumentException.class, this.method);
+        verify(this.component, times(1)).getApplicationException(IllegalStateException.class, this.method);
+    }
+
+    @Test
+    public void testOfInvocation() {
+        InterceptorContext invocation = new InterceptorContext();
+        invocation.putPrivateData(Component.class, this.component);
+        invocation.putPrivateData(MethodIntf.class, MethodIntf.REMOTE);
+        invocation.setMethod(this.method);
+
+        MethodInvocationDescriptor descriptor = MethodInvocationDescriptor.of(invocation);
+        Assert.assertSame(this.descriptors.get(MethodIntf.REMOTE, this.method), descriptor);
+        Assert.assertSame(descriptor, MethodInvocationDescriptor.of(invocation));
+        verify(this.component, times(1)).getMethodInvocationDescriptor(MethodIntf.REMOTE, this.method);
+
+        // The remembered descriptor must not be reused once the invocation targets another method
+        invocation.setMethod(this.otherMethod);
+        MethodInvocationDescriptor other = MethodInvocationDescriptor.of(invocation);
+        Assert.assertSame(this.otherMethod, other.getMethod());
+        Assert.assertSame(MethodIntf.REMOTE, other.getMethodIntf());
+        Assert.assertSame(other, invocation.getPrivateData(MethodInvocationDescriptor.class));
+        verify(this.component, times(1)).getMethodInvocationDescriptor(same(MethodIntf.REMOTE), same(this.otherMethod));
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component.invocationmetrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.as.ee.utils.TimeHistogram;
+import org.junit.Test;
+
+public class InvocationMetricsTestCase {
+
+    private static Method method(String name) throws NoSuchMethodException {
+        return Object.class.getMethod(name);
+    }
+
+    @Test
+    public void totals() throws Exception {
+        InvocationMetrics metrics = new InvocationMetrics();
+        metrics.startInvocation();
+        metrics.startInvocation();
+        assertEquals(2, metrics.getConcurrent());
+        metrics.finishInvocation(method("hashCode"), 3, TimeUnit.MICROSECONDS.toNanos(600), false);
+        metrics.finishInvocation(method("hashCode"), 4, TimeUnit.MICROSECONDS.toNanos(600), false);
+        metrics.startInvocation();
+        metrics.finishInvocation(method("toString"), 5, TimeUnit.MILLISECONDS.toNanos(10), false);
+
+        assertEquals(0, metrics.getConcurrent());
+        assertEquals(2, metrics.getPeakConcurrent());
+        assertEquals(3, metrics.getInvocations());
+        assertEquals(12, metrics.getWaitTime());
+        // sub-millisecond execution times still add up
+        assertEquals(11, metrics.getExecutionTime());
+
+        Map<String, InvocationMetrics.Values> methods = metrics.getMethods();
+        assertEquals(2, methods.size());
+        InvocationMetrics.Values values = methods.get("hashCode");
+        assertEquals(2, values.getInvocations());
+        assertEquals(7, values.getWaitTime());
+        assertEquals(1, values.getExecutionTime());
+        assertNull(values.getExecutionTimeHistogram());
+    }
+
+    @Test
+    public void histogram() throws Exception {
+        InvocationMetrics metrics = new InvocationMetrics();
+        for (int i = 1; i <= 1000; ++i) {
+            metrics.startInvocation();
+            metrics.finishInvocation(method("hashCode"), 0, TimeUnit.MICROSECONDS.toNanos(i), true);
+        }
+        TimeHistogram histogram = metrics.getMethods().get("hashCode").getExecutionTimeHistogram();
+        assertNotNull(histogram);
+        TimeHistogram.Snapshot snapshot = histogram.getRecentSnapshot();
+        assertEquals(1000, snapshot.getCount());
+        assertEquals(500, snapshot.getValueAtPercentile(50), 500 / 64);
+        assertEquals(990, snapshot.getValueAtPercentile(99), 990 / 64);
+        assertEquals(1000, snapshot.getValueAtPercentile(100), 1000 / 64);
+    }
+
+    @Test
+    public void recentSnapshot() throws Exception {
+        AtomicLong ticker = new AtomicLong();
+        TimeHistogram histogram = new TimeHistogram(TimeUnit.MILLISECONDS.toNanos(10), ticker::get);
+        histogram.record(TimeUnit.SECONDS.toMicros(1));
+        // two interval roll overs later, the old value falls out of the recent snapshot
+        ticker.addAndGet(TimeUnit.MILLISECONDS.toNanos(20));
+        histogram.getRecentSnapshot();
+        ticker.addAndGet(TimeUnit.MILLISECONDS.toNanos(20));
+        histogram.record(100);
+        TimeHistogram.Snapshot snapshot = histogram.getRecentSnapshot();
+        assertEquals(1, snapshot.getCount());
+        assertEquals(100, snapshot.getValueAtPercentile(99.9));
+        assertEquals(2, histogram.snapshot().getCount());
+    }
+
+    @Test
+    public void concurrentInvocations() throws Exception {
+        InvocationMetrics metrics = new InvocationMetrics();
+        Method method = method("hashCode");
+        int threads = 8;
+        int invocations = 10000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < threads; ++i) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int j = 0; j < invocations; ++j) {
+                    metrics.startInvocation();
+                    metrics.finishInvocation(method, 1, TimeUnit.MILLISECONDS.toNanos(1), true);
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        assertEquals(threads * invocations, metrics.getInvocations());
+        assertEquals(threads * invocations, metrics.getWaitTime());
+        assertEquals(threads * invocations, metrics.getExecutionTime());
+        assertEquals(0, metrics.getConcurrent());
+        assertTrue(metrics.getPeakConcurrent() >= 1 && metrics.getPeakConcurrent() <= threads);
+        assertEquals(threads * invocations, metrics.getMethods().get("hashCode").getExecutionTimeHistogram().snapshot().getCount());
+    }
+}
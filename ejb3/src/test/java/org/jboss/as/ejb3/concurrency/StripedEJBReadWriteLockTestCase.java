@@ -0,0 +1,141 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.concurrency;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import javax.ejb.IllegalLoopbackException;
+
+import org.jboss.as.ejb3.component.singleton.StripedEJBReadWriteLock;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the {@link StripedEJBReadWriteLock}
+ */
+public class StripedEJBReadWriteLockTestCase {
+
+    private final StripedEJBReadWriteLock lock = new StripedEJBReadWriteLock(4);
+
+    @Test
+    public void testIllegalLoopBack() {
+        Lock readLock = this.lock.readLock();
+        readLock.lock();
+        try {
+            this.lock.writeLock().lock();
+            this.lock.writeLock().unlock();
+            Assert.fail("Unexpected acquired write lock");
+        } catch (IllegalLoopbackException e) {
+            // expected
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Test
+    public void testSameThreadCanGetWriteThenReadLock() throws Exception {
+        Lock writeLock = this.lock.writeLock();
+        writeLock.lock();
+        try {
+            Lock readLock = this.lock.readLock();
+            Assert.assertTrue(readLock.tryLock(2, TimeUnit.SECONDS));
+            readLock.unlock();
+            // write lock is reentrant
+            Assert.assertTrue(writeLock.tryLock());
+            writeLock.unlock();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Test
+    public void testConcurrentReaders() throws Exception {
+        int readers = 8;
+        // One extra thread for the competing writer
+        ExecutorService executor = Executors.newFixedThreadPool(readers + 1);
+        try {
+            CountDownLatch acquired = new CountDownLatch(readers);
+            CountDownLatch release = new CountDownLatch(1);
+            Future<?>[] futures = new Future<?>[readers];
+            for (int i = 0; i < readers; ++i) {
+                futures[i] = executor.submit(() -> {
+                    Lock readLock = this.lock.readLock();
+                    readLock.lock();
+                    try {
+                        acquired.countDown();
+                        release.await();
+                    } finally {
+                        readLock.unlock();
+                    }
+                    return null;
+                });
+            }
+            // All readers must hold the lock at the same time
+            Assert.assertTrue(acquired.await(5, TimeUnit.SECONDS));
+
+            // A writer must not get in while readers hold the lock
+            Assert.assertFalse(executor.submit(() -> this.lock.writeLock().tryLock(100, TimeUnit.MILLISECONDS)).get());
+
+            release.countDown();
+            for (Future<?> future : futures) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+
+            // Once readers are gone, a failed write attempt must not have left any stripe locked
+            Assert.assertTrue(this.lock.writeLock().tryLock(1, TimeUnit.SECONDS));
+            this.lock.writeLock().unlock();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testWriterExcludesReaders() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Lock writeLock = this.lock.writeLock();
+            writeLock.lock();
+            try {
+                for (int i = 0; i < 4; ++i) {
+                    Assert.assertFalse(executor.submit(() -> this.lock.readLock().tryLock(50, TimeUnit.MILLISECONDS)).get());
+                }
+            } finally {
+                writeLock.unlock();
+            }
+            Assert.assertTrue(executor.submit(() -> {
+                Lock readLock = this.lock.readLock();
+                boolean locked = readLock.tryLock(1, TimeUnit.SECONDS);
+                if (locked) {
+                    readLock.unlock();
+                }
+                return locked;
+            }).get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
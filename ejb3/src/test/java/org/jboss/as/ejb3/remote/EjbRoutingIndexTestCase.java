@@ -0,0 +1,86 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.remote;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Collections;
+
+import org.jboss.as.ejb3.deployment.DeploymentModuleIdentifier;
+import org.jboss.as.ejb3.deployment.DeploymentRepositoryService;
+import org.jboss.as.ejb3.deployment.EjbDeploymentInformation;
+import org.jboss.as.ejb3.deployment.ModuleDeployment;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link EjbRoutingIndex}.
+ */
+public class EjbRoutingIndexTestCase {
+
+    @Test
+    public void test() throws Exception {
+        DeploymentRepositoryService repository = new DeploymentRepositoryService();
+        repository.start(null);
+
+        DeploymentModuleIdentifier existing = new DeploymentModuleIdentifier("app", "existing", "");
+        EjbDeploymentInformation existingBean = deploy(repository, existing, "ExistingBean");
+        repository.startDeployment(existing);
+
+        EjbRoutingIndex index = new EjbRoutingIndex(repository);
+        repository.addListener(index);
+
+        // Deployments started before the index was registered are routable
+        assertSame(existingBean, index.find("app", "existing", "", "ExistingBean"));
+
+        DeploymentModuleIdentifier identifier = new DeploymentModuleIdentifier("app", "module", "distinct");
+        EjbDeploymentInformation bean = deploy(repository, identifier, "Bean");
+
+        // Deployments are not routable until started
+        assertNull(index.find("app", "module", "distinct", "Bean"));
+
+        repository.startDeployment(identifier);
+        assertSame(bean, index.find("app", "module", "distinct", "Bean"));
+        assertSame(existingBean, index.find("app", "existing", "", "ExistingBean"));
+
+        assertNull(index.find("app", "module", "distinct", "OtherBean"));
+        assertNull(index.find("app", "module", "", "Bean"));
+        assertNull(index.find("app", "other", "distinct", "Bean"));
+        assertNull(index.find("other", "module", "distinct", "Bean"));
+        assertNull(index.find(null, null, null, null));
+
+        repository.remove(identifier);
+        assertNull(index.find("app", "module", "distinct", "Bean"));
+        assertSame(existingBean, index.find("app", "existing", "", "ExistingBean"));
+
+        repository.removeListener(index);
+        repository.remove(existing);
+        // Index is no longer maintained
+        assertSame(existingBean, index.find("app", "existing", "", "ExistingBean"));
+    }
+
+    private static EjbDeploymentInformation deploy(DeploymentRepositoryService repository, DeploymentModuleIdentifier identifier, String beanName) {
+        EjbDeploymentInformation information = new EjbDeploymentInformation(beanName, null, Collections.emptyMap(), Collections.emptyMap(), null, null);
+        repository.add(identifier, new ModuleDeployment(identifier, Collections.singletonMap(beanName, information)));
+        return information;
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.persistence.database;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests for {@link TimerWriteBatcher}.
+ */
+public class TimerWriteBatcherTestCase {
+
+    private final BlockingQueue<List<String>> batches = new LinkedBlockingQueue<>();
+
+    private TimerWriteBatcher<String> batcher;
+
+    @After
+    public void tearDown() {
+        if (this.batcher != null) {
+            this.batcher.close();
+        }
+    }
+
+    @Test
+    public void coalesce() throws Exception {
+        // values are keyed on their first character, so "a2" replaces "a1"
+        this.batcher = this.create(10000, 100);
+        this.batcher.addAll(Arrays.asList("a1", "b1"));
+        this.batcher.add("a2");
+        this.batcher.flush();
+        assertEquals(Arrays.asList("a2", "b1"), this.batches.poll());
+        assertEquals(1, this.batcher.getBatchCount());
+        assertEquals(2, this.batcher.getBatchedCount());
+        assertEquals(2, this.batcher.getMaxBatchSize());
+        assertTrue(this.batches.isEmpty());
+    }
+
+    @Test
+    public void window() throws Exception {
+        this.batcher = this.create(50, 100);
+        this.batcher.add("a1");
+        this.batcher.add("b1");
+        List<String> batch = this.batches.poll(5, TimeUnit.SECONDS);
+        assertEquals(Arrays.asList("a1", "b1"), batch);
+        // the batch is recorded once written, so wait for the writer
+        this.batcher.flush();
+        assertTrue(this.batcher.getLatency() >= TimeUnit.MILLISECONDS.toNanos(50));
+
+        this.batcher.add("c1");
+        assertEquals(Collections.singletonList("c1"), this.batches.poll(5, TimeUnit.SECONDS));
+        this.batcher.flush();
+        assertEquals(2, this.batcher.getBatchCount());
+    }
+
+    @Test
+    public void full() throws Exception {
+        this.batcher = this.create(60000, 3);
+        this.batcher.addAll(Arrays.asList("a1", "b1"));
+        assertEquals(null, this.batches.poll(100, TimeUnit.MILLISECONDS));
+        this.batcher.add("c1");
+        assertEquals(Arrays.asList("a1", "b1", "c1"), this.batches.poll(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void flushKey() throws Exception {
+        this.batcher = this.create(60000, 100);
+        this.batcher.add("a1");
+        this.batcher.flush("b");
+        assertTrue(this.batches.isEmpty());
+        this.batcher.flush("a");
+        assertEquals(Collections.singletonList("a1"), this.batches.poll());
+    }
+
+    @Test
+    public void flushKeyBeingWritten() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        this.batcher = new TimerWriteBatcher<>(value -> value.substring(0, 1), batch -> {
+            writing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            this.batches.add(new ArrayList<>(batch));
+        }, 60000, 1, Executors.defaultThreadFactory());
+        // the batch is full, so it is taken out of the pending batch and blocks in the writer
+        this.batcher.add("a1");
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+        AtomicBoolean flushed = new AtomicBoolean();
+        Thread flusher = new Thread(() -> {
+            this.batcher.flush("a");
+            flushed.set(true);
+        });
+        flusher.start();
+        try {
+            flusher.join(200);
+            // the flush waits for the batch being written
+            assertFalse(flushed.get());
+        } finally {
+            release.countDown();
+        }
+        flusher.join(5000);
+        assertTrue(flushed.get());
+        assertEquals(Collections.singletonList("a1"), this.batches.poll());
+
+        // nothing pending nor being written, so this returns immediately
+        this.batcher.flush("a");
+        assertTrue(this.batches.isEmpty());
+    }
+
+    @Test
+    public void close() throws Exception {
+        this.batcher = this.create(60000, 100);
+        this.batcher.add("a1");
+        this.batcher.close();
+        assertEquals(Collections.singletonList("a1"), this.batches.poll());
+        // once closed, values are written by the caller
+        this.batcher.add("b1");
+        assertEquals(Collections.singletonList("b1"), this.batches.poll());
+        assertEquals(2, this.batcher.getBatchCount());
+    }
+
+    @Test
+    public void record() {
+        this.batcher = this.create(60000, 100);
+        this.batcher.record(7, System.nanoTime());
+        this.batcher.record(3, System.nanoTime());
+        assertEquals(2, this.batcher.getBatchCount());
+        assertEquals(10, this.batcher.getBatchedCount());
+        assertEquals(7, this.batcher.getMaxBatchSize());
+    }
+
+    private TimerWriteBatcher<String> create(long window, int maxBatchSize) {
+        return new TimerWriteBatcher<>(value -> value.substring(0, 1), batch -> this.batches.add(new ArrayList<>(batch)), window, maxBatchSize, Executors.defaultThreadFactory());
+    }
+}
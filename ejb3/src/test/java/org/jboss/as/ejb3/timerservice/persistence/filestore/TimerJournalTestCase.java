@@ -0,0 +1,175 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.persistence.filestore;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link TimerJournal}.
+ */
+public class TimerJournalTestCase {
+
+    private static final String TIMED_OBJECT = "app.module.bean";
+
+    private File directory;
+
+    @Before
+    public void setUp() throws Exception {
+        this.directory = Files.createTempDirectory("timer-journal").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        for (File file : this.directory.listFiles()) {
+            file.delete();
+        }
+        this.directory.delete();
+    }
+
+    @Test
+    public void testAppendAndReplay() {
+        TimerJournal journal = this.open(TimerJournal.DEFAULT_SEGMENT_SIZE);
+        journal.sync(journal.append(Arrays.asList(create("1", "a"), create("2", "b"), create("3", "c"))));
+        journal.sync(journal.append(Arrays.asList(update("2", "b2"), TimerJournal.Record.remove(TIMED_OBJECT, "3"))));
+        assertEquals(set("a", "b2"), read(journal));
+        journal.close();
+
+        journal = this.open(TimerJournal.DEFAULT_SEGMENT_SIZE);
+        assertEquals(set("a", "b2"), read(journal));
+        assertTrue(journal.read("other").isEmpty());
+        journal.close();
+    }
+
+    @Test
+    public void testRemovedTimerIsNotUpdated() {
+        TimerJournal journal = this.open(TimerJournal.DEFAULT_SEGMENT_SIZE);
+        journal.append(Collections.singletonList(create("1", "a")));
+        journal.append(Collections.singletonList(TimerJournal.Record.remove(TIMED_OBJECT, "1")));
+        journal.append(Collections.singletonList(update("1", "b")));
+        assertTrue(read(journal).isEmpty());
+        journal.close();
+    }
+
+    @Test
+    public void testImportDoesNotOverwrite() {
+        TimerJournal journal = this.open(TimerJournal.DEFAULT_SEGMENT_SIZE);
+        journal.append(Collections.singletonList(create("1", "a")));
+        journal.append(Arrays.asList(TimerJournal.Record.importTimer(TIMED_OBJECT, "1", bytes("stale")), TimerJournal.Record.importTimer(TIMED_OBJECT, "2", bytes("b"))));
+        assertEquals(set("a", "b"), read(journal));
+        journal.close();
+    }
+
+    @Test
+    public void testCompaction() {
+        TimerJournal journal = this.open(1024);
+        for (int i = 0; i < 1000; ++i) {
+            journal.append(Collections.singletonList(create(Integer.toString(i % 10), "value-" + i)));
+        }
+        journal.sync(journal.append(Collections.singletonList(create("live", "live"))));
+        final Set<String> expected = new HashSet<>();
+        for (int i = 990; i < 1000; ++i) {
+            expected.add("value-" + i);
+        }
+        expected.add("live");
+        assertEquals(expected, read(journal));
+        // Old segments were compacted synchronously
+        assertTrue(this.directory.listFiles().length < 10);
+        journal.close();
+
+        journal = this.open(1024);
+        assertEquals(expected, read(journal));
+        journal.close();
+    }
+
+    @Test
+    public void testTruncatedRecord() throws Exception {
+        TimerJournal journal = this.open(TimerJournal.DEFAULT_SEGMENT_SIZE);
+        journal.sync(journal.append(Collections.singletonList(create("1", "a"))));
+        journal.sync(journal.append(Collections.singletonList(create("2", "b"))));
+        journal.close();
+
+        // Corrupt the payload of the last record
+        final File segment = this.directory.listFiles()[0];
+        try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+            final byte[] content = new byte[1024];
+            file.readFully(content);
+            final int index = new String(content, StandardCharsets.ISO_8859_1).lastIndexOf('b');
+            file.seek(index);
+            file.write('x');
+        }
+
+        journal = this.open(TimerJournal.DEFAULT_SEGMENT_SIZE);
+        assertEquals(set("a"), read(journal));
+        journal.sync(journal.append(Collections.singletonList(create("3", "c"))));
+        journal.close();
+
+        journal = this.open(TimerJournal.DEFAULT_SEGMENT_SIZE);
+        assertEquals(set("a", "c"), read(journal));
+        journal.close();
+    }
+
+    private TimerJournal open(int segmentSize) {
+        return new TimerJournal(this.directory, segmentSize, Runnable::run);
+    }
+
+    private static TimerJournal.Record create(String id, String value) {
+        return TimerJournal.Record.create(TIMED_OBJECT, id, bytes(value));
+    }
+
+    private static TimerJournal.Record update(String id, String value) {
+        return TimerJournal.Record.update(TIMED_OBJECT, id, bytes(value));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static Set<String> set(String... values) {
+        return new HashSet<>(Arrays.asList(values));
+    }
+
+    private static Set<String> read(TimerJournal journal) {
+        final List<String> values = new ArrayList<>();
+        for (byte[] payload : journal.read(TIMED_OBJECT)) {
+            values.add(new String(payload, StandardCharsets.UTF_8));
+        }
+        final Set<String> result = new HashSet<>(values);
+        assertEquals(values.size(), result.size());
+        return result;
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.scheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link HashedWheelTimeoutScheduler}.
+ */
+public class HashedWheelTimeoutSchedulerTestCase {
+
+    private HashedWheelTimeoutScheduler scheduler;
+
+    @Before
+    public void setUp() {
+        this.scheduler = new HashedWheelTimeoutScheduler(Executors.defaultThreadFactory(), 1, TimeUnit.MILLISECONDS, 64);
+    }
+
+    @After
+    public void tearDown() {
+        this.scheduler.stop();
+    }
+
+    @Test
+    public void testSchedule() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final long start = System.nanoTime();
+        this.scheduler.schedule(latch::countDown, 50);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 50);
+    }
+
+    /**
+     * Delays spanning several rotations of the wheel must not fire early.
+     */
+    @Test
+    public void testScheduleBeyondWheel() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final long start = System.nanoTime();
+        this.scheduler.schedule(latch::countDown, 200);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 200);
+    }
+
+    @Test
+    public void testCancel() throws InterruptedException {
+        final AtomicInteger count = new AtomicInteger();
+        final TimeoutScheduler.ScheduledTask task = this.scheduler.schedule(count::incrementAndGet, 50);
+        assertTrue(task.cancel());
+        assertFalse(task.cancel());
+        Thread.sleep(150);
+        assertEquals(0, count.get());
+    }
+
+    @Test
+    public void testCancelAfterExpiration() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final TimeoutScheduler.ScheduledTask task = this.scheduler.schedule(latch::countDown, 0);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertFalse(task.cancel());
+    }
+
+    @Test
+    public void testFixedRate() throws InterruptedException {
+        this.testPeriodic(false);
+    }
+
+    @Test
+    public void testFixedDelay() throws InterruptedException {
+        this.testPeriodic(true);
+    }
+
+    private void testPeriodic(boolean fixedDelay) throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(5);
+        final TimeoutScheduler.ScheduledTask task = fixedDelay ? this.scheduler.scheduleWithFixedDelay(latch::countDown, 0, 10) : this.scheduler.scheduleAtFixedRate(latch::countDown, 0, 10);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue(task.cancel());
+        final AtomicInteger count = new AtomicInteger();
+        final TimeoutScheduler.ScheduledTask other = this.scheduler.scheduleAtFixedRate(count::incrementAndGet, 0, 10);
+        other.cancel();
+        Thread.sleep(50);
+        assertTrue(count.get() <= 1);
+    }
+
+    @Test
+    public void testFailingTask() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        this.scheduler.schedule(() -> {
+            throw new IllegalStateException();
+        }, 0);
+        this.scheduler.schedule(latch::countDown, 10);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testManyTimers() throws InterruptedException {
+        final int count = 100_000;
+        final CountDownLatch latch = new CountDownLatch(count / 2);
+        final AtomicInteger cancelledRuns = new AtomicInteger();
+        final List<TimeoutScheduler.ScheduledTask> cancelled = new ArrayList<>(count / 2);
+        for (int i = 0; i < count; ++i) {
+            long delay = i % 250;
+            if (i % 2 == 0) {
+                this.scheduler.schedule(latch::countDown, delay);
+            } else {
+                cancelled.add(this.scheduler.schedule(cancelledRuns::incrementAndGet, delay + 500));
+            }
+        }
+        for (TimeoutScheduler.ScheduledTask task : cancelled) {
+            task.cancel();
+        }
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        Thread.sleep(600);
+        assertEquals(0, cancelledRuns.get());
+    }
+}
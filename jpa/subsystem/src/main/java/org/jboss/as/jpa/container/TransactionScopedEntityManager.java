@@ -32,6 +32,9 @@ import java.util.Map;
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.SynchronizationType;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.metamodel.Metamodel;
+import javax.transaction.Transaction;
 import javax.transaction.TransactionManager;
 import javax.transaction.TransactionSynchronizationRegistry;
 
@@ -52,6 +55,10 @@ import org.jboss.msc.service.ServiceController;
  * the bean invocation.
  * <p/>
  * This is a proxy for the underlying persistent provider EntityManager.
+ * <p/>
+ * The entity manager resolved for the active transaction is remembered in the TransactionSynchronizationRegistry under
+ * a key of this proxy, so that subsequent calls within the same transaction skip the creation and the mixed
+ * synchronization type check. The registry drops it once that transaction completes.
  *
  * @author Scott Marlow
  */
@@ -66,6 +73,9 @@ public class TransactionScopedEntityManager extends AbstractEntityManager implem
     private transient TransactionSynchronizationRegistry transactionSynchronizationRegistry;
     private transient TransactionManager transactionManager;
     private transient Boolean deferDetach;
+    private transient Boolean skipMixedSyncTypeChecking;
+    private transient Boolean allowJoinedUnsyncPersistenceContext;
+    private transient Object transactionResourceKey = new Object();  // Key of the resolved entity manager in the transaction registry
 
     public TransactionScopedEntityManager(String puScopedName, Map properties, EntityManagerFactory emf, SynchronizationType synchronizationType, TransactionSynchronizationRegistry transactionSynchronizationRegistry, TransactionManager transactionManager) {
         this.puScopedName = puScopedName;
@@ -79,12 +89,16 @@ public class TransactionScopedEntityManager extends AbstractEntityManager implem
     @Override
     protected EntityManager getEntityManager() {
         EntityManager entityManager;
-        boolean isInTx;
-
-        isInTx = TransactionUtil.isInTx(transactionManager);
+        Transaction transaction = TransactionUtil.getTransaction(transactionManager);
 
-        if (isInTx) {
-            entityManager = getOrCreateTransactionScopedEntityManager(emf, puScopedName, properties, synchronizationType);
+        if (TransactionUtil.isActive(transaction)) {
+            // the entity manager of a given transaction never changes, so a previous resolution by this proxy for the
+            // same transaction can be reused as is
+            entityManager = (EntityManager) transactionSynchronizationRegistry.getResource(transactionResourceKey);
+            if (entityManager == null) {
+                entityManager = getOrCreateTransactionScopedEntityManager(emf, puScopedName, properties, synchronizationType);
+                transactionSynchronizationRegistry.putResource(transactionResourceKey, entityManager);
+            }
         } else {
             entityManager = NonTxEmCloser.get(puScopedName);
             if (entityManager == null) {
@@ -123,6 +137,7 @@ public class TransactionScopedEntityManager extends AbstractEntityManager implem
         transactionSynchronizationRegistry = (TransactionSynchronizationRegistry) currentServiceContainer().getService(TransactionSynchronizationRegistryService.SERVICE_NAME).getValue();
 
         emf = persistenceUnitService.getEntityManagerFactory();
+        transactionResourceKey = new Object();
     }
 
     private static ServiceContainer currentServiceContainer() {
@@ -137,6 +152,41 @@ public class TransactionScopedEntityManager extends AbstractEntityManager implem
         return synchronizationType;
     }
 
+    /**
+     * The following factory level operations do not need an entity manager, so avoid creating one just to
+     * answer them when invoked outside of a JTA transaction (e.g. while building a criteria query).
+     */
+    @Override
+    public CriteriaBuilder getCriteriaBuilder() {
+        if (canUseEntityManagerFactory()) {
+            return emf.getCriteriaBuilder();
+        }
+        return super.getCriteriaBuilder();
+    }
+
+    @Override
+    public Metamodel getMetamodel() {
+        if (canUseEntityManagerFactory()) {
+            return emf.getMetamodel();
+        }
+        return super.getMetamodel();
+    }
+
+    @Override
+    public EntityManagerFactory getEntityManagerFactory() {
+        if (canUseEntityManagerFactory()) {
+            return emf;
+        }
+        return super.getEntityManagerFactory();
+    }
+
+    /**
+     * return true if no JTA transaction is active and no non-tx entity manager was created yet for the current invocation
+     */
+    private boolean canUseEntityManagerFactory() {
+        return !TransactionUtil.isInTx(transactionManager) && NonTxEmCloser.get(puScopedName) == null;
+    }
+
     /**
      * get or create a Transactional entity manager.
      * Only call while a transaction is active in the current thread.
@@ -210,10 +260,17 @@ public class TransactionScopedEntityManager extends AbstractEntityManager implem
      * WFLY-7075 introduces two extensions, allow a (transaction) joined UNSYNCHRONIZED persistence context to be treated as SYNCHRONIZED,
      * allow the checking for mixed SynchronizationType to be skipped.
      */
-    private static void testForMixedSynchronizationTypes(EntityManagerFactory emf, EntityManager entityManagerFromJTA, String scopedPuName, final SynchronizationType targetSynchronizationType, Map targetProperties) {
+    private void testForMixedSynchronizationTypes(EntityManagerFactory emf, EntityManager entityManagerFromJTA, String scopedPuName, final SynchronizationType targetSynchronizationType, Map targetProperties) {
 
-        boolean skipMixedSyncTypeChecking = Configuration.skipMixedSynchronizationTypeCheck(emf, targetProperties);  // extension to allow skipping of check based on properties of target entity manager
-        boolean allowJoinedUnsyncPersistenceContext = Configuration.allowJoinedUnsyncPersistenceContext(emf, targetProperties); // extension to allow joined unsync persistence context to be treated as sync persistence context
+        // the emf and target properties never change, so only evaluate the extensions once
+        if (skipMixedSyncTypeChecking == null) {
+            skipMixedSyncTypeChecking = Configuration.skipMixedSynchronizationTypeCheck(emf, targetProperties);  // extension to allow skipping of check based on properties of target entity manager
+        }
+        if (allowJoinedUnsyncPersistenceContext == null) {
+            allowJoinedUnsyncPersistenceContext = Configuration.allowJoinedUnsyncPersistenceContext(emf, targetProperties); // extension to allow joined unsync persistence context to be treated as sync persistence context
+        }
+        boolean skipMixedSyncTypeChecking = this.skipMixedSyncTypeChecking.booleanValue();
+        boolean allowJoinedUnsyncPersistenceContext = this.allowJoinedUnsyncPersistenceContext.booleanValue();
 
         if (!skipMixedSyncTypeChecking &&
                 SynchronizationType.SYNCHRONIZED.equals(targetSynchronizationType) &&
@@ -53,7 +53,16 @@ public class TransactionUtil {
     private static final EnumSet<EventType> eventTypes = EnumSet.of(EventType.ASSOCIATED, EventType.DISASSOCIATING);
 
     public static boolean isInTx(TransactionManager transactionManager) {
-        Transaction tx = getTransaction(transactionManager);
+        return isActive(getTransaction(transactionManager));
+    }
+
+    /**
+     * Determine whether the specified transaction, as returned by {@link #getTransaction(TransactionManager)}, is active.
+     *
+     * @param tx the transaction or null
+     * @return true if tx is non-null and active
+     */
+    public static boolean isActive(Transaction tx) {
         if (tx == null || !TxUtils.isActive(tx))
             return false;
         return true;
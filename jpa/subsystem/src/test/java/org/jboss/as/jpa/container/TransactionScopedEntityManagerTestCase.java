@@ -0,0 +1,172 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.jpa.container;
+
+import static org.mockito.Mockito.*;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.SynchronizationType;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.Transaction;
+import javax.transaction.TransactionManager;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that the entity manager remembered by a {@link TransactionScopedEntityManager} is only reused within the transaction
+ * with which it was associated.
+ */
+public class TransactionScopedEntityManagerTestCase {
+
+    private static final String PU_SCOPED_NAME = "test.jar#pu";
+
+    private final EntityManagerFactory emf = mock(EntityManagerFactory.class);
+    private final TransactionManager tm = mock(TransactionManager.class);
+    private final Registry tsr = new Registry();
+
+    private TransactionScopedEntityManager entityManager;
+
+    @Before
+    public void setUp() {
+        this.entityManager = new TransactionScopedEntityManager(PU_SCOPED_NAME, Collections.emptyMap(), this.emf, SynchronizationType.SYNCHRONIZED, this.tsr, this.tm);
+    }
+
+    @Test
+    public void testReuseWithinTransaction() throws Exception {
+        EntityManager em = this.begin(mock(EntityManager.class));
+
+        Assert.assertSame(em, this.entityManager.getEntityManager());
+        Assert.assertSame(em, this.entityManager.getEntityManager());
+
+        Assert.assertEquals(1, this.tsr.lookups);
+        Assert.assertEquals(0, this.tsr.synchronizations);
+    }
+
+    @Test
+    public void testNoReuseAcrossTransactions() throws Exception {
+        EntityManager em1 = this.begin(mock(EntityManager.class));
+        Assert.assertSame(em1, this.entityManager.getEntityManager());
+
+        EntityManager em2 = this.begin(mock(EntityManager.class));
+        Assert.assertSame(em2, this.entityManager.getEntityManager());
+        Assert.assertSame(em2, this.entityManager.getEntityManager());
+
+        Assert.assertEquals(2, this.tsr.lookups);
+    }
+
+    @Test
+    public void testInterleavedTransactions() throws Exception {
+        // the proxy is shared by the threads of concurrent transactions, each of which must resolve its entity manager once
+        EntityManager em1 = mock(EntityManager.class);
+        EntityManager em2 = mock(EntityManager.class);
+        Transaction tx1 = this.tsr.begin(em1);
+        Transaction tx2 = this.tsr.begin(em2);
+        for (int i = 0; i < 3; i++) {
+            when(this.tm.getTransaction()).thenReturn(tx1);
+            Assert.assertSame(em1, this.entityManager.getEntityManager());
+            when(this.tm.getTransaction()).thenReturn(tx2);
+            Assert.assertSame(em2, this.entityManager.getEntityManager());
+        }
+        Assert.assertEquals(2, this.tsr.lookups);
+        Assert.assertEquals(0, this.tsr.synchronizations);
+    }
+
+    /**
+     * Begins a new active transaction, whose registry already holds the given entity manager for the persistence unit.
+     */
+    private EntityManager begin(EntityManager em) throws Exception {
+        when(this.tm.getTransaction()).thenReturn(this.tsr.begin(em));
+        return em;
+    }
+
+    /**
+     * Keeps the resources of each transaction, the current transaction being that of the transaction manager.
+     */
+    private class Registry implements TransactionSynchronizationRegistry {
+        private final Map<Transaction, Map<Object, Object>> resources = new HashMap<>();
+        int lookups;
+        int synchronizations;
+
+        Transaction begin(EntityManager em) throws Exception {
+            Transaction transaction = mock(Transaction.class);
+            when(transaction.getStatus()).thenReturn(Status.STATUS_ACTIVE);
+            Map<Object, Object> transactionResources = new HashMap<>();
+            transactionResources.put(PU_SCOPED_NAME, em);
+            this.resources.put(transaction, transactionResources);
+            return transaction;
+        }
+
+        private Map<Object, Object> current() {
+            try {
+                return this.resources.get(tm.getTransaction());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public Object getTransactionKey() {
+            return this.current();
+        }
+
+        @Override
+        public void putResource(Object key, Object value) {
+            this.current().put(key, value);
+        }
+
+        @Override
+        public Object getResource(Object key) {
+            if (PU_SCOPED_NAME.equals(key)) {
+                this.lookups++;
+            }
+            return this.current().get(key);
+        }
+
+        @Override
+        public void registerInterposedSynchronization(Synchronization sync) {
+            this.synchronizations++;
+        }
+
+        @Override
+        public int getTransactionStatus() {
+            return Status.STATUS_ACTIVE;
+        }
+
+        @Override
+        public void setRollbackOnly() {
+        }
+
+        @Override
+        public boolean getRollbackOnly() {
+            return false;
+        }
+    }
+}
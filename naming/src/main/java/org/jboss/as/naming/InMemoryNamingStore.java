@@ -32,10 +32,12 @@ import static org.jboss.as.naming.util.NamingUtils.nameNotFoundException;
 import static org.jboss.as.naming.util.NamingUtils.notAContextException;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.HashSet;
 import java.util.Hashtable;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -53,6 +55,7 @@ import javax.naming.event.NamingEvent;
 import javax.naming.event.NamingListener;
 import javax.naming.spi.ResolveResult;
 import org.jboss.as.naming.logging.NamingLogger;
+import org.jboss.as.naming.util.PersistentHashMap;
 
 /**
  * In-memory implementation of the NamingStore.  The backing for the entries is a basic tree structure with either context
@@ -136,6 +139,54 @@ public class InMemoryNamingStore implements WritableNamingStore {
         }
     }
 
+    /**
+     * Bind multiple entries, creating parent contexts if needed.  The bindings of each parent context are published
+     * atomically, and no binding is published if any of the names is already bound.
+     *
+     * @param bindings The entry objects, keyed by entry name
+     * @throws NamingException
+     */
+    @Override
+    public void bind(final Map<Name, Object> bindings) throws NamingException {
+        for (Name name : bindings.keySet()) {
+            if (isLastComponentEmpty(name)) {
+                throw emptyNameException();
+            }
+        }
+
+        writeLock.lock();
+        try {
+            final Map<ContextNode, List<BindingNode>> bindingNodes = new LinkedHashMap<ContextNode, List<BindingNode>>();
+            for (Map.Entry<Name, Object> entry : bindings.entrySet()) {
+                final Name name = entry.getKey();
+                final Object object = entry.getValue();
+                final ContextNode contextNode = root.accept(new ResolveBindContextVisitor(name));
+                final Binding binding = new Binding(getLastComponent(name), object.getClass().getName(), object, true);
+                bindingNodes.computeIfAbsent(contextNode, key -> new ArrayList<BindingNode>()).add(new BindingNode(name, binding));
+            }
+            // Verify all bindings before publishing any of them
+            for (Map.Entry<ContextNode, List<BindingNode>> entry : bindingNodes.entrySet()) {
+                final Map<String, TreeNode> children = entry.getKey().children;
+                final Set<String> childNames = new HashSet<String>();
+                for (BindingNode bindingNode : entry.getValue()) {
+                    final String childName = bindingNode.binding.getName();
+                    if (children.containsKey(childName) || !childNames.add(childName)) {
+                        throw nameAlreadyBoundException(bindingNode.fullName);
+                    }
+                }
+            }
+            for (Map.Entry<ContextNode, List<BindingNode>> entry : bindingNodes.entrySet()) {
+                final ContextNode contextNode = entry.getKey();
+                contextNode.addChildren(entry.getValue());
+                for (BindingNode bindingNode : entry.getValue()) {
+                    fireEvent(contextNode, bindingNode.fullName, null, bindingNode.binding, NamingEvent.OBJECT_ADDED, "bind");
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
     /** {@inheritDoc} */
     public void rebind(Name name, Object object) throws NamingException {
         rebind(name, object, object.getClass());
@@ -186,6 +237,15 @@ public class InMemoryNamingStore implements WritableNamingStore {
             final Name emptyName = new CompositeName("");
             return new NamingContext(emptyName, this, new Hashtable<String, Object>());
         }
+        // Fast path: resolve the name directly against the current children of each context, without allocating a visitor
+        // Anything other than a direct hit (e.g. a missing entry, or a name that continues beyond a binding) is handled by the visitor
+        TreeNode node = root;
+        for (int i = 0; (node != null) && (i < name.size()); ++i) {
+            node = (node instanceof ContextNode) ? ((ContextNode) node).children.get(name.get(i)) : null;
+        }
+        if (node != null) {
+            return node.binding.getObject();
+        }
         return root.accept(new LookupVisitor(name));
     }
 
@@ -296,10 +356,12 @@ public class InMemoryNamingStore implements WritableNamingStore {
         protected abstract <T> T accept(NodeVisitor<T> visitor) throws NamingException;
     }
 
-    private static final AtomicMapFieldUpdater<ContextNode, String, TreeNode> childrenUpdater = AtomicMapFieldUpdater.newMapUpdater(AtomicReferenceFieldUpdater.newUpdater(ContextNode.class, Map.class, "children"));
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<ContextNode, PersistentHashMap> childrenUpdater = AtomicReferenceFieldUpdater.newUpdater(ContextNode.class, PersistentHashMap.class, "children");
 
     private class ContextNode extends TreeNode {
-        volatile Map<String, TreeNode> children = Collections.emptyMap();
+        // Immutable, structurally shared map, replaced atomically on each update, so that readers never block
+        volatile PersistentHashMap<String, TreeNode> children = PersistentHashMap.empty();
         protected final String name;
         protected final ContextNode parentNode;
 
@@ -310,36 +372,84 @@ public class InMemoryNamingStore implements WritableNamingStore {
         }
 
         private void addChild(final String childName, final TreeNode childNode) throws NamingException {
-            if (childrenUpdater.putIfAbsent(this, childName, childNode) != null) {
+            if (putIfAbsent(childName, childNode) != null) {
                 throw nameAlreadyBoundException(fullName.add(childName));
             }
         }
 
+        private void addChildren(final List<? extends TreeNode> childNodes) throws NamingException {
+            for (;;) {
+                final PersistentHashMap<String, TreeNode> snapshot = children;
+                PersistentHashMap<String, TreeNode> result = snapshot;
+                for (TreeNode childNode : childNodes) {
+                    final String childName = childNode.binding.getName();
+                    if (result.containsKey(childName)) {
+                        throw nameAlreadyBoundException(childNode.fullName);
+                    }
+                    result = result.plus(childName, childNode);
+                }
+                if (childrenUpdater.compareAndSet(this, snapshot, result)) {
+                    return;
+                }
+            }
+        }
+
         private TreeNode replaceChild(final String childName, final TreeNode childNode) throws NamingException {
-            return childrenUpdater.put(this, childName, childNode);
+            for (;;) {
+                final PersistentHashMap<String, TreeNode> snapshot = children;
+                if (childrenUpdater.compareAndSet(this, snapshot, snapshot.plus(childName, childNode))) {
+                    return snapshot.get(childName);
+                }
+            }
         }
 
         private TreeNode removeChild(final String childName) throws NameNotFoundException {
-            TreeNode old = childrenUpdater.remove(this, childName);
+            TreeNode old = remove(childName);
             if (old == null) {
                 throw nameNotFoundException(childName, fullName);
             }
             if(parentNode != null && children.isEmpty()) {
-                childrenUpdater.remove(parentNode, name);
+                parentNode.remove(name);
             }
             return old;
         }
 
         private void clear() {
-            childrenUpdater.clear(this);
+            childrenUpdater.set(this, PersistentHashMap.empty());
+        }
+
+        private TreeNode putIfAbsent(final String childName, final TreeNode childNode) {
+            for (;;) {
+                final PersistentHashMap<String, TreeNode> snapshot = children;
+                final TreeNode existing = snapshot.get(childName);
+                if (existing != null) {
+                    return existing;
+                }
+                if (childrenUpdater.compareAndSet(this, snapshot, snapshot.plus(childName, childNode))) {
+                    return null;
+                }
+            }
         }
 
         protected final <T> T accept(NodeVisitor<T> visitor) throws NamingException {
             return visitor.visit(this);
         }
 
+        private TreeNode remove(final String childName) {
+            for (;;) {
+                final PersistentHashMap<String, TreeNode> snapshot = children;
+                final TreeNode existing = snapshot.get(childName);
+                if (existing == null) {
+                    return null;
+                }
+                if (childrenUpdater.compareAndSet(this, snapshot, snapshot.minus(childName))) {
+                    return existing;
+                }
+            }
+        }
+
         public TreeNode addOrGetChild(final String childName, final TreeNode childNode) {
-            TreeNode appearing = childrenUpdater.putIfAbsent(this, childName, childNode);
+            TreeNode appearing = putIfAbsent(childName, childNode);
             return appearing == null ? childNode : appearing;
         }
     }
@@ -492,6 +602,17 @@ public class InMemoryNamingStore implements WritableNamingStore {
         }
     }
 
+    private final class ResolveBindContextVisitor extends BindingContextVisitor<ContextNode> {
+
+        private ResolveBindContextVisitor(final Name targetName) {
+            super(true, targetName);
+        }
+
+        protected ContextNode foundBindContext(final ContextNode contextNode) throws NamingException {
+            return contextNode;
+        }
+    }
+
     private final class LookupVisitor extends NodeTraversingVisitor<Object> {
         private LookupVisitor(final Name targetName) {
             super(targetName);
@@ -0,0 +1,172 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.naming;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.naming.Name;
+
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceName;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Cache of resolved lookup results for a {@link ServiceBasedNamingStore}, keyed by the parsed lookup {@link Name}.
+ * Only direct hits on bindings whose {@link ManagedReferenceFactory} always yields the same instance are cached.
+ * An entry is dropped as soon as its binder service is removed from the store, and is ignored if the binder service
+ * no longer exposes the factory the entry was created from (e.g. following a rebind).
+ * The cache is disabled by default, and may be enabled via the {@value #ENABLED_PROPERTY} system property.
+ */
+public final class NamingLookupCache {
+
+    static final String ENABLED_PROPERTY = "org.jboss.as.naming.lookup.cache";
+
+    private static final boolean ENABLED = Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(ENABLED_PROPERTY, "false"));
+
+    private static final LongAdder HITS = new LongAdder();
+    private static final LongAdder MISSES = new LongAdder();
+
+    /**
+     * Indicates whether naming stores should cache lookup results by default.
+     * @return true, if the lookup cache is enabled, false otherwise
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Returns the number of lookups, across all naming stores, that were served from a lookup cache.
+     * @return a number of cache hits
+     */
+    public static long getHitCount() {
+        return HITS.sum();
+    }
+
+    /**
+     * Returns the number of lookups, across all naming stores, that could not be served from a lookup cache.
+     * @return a number of cache misses
+     */
+    public static long getMissCount() {
+        return MISSES.sum();
+    }
+
+    /**
+     * Indicates whether every reference created by the specified factory references the same instance.
+     * @param factory a managed reference factory
+     * @return true, if the instance of the factory's references may be cached, false otherwise
+     */
+    static boolean isCacheable(ManagedReferenceFactory factory) {
+        return (factory instanceof ImmediateManagedReferenceFactory) || (factory instanceof StaticManagedObject) || ((factory instanceof ValueManagedReferenceFactory) && ((ValueManagedReferenceFactory) factory).isImmediate());
+    }
+
+    private final Map<Name, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Returns the cached instance bound to the specified name.
+     * @param name a lookup name
+     * @return the cache entry for the specified name, or null if there is none
+     */
+    Entry get(Name name) {
+        Entry entry = this.entries.get(name);
+        if ((entry != null) && !entry.isValid()) {
+            this.entries.remove(name, entry);
+            entry = null;
+        }
+        ((entry != null) ? HITS : MISSES).increment();
+        return entry;
+    }
+
+    /**
+     * Returns the current generation of this cache, to be passed to a subsequent {@link #put(Name, long, ServiceName, ServiceController, ManagedReferenceFactory, Object)}.
+     * @return the current generation of this cache
+     */
+    long getGeneration() {
+        return this.generation.get();
+    }
+
+    /**
+     * Caches the instance resolved for the specified name, unless a binding was removed since the specified generation.
+     * @param name a lookup name
+     * @param generation the generation of this cache obtained before the binding was resolved
+     * @param serviceName the name of the binder service
+     * @param controller the controller of the binder service
+     * @param factory the managed reference factory of the binder service
+     * @param instance the resolved instance
+     */
+    void put(Name name, long generation, ServiceName serviceName, ServiceController<?> controller, ManagedReferenceFactory factory, Object instance) {
+        if (this.generation.get() == generation) {
+            Entry entry = new Entry(serviceName, controller, factory, instance);
+            this.entries.put((Name) name.clone(), entry);
+            // Discard our entry if a binding was removed concurrently
+            if (this.generation.get() != generation) {
+                this.entries.remove(name, entry);
+            }
+        }
+    }
+
+    /**
+     * Invalidates any entries resolved from the specified binder service.
+     * @param serviceName the name of a binder service
+     */
+    void invalidate(ServiceName serviceName) {
+        this.generation.incrementAndGet();
+        this.entries.values().removeIf(entry -> entry.serviceName.equals(serviceName));
+    }
+
+    /**
+     * Invalidates all entries.
+     */
+    void clear() {
+        this.generation.incrementAndGet();
+        this.entries.clear();
+    }
+
+    static class Entry {
+        private final ServiceName serviceName;
+        private final ServiceController<?> controller;
+        private final ManagedReferenceFactory factory;
+        private final Object instance;
+
+        Entry(ServiceName serviceName, ServiceController<?> controller, ManagedReferenceFactory factory, Object instance) {
+            this.serviceName = serviceName;
+            this.controller = controller;
+            this.factory = factory;
+            this.instance = instance;
+        }
+
+        Object getInstance() {
+            return this.instance;
+        }
+
+        boolean isValid() {
+            try {
+                return this.controller.getValue() == this.factory;
+            } catch (IllegalStateException e) {
+                return false;
+            }
+        }
+    }
+}
@@ -64,10 +64,23 @@ public class ServiceBasedNamingStore implements NamingStore {
     private final ServiceName serviceNameBase;
 
     private ConcurrentSkipListSet<ServiceName> boundServices = new ConcurrentSkipListSet<ServiceName>();
+    private final NamingLookupCache lookupCache;
 
     public ServiceBasedNamingStore(final ServiceRegistry serviceRegistry, final ServiceName serviceNameBase) {
+        this(serviceRegistry, serviceNameBase, NamingLookupCache.isEnabled());
+    }
+
+    /**
+     * Creates a naming store for the specified base service name.
+     *
+     * @param serviceRegistry the registry of the binder services
+     * @param serviceNameBase the base service name of the binder services of this store
+     * @param cacheLookups indicates whether lookups of immutable bindings should be cached
+     */
+    public ServiceBasedNamingStore(final ServiceRegistry serviceRegistry, final ServiceName serviceNameBase, final boolean cacheLookups) {
         this.serviceRegistry = serviceRegistry;
         this.serviceNameBase = serviceNameBase;
+        this.lookupCache = cacheLookups ? new NamingLookupCache() : null;
     }
 
     @Override
@@ -79,8 +92,15 @@ public class ServiceBasedNamingStore implements NamingStore {
         if (name.isEmpty()) {
             return new NamingContext(EMPTY_NAME, this, null);
         }
+        final NamingLookupCache cache = dereference ? this.lookupCache : null;
+        if (cache != null) {
+            final NamingLookupCache.Entry entry = cache.get(name);
+            if (entry != null) {
+                return entry.getInstance();
+            }
+        }
         final ServiceName lookupName = buildServiceName(name);
-        Object obj = lookup(name.toString(), lookupName, dereference);
+        Object obj = lookup(name.toString(), lookupName, dereference, (cache != null) ? name : null);
         if (obj == null) {
             final ServiceName lower = boundServices.lower(lookupName);
             if (lower != null && lower.isParentOf(lookupName)) {
@@ -125,24 +145,36 @@ public class ServiceBasedNamingStore implements NamingStore {
     }
 
     private Object lookup(final String name, final ServiceName lookupName, boolean dereference) throws NamingException {
+        return lookup(name, lookupName, dereference, null);
+    }
+
+    private Object lookup(final String name, final ServiceName lookupName, boolean dereference, Name cacheName) throws NamingException {
+        final NamingLookupCache cache = (cacheName != null) ? this.lookupCache : null;
+        final long generation = (cache != null) ? cache.getGeneration() : 0L;
         try {
             final ServiceController<?> controller = serviceRegistry.getService(lookupName);
             if (controller != null) {
                 final Object object = controller.getValue();
                 if (dereference && object instanceof ManagedReferenceFactory) {
+                    final ManagedReferenceFactory factory = ManagedReferenceFactory.class.cast(object);
+                    final Object instance;
                     if(WildFlySecurityManager.isChecking()) {
                         //WFLY-3487 JNDI lookups should be executed in a clean access control context
-                        return AccessController.doPrivileged(new PrivilegedAction<Object>() {
+                        instance = AccessController.doPrivileged(new PrivilegedAction<Object>() {
                             @Override
                             public Object run() {
-                                final ManagedReference managedReference = ManagedReferenceFactory.class.cast(object).getReference();
+                                final ManagedReference managedReference = factory.getReference();
                                 return managedReference != null ? managedReference.getInstance() : null;
                             }
                         });
                     } else {
-                        final ManagedReference managedReference = ManagedReferenceFactory.class.cast(object).getReference();
-                        return managedReference != null ? managedReference.getInstance() : null;
+                        final ManagedReference managedReference = factory.getReference();
+                        instance = managedReference != null ? managedReference.getInstance() : null;
+                    }
+                    if ((cache != null) && NamingLookupCache.isCacheable(factory)) {
+                        cache.put(cacheName, generation, lookupName, controller, factory, instance);
                     }
+                    return instance;
                 } else {
                     return object;
                 }
@@ -257,6 +289,9 @@ public class ServiceBasedNamingStore implements NamingStore {
 
     public void close() throws NamingException {
         boundServices.clear();
+        if (lookupCache != null) {
+            lookupCache.clear();
+        }
     }
 
     public void addNamingListener(Name target, int scope, NamingListener listener) {
@@ -275,6 +310,9 @@ public class ServiceBasedNamingStore implements NamingStore {
 
     public void remove(final ServiceName serviceName) {
         boundServices.remove(serviceName);
+        if (lookupCache != null) {
+            lookupCache.invalidate(serviceName);
+        }
     }
 
     protected ServiceName buildServiceName(final Name name) {
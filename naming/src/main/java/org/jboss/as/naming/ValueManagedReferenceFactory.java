@@ -24,6 +24,7 @@ package org.jboss.as.naming;
 
 import java.io.Serializable;
 
+import org.jboss.msc.value.ImmediateValue;
 import org.jboss.msc.value.Value;
 import org.wildfly.security.manager.WildFlySecurityManager;
 
@@ -46,6 +47,15 @@ public final class ValueManagedReferenceFactory implements ContextListAndJndiVie
         this.value = value;
     }
 
+    /**
+     * Indicates whether the wrapped value is fixed.
+     *
+     * @return true, if the wrapped value is an {@link ImmediateValue}, false otherwise
+     */
+    boolean isImmediate() {
+        return value instanceof ImmediateValue;
+    }
+
     @Override
     public ManagedReference getReference() {
         return new ValueManagedReference(value.getValue());
@@ -22,6 +22,8 @@
 
 package org.jboss.as.naming;
 
+import java.util.Map;
+
 import javax.naming.Context;
 import javax.naming.Name;
 import javax.naming.NamingException;
@@ -53,6 +55,20 @@ public interface WritableNamingStore extends NamingStore {
      */
     void bind(Name name, Object object, Class<?> bindType) throws NamingException;
 
+    /**
+     * Bind multiple objects into the naming store, creating parent contexts if needed.  The bind object types will be
+     * determined by the classes of the objects being passed in.  Implementations may publish the bindings more efficiently
+     * than binding each entry individually.
+     *
+     * @param bindings The entry objects, keyed by entry name
+     * @throws NamingException If any problems occur
+     */
+    default void bind(Map<Name, Object> bindings) throws NamingException {
+        for (Map.Entry<Name, Object> entry : bindings.entrySet()) {
+            bind(entry.getKey(), entry.getValue());
+        }
+    }
+
     /**
      * Re-bind and object into the naming store.  All parent contexts must be created before this can be executed.
      * The bind object type will be determined by the class of the object being passed in.
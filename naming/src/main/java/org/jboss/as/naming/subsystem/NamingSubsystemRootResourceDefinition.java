@@ -25,12 +25,15 @@ package org.jboss.as.naming.subsystem;
 import java.util.EnumSet;
 
 import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleOperationDefinition;
 import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.capability.RuntimeCapability;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.naming.NamingLookupCache;
 import org.jboss.as.naming.NamingStore;
 import org.jboss.as.naming.management.JndiViewOperation;
 import org.jboss.as.naming.service.NamingService;
@@ -65,12 +68,26 @@ public class NamingSubsystemRootResourceDefinition extends SimpleResourceDefinit
             .setReplyValueType(ModelType.STRING)
             .build();
 
+    static final SimpleAttributeDefinition LOOKUP_CACHE_HITS = new SimpleAttributeDefinitionBuilder(NamingSubsystemModel.LOOKUP_CACHE_HITS, ModelType.LONG, true)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition LOOKUP_CACHE_MISSES = new SimpleAttributeDefinitionBuilder(NamingSubsystemModel.LOOKUP_CACHE_MISSES, ModelType.LONG, true)
+            .setStorageRuntime()
+            .build();
+
     NamingSubsystemRootResourceDefinition() {
         super(PathElement.pathElement(ModelDescriptionConstants.SUBSYSTEM, NamingExtension.SUBSYSTEM_NAME),
                 NamingExtension.getResourceDescriptionResolver(NamingExtension.SUBSYSTEM_NAME),
                 new NamingSubsystemAdd(), new NamingSubsystemRemove());
     }
 
+    @Override
+    public void registerAttributes(ManagementResourceRegistration registration) {
+        registration.registerMetric(LOOKUP_CACHE_HITS, (context, operation) -> context.getResult().set(NamingLookupCache.getHitCount()));
+        registration.registerMetric(LOOKUP_CACHE_MISSES, (context, operation) -> context.getResult().set(NamingLookupCache.getMissCount()));
+    }
+
     @Override
     public void registerCapabilities(ManagementResourceRegistration registration) {
         for (Capability capability : EnumSet.allOf(Capability.class)) {
@@ -0,0 +1,362 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.naming.util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable hash map, implemented as a hash array mapped trie.
+ * Updates return a new map that shares all unmodified branches of the trie with the original map,
+ * so that an update costs O(log<sub>32</sub>n) rather than the O(n) cost of copying a conventional hash map.
+ * This makes the map suitable for copy-on-write publication of large, concurrently read maps.
+ * Null keys and values are not supported.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public final class PersistentHashMap<K, V> extends AbstractMap<K, V> {
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    private static final PersistentHashMap<Object, Object> EMPTY = new PersistentHashMap<>(new BitmapNode<>(0, new Object[0]), 0);
+
+    private final Node<K, V> root;
+    private final int size;
+
+    private PersistentHashMap(Node<K, V> root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Returns an empty map.
+     * @return an empty map
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentHashMap<K, V> empty() {
+        return (PersistentHashMap<K, V>) EMPTY;
+    }
+
+    /**
+     * Returns a map containing the mappings of this map, plus the specified mapping.
+     * @param key a key
+     * @param value a value
+     * @return a new map, or this map, if it already contains the specified mapping
+     */
+    public PersistentHashMap<K, V> plus(K key, V value) {
+        final Leaf<K, V> leaf = new Leaf<>(key, value);
+        final Node<K, V> result = this.root.put(leaf, 0);
+        if (result == this.root) return this;
+        return new PersistentHashMap<>(result, (this.root.find(key, leaf.hash, 0) != null) ? this.size : this.size + 1);
+    }
+
+    /**
+     * Returns a map containing the mappings of this map, minus the mapping for the specified key.
+     * @param key a key
+     * @return a new map, or this map, if it does not contain the specified key
+     */
+    public PersistentHashMap<K, V> minus(Object key) {
+        if (key == null) return this;
+        final Node<K, V> result = this.root.remove(key, hash(key), 0);
+        if (result == this.root) return this;
+        return (result != null) ? new PersistentHashMap<>(result, this.size - 1) : empty();
+    }
+
+    @Override
+    public V get(Object key) {
+        if (key == null) return null;
+        final Leaf<K, V> leaf = this.root.find(key, hash(key), 0);
+        return (leaf != null) ? leaf.getValue() : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return (key != null) && (this.root.find(key, hash(key), 0) != null);
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        return new AbstractSet<Map.Entry<K, V>>() {
+            @Override
+            public Iterator<Map.Entry<K, V>> iterator() {
+                final List<Map.Entry<K, V>> entries = new ArrayList<>(PersistentHashMap.this.size);
+                PersistentHashMap.this.root.collect(entries);
+                return entries.iterator();
+            }
+
+            @Override
+            public int size() {
+                return PersistentHashMap.this.size;
+            }
+        };
+    }
+
+    static int hash(Object key) {
+        // Spread higher bits, since each level of the trie only consumes 5 bits of the hash
+        final int hash = key.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    private interface Node<K, V> {
+        Leaf<K, V> find(Object key, int hash, int shift);
+
+        Node<K, V> put(Leaf<K, V> leaf, int shift);
+
+        /**
+         * @return the updated node, this node if the key was not found, or null if the resulting node would be empty
+         */
+        Node<K, V> remove(Object key, int hash, int shift);
+
+        /**
+         * @return the only entry of this node, or null, if this node contains more than one entry
+         */
+        Leaf<K, V> single();
+
+        void collect(List<Map.Entry<K, V>> entries);
+    }
+
+    private static final class Leaf<K, V> extends AbstractMap.SimpleImmutableEntry<K, V> {
+        private static final long serialVersionUID = 4574306395398441138L;
+
+        final int hash;
+
+        Leaf(K key, V value) {
+            super(key, value);
+            if ((key == null) || (value == null)) throw new NullPointerException();
+            this.hash = hash(key);
+        }
+    }
+
+    /**
+     * A trie node whose bitmap indicates which of its 32 possible slots are populated by either a leaf or a sub-node.
+     */
+    private static final class BitmapNode<K, V> implements Node<K, V> {
+        private final int bitmap;
+        private final Object[] slots;
+
+        BitmapNode(int bitmap, Object[] slots) {
+            this.bitmap = bitmap;
+            this.slots = slots;
+        }
+
+        private static int bit(int hash, int shift) {
+            return 1 << ((hash >>> shift) & MASK);
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(this.bitmap & (bit - 1));
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public Leaf<K, V> find(Object key, int hash, int shift) {
+            final int bit = bit(hash, shift);
+            if ((this.bitmap & bit) == 0) return null;
+            final Object slot = this.slots[this.index(bit)];
+            if (slot instanceof Leaf) {
+                final Leaf<K, V> leaf = (Leaf<K, V>) slot;
+                return ((leaf.hash == hash) && leaf.getKey().equals(key)) ? leaf : null;
+            }
+            return ((Node<K, V>) slot).find(key, hash, shift + BITS);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public Node<K, V> put(Leaf<K, V> leaf, int shift) {
+            final int bit = bit(leaf.hash, shift);
+            final int index = this.index(bit);
+            if ((this.bitmap & bit) == 0) {
+                final Object[] slots = new Object[this.slots.length + 1];
+                System.arraycopy(this.slots, 0, slots, 0, index);
+                slots[index] = leaf;
+                System.arraycopy(this.slots, index, slots, index + 1, this.slots.length - index);
+                return new BitmapNode<>(this.bitmap | bit, slots);
+            }
+            final Object slot = this.slots[index];
+            final Object replacement;
+            if (slot instanceof Leaf) {
+                final Leaf<K, V> existing = (Leaf<K, V>) slot;
+                if ((existing.hash == leaf.hash) && existing.getKey().equals(leaf.getKey())) {
+                    if (existing.getValue() == leaf.getValue()) return this;
+                    replacement = leaf;
+                } else {
+                    replacement = merge(existing, leaf, shift + BITS);
+                }
+            } else {
+                final Node<K, V> node = (Node<K, V>) slot;
+                replacement = node.put(leaf, shift + BITS);
+                if (replacement == node) return this;
+            }
+            return this.replace(index, replacement);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public Node<K, V> remove(Object key, int hash, int shift) {
+            final int bit = bit(hash, shift);
+            if ((this.bitmap & bit) == 0) return this;
+            final int index = this.index(bit);
+            final Object slot = this.slots[index];
+            if (slot instanceof Leaf) {
+                final Leaf<K, V> leaf = (Leaf<K, V>) slot;
+                if ((leaf.hash != hash) || !leaf.getKey().equals(key)) return this;
+                if (this.slots.length == 1) return null;
+                final Object[] slots = new Object[this.slots.length - 1];
+                System.arraycopy(this.slots, 0, slots, 0, index);
+                System.arraycopy(this.slots, index + 1, slots, index, slots.length - index);
+                return new BitmapNode<>(this.bitmap & ~bit, slots);
+            }
+            final Node<K, V> node = (Node<K, V>) slot;
+            final Node<K, V> result = node.remove(key, hash, shift + BITS);
+            if (result == node) return this;
+            if (result == null) {
+                // Cannot happen, since sub-nodes always contain at least 2 entries
+                throw new IllegalStateException();
+            }
+            // Collapse sub-nodes containing a single entry
+            final Leaf<K, V> single = result.single();
+            return this.replace(index, (single != null) ? single : result);
+        }
+
+        private Node<K, V> replace(int index, Object slot) {
+            final Object[] slots = this.slots.clone();
+            slots[index] = slot;
+            return new BitmapNode<>(this.bitmap, slots);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public Leaf<K, V> single() {
+            return ((this.slots.length == 1) && (this.slots[0] instanceof Leaf)) ? (Leaf<K, V>) this.slots[0] : null;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public void collect(List<Map.Entry<K, V>> entries) {
+            for (Object slot : this.slots) {
+                if (slot instanceof Leaf) {
+                    entries.add((Leaf<K, V>) slot);
+                } else {
+                    ((Node<K, V>) slot).collect(entries);
+                }
+            }
+        }
+
+        private static <K, V> Node<K, V> merge(Leaf<K, V> leaf1, Leaf<K, V> leaf2, int shift) {
+            if ((leaf1.hash == leaf2.hash) || (shift >= Integer.SIZE)) {
+                return new CollisionNode<>(leaf1.hash, new Object[] { leaf1, leaf2 });
+            }
+            final int bit1 = bit(leaf1.hash, shift);
+            final int bit2 = bit(leaf2.hash, shift);
+            if (bit1 == bit2) {
+                return new BitmapNode<>(bit1, new Object[] { merge(leaf1, leaf2, shift + BITS) });
+            }
+            // Slots are ordered by bit position
+            return new BitmapNode<>(bit1 | bit2, (Integer.compareUnsigned(bit1, bit2) < 0) ? new Object[] { leaf1, leaf2 } : new Object[] { leaf2, leaf1 });
+        }
+    }
+
+    /**
+     * A trie node containing entries whose keys share the same hash.
+     */
+    private static final class CollisionNode<K, V> implements Node<K, V> {
+        private final int hash;
+        private final Object[] leaves;
+
+        CollisionNode(int hash, Object[] leaves) {
+            this.hash = hash;
+            this.leaves = leaves;
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < this.leaves.length; ++i) {
+                if (((Leaf<?, ?>) this.leaves[i]).getKey().equals(key)) return i;
+            }
+            return -1;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public Leaf<K, V> find(Object key, int hash, int shift) {
+            if (hash != this.hash) return null;
+            final int index = this.indexOf(key);
+            return (index >= 0) ? (Leaf<K, V>) this.leaves[index] : null;
+        }
+
+        @Override
+        public Node<K, V> put(Leaf<K, V> leaf, int shift) {
+            if (leaf.hash != this.hash) {
+                // Nest this node within a bitmap node, then insert the leaf alongside
+                final int bit = 1 << ((this.hash >>> shift) & MASK);
+                return new BitmapNode<K, V>(bit, new Object[] { this }).put(leaf, shift);
+            }
+            final int index = this.indexOf(leaf.getKey());
+            if (index >= 0) {
+                if (((Leaf<?, ?>) this.leaves[index]).getValue() == leaf.getValue()) return this;
+                final Object[] leaves = this.leaves.clone();
+                leaves[index] = leaf;
+                return new CollisionNode<>(this.hash, leaves);
+            }
+            final Object[] leaves = new Object[this.leaves.length + 1];
+            System.arraycopy(this.leaves, 0, leaves, 0, this.leaves.length);
+            leaves[this.leaves.length] = leaf;
+            return new CollisionNode<>(this.hash, leaves);
+        }
+
+        @Override
+        public Node<K, V> remove(Object key, int hash, int shift) {
+            if (hash != this.hash) return this;
+            final int index = this.indexOf(key);
+            if (index < 0) return this;
+            final Object[] leaves = new Object[this.leaves.length - 1];
+            System.arraycopy(this.leaves, 0, leaves, 0, index);
+            System.arraycopy(this.leaves, index + 1, leaves, index, leaves.length - index);
+            return new CollisionNode<>(this.hash, leaves);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public Leaf<K, V> single() {
+            return (this.leaves.length == 1) ? (Leaf<K, V>) this.leaves[0] : null;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public void collect(List<Map.Entry<K, V>> entries) {
+            for (Object leaf : this.leaves) {
+                entries.add((Leaf<K, V>) leaf);
+            }
+        }
+    }
+}
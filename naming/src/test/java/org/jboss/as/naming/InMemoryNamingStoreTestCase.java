@@ -31,13 +31,16 @@ import javax.naming.CompositeName;
 import javax.naming.Context;
 import javax.naming.InvalidNameException;
 import javax.naming.Name;
+import javax.naming.NameAlreadyBoundException;
 import javax.naming.NameClassPair;
 import javax.naming.NameNotFoundException;
 import javax.naming.Reference;
 import javax.naming.spi.ResolveResult;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
@@ -265,4 +268,44 @@ public class InMemoryNamingStoreTestCase {
             fail("Should have throw name not found exception");
         } catch (NameNotFoundException expected){}
     }
+
+    @Test
+    public void testBatchBind() throws Exception {
+        final Map<Name, Object> bindings = new LinkedHashMap<Name, Object>();
+        for (int i = 0; i < 100; i++) {
+            bindings.put(new CompositeName("test/batch/item" + i), Integer.valueOf(i));
+        }
+        bindings.put(new CompositeName("other"), "other");
+        nameStore.bind(bindings);
+
+        for (Map.Entry<Name, Object> entry : bindings.entrySet()) {
+            assertEquals(entry.getValue(), nameStore.lookup(entry.getKey()));
+        }
+        assertEquals(100, nameStore.list(new CompositeName("test/batch")).size());
+    }
+
+    @Test
+    public void testBatchBindAlreadyBound() throws Exception {
+        nameStore.bind(new CompositeName("test/existing"), "existing");
+
+        final Map<Name, Object> bindings = new LinkedHashMap<Name, Object>();
+        bindings.put(new CompositeName("test/new"), "new");
+        bindings.put(new CompositeName("other"), "other");
+        bindings.put(new CompositeName("test/existing"), "replacement");
+        try {
+            nameStore.bind(bindings);
+            fail("Should have thrown NameAlreadyBoundException");
+        } catch (NameAlreadyBoundException expected) {}
+
+        // No binding of the batch was published
+        assertEquals("existing", nameStore.lookup(new CompositeName("test/existing")));
+        try {
+            nameStore.lookup(new CompositeName("test/new"));
+            fail("Should have thrown NameNotFoundException");
+        } catch (NameNotFoundException expected) {}
+        try {
+            nameStore.lookup(new CompositeName("other"));
+            fail("Should have thrown NameNotFoundException");
+        } catch (NameNotFoundException expected) {}
+    }
 }
@@ -31,11 +31,14 @@ import javax.naming.CompositeName;
 import javax.naming.Context;
 import javax.naming.Name;
 import javax.naming.NameClassPair;
+import javax.naming.NameNotFoundException;
 import javax.naming.NameParser;
 import javax.naming.NamingEnumeration;
 import javax.naming.NamingException;
 
+import org.jboss.msc.service.AbstractServiceListener;
 import org.jboss.msc.service.Service;
+import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.service.ServiceContainer;
 import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.StartContext;
@@ -44,6 +47,7 @@ import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.Values;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -98,6 +102,49 @@ public class ServiceBasedNamingStoreTestCase {
         assertEquals(value, obj);
     }
 
+    @Test
+    public void testLookupCache() throws Exception {
+        store = new ServiceBasedNamingStore(container, ServiceName.JBOSS, true);
+        final ServiceName bindingName = ServiceName.JBOSS.append("foo", "bar");
+        final Object value = new Object();
+        bindFactory(bindingName, new ImmediateManagedReferenceFactory(value));
+
+        final long hits = NamingLookupCache.getHitCount();
+        assertSame(value, store.lookup(new CompositeName("foo/bar")));
+        assertEquals(hits, NamingLookupCache.getHitCount());
+        assertSame(value, store.lookup(new CompositeName("foo/bar")));
+        assertEquals(hits + 1, NamingLookupCache.getHitCount());
+    }
+
+    @Test
+    public void testLookupCacheInvalidation() throws Exception {
+        store = new ServiceBasedNamingStore(container, ServiceName.JBOSS, true);
+        final ServiceName bindingName = ServiceName.JBOSS.append("foo", "bar");
+        final Object value = new Object();
+        final ServiceController<?> controller = bindFactory(bindingName, new ImmediateManagedReferenceFactory(value));
+
+        assertSame(value, store.lookup(new CompositeName("foo/bar")));
+        assertSame(value, store.lookup(new CompositeName("foo/bar")));
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        controller.addListener(new AbstractServiceListener<Object>() {
+            @Override
+            public void transition(ServiceController<?> controller, ServiceController.Transition transition) {
+                if (transition.getAfter() == ServiceController.Substate.REMOVED) {
+                    latch.countDown();
+                }
+            }
+        });
+        controller.setMode(ServiceController.Mode.REMOVE);
+        latch.await();
+
+        try {
+            store.lookup(new CompositeName("foo/bar"));
+            fail("Should have thrown name not found");
+        } catch (NameNotFoundException expected) {
+        }
+    }
+
     @Test
     public void testLookupParentContext() throws Exception {
         final ServiceName bindingName = ServiceName.JBOSS.append("foo", "bar");
@@ -415,4 +462,24 @@ public class ServiceBasedNamingStoreTestCase {
         }).install();
         latch.await();
     }
+
+    private ServiceController<?> bindFactory(final ServiceName serviceName, final ManagedReferenceFactory factory) throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final ServiceController<?> controller = container.addService(serviceName, new Service<ManagedReferenceFactory>() {
+            public void start(StartContext context) throws StartException {
+                store.add(serviceName);
+                latch.countDown();
+            }
+
+            public void stop(StopContext context) {
+                store.remove(serviceName);
+            }
+
+            public ManagedReferenceFactory getValue() throws IllegalStateException, IllegalArgumentException {
+                return factory;
+            }
+        }).install();
+        latch.await();
+        return controller;
+    }
 }
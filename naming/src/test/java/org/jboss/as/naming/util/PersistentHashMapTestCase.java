@@ -0,0 +1,119 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.naming.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Unit test for {@link PersistentHashMap}.
+ */
+public class PersistentHashMapTestCase {
+
+    @Test
+    public void testPlusAndMinus() {
+        PersistentHashMap<String, Integer> map = PersistentHashMap.empty();
+        assertTrue(map.isEmpty());
+
+        PersistentHashMap<String, Integer> map1 = map.plus("a", 1);
+        PersistentHashMap<String, Integer> map2 = map1.plus("b", 2);
+        PersistentHashMap<String, Integer> map3 = map2.plus("a", 3);
+
+        // Previous versions are unaffected by updates
+        assertTrue(map.isEmpty());
+        assertEquals(1, map1.size());
+        assertEquals(Integer.valueOf(1), map1.get("a"));
+        assertNull(map1.get("b"));
+        assertEquals(2, map2.size());
+        assertEquals(Integer.valueOf(1), map2.get("a"));
+        assertEquals(2, map3.size());
+        assertEquals(Integer.valueOf(3), map3.get("a"));
+
+        PersistentHashMap<String, Integer> map4 = map3.minus("a");
+        assertEquals(1, map4.size());
+        assertFalse(map4.containsKey("a"));
+        assertEquals(Integer.valueOf(2), map4.get("b"));
+        assertTrue(map4.minus("b").isEmpty());
+
+        // No-op updates return the same map
+        assertSame(map3, map3.minus("c"));
+        assertSame(map3, map3.plus("b", map3.get("b")));
+    }
+
+    @Test
+    public void testRandom() {
+        this.testRandom(Integer::valueOf);
+    }
+
+    @Test
+    public void testCollisions() {
+        // Only 16 distinct hash codes
+        this.testRandom(value -> new CollidingKey(value));
+    }
+
+    private <K> void testRandom(java.util.function.IntFunction<K> keyFactory) {
+        Random random = new Random(0);
+        Map<K, Integer> expected = new HashMap<>();
+        PersistentHashMap<K, Integer> map = PersistentHashMap.empty();
+        for (int i = 0; i < 20000; ++i) {
+            K key = keyFactory.apply(random.nextInt(2000));
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                map = map.minus(key);
+            } else {
+                expected.put(key, i);
+                map = map.plus(key, i);
+            }
+            assertEquals(expected.size(), map.size());
+            assertEquals(expected.get(key), map.get(key));
+        }
+        assertEquals(expected, map);
+        assertEquals(expected.keySet(), map.keySet());
+    }
+
+    private static class CollidingKey {
+        private final int value;
+
+        CollidingKey(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.value % 16;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            return (object instanceof CollidingKey) && (((CollidingKey) object).value == this.value);
+        }
+    }
+}
@@ -117,6 +117,9 @@ public interface Constants {
     String VAULT_OPTIONS = "vault-options";
     String LIST_CACHED_PRINCIPALS = "list-cached-principals";
     String FLUSH_CACHE = "flush-cache";
+    String CACHE_HIT_COUNT = "cache-hit-count";
+    String CACHE_MISS_COUNT = "cache-miss-count";
+    String CACHE_EVICTION_COUNT = "cache-eviction-count";
     String PRINCIPAL_ARGUMENT = "principal";
     // ELYTRON INTEGRATION CONSTANTS
     String ELYTRON_INTEGRATION = "elytron-integration";
@@ -29,6 +29,8 @@ import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.ToLongFunction;
 
 import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
 import org.jboss.as.controller.OperationContext;
@@ -50,6 +52,7 @@ import org.jboss.as.controller.operations.validation.StringAllowedValuesValidato
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.as.security.logging.SecurityLogger;
+import org.jboss.as.security.lru.TinyLFUCache;
 import org.jboss.as.security.plugins.SecurityDomainContext;
 import org.jboss.as.security.service.SecurityDomainService;
 import org.jboss.dmr.ModelNode;
@@ -76,6 +79,18 @@ class SecurityDomainResourceDefinition extends SimpleResourceDefinition {
             .setValidator(new StringAllowedValuesValidator("default", INFINISPAN_CACHE_TYPE))
             .build();
 
+    static final SimpleAttributeDefinition CACHE_HIT_COUNT = new SimpleAttributeDefinitionBuilder(Constants.CACHE_HIT_COUNT, ModelType.LONG, true)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition CACHE_MISS_COUNT = new SimpleAttributeDefinitionBuilder(Constants.CACHE_MISS_COUNT, ModelType.LONG, true)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition CACHE_EVICTION_COUNT = new SimpleAttributeDefinitionBuilder(Constants.CACHE_EVICTION_COUNT, ModelType.LONG, true)
+            .setStorageRuntime()
+            .build();
+
     private final boolean registerRuntimeOnly;
     private final List<AccessConstraintDefinition> accessConstraints;
 
@@ -109,6 +124,11 @@ class SecurityDomainResourceDefinition extends SimpleResourceDefinition {
     @Override
     public void registerAttributes(final ManagementResourceRegistration resourceRegistration) {
         resourceRegistration.registerReadWriteAttribute(CACHE_TYPE, null, new SecurityDomainReloadWriteHandler(CACHE_TYPE));
+        if (registerRuntimeOnly) {
+            resourceRegistration.registerMetric(CACHE_HIT_COUNT, new CacheStatisticsHandler(TinyLFUCache::getHitCount));
+            resourceRegistration.registerMetric(CACHE_MISS_COUNT, new CacheStatisticsHandler(TinyLFUCache::getMissCount));
+            resourceRegistration.registerMetric(CACHE_EVICTION_COUNT, new CacheStatisticsHandler(TinyLFUCache::getEvictionCount));
+        }
     }
 
     @Override
@@ -216,6 +236,30 @@ class SecurityDomainResourceDefinition extends SimpleResourceDefinition {
         }
     }
 
+    /**
+     * Reads a statistic of the default authentication cache of a security domain.
+     * The result is undefined if the security domain does not use the default cache type.
+     */
+    static final class CacheStatisticsHandler extends AbstractRuntimeOnlyHandler {
+        private final ToLongFunction<TinyLFUCache<?, ?>> statistic;
+
+        CacheStatisticsHandler(ToLongFunction<TinyLFUCache<?, ?>> statistic) {
+            this.statistic = statistic;
+        }
+
+        @Override
+        protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+            final String securityDomain = context.getCurrentAddressValue();
+            ServiceController<?> controller = context.getServiceRegistry(false).getService(SecurityDomainService.SERVICE_NAME.append(securityDomain));
+            if (controller != null && controller.getState() == ServiceController.State.UP) {
+                ConcurrentMap<?, ?> cache = ((SecurityDomainService) controller.getService()).getAuthenticationCache();
+                if (cache instanceof TinyLFUCache) {
+                    context.getResult().set(this.statistic.applyAsLong((TinyLFUCache<?, ?>) cache));
+                }
+            }
+        }
+    }
+
     /**
      * Wait for the required service to start up and fail otherwise. This method is necessary when a runtime operation
      * uses a service that might have been created within a composite operation.
@@ -47,12 +47,33 @@ public class SecurityContextHandleFactory implements ContextHandleFactory {
 
     public static final SecurityContextHandleFactory INSTANCE = new SecurityContextHandleFactory();
 
+    /**
+     * the last handle saved, reused by submissions from the same security context
+     */
+    private volatile SecuritySetupContextHandle lastSetupContextHandle;
+
     private SecurityContextHandleFactory() {
     }
 
     @Override
     public SetupContextHandle saveContext(ContextService contextService, Map<String, String> contextObjectProperties) {
-        return new SecuritySetupContextHandle();
+        final SecurityContext securityContext;
+        if (WildFlySecurityManager.isChecking()) {
+            securityContext = AccessController.doPrivileged(new PrivilegedAction<SecurityContext>() {
+                @Override
+                public SecurityContext run() {
+                    return SecurityContextAssociation.getSecurityContext();
+                }
+            });
+        } else {
+            securityContext = SecurityContextAssociation.getSecurityContext();
+        }
+        SecuritySetupContextHandle setupContextHandle = lastSetupContextHandle;
+        if (setupContextHandle == null || setupContextHandle.securityContext != securityContext) {
+            setupContextHandle = new SecuritySetupContextHandle(securityContext);
+            lastSetupContextHandle = setupContextHandle;
+        }
+        return setupContextHandle;
     }
 
     @Override
@@ -79,21 +100,8 @@ public class SecurityContextHandleFactory implements ContextHandleFactory {
 
         private final SecurityContext securityContext;
 
-        private SecuritySetupContextHandle() {
-            if (WildFlySecurityManager.isChecking()) {
-                this.securityContext = AccessController.doPrivileged(new PrivilegedAction<SecurityContext>() {
-                    @Override
-                    public SecurityContext run() {
-                        return saveSecurityContext();
-                    }
-                });
-            } else {
-                this.securityContext = saveSecurityContext();
-            }
-        }
-
-        private SecurityContext saveSecurityContext() {
-            return SecurityContextAssociation.getSecurityContext();
+        private SecuritySetupContextHandle(SecurityContext securityContext) {
+            this.securityContext = securityContext;
         }
 
         @Override
@@ -114,12 +122,15 @@ public class SecurityContextHandleFactory implements ContextHandleFactory {
             } else {
                 previous = setupSecurityContext();
             }
+            // always restore, since the task may change the security context of the executing thread while it runs
             return new SecurityResetContextHandle(previous);
         }
 
         private SecurityContext setupSecurityContext() {
             final SecurityContext previous = SecurityContextAssociation.getSecurityContext();
-            SecurityContextAssociation.setSecurityContext(securityContext);
+            if (previous != securityContext) {
+                SecurityContextAssociation.setSecurityContext(securityContext);
+            }
             return previous;
         }
     }
@@ -0,0 +1,113 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.security.lru;
+
+/**
+ * A probabilistic multiset, used to estimate the popularity of cache keys within a time window.
+ * Implemented as a 4-bit count-min sketch of depth 4, where the 4 counters of a given key are stored within a single table slot.
+ * Once the number of recorded increments reaches a sample size proportional to the table size, all counters are halved,
+ * so that popularity estimates favor recent history.
+ * This class is not thread-safe.
+ */
+class FrequencySketch {
+    private static final long[] SEEDS = new long[] { 0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final int MAX_FREQUENCY = 15;
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int size;
+
+    /**
+     * Creates a sketch sized for a cache of the specified maximum size.
+     * @param maximumSize the maximum number of entries of the associated cache
+     */
+    FrequencySketch(int maximumSize) {
+        int capacity = Integer.highestOneBit(Math.max(Math.min(maximumSize, 1 << 30) - 1, 8) << 1);
+        this.table = new long[capacity];
+        this.tableMask = capacity - 1;
+        this.sampleSize = 10 * capacity;
+    }
+
+    /**
+     * Returns the estimated number of occurrences of the specified key, up to a maximum of 15.
+     * @param key a cache key
+     * @return the estimated frequency of the key
+     */
+    int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int start = (hash & 3) << 2;
+        int frequency = MAX_FREQUENCY;
+        for (int i = 0; i < 4; ++i) {
+            int index = this.indexOf(hash, i);
+            int count = (int) ((this.table[index] >>> ((start + i) << 2)) & 0xfL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * Increments the popularity of the specified key, aging all keys if the sample size was reached.
+     * @param key a cache key
+     */
+    void increment(Object key) {
+        int hash = spread(key.hashCode());
+        int start = (hash & 3) << 2;
+        boolean added = false;
+        for (int i = 0; i < 4; ++i) {
+            added |= this.incrementAt(this.indexOf(hash, i), start + i);
+        }
+        if (added && (++this.size == this.sampleSize)) {
+            this.reset();
+        }
+    }
+
+    private boolean incrementAt(int index, int counter) {
+        int offset = counter << 2;
+        long mask = 0xfL << offset;
+        if ((this.table[index] & mask) != mask) {
+            this.table[index] += 1L << offset;
+            return true;
+        }
+        return false;
+    }
+
+    private void reset() {
+        for (int i = 0; i < this.table.length; ++i) {
+            this.table[i] = (this.table[i] >>> 1) & RESET_MASK;
+        }
+        this.size >>>= 1;
+    }
+
+    private int indexOf(int hash, int depth) {
+        long result = (hash + SEEDS[depth]) * SEEDS[depth];
+        result += result >>> 32;
+        return ((int) result) & this.tableMask;
+    }
+
+    private static int spread(int hash) {
+        int result = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        result = ((result >>> 16) ^ result) * 0x45d9f3b;
+        return (result >>> 16) ^ result;
+    }
+}
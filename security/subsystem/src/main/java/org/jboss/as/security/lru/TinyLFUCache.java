@@ -0,0 +1,647 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.security.lru;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * A bounded, non-blocking cache where entries are indexed by a key, using a W-TinyLFU eviction policy.
+ * <p/>
+ * <p>New entries are admitted into a small LRU window. Entries evicted from the window compete with the least recently used
+ * entry of the probationary segment of the main segmented LRU region, and are only retained if their estimated frequency of
+ * use, tracked by a {@link FrequencySketch}, is higher. Entries accessed while in the probationary segment are promoted to
+ * the protected segment. Thus, a burst of one-off entries cannot flush frequently used entries from the cache.</p>
+ * <p/>
+ * <p>Reads never block: accesses are recorded in lossy, striped ring buffers, which are replayed against the eviction policy
+ * by whichever thread acquires the eviction lock. Writes update the eviction policy under the eviction lock.</p>
+ * <p/>
+ * <p>Entries may optionally expire after a fixed duration following their creation or replacement.</p>
+ */
+public class TinyLFUCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V> {
+    // Percentage of the maximum size reserved to the admission window
+    private static final int WINDOW_PERCENTAGE = 1;
+    // Percentage of the main region reserved to the protected segment
+    private static final int PROTECTED_PERCENTAGE = 80;
+
+    private static final int READ_BUFFER_SIZE = 16;
+    private static final int READ_BUFFER_MASK = READ_BUFFER_SIZE - 1;
+    private static final int READ_BUFFER_DRAIN_THRESHOLD = READ_BUFFER_SIZE / 2;
+    private static final int READ_BUFFER_STRIPES = Integer.highestOneBit(Math.min(Runtime.getRuntime().availableProcessors(), 16) << 1);
+
+    private final ConcurrentHashMap<K, Node<K, V>> data = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final int maxWindowEntries;
+    private final int maxProtectedEntries;
+    private final long expirationNanos;
+    private final LongSupplier ticker;
+    private final RemoveCallback<K, V> removeCallback;
+
+    private final ReadBuffer<K, V>[] readBuffers;
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    // The following are guarded by the eviction lock
+    private final FrequencySketch sketch;
+    private final AccessOrderDeque<K, V> window = new AccessOrderDeque<>();
+    private final AccessOrderDeque<K, V> probation = new AccessOrderDeque<>();
+    private final AccessOrderDeque<K, V> protectedDeque = new AccessOrderDeque<>();
+    private final WriteOrderDeque<K, V> writeOrder = new WriteOrderDeque<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public TinyLFUCache(int maxEntries) {
+        this(maxEntries, 0, TimeUnit.NANOSECONDS, null);
+    }
+
+    /**
+     * Creates a new cache.
+     * @param maxEntries the maximum number of entries retained by this cache
+     * @param expiration the duration after which an entry expires following its creation or replacement, or 0 if entries never expire
+     * @param unit the unit of the expiration duration
+     * @param removeCallback an optional callback for entries removed from this cache
+     */
+    public TinyLFUCache(int maxEntries, long expiration, TimeUnit unit, RemoveCallback<K, V> removeCallback) {
+        this(maxEntries, unit.toNanos(expiration), System::nanoTime, removeCallback);
+    }
+
+    @SuppressWarnings("unchecked")
+    TinyLFUCache(int maxEntries, long expirationNanos, LongSupplier ticker, RemoveCallback<K, V> removeCallback) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException(Integer.toString(maxEntries));
+        }
+        this.maxEntries = maxEntries;
+        this.maxWindowEntries = Math.max(1, (maxEntries * WINDOW_PERCENTAGE) / 100);
+        this.maxProtectedEntries = ((maxEntries - this.maxWindowEntries) * PROTECTED_PERCENTAGE) / 100;
+        this.expirationNanos = expirationNanos;
+        this.ticker = ticker;
+        this.removeCallback = removeCallback;
+        this.sketch = new FrequencySketch(maxEntries);
+        this.readBuffers = new ReadBuffer[READ_BUFFER_STRIPES];
+        for (int i = 0; i < READ_BUFFER_STRIPES; ++i) {
+            this.readBuffers[i] = new ReadBuffer<>();
+        }
+    }
+
+    /**
+     * Returns the number of lookups that found an unexpired entry.
+     * @return the number of cache hits
+     */
+    public long getHitCount() {
+        return this.hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that did not find an unexpired entry.
+     * @return the number of cache misses
+     */
+    public long getMissCount() {
+        return this.misses.sum();
+    }
+
+    /**
+     * Returns the number of entries evicted, either to honor the maximum size of this cache, or due to expiration.
+     * @return the number of evicted entries
+     */
+    public long getEvictionCount() {
+        return this.evictions.sum();
+    }
+
+    @Override
+    public V get(Object key) {
+        Node<K, V> node = this.data.get(key);
+        if (node == null) {
+            this.misses.increment();
+            return null;
+        }
+        if (this.isExpired(node, this.ticker.getAsLong())) {
+            this.misses.increment();
+            this.expire(node);
+            return null;
+        }
+        this.hits.increment();
+        this.afterRead(node);
+        return node.value;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        Node<K, V> node = this.data.get(key);
+        return (node != null) && !this.isExpired(node, this.ticker.getAsLong());
+    }
+
+    @Override
+    public V put(K key, V value) {
+        return this.put(key, value, false);
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        return this.put(key, value, true);
+    }
+
+    private V put(K key, V value, boolean ifAbsent) {
+        long now = this.ticker.getAsLong();
+        Node<K, V> node = new Node<>(key, value, now);
+        for (;;) {
+            Node<K, V> prior = this.data.putIfAbsent(key, node);
+            if (prior == null) {
+                this.afterWrite(node, null);
+                return null;
+            }
+            boolean expired = this.isExpired(prior, now);
+            if (!expired && ifAbsent) {
+                this.afterRead(prior);
+                return prior.value;
+            }
+            if (this.data.replace(key, prior, node)) {
+                this.afterWrite(node, prior);
+                if (expired) {
+                    this.evictions.increment();
+                    this.notifyRemoval(prior);
+                    return null;
+                }
+                return prior.value;
+            }
+        }
+    }
+
+    @Override
+    public V replace(K key, V value) {
+        Node<K, V> node = new Node<>(key, value, this.ticker.getAsLong());
+        for (;;) {
+            Node<K, V> prior = this.data.get(key);
+            if ((prior == null) || this.isExpired(prior, node.writeTime)) {
+                return null;
+            }
+            if (this.data.replace(key, prior, node)) {
+                this.afterWrite(node, prior);
+                this.notifyRemoval(prior);
+                return prior.value;
+            }
+        }
+    }
+
+    @Override
+    public boolean replace(K key, V oldValue, V newValue) {
+        Node<K, V> node = new Node<>(key, newValue, this.ticker.getAsLong());
+        for (;;) {
+            Node<K, V> prior = this.data.get(key);
+            if ((prior == null) || !Objects.equals(prior.value, oldValue) || this.isExpired(prior, node.writeTime)) {
+                return false;
+            }
+            if (this.data.replace(key, prior, node)) {
+                this.afterWrite(node, prior);
+                this.notifyRemoval(prior);
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public V remove(Object key) {
+        Node<K, V> node = this.data.remove(key);
+        if (node == null) {
+            return null;
+        }
+        this.afterRemoval(node);
+        this.notifyRemoval(node);
+        return this.isExpired(node, this.ticker.getAsLong()) ? null : node.value;
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        Node<K, V> node = this.data.get(key);
+        if ((node == null) || !Objects.equals(node.value, value) || !this.data.remove(key, node)) {
+            return false;
+        }
+        this.afterRemoval(node);
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        for (K key : this.data.keySet()) {
+            this.remove(key);
+        }
+    }
+
+    @Override
+    public int size() {
+        return this.data.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.data.isEmpty();
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new EntrySet();
+    }
+
+    private boolean isExpired(Node<K, V> node, long now) {
+        return (this.expirationNanos > 0) && (now - node.writeTime >= this.expirationNanos);
+    }
+
+    private void expire(Node<K, V> node) {
+        if (this.data.remove(node.key, node)) {
+            this.evictions.increment();
+            this.afterRemoval(node);
+            this.notifyRemoval(node);
+        }
+    }
+
+    private void notifyRemoval(Node<K, V> node) {
+        if (this.removeCallback != null) {
+            this.removeCallback.afterRemove(node.key, node.value);
+        }
+    }
+
+    private void afterRead(Node<K, V> node) {
+        ReadBuffer<K, V> buffer = this.readBuffers[(int) Thread.currentThread().getId() & (READ_BUFFER_STRIPES - 1)];
+        if (buffer.offer(node) && this.evictionLock.tryLock()) {
+            try {
+                this.drainReadBuffers();
+            } finally {
+                this.evictionLock.unlock();
+            }
+        }
+    }
+
+    private void afterWrite(Node<K, V> node, Node<K, V> replaced) {
+        if (replaced != null) {
+            replaced.retired = true;
+        }
+        List<Node<K, V>> evicted;
+        this.evictionLock.lock();
+        try {
+            this.drainReadBuffers();
+            if (replaced != null) {
+                this.unlink(replaced);
+            }
+            // Skip nodes that were already removed by a concurrent thread
+            if (!node.retired) {
+                this.sketch.increment(node.key);
+                this.window.addLast(node);
+                this.writeOrder.addLast(node);
+            }
+            evicted = this.evict();
+        } finally {
+            this.evictionLock.unlock();
+        }
+        for (Node<K, V> victim : evicted) {
+            this.notifyRemoval(victim);
+        }
+    }
+
+    private void afterRemoval(Node<K, V> node) {
+        node.retired = true;
+        this.evictionLock.lock();
+        try {
+            this.unlink(node);
+        } finally {
+            this.evictionLock.unlock();
+        }
+    }
+
+    // Must be called while holding the eviction lock
+    private void unlink(Node<K, V> node) {
+        if (node.deque != null) {
+            node.deque.remove(node);
+            this.writeOrder.remove(node);
+        }
+    }
+
+    // Must be called while holding the eviction lock
+    private void drainReadBuffers() {
+        for (ReadBuffer<K, V> buffer : this.readBuffers) {
+            buffer.drainTo(this);
+        }
+    }
+
+    // Must be called while holding the eviction lock
+    void onAccess(Node<K, V> node) {
+        AccessOrderDeque<K, V> deque = node.deque;
+        if (deque == null) {
+            // Node was already removed from the policy
+            return;
+        }
+        this.sketch.increment(node.key);
+        if (deque == this.probation) {
+            // Promote to protected segment, demoting its least recently used node if necessary
+            this.probation.remove(node);
+            this.protectedDeque.addLast(node);
+            if (this.protectedDeque.size > this.maxProtectedEntries) {
+                Node<K, V> demoted = this.protectedDeque.first;
+                this.protectedDeque.remove(demoted);
+                this.probation.addLast(demoted);
+            }
+        } else {
+            deque.moveToLast(node);
+        }
+    }
+
+    // Must be called while holding the eviction lock
+    private List<Node<K, V>> evict() {
+        List<Node<K, V>> evicted = new ArrayList<>(1);
+        if (this.expirationNanos > 0) {
+            long now = this.ticker.getAsLong();
+            Node<K, V> oldest = this.writeOrder.first;
+            while ((oldest != null) && this.isExpired(oldest, now)) {
+                Node<K, V> next = oldest.nextWrite;
+                this.evict(oldest, evicted);
+                oldest = next;
+            }
+        }
+        // Move overflowing window entries to probation, where they become admission candidates
+        while (this.window.size > this.maxWindowEntries) {
+            Node<K, V> candidate = this.window.first;
+            this.window.remove(candidate);
+            this.probation.addLast(candidate);
+        }
+        while (this.window.size + this.probation.size + this.protectedDeque.size > this.maxEntries) {
+            Node<K, V> victim = this.probation.first;
+            Node<K, V> candidate = this.probation.last;
+            if (victim == null) {
+                victim = (this.protectedDeque.first != null) ? this.protectedDeque.first : this.window.first;
+                candidate = null;
+            }
+            if ((candidate != null) && (candidate != victim) && (this.sketch.frequency(candidate.key) > this.sketch.frequency(victim.key))) {
+                // Candidate is more popular than the victim, so admit it
+                this.evict(victim, evicted);
+            } else {
+                this.evict((candidate != null) ? candidate : victim, evicted);
+            }
+        }
+        return evicted;
+    }
+
+    private void evict(Node<K, V> node, List<Node<K, V>> evicted) {
+        this.unlink(node);
+        node.retired = true;
+        if (this.data.remove(node.key, node)) {
+            this.evictions.increment();
+            evicted.add(node);
+        }
+    }
+
+    static class Node<K, V> {
+        final K key;
+        final V value;
+        final long writeTime;
+        volatile boolean retired = false;
+        // The following are guarded by the eviction lock
+        AccessOrderDeque<K, V> deque;
+        Node<K, V> previous;
+        Node<K, V> next;
+        Node<K, V> previousWrite;
+        Node<K, V> nextWrite;
+
+        Node(K key, V value, long writeTime) {
+            this.key = key;
+            this.value = value;
+            this.writeTime = writeTime;
+        }
+    }
+
+    static class AccessOrderDeque<K, V> {
+        Node<K, V> first;
+        Node<K, V> last;
+        int size;
+
+        void addLast(Node<K, V> node) {
+            node.deque = this;
+            node.previous = this.last;
+            node.next = null;
+            if (this.last == null) {
+                this.first = node;
+            } else {
+                this.last.next = node;
+            }
+            this.last = node;
+            this.size += 1;
+        }
+
+        void remove(Node<K, V> node) {
+            if (node.previous == null) {
+                this.first = node.next;
+            } else {
+                node.previous.next = node.next;
+            }
+            if (node.next == null) {
+                this.last = node.previous;
+            } else {
+                node.next.previous = node.previous;
+            }
+            node.deque = null;
+            node.previous = null;
+            node.next = null;
+            this.size -= 1;
+        }
+
+        void moveToLast(Node<K, V> node) {
+            if (node != this.last) {
+                this.remove(node);
+                this.addLast(node);
+            }
+        }
+    }
+
+    static class WriteOrderDeque<K, V> {
+        Node<K, V> first;
+        Node<K, V> last;
+
+        void addLast(Node<K, V> node) {
+            node.previousWrite = this.last;
+            node.nextWrite = null;
+            if (this.last == null) {
+                this.first = node;
+            } else {
+                this.last.nextWrite = node;
+            }
+            this.last = node;
+        }
+
+        void remove(Node<K, V> node) {
+            if (node.previousWrite == null) {
+                this.first = node.nextWrite;
+            } else {
+                node.previousWrite.nextWrite = node.nextWrite;
+            }
+            if (node.nextWrite == null) {
+                this.last = node.previousWrite;
+            } else {
+                node.nextWrite.previousWrite = node.previousWrite;
+            }
+            node.previousWrite = null;
+            node.nextWrite = null;
+        }
+    }
+
+    /**
+     * A lossy, bounded, multiple-producer ring buffer of accessed nodes, drained by the owner of the eviction lock.
+     */
+    static class ReadBuffer<K, V> {
+        private final AtomicReferenceArray<Node<K, V>> buffer = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+        private final AtomicLong writeCount = new AtomicLong();
+        private volatile long readCount = 0;
+
+        /**
+         * Records an access to the specified node, unless this buffer is full.
+         * @return true, if this buffer should be drained, false otherwise
+         */
+        boolean offer(Node<K, V> node) {
+            long head = this.readCount;
+            long tail = this.writeCount.get();
+            long pending = tail - head;
+            if (pending >= READ_BUFFER_SIZE) {
+                // Buffer is full, drop this access
+                return true;
+            }
+            if (this.writeCount.compareAndSet(tail, tail + 1)) {
+                this.buffer.lazySet((int) tail & READ_BUFFER_MASK, node);
+                return pending + 1 >= READ_BUFFER_DRAIN_THRESHOLD;
+            }
+            // Contended, drop this access
+            return false;
+        }
+
+        // Must be called while holding the eviction lock
+        void drainTo(TinyLFUCache<K, V> cache) {
+            long head = this.readCount;
+            long tail = this.writeCount.get();
+            while (head < tail) {
+                int index = (int) head & READ_BUFFER_MASK;
+                Node<K, V> node = this.buffer.get(index);
+                if (node == null) {
+                    // Slot was claimed, but not yet published
+                    break;
+                }
+                this.buffer.lazySet(index, null);
+                cache.onAccess(node);
+                head += 1;
+            }
+            this.readCount = head;
+        }
+    }
+
+    private class EntrySet extends AbstractSet<Entry<K, V>> {
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            return new EntryIterator(TinyLFUCache.this.data.values().iterator());
+        }
+
+        @Override
+        public int size() {
+            return TinyLFUCache.this.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Entry))
+                return false;
+            Entry<?, ?> e = (Entry<?, ?>) o;
+            Node<K, V> node = TinyLFUCache.this.data.get(e.getKey());
+            return (node != null) && Objects.equals(node.value, e.getValue()) && !TinyLFUCache.this.isExpired(node, TinyLFUCache.this.ticker.getAsLong());
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!(o instanceof Entry))
+                return false;
+            Entry<?, ?> e = (Entry<?, ?>) o;
+            return TinyLFUCache.this.remove(e.getKey()) != null;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return TinyLFUCache.this.isEmpty();
+        }
+
+        @Override
+        public void clear() {
+            TinyLFUCache.this.clear();
+        }
+    }
+
+    private class EntryIterator implements Iterator<Entry<K, V>> {
+        private final Iterator<Node<K, V>> nodes;
+        private final long now = TinyLFUCache.this.ticker.getAsLong();
+        private Node<K, V> next;
+        private Node<K, V> last;
+
+        EntryIterator(Iterator<Node<K, V>> nodes) {
+            this.nodes = nodes;
+            this.advance();
+        }
+
+        private void advance() {
+            this.next = null;
+            while ((this.next == null) && this.nodes.hasNext()) {
+                Node<K, V> node = this.nodes.next();
+                if (!TinyLFUCache.this.isExpired(node, this.now)) {
+                    this.next = node;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.next != null;
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (this.next == null) {
+                throw new NoSuchElementException();
+            }
+            this.last = this.next;
+            this.advance();
+            return new SimpleImmutableEntry<>(this.last.key, this.last.value);
+        }
+
+        @Override
+        public void remove() {
+            if (this.last == null) {
+                throw new IllegalStateException("next() not called");
+            }
+            TinyLFUCache.this.remove(this.last.key);
+            this.last = null;
+        }
+    }
+}
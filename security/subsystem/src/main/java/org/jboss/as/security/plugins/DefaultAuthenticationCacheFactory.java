@@ -24,24 +24,35 @@ package org.jboss.as.security.plugins;
 
 import java.security.Principal;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
-import org.jboss.as.security.lru.LRUCache;
+import org.jboss.as.security.lru.TinyLFUCache;
 import org.jboss.security.authentication.JBossCachedAuthenticationManager.DomainInfo;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * Factory that creates default {@code ConcurrentMap}s for authentication cache.
+ * The maximum number of cached principals and the duration (in seconds) after which a cached principal expires
+ * are configured via the {@value #MAX_SIZE_PROPERTY} and {@value #EXPIRATION_PROPERTY} system properties, respectively.
  *
  * @author <a href="mailto:mmoyses@redhat.com">Marcus Moyses</a>
  */
 public class DefaultAuthenticationCacheFactory implements AuthenticationCacheFactory {
 
+    static final String MAX_SIZE_PROPERTY = "org.jboss.as.security.authentication-cache.max-size";
+    static final String EXPIRATION_PROPERTY = "org.jboss.as.security.authentication-cache.expiration";
+
+    private static final int DEFAULT_MAX_SIZE = 1000;
+
     /**
      * Returns a default cache implementation
      *
      * @return cache implementation
      */
     public ConcurrentMap<Principal, DomainInfo> getCache() {
-        return new LRUCache<>(1000, (key, value) -> {
+        int maxSize = Integer.parseInt(WildFlySecurityManager.getPropertyPrivileged(MAX_SIZE_PROPERTY, Integer.toString(DEFAULT_MAX_SIZE)));
+        long expiration = Long.parseLong(WildFlySecurityManager.getPropertyPrivileged(EXPIRATION_PROPERTY, "0"));
+        return new TinyLFUCache<>(maxSize, expiration, TimeUnit.SECONDS, (key, value) -> {
             if (value != null) {
                 value.logout();
             }
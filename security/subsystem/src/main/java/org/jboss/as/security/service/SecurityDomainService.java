@@ -22,6 +22,7 @@
 
 package org.jboss.as.security.service;
 
+import java.security.Principal;
 import java.util.concurrent.ConcurrentMap;
 
 import javax.security.auth.login.Configuration;
@@ -41,6 +42,7 @@ import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.InjectedValue;
 import org.jboss.security.ISecurityManagement;
 import org.jboss.security.JSSESecurityDomain;
+import org.jboss.security.authentication.JBossCachedAuthenticationManager.DomainInfo;
 import org.jboss.security.config.ApplicationPolicy;
 import org.jboss.security.config.ApplicationPolicyRegistration;
 
@@ -67,6 +69,8 @@ public class SecurityDomainService implements Service<SecurityDomainContext> {
 
     private volatile SecurityDomainContext securityDomainContext;
 
+    private volatile ConcurrentMap<Principal, DomainInfo> authenticationCache;
+
     private final String cacheType;
 
     public SecurityDomainService(String name, ApplicationPolicy applicationPolicy, JSSESecurityDomain jsseSecurityDomain,
@@ -91,7 +95,12 @@ public class SecurityDomainService implements Service<SecurityDomainContext> {
         if ("infinispan".equals(cacheType)) {
             cacheFactory = () -> this.cacheValue.getValue();
         } else if ("default".equals(cacheType)) {
-            cacheFactory = new DefaultAuthenticationCacheFactory();
+            AuthenticationCacheFactory defaultCacheFactory = new DefaultAuthenticationCacheFactory();
+            cacheFactory = () -> {
+                ConcurrentMap<Principal, DomainInfo> cache = defaultCacheFactory.getCache();
+                this.authenticationCache = cache;
+                return cache;
+            };
         }
         SecurityDomainContext sdc;
         try {
@@ -116,6 +125,7 @@ public class SecurityDomainService implements Service<SecurityDomainContext> {
         SecurityLogger.ROOT_LOGGER.debugf("Stopping security domain service %s", name);
         final JNDIBasedSecurityManagement securityManagement = (JNDIBasedSecurityManagement) securityManagementValue.getValue();
         securityManagement.removeSecurityDomain(name);
+        this.authenticationCache = null;
         // TODO clear auth cache?
         final ApplicationPolicyRegistration applicationPolicyRegistration = (ApplicationPolicyRegistration) configurationValue
                 .getValue();
@@ -128,6 +138,15 @@ public class SecurityDomainService implements Service<SecurityDomainContext> {
         return securityDomainContext;
     }
 
+    /**
+     * Returns the authentication cache of this security domain, if it uses the default cache type.
+     *
+     * @return the authentication cache, or null if this security domain does not use the default cache type
+     */
+    public ConcurrentMap<Principal, DomainInfo> getAuthenticationCache() {
+        return authenticationCache;
+    }
+
     /**
      * Target {@code Injector}
      *
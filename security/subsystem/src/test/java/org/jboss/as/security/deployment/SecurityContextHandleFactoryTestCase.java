@@ -0,0 +1,70 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.security.deployment;
+
+import static org.mockito.Mockito.mock;
+
+import org.jboss.as.ee.concurrent.handle.ResetContextHandle;
+import org.jboss.as.ee.concurrent.handle.SetupContextHandle;
+import org.jboss.security.SecurityContext;
+import org.jboss.security.SecurityContextAssociation;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests that {@link SecurityContextHandleFactory} restores the security context of the executing thread.
+ */
+public class SecurityContextHandleFactoryTestCase {
+
+    private final SecurityContext securityContext = mock(SecurityContext.class);
+    private final SecurityContext otherSecurityContext = mock(SecurityContext.class);
+
+    @After
+    public void tearDown() {
+        SecurityContextAssociation.clearSecurityContext();
+    }
+
+    @Test
+    public void testSetupAndReset() {
+        SecurityContextAssociation.setSecurityContext(this.securityContext);
+        SetupContextHandle setup = SecurityContextHandleFactory.INSTANCE.saveContext(null, null);
+        SecurityContextAssociation.setSecurityContext(this.otherSecurityContext);
+
+        ResetContextHandle reset = setup.setup();
+        Assert.assertSame(this.securityContext, SecurityContextAssociation.getSecurityContext());
+        reset.reset();
+        Assert.assertSame(this.otherSecurityContext, SecurityContextAssociation.getSecurityContext());
+    }
+
+    @Test
+    public void testResetWhenAlreadySet() {
+        SecurityContextAssociation.setSecurityContext(this.securityContext);
+        ResetContextHandle reset = SecurityContextHandleFactory.INSTANCE.saveContext(null, null).setup();
+        Assert.assertSame(this.securityContext, SecurityContextAssociation.getSecurityContext());
+
+        // the task changes the security context of the executing thread, e.g. via a run-as, without restoring it
+        SecurityContextAssociation.setSecurityContext(this.otherSecurityContext);
+        reset.reset();
+        Assert.assertSame(this.securityContext, SecurityContextAssociation.getSecurityContext());
+    }
+}
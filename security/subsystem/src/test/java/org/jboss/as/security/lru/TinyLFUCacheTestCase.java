@@ -0,0 +1,123 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.security.lru;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+/**
+ * Unit test for {@link TinyLFUCache}.
+ */
+public class TinyLFUCacheTestCase {
+
+    @Test
+    public void basic() {
+        Map<String, Integer> removed = new HashMap<>();
+        TinyLFUCache<String, Integer> cache = new TinyLFUCache<>(10, 0, TimeUnit.SECONDS, removed::put);
+
+        assertNull(cache.put("a", 1));
+        assertEquals(Integer.valueOf(1), cache.get("a"));
+        assertEquals(Integer.valueOf(1), cache.putIfAbsent("a", 2));
+        assertEquals(Integer.valueOf(1), cache.put("a", 3));
+        assertTrue(removed.isEmpty());
+
+        assertEquals(Integer.valueOf(3), cache.replace("a", 4));
+        assertEquals(Integer.valueOf(3), removed.remove("a"));
+        assertFalse(cache.replace("a", 3, 5));
+        assertTrue(cache.replace("a", 4, 5));
+        assertEquals(Integer.valueOf(4), removed.remove("a"));
+
+        assertEquals(Integer.valueOf(5), cache.remove("a"));
+        assertEquals(Integer.valueOf(5), removed.remove("a"));
+        assertNull(cache.get("a"));
+        assertTrue(cache.isEmpty());
+
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(0, cache.getEvictionCount());
+    }
+
+    @Test
+    public void eviction() {
+        int size = 100;
+        Map<Integer, Integer> removed = new HashMap<>();
+        TinyLFUCache<Integer, Integer> cache = new TinyLFUCache<>(size, 0, TimeUnit.SECONDS, removed::put);
+
+        for (int i = 0; i < size; ++i) {
+            cache.put(i, i);
+        }
+        // Make existing entries popular
+        for (int j = 0; j < 10; ++j) {
+            for (int i = 0; i < size; ++i) {
+                assertEquals(Integer.valueOf(i), cache.get(i));
+            }
+        }
+        // A scan of one-off entries should not flush popular entries
+        for (int i = size; i < size * 10; ++i) {
+            cache.put(i, i);
+            assertTrue(cache.size() <= size);
+        }
+        int retained = 0;
+        for (int i = 0; i < size; ++i) {
+            if (cache.containsKey(i)) {
+                retained += 1;
+            }
+        }
+        assertTrue(Integer.toString(retained), retained >= size * 9 / 10);
+        assertEquals(size * 9, cache.getEvictionCount());
+        assertEquals(size * 9, removed.size());
+    }
+
+    @Test
+    public void expiration() {
+        AtomicLong time = new AtomicLong();
+        Map<String, Integer> removed = new HashMap<>();
+        TinyLFUCache<String, Integer> cache = new TinyLFUCache<>(10, TimeUnit.SECONDS.toNanos(60), time::get, removed::put);
+
+        cache.put("a", 1);
+        time.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        cache.put("b", 2);
+        assertEquals(Integer.valueOf(1), cache.get("a"));
+
+        time.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        assertNull(cache.get("a"));
+        assertEquals(Integer.valueOf(1), removed.remove("a"));
+        assertEquals(Integer.valueOf(2), cache.get("b"));
+        assertEquals(1, cache.size());
+
+        time.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        // Expired entries are purged on write
+        cache.put("c", 3);
+        assertEquals(Integer.valueOf(2), removed.remove("b"));
+        assertEquals(1, cache.size());
+        assertEquals(2, cache.getEvictionCount());
+    }
+}
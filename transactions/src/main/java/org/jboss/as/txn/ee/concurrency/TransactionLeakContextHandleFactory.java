@@ -49,9 +49,21 @@ public class TransactionLeakContextHandleFactory implements ContextHandleFactory
 
     private TransactionManager transactionManager;
 
+    private volatile TransactionLeakSetupContextHandle setupContextHandle;
+
     @Override
     public SetupContextHandle saveContext(ContextService contextService, Map<String, String> contextObjectProperties) {
-        return new TransactionLeakSetupContextHandle(transactionManager);
+        return getSetupContextHandle();
+    }
+
+    private TransactionLeakSetupContextHandle getSetupContextHandle() {
+        // the handle keeps no state from the submitting thread, and is thus shared while the transaction manager stays the same
+        TransactionLeakSetupContextHandle setupContextHandle = this.setupContextHandle;
+        if (setupContextHandle == null || setupContextHandle.transactionManager != transactionManager) {
+            setupContextHandle = new TransactionLeakSetupContextHandle(transactionManager);
+            this.setupContextHandle = setupContextHandle;
+        }
+        return setupContextHandle;
     }
 
     @Override
@@ -71,7 +83,7 @@ public class TransactionLeakContextHandleFactory implements ContextHandleFactory
 
     @Override
     public SetupContextHandle readSetupContextHandle(ObjectInputStream in) throws IOException, ClassNotFoundException {
-        return new TransactionLeakSetupContextHandle(transactionManager);
+        return getSetupContextHandle();
     }
 
     @Override
@@ -143,6 +143,7 @@ public interface Constants {
     String CERTIFICATE_FORWARDING = "certificate-forwarding";
     String OPTIONS = "options";
     String IGNORE_FLUSH = "ignore-flush";
+    String INCREMENTAL = "incremental";
 
     String WEBSOCKETS = "websockets";
     //mod_cluster
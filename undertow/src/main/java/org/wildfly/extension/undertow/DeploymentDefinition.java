@@ -53,6 +53,7 @@ import org.jboss.dmr.Property;
 import org.jboss.msc.service.ServiceController;
 import org.wildfly.extension.undertow.deployment.UndertowDeploymentService;
 import org.wildfly.extension.undertow.logging.UndertowLogger;
+import org.wildfly.extension.undertow.session.SessionAttributeDeltaStatistics;
 
 import io.undertow.server.session.Session;
 import io.undertow.server.session.SessionManager;
@@ -364,6 +365,20 @@ public class DeploymentDefinition extends SimpleResourceDefinition {
                             result.set((int) sms.getHighestSessionCount());
                         }
                         break;
+                    case DELTA_REPLICATIONS:
+                        if (sms instanceof SessionAttributeDeltaStatistics) {
+                            result.set(((SessionAttributeDeltaStatistics) sms).getDeltaReplicationCount());
+                        } else {
+                            result.set(0L);
+                        }
+                        break;
+                    case DELTA_REPLICATION_FALLBACKS:
+                        if (sms instanceof SessionAttributeDeltaStatistics) {
+                            result.set(((SessionAttributeDeltaStatistics) sms).getDeltaReplicationFallbackCount());
+                        } else {
+                            result.set(0L);
+                        }
+                        break;
                     default:
                         throw new IllegalStateException(UndertowLogger.ROOT_LOGGER.unknownMetric(stat));
                 }
@@ -411,7 +426,11 @@ public class DeploymentDefinition extends SimpleResourceDefinition {
         MAX_ACTIVE_SESSIONS(new SimpleAttributeDefinitionBuilder("max-active-sessions", ModelType.INT)
                 .setUndefinedMetricValue(new ModelNode(0)).setStorageRuntime().build()),
         HIGHEST_SESSION_COUNT(new SimpleAttributeDefinitionBuilder("highest-session-count", ModelType.INT)
-                .setUndefinedMetricValue(new ModelNode(0)).setStorageRuntime().build());
+                .setUndefinedMetricValue(new ModelNode(0)).setStorageRuntime().build()),
+        DELTA_REPLICATIONS(new SimpleAttributeDefinitionBuilder("delta-replications", ModelType.LONG)
+                .setUndefinedMetricValue(new ModelNode(0L)).setStorageRuntime().build()),
+        DELTA_REPLICATION_FALLBACKS(new SimpleAttributeDefinitionBuilder("delta-replication-fallbacks", ModelType.LONG)
+                .setUndefinedMetricValue(new ModelNode(0L)).setStorageRuntime().build());
 
         private static final Map<String, SessionStat> MAP = new HashMap<>();
 
@@ -31,9 +31,11 @@ import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleListAttributeDefinition;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.Resource;
+import org.jboss.as.ee.utils.TimeHistogram;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 import org.jboss.msc.service.ServiceController;
@@ -57,6 +59,9 @@ public class DeploymentServletDefinition extends SimpleResourceDefinition {
     static final SimpleAttributeDefinition MIN_REQUEST_TIME = new SimpleAttributeDefinitionBuilder("min-request-time", ModelType.LONG, true).setStorageRuntime().build();
     static final SimpleAttributeDefinition TOTAL_REQUEST_TIME = new SimpleAttributeDefinitionBuilder("total-request-time", ModelType.LONG, true).setStorageRuntime().build();
     static final SimpleAttributeDefinition REQUEST_COUNT = new SimpleAttributeDefinitionBuilder("request-count", ModelType.LONG, true).setStorageRuntime().build();
+    static final SimpleAttributeDefinition REQUEST_TIME_P50 = new SimpleAttributeDefinitionBuilder("request-time-p50", ModelType.LONG, true).setMeasurementUnit(MeasurementUnit.MICROSECONDS).setStorageRuntime().build();
+    static final SimpleAttributeDefinition REQUEST_TIME_P99 = new SimpleAttributeDefinitionBuilder("request-time-p99", ModelType.LONG, true).setMeasurementUnit(MeasurementUnit.MICROSECONDS).setStorageRuntime().build();
+    static final SimpleAttributeDefinition REQUEST_TIME_P999 = new SimpleAttributeDefinitionBuilder("request-time-p999", ModelType.LONG, true).setMeasurementUnit(MeasurementUnit.MICROSECONDS).setStorageRuntime().build();
     static final SimpleListAttributeDefinition SERVLET_MAPPINGS = new SimpleListAttributeDefinition.Builder("mappings", new SimpleAttributeDefinitionBuilder("mapping", ModelType.STRING).setRequired(false).build())
             .setRequired(false)
             .setStorageRuntime()
@@ -96,6 +101,9 @@ public class DeploymentServletDefinition extends SimpleResourceDefinition {
                 response.set(metricResult.getTotalRequests());
             }
         });
+        registration.registerMetric(REQUEST_TIME_P50, new PercentileMetricsHandler(50));
+        registration.registerMetric(REQUEST_TIME_P99, new PercentileMetricsHandler(99));
+        registration.registerMetric(REQUEST_TIME_P999, new PercentileMetricsHandler(99.9));
         registration.registerMetric(SERVLET_MAPPINGS, new AbstractMetricsHandler() {
             @Override
             void handle(final ModelNode response, final String name, final MetricsHandler.MetricResult metricResult, final ServletInfo servlet) {
@@ -119,6 +127,15 @@ public class DeploymentServletDefinition extends SimpleResourceDefinition {
             response.set(0L);
         }
 
+        void handle(ModelNode response, String name, UndertowMetricsCollector collector, ServletInfo servlet) {
+            MetricsHandler.MetricResult result = collector != null ? collector.getMetrics(name) : null;
+            if (result == null) {
+                putDefault(response);
+            } else {
+                handle(response, name, result, servlet);
+            }
+        }
+
         @Override
         public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
             final PathAddress address = PathAddress.pathAddress(operation.get(ModelDescriptionConstants.OP_ADDR));
@@ -144,16 +161,37 @@ public class DeploymentServletDefinition extends SimpleResourceDefinition {
                     final String name = address.getLastElement().getValue();
                     final ServletInfo servlet = deploymentInfo.getServlets().get(name);
                     final ModelNode response = new ModelNode();
-                    MetricsHandler.MetricResult result = collector != null ? collector.getMetrics(name) : null;
-                    if (result == null) {
-                        putDefault(response);
-                    } else {
-                        handle(response, name, result, servlet);
-                    }
+                    handle(response, name, collector, servlet);
                     context.getResult().set(response);
                 }
             }, OperationContext.Stage.RUNTIME);
         }
     }
 
+    /**
+     * Reports a percentile of the request times of the most recent one to two minutes.
+     */
+    static class PercentileMetricsHandler extends AbstractMetricsHandler {
+        private final double percentile;
+
+        PercentileMetricsHandler(double percentile) {
+            this.percentile = percentile;
+        }
+
+        @Override
+        void handle(ModelNode response, String name, UndertowMetricsCollector collector, ServletInfo servlet) {
+            TimeHistogram histogram = collector != null ? collector.getRequestTimeHistogram(name) : null;
+            if (histogram == null) {
+                putDefault(response);
+            } else {
+                response.set(histogram.getRecentSnapshot().getValueAtPercentile(percentile));
+            }
+        }
+
+        @Override
+        void handle(ModelNode response, String name, MetricsHandler.MetricResult metricResult, ServletInfo servlet) {
+            // Percentiles are read from the request time histogram rather than from the metric result
+        }
+    }
+
 }
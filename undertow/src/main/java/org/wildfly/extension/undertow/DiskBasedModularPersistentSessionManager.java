@@ -128,6 +128,10 @@ public class DiskBasedModularPersistentSessionManager extends AbstractPersistent
 
     }
 
+    protected File getBaseDir() {
+        return baseDir;
+    }
+
     public InjectedValue<PathManager> getPathManager() {
         return pathManager;
     }
@@ -0,0 +1,407 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.undertow;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.ServletRequestEvent;
+import javax.servlet.ServletRequestListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
+import javax.servlet.http.HttpSessionAttributeListener;
+import javax.servlet.http.HttpSessionBindingEvent;
+import javax.servlet.http.HttpSessionEvent;
+import javax.servlet.http.HttpSessionListener;
+
+import io.undertow.servlet.UndertowServletLogger;
+import org.jboss.marshalling.ByteBufferInput;
+import org.jboss.marshalling.Marshaller;
+import org.jboss.marshalling.OutputStreamByteOutput;
+import org.jboss.marshalling.Unmarshaller;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+import org.wildfly.extension.undertow.logging.UndertowLogger;
+
+/**
+ * Disk based persistent session manager that incrementally writes sessions to a {@link MappedSessionStore} per deployment.
+ * <p>
+ * Attributes set or removed via the servlet API, as tracked by the listener returned by {@link #createSessionListener(String)},
+ * are marshalled on the request thread once the request that changed them completes, so that they are not read while the
+ * application may still mutate them, and the marshalled bytes are written in the background during normal operation.
+ * Changes made outside of a request are written on the next request of their session, or on undeploy.
+ * On undeploy, only sessions accessed since they were last written are written again.
+ */
+public class IncrementalPersistentSessionManager extends DiskBasedModularPersistentSessionManager {
+
+    private static final long FLUSH_INTERVAL = TimeUnit.SECONDS.toMillis(5);
+    private static final byte[] REMOVED = new byte[0];
+
+    private final Map<String, DeploymentSessions> deployments = new ConcurrentHashMap<>();
+    private ScheduledExecutorService executor;
+
+    public IncrementalPersistentSessionManager(String path, String pathRelativeTo) {
+        super(path, pathRelativeTo);
+    }
+
+    @Override
+    public synchronized void start(StartContext startContext) throws StartException {
+        super.start(startContext);
+        this.executor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "undertow-persistent-sessions");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL, FLUSH_INTERVAL, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void stop(StopContext stopContext) {
+        this.executor.shutdown();
+        try {
+            this.executor.awaitTermination(FLUSH_INTERVAL, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.flush();
+        for (DeploymentSessions sessions : this.deployments.values()) {
+            sessions.store.close();
+        }
+        this.deployments.clear();
+        super.stop(stopContext);
+    }
+
+    /**
+     * Creates a servlet listener that tracks changes to the sessions of the specified deployment.
+     *
+     * @param deploymentName the name of a deployment
+     * @return a session listener
+     */
+    public SessionTracker createSessionListener(String deploymentName) {
+        return new SessionTracker(deploymentName);
+    }
+
+    @Override
+    public void persistSessions(String deploymentName, Map<String, PersistentSession> sessionData) {
+        try {
+            DeploymentSessions sessions = this.getDeploymentSessions(deploymentName);
+            // Ignore events triggered by the undeployment of the session manager
+            sessions.tracking = false;
+            final Marshaller marshaller = createMarshaller();
+            try {
+                synchronized (sessions) {
+                    this.flush(sessions);
+                    MappedSessionStore store = sessions.store;
+                    for (Map.Entry<String, PersistentSession> sessionEntry : sessionData.entrySet()) {
+                        String id = sessionEntry.getKey();
+                        long expiration = sessionEntry.getValue().getExpiration().getTime();
+                        Long storedExpiration = store.getExpiration(id);
+                        // Only rewrite sessions accessed since they were last written, since their attributes may have been mutated,
+                        // and sessions changed outside of a request
+                        if ((storedExpiration == null) || (storedExpiration != expiration) || sessions.changed.containsKey(id)) {
+                            Map<String, Object> attributes = sessionEntry.getValue().getSessionData();
+                            for (String name : store.getAttributeNames(id)) {
+                                if (!attributes.containsKey(name)) {
+                                    store.removeAttribute(id, name);
+                                }
+                            }
+                            for (Map.Entry<String, Object> attribute : attributes.entrySet()) {
+                                byte[] value = this.marshal(marshaller, id, attribute.getKey(), attribute.getValue());
+                                if (value != null) {
+                                    store.writeAttribute(id, attribute.getKey(), value);
+                                }
+                            }
+                            store.writeExpiration(id, expiration);
+                        }
+                    }
+                    for (String id : store.getSessions()) {
+                        if (!sessionData.containsKey(id)) {
+                            store.removeSession(id);
+                        }
+                    }
+                    sessions.changed.clear();
+                    store.flush();
+                }
+            } finally {
+                marshaller.close();
+            }
+        } catch (Exception e) {
+            UndertowServletLogger.ROOT_LOGGER.failedToPersistSessions(e);
+        }
+    }
+
+    @Override
+    public Map<String, PersistentSession> loadSessionAttributes(String deploymentName, final ClassLoader classLoader) {
+        try {
+            DeploymentSessions sessions = this.getDeploymentSessions(deploymentName);
+            MappedSessionStore store = sessions.store;
+            long time = System.currentTimeMillis();
+            Map<String, PersistentSession> result = new HashMap<>();
+            final Unmarshaller unmarshaller = createUnmarshaller();
+            try {
+                for (String id : store.getSessions()) {
+                    Long expiration = store.getExpiration(id);
+                    if ((expiration != null) && (expiration > time)) {
+                        result.put(id, new PersistentSession(new Date(expiration), this.readAttributes(store, unmarshaller, id)));
+                    } else {
+                        store.removeSession(id);
+                    }
+                }
+            } finally {
+                unmarshaller.close();
+            }
+            sessions.tracking = true;
+            return result;
+        } catch (Exception e) {
+            UndertowServletLogger.ROOT_LOGGER.failedtoLoadPersistentSessions(e);
+        }
+        return null;
+    }
+
+    private Map<String, Object> readAttributes(MappedSessionStore store, Unmarshaller unmarshaller, String id) throws IOException, ClassNotFoundException {
+        Map<String, Object> result = new HashMap<>();
+        for (String name : store.getAttributeNames(id)) {
+            byte[] value = store.readAttribute(id, name);
+            if (value != null) {
+                unmarshaller.start(new ByteBufferInput(ByteBuffer.wrap(value)));
+                result.put(name, unmarshaller.readObject());
+                unmarshaller.finish();
+            }
+        }
+        return result;
+    }
+
+    private DeploymentSessions getDeploymentSessions(String deploymentName) throws IOException {
+        DeploymentSessions sessions = this.deployments.get(deploymentName);
+        if (sessions == null) {
+            synchronized (this.deployments) {
+                sessions = this.deployments.get(deploymentName);
+                if (sessions == null) {
+                    sessions = new DeploymentSessions(new MappedSessionStore(this.getBaseDir().toPath().resolve(deploymentName + ".sessions")));
+                    this.deployments.put(deploymentName, sessions);
+                }
+            }
+        }
+        return sessions;
+    }
+
+    private void flush() {
+        try {
+            for (DeploymentSessions sessions : this.deployments.values()) {
+                this.flush(sessions);
+            }
+        } catch (Exception e) {
+            UndertowServletLogger.ROOT_LOGGER.failedToPersistSessions(e);
+        }
+    }
+
+    /**
+     * Writes the marshalled session changes to the store of a deployment.
+     */
+    private void flush(DeploymentSessions sessions) throws IOException {
+        synchronized (sessions) {
+            MappedSessionStore store = sessions.store;
+            for (Map.Entry<String, Boolean> entry : sessions.destroyed.entrySet()) {
+                String id = entry.getKey();
+                if (entry.getValue()) {
+                    store.removeSession(id);
+                    // Keep swallowing the attribute removals that follow the destruction of the session until the next flush
+                    entry.setValue(Boolean.FALSE);
+                } else {
+                    sessions.destroyed.remove(id);
+                }
+            }
+            for (String id : sessions.dirty.keySet()) {
+                DirtySession session = sessions.dirty.remove(id);
+                if (session != null) {
+                    for (Map.Entry<String, byte[]> attribute : session.attributes.entrySet()) {
+                        if (attribute.getValue() == REMOVED) {
+                            store.removeAttribute(id, attribute.getKey());
+                        } else {
+                            store.writeAttribute(id, attribute.getKey(), attribute.getValue());
+                        }
+                    }
+                    store.writeExpiration(id, session.expiration);
+                }
+            }
+        }
+    }
+
+    /**
+     * Marshals a session attribute.
+     *
+     * @return the marshalled attribute, or null if it could not be marshalled
+     */
+    private byte[] marshal(Marshaller marshaller, String id, String name, Object value) {
+        try {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            marshaller.start(new OutputStreamByteOutput(out));
+            marshaller.writeObject(value);
+            marshaller.finish();
+            return out.toByteArray();
+        } catch (Exception e) {
+            UndertowLogger.ROOT_LOGGER.failedToPersistSessionAttribute(name, value, id, e);
+            return null;
+        }
+    }
+
+    private static class DeploymentSessions {
+        final MappedSessionStore store;
+        // The names of the attributes changed per session, which are marshalled once the request completes
+        final Map<String, Set<String>> changed = new ConcurrentHashMap<>();
+        final Map<String, DirtySession> dirty = new ConcurrentHashMap<>();
+        final Map<String, Boolean> destroyed = new ConcurrentHashMap<>();
+        volatile boolean tracking = false;
+
+        DeploymentSessions(MappedSessionStore store) {
+            this.store = store;
+        }
+    }
+
+    private static class DirtySession {
+        // Guarded by the map entry of this session
+        final Map<String, byte[]> attributes = new HashMap<>();
+        long expiration;
+    }
+
+    /**
+     * Servlet listener that tracks the sessions of a deployment that need to be written, and marshals their changes at the
+     * end of each request.
+     */
+    public class SessionTracker implements HttpSessionListener, HttpSessionAttributeListener, ServletRequestListener {
+        private final String deploymentName;
+
+        SessionTracker(String deploymentName) {
+            this.deploymentName = deploymentName;
+        }
+
+        @Override
+        public void sessionCreated(HttpSessionEvent event) {
+            this.update(event.getSession(), null, false);
+        }
+
+        @Override
+        public void sessionDestroyed(HttpSessionEvent event) {
+            DeploymentSessions sessions = IncrementalPersistentSessionManager.this.deployments.get(this.deploymentName);
+            if ((sessions != null) && sessions.tracking) {
+                String id = event.getSession().getId();
+                sessions.destroyed.put(id, Boolean.TRUE);
+                sessions.changed.remove(id);
+                sessions.dirty.remove(id);
+            }
+        }
+
+        @Override
+        public void attributeAdded(HttpSessionBindingEvent event) {
+            this.update(event.getSession(), event.getName(), false);
+        }
+
+        @Override
+        public void attributeRemoved(HttpSessionBindingEvent event) {
+            this.update(event.getSession(), event.getName(), true);
+        }
+
+        @Override
+        public void attributeReplaced(HttpSessionBindingEvent event) {
+            this.update(event.getSession(), event.getName(), false);
+        }
+
+        @Override
+        public void requestInitialized(ServletRequestEvent event) {
+        }
+
+        @Override
+        public void requestDestroyed(ServletRequestEvent event) {
+            DeploymentSessions sessions = IncrementalPersistentSessionManager.this.deployments.get(this.deploymentName);
+            if ((sessions == null) || !sessions.tracking || !(event.getServletRequest() instanceof HttpServletRequest)) {
+                return;
+            }
+            HttpSession session = ((HttpServletRequest) event.getServletRequest()).getSession(false);
+            if (session == null) {
+                return;
+            }
+            String id = session.getId();
+            Set<String> names = sessions.changed.remove(id);
+            if (names == null) {
+                return;
+            }
+            Map<String, byte[]> attributes = new HashMap<>();
+            long expiration;
+            try {
+                Marshaller marshaller = createMarshaller();
+                try {
+                    for (String name : names) {
+                        Object value = session.getAttribute(name);
+                        byte[] bytes = (value != null) ? IncrementalPersistentSessionManager.this.marshal(marshaller, id, name, value) : REMOVED;
+                        if (bytes != null) {
+                            attributes.put(name, bytes);
+                        }
+                    }
+                } finally {
+                    marshaller.close();
+                }
+                expiration = session.getLastAccessedTime() + (session.getMaxInactiveInterval() * 1000L);
+            } catch (IllegalStateException e) {
+                // The session was invalidated concurrently
+                return;
+            } catch (IOException e) {
+                UndertowServletLogger.ROOT_LOGGER.failedToPersistSessions(e);
+                return;
+            }
+            sessions.dirty.compute(id, (key, dirty) -> {
+                DirtySession result = (dirty != null) ? dirty : new DirtySession();
+                result.attributes.putAll(attributes);
+                result.expiration = expiration;
+                return result;
+            });
+        }
+
+        private void update(HttpSession session, String name, boolean removed) {
+            DeploymentSessions sessions = IncrementalPersistentSessionManager.this.deployments.get(this.deploymentName);
+            if ((sessions != null) && sessions.tracking) {
+                String id = session.getId();
+                // Ignore the attribute removals that follow the destruction of a session
+                if (removed && sessions.destroyed.containsKey(id)) {
+                    return;
+                }
+                sessions.changed.compute(id, (key, names) -> {
+                    Set<String> result = (names != null) ? names : new HashSet<>();
+                    if (name != null) {
+                        result.add(name);
+                    }
+                    return result;
+                });
+            }
+        }
+    }
+}
@@ -0,0 +1,446 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.undertow;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * Persistent store of the serialized sessions of a single deployment, composed of a fixed number of memory-mapped segment files.
+ * Each session is assigned to a segment based on its identifier.
+ * Each segment is an append-only log of checksummed records, which is compacted into a new generation of the segment file when full.
+ * Only the location of each attribute within its segment is retained on the heap; attribute values are read on demand.
+ */
+class MappedSessionStore implements Closeable {
+
+    private static final int SEGMENTS = 16;
+    private static final int INITIAL_SEGMENT_SIZE = 1 << 20;
+    private static final String SEGMENT_PREFIX = "segment-";
+    // Suffix of a segment generation that is still being written
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private static final byte ATTRIBUTE = 1;
+    private static final byte REMOVE_ATTRIBUTE = 2;
+    private static final byte EXPIRATION = 3;
+    private static final byte REMOVE_SESSION = 4;
+
+    // Record header consists of the length of the record body, followed by its checksum
+    private static final int HEADER_SIZE = Integer.BYTES * 2;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    MappedSessionStore(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Map<Integer, Path> files = new HashMap<>();
+        Map<Integer, Integer> generations = new HashMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*")) {
+            for (Path file : stream) {
+                if (file.getFileName().toString().endsWith(TEMP_SUFFIX)) {
+                    // Left behind by an interrupted compaction, the previous generation remains authoritative
+                    Files.deleteIfExists(file);
+                    continue;
+                }
+                String[] parts = file.getFileName().toString().substring(SEGMENT_PREFIX.length()).split("\\.");
+                int index = Integer.parseInt(parts[0]);
+                int generation = Integer.parseInt(parts[1]);
+                Integer current = generations.get(index);
+                if ((current == null) || (generation > current)) {
+                    if (current != null) {
+                        Files.deleteIfExists(files.get(index));
+                    }
+                    files.put(index, file);
+                    generations.put(index, generation);
+                } else {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            throw new IOException(e);
+        }
+        for (int i = 0; i < SEGMENTS; ++i) {
+            Integer generation = generations.get(i);
+            this.segments[i] = (generation != null) ? new Segment(directory, i, generation) : new Segment(directory, i);
+        }
+    }
+
+    /**
+     * Returns the identifiers of the sessions in this store.
+     * @return a set of session identifiers
+     */
+    Set<String> getSessions() {
+        Set<String> result = new HashSet<>();
+        for (Segment segment : this.segments) {
+            synchronized (segment) {
+                result.addAll(segment.sessions.keySet());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the expiration time of the specified session.
+     * @param id a session identifier
+     * @return the expiration time of the session in milliseconds since the epoch, or null if the session does not exist, or has no expiration time.
+     */
+    Long getExpiration(String id) {
+        Segment segment = this.segment(id);
+        synchronized (segment) {
+            SessionRecord session = segment.sessions.get(id);
+            return ((session != null) && (session.expiration != null)) ? session.expiration : null;
+        }
+    }
+
+    /**
+     * Returns the attribute names of the specified session.
+     * @param id a session identifier
+     * @return a set of attribute names
+     */
+    Set<String> getAttributeNames(String id) {
+        Segment segment = this.segment(id);
+        synchronized (segment) {
+            SessionRecord session = segment.sessions.get(id);
+            return (session != null) ? new HashSet<>(session.attributes.keySet()) : Collections.emptySet();
+        }
+    }
+
+    /**
+     * Reads the serialized value of the specified session attribute.
+     * @param id a session identifier
+     * @param name an attribute name
+     * @return the serialized attribute value, or null if no such attribute exists
+     */
+    byte[] readAttribute(String id, String name) {
+        Segment segment = this.segment(id);
+        synchronized (segment) {
+            SessionRecord session = segment.sessions.get(id);
+            Long location = (session != null) ? session.attributes.get(name) : null;
+            if (location == null) {
+                return null;
+            }
+            byte[] value = new byte[length(location)];
+            ByteBuffer buffer = segment.buffer.duplicate();
+            buffer.position(offset(location));
+            buffer.get(value);
+            return value;
+        }
+    }
+
+    void writeAttribute(String id, String name, byte[] value) throws IOException {
+        this.segment(id).append(ATTRIBUTE, id, name, value, 0L);
+    }
+
+    void removeAttribute(String id, String name) throws IOException {
+        this.segment(id).append(REMOVE_ATTRIBUTE, id, name, null, 0L);
+    }
+
+    void writeExpiration(String id, long expiration) throws IOException {
+        this.segment(id).append(EXPIRATION, id, null, null, expiration);
+    }
+
+    void removeSession(String id) throws IOException {
+        Segment segment = this.segment(id);
+        synchronized (segment) {
+            if (segment.sessions.containsKey(id)) {
+                segment.append(REMOVE_SESSION, id, null, null, 0L);
+            }
+        }
+    }
+
+    /**
+     * Forces any changes to this store to the storage device.
+     */
+    void flush() {
+        for (Segment segment : this.segments) {
+            synchronized (segment) {
+                segment.buffer.force();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        this.flush();
+    }
+
+    private Segment segment(String id) {
+        int hash = id.hashCode();
+        return this.segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    private static long location(int offset, int length) {
+        return (((long) offset) << 32) | (length & 0xFFFFFFFFL);
+    }
+
+    private static int offset(long location) {
+        return (int) (location >>> 32);
+    }
+
+    private static int length(long location) {
+        return (int) location;
+    }
+
+    private static class SessionRecord {
+        // Location of serialized value per attribute name
+        final Map<String, Long> attributes = new HashMap<>();
+        Long expiration;
+    }
+
+    private static class Segment {
+        private final Path directory;
+        private final int index;
+        private final Map<String, SessionRecord> sessions = new HashMap<>();
+        private int generation;
+        private Path file;
+        private MappedByteBuffer buffer;
+
+        Segment(Path directory, int index) throws IOException {
+            this.directory = directory;
+            this.index = index;
+            this.generation = 0;
+            this.file = this.path(this.generation);
+            this.buffer = map(this.file, INITIAL_SEGMENT_SIZE);
+        }
+
+        Segment(Path directory, int index, int generation) throws IOException {
+            this.directory = directory;
+            this.index = index;
+            this.generation = generation;
+            this.file = this.path(generation);
+            this.buffer = map(this.file, (int) Math.max(Files.size(this.file), INITIAL_SEGMENT_SIZE));
+            this.replay();
+        }
+
+        private Path path(int generation) {
+            return this.directory.resolve(SEGMENT_PREFIX + this.index + "." + generation);
+        }
+
+        private static MappedByteBuffer map(Path file, int size) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            }
+        }
+
+        /**
+         * Rebuilds the index of this segment from its log, stopping at the first incomplete or corrupt record.
+         */
+        private void replay() {
+            MappedByteBuffer buffer = this.buffer;
+            int position = 0;
+            while (position + HEADER_SIZE <= buffer.capacity()) {
+                int length = buffer.getInt(position);
+                int checksum = buffer.getInt(position + Integer.BYTES);
+                int start = position + HEADER_SIZE;
+                if ((length <= 0) || (length > buffer.capacity() - start) || (checksum(buffer, start, length) != checksum)) {
+                    break;
+                }
+                buffer.position(start);
+                byte type = buffer.get();
+                String id = readString(buffer);
+                switch (type) {
+                    case ATTRIBUTE: {
+                        String name = readString(buffer);
+                        int valueLength = buffer.getInt();
+                        this.sessions.computeIfAbsent(id, key -> new SessionRecord()).attributes.put(name, location(buffer.position(), valueLength));
+                        break;
+                    }
+                    case REMOVE_ATTRIBUTE: {
+                        String name = readString(buffer);
+                        SessionRecord session = this.sessions.get(id);
+                        if (session != null) {
+                            session.attributes.remove(name);
+                        }
+                        break;
+                    }
+                    case EXPIRATION: {
+                        this.sessions.computeIfAbsent(id, key -> new SessionRecord()).expiration = buffer.getLong();
+                        break;
+                    }
+                    case REMOVE_SESSION: {
+                        this.sessions.remove(id);
+                        break;
+                    }
+                    default: {
+                        // Unknown record type, treat as corrupt
+                        return;
+                    }
+                }
+                position = start + length;
+            }
+            buffer.position(position);
+        }
+
+        synchronized void append(byte type, String id, String name, byte[] value, long expiration) throws IOException {
+            byte[] idBytes = id.getBytes(StandardCharsets.UTF_8);
+            byte[] nameBytes = (name != null) ? name.getBytes(StandardCharsets.UTF_8) : null;
+            int length = Byte.BYTES + Integer.BYTES + idBytes.length;
+            if (nameBytes != null) {
+                length += Integer.BYTES + nameBytes.length;
+            }
+            if (value != null) {
+                length += Integer.BYTES + value.length;
+            }
+            if (type == EXPIRATION) {
+                length += Long.BYTES;
+            }
+            // Reserve room for the header of the subsequent record
+            if (this.buffer.position() + HEADER_SIZE + length + HEADER_SIZE > this.buffer.capacity()) {
+                this.compact(HEADER_SIZE + length + HEADER_SIZE);
+            }
+            MappedByteBuffer buffer = this.buffer;
+            int position = buffer.position();
+            int start = position + HEADER_SIZE;
+            buffer.position(start);
+            buffer.put(type);
+            writeBytes(buffer, idBytes);
+            if (nameBytes != null) {
+                writeBytes(buffer, nameBytes);
+            }
+            int valuePosition = buffer.position() + Integer.BYTES;
+            if (value != null) {
+                writeBytes(buffer, value);
+            }
+            if (type == EXPIRATION) {
+                buffer.putLong(expiration);
+            }
+            int end = buffer.position();
+            // Invalidate any stale header following this record, then publish this record by writing its header
+            buffer.putInt(end, 0);
+            buffer.putInt(position + Integer.BYTES, checksum(buffer, start, length));
+            buffer.putInt(position, length);
+            buffer.position(end);
+
+            switch (type) {
+                case ATTRIBUTE: {
+                    this.sessions.computeIfAbsent(id, key -> new SessionRecord()).attributes.put(name, location(valuePosition, value.length));
+                    break;
+                }
+                case REMOVE_ATTRIBUTE: {
+                    SessionRecord session = this.sessions.get(id);
+                    if (session != null) {
+                        session.attributes.remove(name);
+                    }
+                    break;
+                }
+                case EXPIRATION: {
+                    this.sessions.computeIfAbsent(id, key -> new SessionRecord()).expiration = expiration;
+                    break;
+                }
+                default: {
+                    this.sessions.remove(id);
+                }
+            }
+        }
+
+        /**
+         * Rewrites the live records of this segment into a new generation of the segment file, large enough to append the specified number of bytes.
+         */
+        private void compact(int required) throws IOException {
+            MappedByteBuffer source = this.buffer;
+            int live = 0;
+            for (Map.Entry<String, SessionRecord> entry : this.sessions.entrySet()) {
+                int idLength = Integer.BYTES + entry.getKey().getBytes(StandardCharsets.UTF_8).length;
+                live += HEADER_SIZE + Byte.BYTES + idLength + Long.BYTES;
+                for (Map.Entry<String, Long> attribute : entry.getValue().attributes.entrySet()) {
+                    live += HEADER_SIZE + Byte.BYTES + idLength + Integer.BYTES + attribute.getKey().getBytes(StandardCharsets.UTF_8).length + Integer.BYTES + length(attribute.getValue());
+                }
+            }
+            long size = source.capacity();
+            // Grow the segment if it would be more than half full after compaction
+            while ((live + required) * 2L > size) {
+                size *= 2;
+            }
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException(this.file.toString());
+            }
+            int generation = this.generation + 1;
+            Path file = this.path(generation);
+            // Write the new generation under a temporary name, so that an interrupted compaction never supersedes the current generation
+            Path temp = file.resolveSibling(file.getFileName() + TEMP_SUFFIX);
+            Files.deleteIfExists(temp);
+            MappedByteBuffer target = map(temp, (int) size);
+
+            Map<String, SessionRecord> sessions = new HashMap<>(this.sessions);
+            this.sessions.clear();
+            this.buffer = target;
+            for (Map.Entry<String, SessionRecord> entry : sessions.entrySet()) {
+                String id = entry.getKey();
+                SessionRecord session = entry.getValue();
+                for (Map.Entry<String, Long> attribute : session.attributes.entrySet()) {
+                    long location = attribute.getValue();
+                    byte[] value = new byte[length(location)];
+                    ByteBuffer buffer = source.duplicate();
+                    buffer.position(offset(location));
+                    buffer.get(value);
+                    this.append(ATTRIBUTE, id, attribute.getKey(), value, 0L);
+                }
+                if (session.expiration != null) {
+                    this.append(EXPIRATION, id, null, null, session.expiration);
+                }
+            }
+            target.force();
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+            Path previous = this.file;
+            this.file = file;
+            this.generation = generation;
+            try {
+                Files.deleteIfExists(previous);
+            } catch (IOException e) {
+                // Some platforms prevent deletion of a mapped file, in which case the stale generation is deleted on next load
+            }
+        }
+
+        private static int checksum(MappedByteBuffer buffer, int start, int length) {
+            ByteBuffer view = buffer.duplicate();
+            view.position(start);
+            view.limit(start + length);
+            CRC32 checksum = new CRC32();
+            checksum.update(view);
+            return (int) checksum.getValue();
+        }
+
+        private static void writeBytes(MappedByteBuffer buffer, byte[] bytes) {
+            buffer.putInt(bytes.length);
+            buffer.put(bytes);
+        }
+
+        private static String readString(MappedByteBuffer buffer) {
+            byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -42,12 +42,13 @@ enum Namespace {
     UNDERTOW_4_0("urn:jboss:domain:undertow:4.0"),
     UNDERTOW_5_0("urn:jboss:domain:undertow:5.0"),
     UNDERTOW_6_0("urn:jboss:domain:undertow:6.0"),
-    UNDERTOW_7_0("urn:jboss:domain:undertow:7.0");
+    UNDERTOW_7_0("urn:jboss:domain:undertow:7.0"),
+    UNDERTOW_8_0("urn:jboss:domain:undertow:8.0");
 
     /**
      * The current namespace version.
      */
-    public static final Namespace CURRENT = UNDERTOW_7_0;
+    public static final Namespace CURRENT = UNDERTOW_8_0;
 
     private final String name;
 
@@ -124,6 +124,7 @@ import org.jboss.security.config.SecurityConfiguration;
 import org.jboss.vfs.VirtualFile;
 import org.wildfly.extension.requestcontroller.ControlPoint;
 import org.wildfly.extension.undertow.Host;
+import org.wildfly.extension.undertow.IncrementalPersistentSessionManager;
 import org.wildfly.extension.undertow.JSPConfig;
 import org.wildfly.extension.undertow.ServletContainerService;
 import org.wildfly.extension.undertow.SessionCookieConfig;
@@ -406,7 +407,9 @@ public class UndertowDeploymentInfoService implements Service<DeploymentInfo> {
             }
             deploymentInfo.setServerName(serverEnvironmentInjectedValue.getValue().getProductConfig().getPrettyVersionString());
             if (undertowService.getValue().isStatisticsEnabled()) {
-                deploymentInfo.setMetricsCollector(new UndertowMetricsCollector());
+                UndertowMetricsCollector metricsCollector = new UndertowMetricsCollector();
+                deploymentInfo.setMetricsCollector(metricsCollector);
+                deploymentInfo.addInnerHandlerChainWrapper(metricsCollector);
             }
 
             ControlPoint controlPoint = controlPointInjectedValue.getOptionalValue();
@@ -620,6 +623,10 @@ public class UndertowDeploymentInfoService implements Service<DeploymentInfo> {
 
             if (servletContainer.getSessionPersistenceManager() != null) {
                 d.setSessionPersistenceManager(servletContainer.getSessionPersistenceManager());
+                if (servletContainer.getSessionPersistenceManager() instanceof IncrementalPersistentSessionManager) {
+                    IncrementalPersistentSessionManager.SessionTracker tracker = ((IncrementalPersistentSessionManager) servletContainer.getSessionPersistenceManager()).createSessionListener(d.getDeploymentName());
+                    d.addListener(Servlets.listener(IncrementalPersistentSessionManager.SessionTracker.class, new ImmediateInstanceFactory<EventListener>(tracker)));
+                }
             }
 
             //for 2.2 apps we do not require a leading / in path mappings
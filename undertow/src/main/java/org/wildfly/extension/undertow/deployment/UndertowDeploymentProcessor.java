@@ -460,7 +460,7 @@ public class UndertowDeploymentProcessor implements DeploymentUnitProcessor {
         ServiceName name = deploymentServiceName.append("session");
         if (metaData.getDistributable() != null) {
             if (DistributableSessionManagerFactoryServiceConfiguratorProvider.INSTANCE.isPresent()) {
-                DistributableSessionManagerConfiguration config = new SimpleDistributableSessionManagerConfiguration(maxActiveSessions, metaData.getReplicationConfig(), serverName, deploymentName, module);
+                DistributableSessionManagerConfiguration config = new SimpleDistributableSessionManagerConfiguration(maxActiveSessions, metaData.getReplicationConfig(), SimpleDistributableSessionManagerConfiguration.isDeltaReplicationEnabled(metaData), SimpleDistributableSessionManagerConfiguration.getImmutableClassNames(metaData), SimpleDistributableSessionManagerConfiguration.getAccessReplicationThreshold(metaData), serverName, deploymentName, module);
                 return DistributableSessionManagerFactoryServiceConfiguratorProvider.INSTANCE.get().getServiceConfigurator(name, config);
             }
             // Fallback to local session manager if server does not support clustering
@@ -24,19 +24,32 @@ package org.wildfly.extension.undertow.deployment;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
+import io.undertow.server.HandlerWrapper;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
 import io.undertow.server.handlers.MetricsHandler;
 import io.undertow.servlet.api.MetricsCollector;
+import io.undertow.servlet.handlers.ServletRequestContext;
+import org.jboss.as.ee.utils.TimeHistogram;
 
 /**
+ * Collects the metrics of each servlet of a deployment.
+ * In addition to the totals maintained by Undertow's {@link MetricsHandler}, records the distribution of request times
+ * of each servlet in a {@link TimeHistogram}, when installed as an inner handler chain wrapper of the deployment.
+ *
  * @author Tomaz Cerar (c) 2014 Red Hat Inc.
  */
-public class UndertowMetricsCollector implements MetricsCollector {
+public class UndertowMetricsCollector implements MetricsCollector, HandlerWrapper {
     private final Map<String, MetricsHandler> metrics = new HashMap<>();
+    private final Map<String, TimeHistogram> histograms = new ConcurrentHashMap<>();
 
     @Override
     public void registerMetric(String name, MetricsHandler handler) {
         metrics.put(name, handler);
+        histograms.put(name, new TimeHistogram());
     }
 
     public MetricsHandler.MetricResult getMetrics(String name) {
@@ -45,4 +58,48 @@ public class UndertowMetricsCollector implements MetricsCollector {
         }
         return null;
     }
+
+    public TimeHistogram getRequestTimeHistogram(String name) {
+        return histograms.get(name);
+    }
+
+    @Override
+    public HttpHandler wrap(HttpHandler handler) {
+        return new RequestTimeHandler(handler);
+    }
+
+    private class RequestTimeHandler implements HttpHandler {
+        private final HttpHandler next;
+
+        RequestTimeHandler(HttpHandler next) {
+            this.next = next;
+        }
+
+        @Override
+        public void handleRequest(HttpServerExchange exchange) throws Exception {
+            final ServletRequestContext context = exchange.getAttachment(ServletRequestContext.ATTACHMENT_KEY);
+            final TimeHistogram histogram = (context != null) ? histograms.get(context.getCurrentServlet().getManagedServlet().getServletInfo().getName()) : null;
+            if (histogram == null) {
+                next.handleRequest(exchange);
+                return;
+            }
+            final long start = System.nanoTime();
+            try {
+                next.handleRequest(exchange);
+            } finally {
+                // Only asynchronous requests need a completion listener, so synchronous requests are recorded without allocating
+                if (context.getServletRequest().isAsyncStarted()) {
+                    exchange.addExchangeCompleteListener((completed, nextListener) -> {
+                        try {
+                            histogram.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+                        } finally {
+                            nextListener.proceed();
+                        }
+                    });
+                } else {
+                    histogram.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+                }
+            }
+        }
+    }
 }
@@ -410,4 +410,7 @@ public interface UndertowLogger extends BasicLogger {
     @LogMessage(level = WARN)
     @Message(id = 101, value = "Duplicate servlet mapping %s found")
     void duplicateServletMapping(String mapping);
+
+    @Message(id = 102, value = "Invalid value '%s' of context parameter %s, expected a fraction between 0 and 1")
+    IllegalArgumentException invalidAccessReplicationThreshold(String value, String parameter);
 }
@@ -21,14 +21,35 @@
  */
 package org.wildfly.extension.undertow.session;
 
+import java.util.Set;
+
 import org.jboss.metadata.web.jboss.ReplicationGranularity;
 import org.jboss.modules.Module;
 
 public interface DistributableSessionManagerConfiguration {
+    /**
+     * Name of the servlet context parameter that enables delta replication of session attributes.
+     */
+    String DELTA_REPLICATION_PARAMETER = "org.wildfly.clustering.web.DELTA_REPLICATION";
+    /**
+     * Name of the servlet context parameter listing the comma or whitespace delimited names of application classes whose instances are immutable.
+     */
+    String IMMUTABLE_CLASSES_PARAMETER = "org.wildfly.clustering.web.IMMUTABLE_CLASSES";
+    /**
+     * Name of the servlet context parameter specifying the fraction of the max inactive interval by which the last accessed time of a session must advance before it is replicated.
+     */
+    String ACCESS_REPLICATION_THRESHOLD_PARAMETER = "org.wildfly.clustering.web.ACCESS_REPLICATION_THRESHOLD";
+
     int getMaxActiveSessions();
 
     ReplicationGranularity getGranularity();
 
+    boolean isDeltaReplicationEnabled();
+
+    Set<String> getImmutableClassNames();
+
+    double getAccessReplicationThreshold();
+
     String getServerName();
 
     String getDeploymentName();
@@ -21,10 +21,17 @@
  */
 package org.wildfly.extension.undertow.session;
 
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.jboss.metadata.javaee.spec.ParamValueMetaData;
 import org.jboss.metadata.web.jboss.JBossWebMetaData;
 import org.jboss.metadata.web.jboss.ReplicationConfig;
 import org.jboss.metadata.web.jboss.ReplicationGranularity;
 import org.jboss.modules.Module;
+import org.wildfly.extension.undertow.logging.UndertowLogger;
 
 /**
  * Simple {@link DistributableSessionManagerConfiguration} implementation that delegates to {@link JBossWebMetaData}.
@@ -37,18 +44,28 @@ public class SimpleDistributableSessionManagerConfiguration implements Distribut
     private final String serverName;
     private final String deploymentName;
     private final Module module;
+    private final boolean deltaReplication;
+    private final Set<String> immutableClassNames;
+    private final double accessReplicationThreshold;
 
     public SimpleDistributableSessionManagerConfiguration(JBossWebMetaData metaData, String serverName, String deploymentName, Module module) {
-        this(metaData.getMaxActiveSessions(), metaData.getReplicationConfig(), serverName, deploymentName, module);
+        this(metaData.getMaxActiveSessions(), metaData.getReplicationConfig(), isDeltaReplicationEnabled(metaData), getImmutableClassNames(metaData), getAccessReplicationThreshold(metaData), serverName, deploymentName, module);
     }
 
     public SimpleDistributableSessionManagerConfiguration(SharedSessionManagerConfig config, String serverName, String deploymentName, Module module) {
-        this(config.getMaxActiveSessions(), config.getReplicationConfig(), serverName, deploymentName, module);
+        this(config.getMaxActiveSessions(), config.getReplicationConfig(), false, Collections.emptySet(), 0, serverName, deploymentName, module);
+    }
+
+    public SimpleDistributableSessionManagerConfiguration(Integer maxActiveSessions, ReplicationConfig replicationConfig, boolean deltaReplication, String serverName, String deploymentName, Module module) {
+        this(maxActiveSessions, replicationConfig, deltaReplication, Collections.emptySet(), 0, serverName, deploymentName, module);
     }
 
-    public SimpleDistributableSessionManagerConfiguration(Integer maxActiveSessions, ReplicationConfig replicationConfig, String serverName, String deploymentName, Module module) {
+    public SimpleDistributableSessionManagerConfiguration(Integer maxActiveSessions, ReplicationConfig replicationConfig, boolean deltaReplication, Set<String> immutableClassNames, double accessReplicationThreshold, String serverName, String deploymentName, Module module) {
         this.maxActiveSessions = maxActiveSessions;
         this.replicationConfig = replicationConfig;
+        this.deltaReplication = deltaReplication;
+        this.immutableClassNames = immutableClassNames;
+        this.accessReplicationThreshold = accessReplicationThreshold;
         this.serverName = serverName;
         this.deploymentName = deploymentName;
         this.module = module;
@@ -64,6 +81,21 @@ public class SimpleDistributableSessionManagerConfiguration implements Distribut
         return ((this.replicationConfig != null) && (this.replicationConfig.getReplicationGranularity() != null)) ? this.replicationConfig.getReplicationGranularity() : ReplicationGranularity.SESSION;
     }
 
+    @Override
+    public boolean isDeltaReplicationEnabled() {
+        return this.deltaReplication;
+    }
+
+    @Override
+    public Set<String> getImmutableClassNames() {
+        return this.immutableClassNames;
+    }
+
+    @Override
+    public double getAccessReplicationThreshold() {
+        return this.accessReplicationThreshold;
+    }
+
     @Override
     public String getServerName() {
         return this.serverName;
@@ -83,4 +115,74 @@ public class SimpleDistributableSessionManagerConfiguration implements Distribut
     public String getCacheName() {
         return (this.replicationConfig != null) ? this.replicationConfig.getCacheName() : null;
     }
+
+    /**
+     * Indicates whether the specified web application enables delta replication of session attributes via the {@link #DELTA_REPLICATION_PARAMETER} context parameter.
+     * @param metaData web application meta data
+     * @return true, if delta replication is enabled, false otherwise
+     */
+    public static boolean isDeltaReplicationEnabled(JBossWebMetaData metaData) {
+        List<ParamValueMetaData> params = metaData.getContextParams();
+        if (params != null) {
+            for (ParamValueMetaData param : params) {
+                if (DELTA_REPLICATION_PARAMETER.equals(param.getParamName())) {
+                    return Boolean.parseBoolean(param.getParamValue());
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the names of the application classes that the specified web application declares as immutable via the {@link #IMMUTABLE_CLASSES_PARAMETER} context parameter.
+     * @param metaData web application meta data
+     * @return a set of class names, possibly empty
+     */
+    public static Set<String> getImmutableClassNames(JBossWebMetaData metaData) {
+        List<ParamValueMetaData> params = metaData.getContextParams();
+        if (params != null) {
+            for (ParamValueMetaData param : params) {
+                if (IMMUTABLE_CLASSES_PARAMETER.equals(param.getParamName()) && (param.getParamValue() != null)) {
+                    Set<String> names = new LinkedHashSet<>();
+                    for (String name : param.getParamValue().split("[,\\s]+")) {
+                        if (!name.isEmpty()) {
+                            names.add(name);
+                        }
+                    }
+                    return Collections.unmodifiableSet(names);
+                }
+            }
+        }
+        return Collections.emptySet();
+    }
+
+    /**
+     * Returns the fraction of the max inactive interval by which the last accessed time of a session must advance before it is replicated,
+     * as specified by the {@link #ACCESS_REPLICATION_THRESHOLD_PARAMETER} context parameter of the specified web application.
+     * @param metaData web application meta data
+     * @return a fraction between 0 and 1, where 0 replicates every access
+     * @throws IllegalArgumentException if the context parameter is not a fraction between 0 and 1
+     */
+    public static double getAccessReplicationThreshold(JBossWebMetaData metaData) {
+        List<ParamValueMetaData> params = metaData.getContextParams();
+        if (params != null) {
+            for (ParamValueMetaData param : params) {
+                if (ACCESS_REPLICATION_THRESHOLD_PARAMETER.equals(param.getParamName())) {
+                    String value = param.getParamValue();
+                    if (value != null) {
+                        try {
+                            double threshold = Double.parseDouble(value.trim());
+                            if ((threshold >= 0) && (threshold < 1)) {
+                                return threshold;
+                            }
+                        } catch (NumberFormatException e) {
+                            // Fall through
+                        }
+                    }
+                    throw UndertowLogger.ROOT_LOGGER.invalidAccessReplicationThreshold(value, ACCESS_REPLICATION_THRESHOLD_PARAMETER);
+                }
+            }
+        }
+        return 0;
+    }
 }
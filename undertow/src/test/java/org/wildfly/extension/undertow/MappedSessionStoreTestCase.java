@@ -0,0 +1,133 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.undertow;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link MappedSessionStore}.
+ */
+public class MappedSessionStoreTestCase {
+
+    private Path directory;
+
+    @Before
+    public void init() throws IOException {
+        this.directory = Files.createTempDirectory("sessions");
+    }
+
+    @After
+    public void destroy() throws IOException {
+        try (Stream<Path> files = Files.walk(this.directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testReload() throws IOException {
+        try (MappedSessionStore store = new MappedSessionStore(this.directory)) {
+            store.writeAttribute("session1", "a", bytes("1"));
+            store.writeAttribute("session1", "b", bytes("2"));
+            store.writeExpiration("session1", 1000L);
+            store.writeAttribute("session2", "a", bytes("3"));
+            store.writeAttribute("session1", "a", bytes("4"));
+            store.removeAttribute("session1", "b");
+            store.flush();
+        }
+        try (MappedSessionStore store = new MappedSessionStore(this.directory)) {
+            assertEquals(2, store.getSessions().size());
+            assertEquals(Collections.singleton("a"), store.getAttributeNames("session1"));
+            assertArrayEquals(bytes("4"), store.readAttribute("session1", "a"));
+            assertNull(store.readAttribute("session1", "b"));
+            assertEquals(Long.valueOf(1000L), store.getExpiration("session1"));
+            assertArrayEquals(bytes("3"), store.readAttribute("session2", "a"));
+            assertNull(store.getExpiration("session2"));
+
+            store.removeSession("session2");
+            store.flush();
+        }
+        try (MappedSessionStore store = new MappedSessionStore(this.directory)) {
+            assertEquals(Collections.singleton("session1"), store.getSessions());
+            assertTrue(store.getAttributeNames("session2").isEmpty());
+        }
+    }
+
+    @Test
+    public void testCompaction() throws IOException {
+        byte[] value = new byte[64 * 1024];
+        try (MappedSessionStore store = new MappedSessionStore(this.directory)) {
+            // Overwrite the same attribute until its segment must be compacted several times
+            for (int i = 0; i < 100; ++i) {
+                value[0] = (byte) i;
+                store.writeAttribute("session", "a", value);
+                store.writeAttribute("session", "b", bytes(String.valueOf(i)));
+            }
+            assertArrayEquals(value, store.readAttribute("session", "a"));
+            assertArrayEquals(bytes("99"), store.readAttribute("session", "b"));
+            store.flush();
+        }
+        try (MappedSessionStore store = new MappedSessionStore(this.directory)) {
+            assertEquals(Collections.singleton("session"), store.getSessions());
+            assertArrayEquals(value, store.readAttribute("session", "a"));
+            assertArrayEquals(bytes("99"), store.readAttribute("session", "b"));
+        }
+    }
+
+    @Test
+    public void testInterruptedCompaction() throws IOException {
+        try (MappedSessionStore store = new MappedSessionStore(this.directory)) {
+            store.writeAttribute("session", "a", bytes("1"));
+            store.flush();
+        }
+        // Simulate a crash while compacting every segment into a new generation, leaving a truncated file behind
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(this.directory, "segment-*.0")) {
+            for (Path file : stream) {
+                String name = file.getFileName().toString();
+                Files.write(file.resolveSibling(name.substring(0, name.length() - 1) + "1.tmp"), new byte[] { 0, 0, 0, 42, 1, 2 });
+            }
+        }
+        try (MappedSessionStore store = new MappedSessionStore(this.directory)) {
+            assertEquals(Collections.singleton("session"), store.getSessions());
+            assertArrayEquals(bytes("1"), store.readAttribute("session", "a"));
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(this.directory, "*.tmp")) {
+            assertFalse(stream.iterator().hasNext());
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -128,6 +128,8 @@ public class UndertowTransformersTestCase extends AbstractSubsystemTest {
                 .addFailedAttribute(ajpAddress,
                         new FailedOperationTransformationConfig.NewAttributesConfig(
                                 ALLOW_UNESCAPED_CHARACTERS_IN_URL, RFC6265_COOKIE_VALIDATION))
+                .addFailedAttribute(servletContainer.append(UndertowExtension.PATH_PERSISTENT_SESSIONS),
+                        new FailedOperationTransformationConfig.NewAttributesConfig(PersistentSessionsDefinition.INCREMENTAL))
         );
     }
 
@@ -165,6 +167,8 @@ public class UndertowTransformersTestCase extends AbstractSubsystemTest {
                 .addFailedAttribute(ajpAddress,
                         new FailedOperationTransformationConfig.NewAttributesConfig(
                                 ALLOW_UNESCAPED_CHARACTERS_IN_URL))
+                .addFailedAttribute(servletContainer.append(UndertowExtension.PATH_PERSISTENT_SESSIONS),
+                        new FailedOperationTransformationConfig.NewAttributesConfig(PersistentSessionsDefinition.INCREMENTAL))
         );
     }
 